@@ -0,0 +1,90 @@
+package io.valkey.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.Builder;
+import io.valkey.BuilderFactory;
+import io.valkey.Protocol;
+import io.valkey.ReplyDecoder;
+import io.valkey.util.RedisInputStream;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * {@link BuilderFactory} builders, both on a reply which has already been read and, for the
+ * builders which can decode the stream themselves, straight from the stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BuilderBenchmark {
+
+  @Param({"STRING", "LONG", "DOUBLE", "STRING_LIST", "STRING_MAP", "TUPLE_LIST"})
+  String builder;
+
+  private Builder<?> instance;
+  private Object raw;
+  private RedisInputStream in;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    instance = (Builder<?>) BuilderFactory.class.getField(builder).get(null);
+    byte[] reply = SafeEncoder.encode(reply(builder));
+    raw = Protocol.read(new RedisInputStream(new RepeatingInputStream(reply)));
+    in = new RedisInputStream(new RepeatingInputStream(reply));
+  }
+
+  private static String reply(String builder) {
+    switch (builder) {
+      case "STRING":
+        return "$13\r\nbarbarbarfooz\r\n";
+      case "LONG":
+        return ":1234567890\r\n";
+      case "DOUBLE":
+        return "$10\r\n3.14159265\r\n";
+      case "STRING_LIST":
+      case "STRING_MAP":
+        StringBuilder array = new StringBuilder("*20\r\n");
+        for (int i = 0; i < 20; i++) {
+          array.append("$7\r\nfield:").append((char) ('a' + i)).append("\r\n");
+        }
+        return array.toString();
+      case "TUPLE_LIST":
+        StringBuilder tuples = new StringBuilder("*20\r\n");
+        for (int i = 0; i < 10; i++) {
+          tuples.append("$8\r\nmember:").append((char) ('a' + i)).append("\r\n");
+          tuples.append("$4\r\n").append(1000 + i).append("\r\n");
+        }
+        return tuples.toString();
+      default:
+        throw new IllegalArgumentException(builder);
+    }
+  }
+
+  @Benchmark
+  public Object build() {
+    return instance.build(raw);
+  }
+
+  @Benchmark
+  public Object decode() {
+    if (instance instanceof ReplyDecoder) {
+      return Protocol.decode(in, (ReplyDecoder<?>) instance);
+    }
+    return instance.build(Protocol.read(in));
+  }
+}
@@ -0,0 +1,47 @@
+package io.valkey.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.util.JedisClusterCRC16;
+import io.valkey.util.SafeEncoder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CRC16Benchmark {
+
+  @Param({"", "123456789", "hae9Napahngaikeethievubaibogiech", "{user1000}.following"})
+  String key;
+
+  private byte[] binaryKey;
+
+  @Setup
+  public void setup() {
+    binaryKey = SafeEncoder.encode(key);
+  }
+
+  @Benchmark
+  public int getSlot() {
+    return JedisClusterCRC16.getSlot(key);
+  }
+
+  @Benchmark
+  public int getSlotBinary() {
+    return JedisClusterCRC16.getSlot(binaryKey);
+  }
+}
@@ -0,0 +1,139 @@
+package io.valkey.benchmark;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import io.valkey.JedisCluster;
+import io.valkey.mocked.server.StandInCluster;
+
+/**
+ * Routing of {@link JedisCluster} while a third of the slots are migrated back and forth between two
+ * nodes of a {@link StandInCluster}. Each iteration runs one reshard; besides the throughput, the
+ * MOVED, ASK and TRYAGAIN replies and the topology requests (CLUSTER SLOTS) of the clients are
+ * reported, the latter showing refresh storms.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ClusterReshardBenchmark {
+
+  private static final int KEYS = 10000;
+  private static final int LAST_MIGRATED_SLOT = 5460;
+
+  @State(Scope.Benchmark)
+  public static class Cluster {
+
+    /**
+     * How long a reshard takes; an iteration without reshard runs after it.
+     */
+    @Param({"1000"})
+    long reshardMillis;
+
+    StandInCluster cluster;
+    JedisCluster jedis;
+    private CompletableFuture<Void> reshard;
+    private int iteration = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      cluster = new StandInCluster(3).start();
+      jedis = new JedisCluster(new HashSet<>(cluster.getNodes()));
+      for (int i = 0; i < KEYS; i++) {
+        jedis.set("key:" + i, "value:" + i);
+      }
+    }
+
+    @Setup(Level.Iteration)
+    public void reshard() {
+      int target = iteration++ % 2 == 0 ? 1 : 0;
+      reshard = cluster.reshard(0, LAST_MIGRATED_SLOT, target, reshardMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void awaitReshard() {
+      reshard.join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      jedis.close();
+      cluster.close();
+    }
+  }
+
+  /**
+   * The redirections of all threads, counted by the first thread only.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Redirections {
+
+    public long moved;
+    public long asks;
+    public long tryAgains;
+    public long topologyRequests;
+
+    private boolean counting;
+    private long movedBefore;
+    private long asksBefore;
+    private long tryAgainsBefore;
+    private long topologyRequestsBefore;
+
+    @Setup(Level.Iteration)
+    public void setup(Cluster cluster, ThreadParams threads) {
+      counting = threads.getThreadIndex() == 0;
+      movedBefore = cluster.cluster.getMovedCount();
+      asksBefore = cluster.cluster.getAskCount();
+      tryAgainsBefore = cluster.cluster.getTryAgainCount();
+      topologyRequestsBefore = cluster.cluster.getTopologyRequestCount();
+      moved = asks = tryAgains = topologyRequests = 0;
+    }
+
+    void update(StandInCluster cluster) {
+      if (counting) {
+        moved = cluster.getMovedCount() - movedBefore;
+        asks = cluster.getAskCount() - asksBefore;
+        tryAgains = cluster.getTryAgainCount() - tryAgainsBefore;
+        topologyRequests = cluster.getTopologyRequestCount() - topologyRequestsBefore;
+      }
+    }
+  }
+
+  @Benchmark
+  public String get(Cluster cluster, Redirections redirections) {
+    String value = cluster.jedis.get("key:" + ThreadLocalRandom.current().nextInt(KEYS));
+    redirections.update(cluster.cluster);
+    return value;
+  }
+
+  @Benchmark
+  public String set(Cluster cluster, Redirections redirections) {
+    int i = ThreadLocalRandom.current().nextInt(KEYS);
+    String reply = cluster.jedis.set("key:" + i, "value:" + i);
+    redirections.update(cluster.cluster);
+    return reply;
+  }
+}
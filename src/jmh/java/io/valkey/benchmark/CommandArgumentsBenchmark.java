@@ -0,0 +1,77 @@
+package io.valkey.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.ClusterCommandObjects;
+import io.valkey.CommandArguments;
+import io.valkey.CommandObject;
+import io.valkey.CommandObjects;
+import io.valkey.Protocol;
+import io.valkey.params.SetParams;
+
+/**
+ * Building of {@link CommandArguments}, directly and by {@link CommandObjects}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandArgumentsBenchmark {
+
+  private final CommandObjects commandObjects = new CommandObjects();
+  private final CommandObjects clusterCommandObjects = new ClusterCommandObjects();
+  private final SetParams setParams = new SetParams().nx().ex(60);
+  private final Map<String, Double> scoreMembers = new HashMap<>();
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < 10; i++) {
+      scoreMembers.put("member:" + i, (double) i);
+    }
+  }
+
+  @Benchmark
+  public CommandArguments arguments() {
+    return new CommandArguments(Protocol.Command.SET).key("foo").add("bar");
+  }
+
+  @Benchmark
+  public CommandObject<String> set() {
+    return commandObjects.set("foo", "bar");
+  }
+
+  @Benchmark
+  public CommandObject<String> setWithParams() {
+    return commandObjects.set("foo", "bar", setParams);
+  }
+
+  @Benchmark
+  public CommandObject<String> clusterSet() {
+    return clusterCommandObjects.set("foo", "bar");
+  }
+
+  @Benchmark
+  public CommandObject<Long> zadd() {
+    return commandObjects.zadd("foo", scoreMembers);
+  }
+
+  @Benchmark
+  public CommandObject<String> mset() {
+    return commandObjects.mset("k1", "v1", "k2", "v2", "k3", "v3", "k4", "v4");
+  }
+}
@@ -0,0 +1,78 @@
+package io.valkey.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.Connection;
+import io.valkey.ConnectionPool;
+import io.valkey.ConnectionPoolConfig;
+
+/**
+ * Borrow/return churn of the pools without a server, unlike {@link PoolBenchmark}, so that only the
+ * cost of the pools is measured. Run with {@code -t} to vary the contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+  @Param({"false", "true"})
+  boolean concurrent;
+
+  private ConnectionPool pool;
+
+  @Setup
+  public void setup() {
+    ConnectionPoolConfig config = new ConnectionPoolConfig();
+    config.setMaxTotal(16);
+    config.setMaxIdle(16);
+    config.setTestWhileIdle(false);
+    config.setConcurrent(concurrent);
+    pool = ConnectionPool.create(new UnconnectedFactory(), config);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.destroy();
+  }
+
+  @Benchmark
+  public Connection borrowAndReturn() {
+    Connection connection = pool.getResource();
+    pool.returnResource(connection);
+    return connection;
+  }
+
+  private static class UnconnectedFactory extends BasePooledObjectFactory<Connection> {
+
+    @Override
+    public Connection create() {
+      return new Connection();
+    }
+
+    @Override
+    public PooledObject<Connection> wrap(Connection connection) {
+      return new DefaultPooledObject<>(connection);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package io.valkey.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.CommandArguments;
+import io.valkey.Protocol;
+import io.valkey.util.RedisInputStream;
+import io.valkey.util.RedisOutputStream;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * Encoding of commands by {@link Protocol#sendCommand(RedisOutputStream, CommandArguments)} and
+ * decoding of each RESP type by {@link Protocol#read(RedisInputStream)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtocolBenchmark {
+
+  private static final byte[] KEY = SafeEncoder.encode("123456789");
+  private static final byte[] VALUE = SafeEncoder.encode("FooBar");
+
+  @State(Scope.Thread)
+  public static class Output {
+
+    RedisOutputStream out;
+    CommandArguments set;
+    CommandArguments mset;
+
+    @Setup
+    public void setup() {
+      out = new RedisOutputStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+      });
+      set = new CommandArguments(Protocol.Command.SET).key(KEY).add(VALUE);
+      mset = new CommandArguments(Protocol.Command.MSET);
+      for (int i = 0; i < 100; i++) {
+        mset.key(SafeEncoder.encode("key:" + i)).add(i);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Input {
+
+    @Param({"simple", "integer", "bulk", "null-bulk", "array", "map", "set", "double", "boolean",
+        "null", "big-number", "verbatim"})
+    String type;
+
+    RedisInputStream in;
+
+    @Setup
+    public void setup() {
+      in = new RedisInputStream(new RepeatingInputStream(SafeEncoder.encode(reply(type))));
+    }
+
+    private static String reply(String type) {
+      switch (type) {
+        case "simple":
+          return "+OK\r\n";
+        case "integer":
+          return ":1234567890\r\n";
+        case "bulk":
+          return "$13\r\nbarbarbarfooz\r\n";
+        case "null-bulk":
+          return "$-1\r\n";
+        case "array":
+          return "*4\r\n$3\r\nfoo\r\n$13\r\nbarbarbarfooz\r\n$5\r\nHello\r\n$5\r\nWorld\r\n";
+        case "map":
+          return "%2\r\n$3\r\nfoo\r\n:1\r\n$3\r\nbar\r\n:2\r\n";
+        case "set":
+          return "~3\r\n$3\r\nfoo\r\n$3\r\nbar\r\n$3\r\nbaz\r\n";
+        case "double":
+          return ",3.14159265\r\n";
+        case "boolean":
+          return "#t\r\n";
+        case "null":
+          return "_\r\n";
+        case "big-number":
+          return "(3492890328409238509324850943850943825024385\r\n";
+        case "verbatim":
+          return "=15\r\ntxt:Some string\r\n";
+        default:
+          throw new IllegalArgumentException(type);
+      }
+    }
+  }
+
+  @Benchmark
+  public RedisOutputStream sendSet(Output state) throws IOException {
+    Protocol.sendCommand(state.out, state.set);
+    state.out.flush();
+    return state.out;
+  }
+
+  @Benchmark
+  public RedisOutputStream sendMset(Output state) throws IOException {
+    Protocol.sendCommand(state.out, state.mset);
+    state.out.flush();
+    return state.out;
+  }
+
+  @Benchmark
+  public Object read(Input state) {
+    return Protocol.read(state.in);
+  }
+}
@@ -0,0 +1,30 @@
+package io.valkey.benchmark;
+
+import java.io.InputStream;
+
+/**
+ * Serves the same reply over and over, one copy per read, like a socket which receives one reply
+ * per command.
+ */
+class RepeatingInputStream extends InputStream {
+
+  private final byte[] reply;
+
+  RepeatingInputStream(byte[] reply) {
+    this.reply = reply;
+  }
+
+  @Override
+  public int read() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (len < reply.length) {
+      throw new IllegalArgumentException("The buffer is smaller than the reply.");
+    }
+    System.arraycopy(reply, 0, b, off, reply.length);
+    return reply.length;
+  }
+}
@@ -0,0 +1,51 @@
+package io.valkey.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.util.Hashing;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * String encoding and the hashing of keys for client-side sharding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SafeEncoderBenchmark {
+
+  private final String string = "foo bar!";
+  private final byte[] bytes = SafeEncoder.encode(string);
+
+  @Benchmark
+  public byte[] encodeString() {
+    return SafeEncoder.encode(string);
+  }
+
+  @Benchmark
+  public String encodeBytes() {
+    return SafeEncoder.encode(bytes);
+  }
+
+  @Benchmark
+  public long md5() {
+    return Hashing.MD5.hash(bytes);
+  }
+
+  @Benchmark
+  public long murmur() {
+    return Hashing.MURMUR_HASH.hash(bytes);
+  }
+}
@@ -0,0 +1,107 @@
+package io.valkey.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.valkey.DefaultJedisClientConfig;
+import io.valkey.Jedis;
+import io.valkey.JedisPooled;
+import io.valkey.Pipeline;
+import io.valkey.RedisProtocol;
+import io.valkey.mocked.server.StandInServer;
+
+/**
+ * Round trips of the client against an in-process {@link StandInServer}, so that the cost of the
+ * client, including its I/O, is measured without a real server. Run with {@code -t} to vary the
+ * number of threads sharing the pool. The allocations reported by {@code -prof gc} include those of
+ * the server threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandInServerBenchmark {
+
+  private static final String VALUE = "value-with-some-payload-0123456789";
+
+  @State(Scope.Benchmark)
+  public static class Server {
+
+    @Param({"RESP2", "RESP3"})
+    RedisProtocol protocol;
+
+    StandInServer server;
+    JedisPooled pooled;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      server = new StandInServer().start();
+      pooled = new JedisPooled(server.getHostAndPort(),
+          DefaultJedisClientConfig.builder().protocol(protocol).build());
+      pooled.set("foo", VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      pooled.close();
+      server.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Client {
+
+    Jedis jedis;
+
+    @Setup(Level.Trial)
+    public void setup(Server server) {
+      jedis = new Jedis(server.server.getHostAndPort(),
+          DefaultJedisClientConfig.builder().protocol(server.protocol).build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      jedis.close();
+    }
+  }
+
+  @Benchmark
+  public String get(Client client) {
+    return client.jedis.get("foo");
+  }
+
+  @Benchmark
+  public String set(Client client) {
+    return client.jedis.set("foo", VALUE);
+  }
+
+  @Benchmark
+  public List<Object> pipelined(Client client) {
+    Pipeline pipeline = client.jedis.pipelined();
+    for (int i = 0; i < 100; i++) {
+      pipeline.get("foo");
+    }
+    return pipeline.syncAndReturnAll();
+  }
+
+  @Benchmark
+  public String pooledGet(Server server) {
+    return server.pooled.get("foo");
+  }
+}
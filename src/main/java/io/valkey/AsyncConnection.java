@@ -0,0 +1,505 @@
+package io.valkey;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.valkey.commands.ProtocolCommand;
+import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.exceptions.JedisValidationException;
+import io.valkey.util.IOUtils;
+import io.valkey.util.RedisInputStream;
+import io.valkey.util.RedisOutputStream;
+
+/**
+ * A multiplexed, non-blocking connection. Commands are encoded on the calling thread and written by
+ * a single selector loop; replies are matched to their callers in FIFO order and delivered through
+ * {@link CompletableFuture}s. A single instance can keep any number of commands in flight.
+ * <p>
+ * The connection handshake (HELLO/AUTH, CLIENT SETNAME, SELECT, ...) is done in blocking mode using
+ * a regular {@link Connection} before the channel is switched to non-blocking mode.
+ * <p>
+ * Blocking commands (BLPOP, XREAD BLOCK, ...) and commands changing the connection state (MULTI,
+ * WATCH, SELECT, SUBSCRIBE, ...) must not be sent over this connection, as all callers share it.
+ * TLS is not supported.
+ */
+public class AsyncConnection implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncConnection.class);
+
+  private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+
+  private final HostAndPort hostAndPort;
+  private final RedisProtocol protocol;
+  private final SocketChannel channel;
+  private final Selector selector;
+  private final Thread eventLoop;
+
+  private final Object writeLock = new Object();
+  private final OutboundBuffer pendingOutbound = new OutboundBuffer();
+  private final RedisOutputStream encoder = new RedisOutputStream(pendingOutbound);
+  private final OutboundBuffer writingOutbound = new OutboundBuffer();
+  private ByteBuffer writingBuffer = null;
+  private boolean wakeupPending = false;
+
+  private final Queue<PendingReply<?>> pendingReplies = new ConcurrentLinkedQueue<>();
+
+  // only accessed by the event loop
+  private byte[] readBuffer = new byte[INITIAL_READ_BUFFER_SIZE];
+  private int readPosition = 0;   // bytes consumed by the decoder
+  private int frameLimit = 0;     // end of the last complete frame
+  private int writePosition = 0;  // bytes received from the socket
+  private final FrameScanner scanner = new FrameScanner();
+  private final RedisInputStream decoder = new RedisInputStream(new FrameInputStream());
+
+  private volatile boolean closed = false;
+
+  public AsyncConnection(final HostAndPort hostAndPort) {
+    this(hostAndPort, DefaultJedisClientConfig.builder().build());
+  }
+
+  public AsyncConnection(final HostAndPort hostAndPort, final JedisClientConfig clientConfig) {
+    if (clientConfig.isSsl()) {
+      throw new JedisValidationException("TLS is not supported by " + getClass().getSimpleName() + ".");
+    }
+    this.hostAndPort = hostAndPort;
+
+    SocketChannel ch = null;
+    Selector sel = null;
+    try {
+      HostAndPort socketHostAndPort = hostAndPort;
+      HostAndPortMapper mapper = clientConfig.getHostAndPortMapper();
+      if (mapper != null) {
+        HostAndPort mapped = mapper.getHostAndPort(hostAndPort);
+        if (mapped != null) {
+          socketHostAndPort = mapped;
+        }
+      }
+
+      ch = SocketChannel.open();
+      ch.socket().setKeepAlive(true);
+      ch.socket().setTcpNoDelay(true);
+      ch.socket().connect(new InetSocketAddress(socketHostAndPort.getHost(), socketHostAndPort.getPort()),
+          clientConfig.getConnectionTimeoutMillis());
+      ch.socket().setSoTimeout(clientConfig.getSocketTimeoutMillis());
+
+      // handshake in blocking mode; the Connection is intentionally not closed as it shares the socket
+      final SocketChannel handshakeChannel = ch;
+      Connection handshake = new Connection(() -> handshakeChannel.socket(), clientConfig);
+      this.protocol = handshake.getRedisProtocol();
+
+      ch.configureBlocking(false);
+      sel = Selector.open();
+      ch.register(sel, SelectionKey.OP_READ);
+    } catch (IOException ioe) {
+      IOUtils.closeQuietly(sel);
+      IOUtils.closeQuietly(ch);
+      throw new JedisConnectionException("Failed to open asynchronous connection to " + hostAndPort, ioe);
+    } catch (RuntimeException re) {
+      IOUtils.closeQuietly(sel);
+      IOUtils.closeQuietly(ch);
+      throw re;
+    }
+    this.channel = ch;
+    this.selector = sel;
+
+    this.eventLoop = new Thread(this::runEventLoop, "valkey-async-" + hostAndPort);
+    this.eventLoop.setDaemon(true);
+    this.eventLoop.start();
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncConnection{" + hostAndPort + "}";
+  }
+
+  public final HostAndPort getHostAndPort() {
+    return hostAndPort;
+  }
+
+  public final RedisProtocol getRedisProtocol() {
+    return protocol;
+  }
+
+  public boolean isOpen() {
+    return !closed;
+  }
+
+  /**
+   * @return the number of commands written (or queued to be written) that have not received a reply
+   */
+  public int getInFlightCount() {
+    return pendingReplies.size();
+  }
+
+  public CompletableFuture<Object> executeCommand(final ProtocolCommand cmd) {
+    return executeCommand(new CommandArguments(cmd));
+  }
+
+  public CompletableFuture<Object> executeCommand(final CommandArguments args) {
+    return executeCommand(new CommandObject<>(args, BuilderFactory.RAW_OBJECT));
+  }
+
+  public <T> CompletableFuture<T> executeCommand(final CommandObject<T> commandObject) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    boolean wakeup = false;
+    synchronized (writeLock) {
+      if (closed) {
+        future.completeExceptionally(new JedisConnectionException("Connection is closed."));
+        return future;
+      }
+      try {
+        Protocol.sendCommand(encoder, commandObject.getArguments());
+        encoder.flush();
+      } catch (IOException ioe) {
+        // not expected, the encoder writes into memory
+        future.completeExceptionally(new JedisConnectionException(ioe));
+        return future;
+      }
+      pendingReplies.add(new PendingReply<>(commandObject.getBuilder(), future));
+      if (!wakeupPending) {
+        wakeupPending = true;
+        wakeup = true;
+      }
+    }
+    if (wakeup) {
+      selector.wakeup();
+    }
+    return future;
+  }
+
+  @Override
+  public void close() {
+    synchronized (writeLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    selector.wakeup();
+  }
+
+  private void runEventLoop() {
+    JedisConnectionException failure = null;
+    try {
+      final SelectionKey key = channel.keyFor(selector);
+      while (!closed) {
+        selector.select();
+        selector.selectedKeys().clear();
+
+        if (key.isValid() && key.isReadable()) {
+          readReplies();
+        }
+        writeOutbound(key);
+      }
+    } catch (IOException ioe) {
+      failure = new JedisConnectionException(ioe);
+    } catch (JedisConnectionException jce) {
+      failure = jce;
+    } catch (RuntimeException re) {
+      logger.error("Unexpected error in event loop of {}.", this, re);
+      failure = new JedisConnectionException(re);
+    } finally {
+      synchronized (writeLock) {
+        closed = true;
+      }
+      IOUtils.closeQuietly(selector);
+      IOUtils.closeQuietly(channel);
+      if (failure == null) {
+        failure = new JedisConnectionException("Connection is closed.");
+      }
+      PendingReply<?> pending;
+      while ((pending = pendingReplies.poll()) != null) {
+        pending.future.completeExceptionally(failure);
+      }
+    }
+  }
+
+  private void writeOutbound(SelectionKey key) throws IOException {
+    while (true) {
+      if (writingBuffer == null) {
+        synchronized (writeLock) {
+          wakeupPending = false;
+          if (pendingOutbound.count == 0) {
+            break;
+          }
+          // swap the buffers, so that callers may keep encoding while the event loop writes
+          pendingOutbound.moveTo(writingOutbound);
+        }
+        writingBuffer = ByteBuffer.wrap(writingOutbound.buf, 0, writingOutbound.count);
+      }
+
+      channel.write(writingBuffer);
+      if (writingBuffer.hasRemaining()) {
+        // socket buffer is full; continue when the channel becomes writable
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return;
+      }
+      writingBuffer = null;
+      writingOutbound.count = 0;
+    }
+    key.interestOps(SelectionKey.OP_READ);
+  }
+
+  private void readReplies() throws IOException {
+    while (true) {
+      if (writePosition == readBuffer.length) {
+        compactOrGrowReadBuffer();
+      }
+      final int read = channel.read(ByteBuffer.wrap(readBuffer, writePosition, readBuffer.length - writePosition));
+      if (read < 0) {
+        throw new JedisConnectionException("Unexpected end of stream.");
+      }
+      if (read == 0) {
+        return;
+      }
+      writePosition += read;
+
+      int frameEnd;
+      while ((frameEnd = scanner.scan(readBuffer, writePosition)) >= 0) {
+        final boolean push = readBuffer[frameLimit] == Protocol.GREATER_THAN_BYTE;
+        frameLimit = frameEnd;
+        if (push) {
+          Object message = Protocol.read(decoder);
+          logger.debug("Ignoring push message on {}: {}", this, message);
+        } else {
+          completeReply();
+        }
+      }
+
+      if (readPosition == writePosition) {
+        readPosition = frameLimit = writePosition = 0;
+        scanner.position = 0;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void completeReply() {
+    final PendingReply<Object> pending = (PendingReply<Object>) pendingReplies.poll();
+    if (pending == null) {
+      throw new JedisConnectionException("Received a reply without a pending command.");
+    }
+    final Object reply;
+    try {
+      reply = Protocol.read(decoder);
+    } catch (JedisDataException de) {
+      pending.future.completeExceptionally(de);
+      return;
+    }
+    try {
+      pending.future.complete(pending.builder.build(reply));
+    } catch (RuntimeException re) {
+      pending.future.completeExceptionally(re);
+    }
+  }
+
+  private void compactOrGrowReadBuffer() {
+    if (readPosition > 0) {
+      System.arraycopy(readBuffer, readPosition, readBuffer, 0, writePosition - readPosition);
+      frameLimit -= readPosition;
+      scanner.shift(readPosition);
+      writePosition -= readPosition;
+      readPosition = 0;
+    } else {
+      readBuffer = Arrays.copyOf(readBuffer, readBuffer.length << 1);
+    }
+  }
+
+  /**
+   * Finds the end of the RESP frame starting at {@code pos}.
+   *
+   * @return the index right after the frame, or {@code -1} if the frame is not complete yet
+   */
+  static int scanFrame(final byte[] buf, final int pos, final int limit) {
+    final FrameScanner scanner = new FrameScanner();
+    scanner.position = pos;
+    return scanner.scan(buf, limit);
+  }
+
+  /**
+   * Finds the ends of RESP frames, resuming where the previous scan of an incomplete frame stopped
+   * instead of scanning the frame from its start again on each read. The nesting of aggregates is
+   * kept as a stack of their remaining element counts.
+   */
+  static final class FrameScanner {
+
+    private int position = 0;   // start of the next element to scan
+    private long[] remaining = new long[8];
+    private int depth = 0;
+
+    /**
+     * @return the index right after the frame, or {@code -1} if the frame is not complete up to
+     * {@code limit}; the next scan continues from where this one stopped
+     */
+    int scan(final byte[] buf, final int limit) {
+      while (position < limit) {
+        final int lineEnd = findCrLf(buf, position + 1, limit);
+        if (lineEnd < 0) {
+          return -1;
+        }
+        int next = lineEnd + 2;
+        switch (buf[position]) {
+          case Protocol.DOLLAR_BYTE:
+          case Protocol.EQUAL_BYTE: {
+            final long length = parseLength(buf, position + 1, lineEnd);
+            if (length >= 0) {
+              final long end = next + length + 2;
+              if (end > limit) {
+                return -1;
+              }
+              next = (int) end;
+            }
+            break;
+          }
+          case Protocol.ASTERISK_BYTE:
+          case Protocol.TILDE_BYTE:
+          case Protocol.GREATER_THAN_BYTE:
+          case Protocol.PERCENT_BYTE: {
+            long elements = parseLength(buf, position + 1, lineEnd);
+            if (buf[position] == Protocol.PERCENT_BYTE) {
+              elements <<= 1;
+            }
+            if (elements > 0) {
+              push(elements);
+              position = next;
+              continue;
+            }
+            break;
+          }
+          default:
+            break;
+        }
+        position = next;
+        // an element is complete, and so is each enclosing aggregate whose last element it was
+        while (depth > 0 && --remaining[depth - 1] == 0) {
+          depth--;
+        }
+        if (depth == 0) {
+          return position;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Moves the scan position, after the read buffer was compacted by {@code offset} bytes.
+     */
+    void shift(final int offset) {
+      position -= offset;
+    }
+
+    private void push(final long elements) {
+      if (depth == remaining.length) {
+        remaining = Arrays.copyOf(remaining, depth << 1);
+      }
+      remaining[depth++] = elements;
+    }
+  }
+
+  private static int findCrLf(final byte[] buf, int pos, final int limit) {
+    for (; pos + 1 < limit; pos++) {
+      if (buf[pos] == '\r' && buf[pos + 1] == '\n') {
+        return pos;
+      }
+    }
+    return -1;
+  }
+
+  private static long parseLength(final byte[] buf, int pos, final int end) {
+    final boolean negative = buf[pos] == '-';
+    if (negative) {
+      pos++;
+    }
+    long value = 0;
+    for (; pos < end; pos++) {
+      value = value * 10 + buf[pos] - '0';
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Exposes only complete frames of the read buffer to the decoder, so that the decoder never blocks
+   * or reads a partial reply.
+   */
+  private class FrameInputStream extends InputStream {
+
+    @Override
+    public int read() {
+      return readPosition < frameLimit ? readBuffer[readPosition++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      final int available = frameLimit - readPosition;
+      if (available <= 0) {
+        return -1;
+      }
+      final int length = Math.min(available, len);
+      System.arraycopy(readBuffer, readPosition, b, off, length);
+      readPosition += length;
+      return length;
+    }
+  }
+
+  private static class OutboundBuffer extends OutputStream {
+
+    private byte[] buf = new byte[INITIAL_READ_BUFFER_SIZE];
+    private int count = 0;
+
+    @Override
+    public void write(int b) {
+      ensureCapacity(count + 1);
+      buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      ensureCapacity(count + len);
+      System.arraycopy(b, off, buf, count, len);
+      count += len;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length << 1, capacity));
+      }
+    }
+
+    /**
+     * Moves the content of this buffer to {@code other}, and takes over the (empty) storage of it.
+     */
+    private void moveTo(OutboundBuffer other) {
+      byte[] content = this.buf;
+      this.buf = other.buf;
+      other.buf = content;
+      other.count = this.count;
+      this.count = 0;
+    }
+  }
+
+  private static class PendingReply<T> {
+
+    private final Builder<T> builder;
+    private final CompletableFuture<T> future;
+
+    private PendingReply(Builder<T> builder, CompletableFuture<T> future) {
+      this.builder = builder;
+      this.future = future;
+    }
+  }
+}
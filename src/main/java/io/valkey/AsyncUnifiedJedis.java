@@ -0,0 +1,512 @@
+package io.valkey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import io.valkey.commands.ProtocolCommand;
+import io.valkey.params.SetParams;
+import io.valkey.resps.Tuple;
+
+/**
+ * Asynchronous twin of {@link UnifiedJedis}. Every command is written to a shared
+ * {@link AsyncConnection} and the returned {@link CompletableFuture} is completed on the I/O thread
+ * of that connection, so dependent stages should not block.
+ * <p>
+ * Commands which are not offered here can be run through {@link #executeCommand(CommandObject)}
+ * with the {@link CommandObject}s created by {@link CommandObjects}.
+ */
+public class AsyncUnifiedJedis implements AutoCloseable {
+
+  protected final AsyncConnection connection;
+  protected final CommandObjects commandObjects;
+
+  public AsyncUnifiedJedis(HostAndPort hostAndPort) {
+    this(new AsyncConnection(hostAndPort));
+  }
+
+  public AsyncUnifiedJedis(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(new AsyncConnection(hostAndPort, clientConfig));
+  }
+
+  public AsyncUnifiedJedis(AsyncConnection connection) {
+    this(connection, new CommandObjects());
+    RedisProtocol proto = connection.getRedisProtocol();
+    if (proto != null) this.commandObjects.setProtocol(proto);
+  }
+
+  public AsyncUnifiedJedis(AsyncConnection connection, CommandObjects commandObjects) {
+    this.connection = connection;
+    this.commandObjects = commandObjects;
+  }
+
+  @Override
+  public void close() {
+    connection.close();
+  }
+
+  public final AsyncConnection getConnection() {
+    return connection;
+  }
+
+  public final <T> CompletableFuture<T> executeCommand(CommandObject<T> commandObject) {
+    return connection.executeCommand(commandObject);
+  }
+
+  public CompletableFuture<Object> sendCommand(ProtocolCommand cmd) {
+    return executeCommand(new CommandObject<>(commandObjects.commandArguments(cmd), BuilderFactory.RAW_OBJECT));
+  }
+
+  public CompletableFuture<Object> sendCommand(ProtocolCommand cmd, byte[]... args) {
+    return executeCommand(new CommandObject<>(commandObjects.commandArguments(cmd).addObjects((Object[]) args),
+        BuilderFactory.RAW_OBJECT));
+  }
+
+  public CompletableFuture<Object> sendCommand(ProtocolCommand cmd, String... args) {
+    return executeCommand(new CommandObject<>(commandObjects.commandArguments(cmd).addObjects((Object[]) args),
+        BuilderFactory.RAW_OBJECT));
+  }
+
+  public CompletableFuture<String> ping() {
+    return executeCommand(commandObjects.ping());
+  }
+
+  public CompletableFuture<Long> publish(String channel, String message) {
+    return executeCommand(commandObjects.publish(channel, message));
+  }
+
+  // Key commands
+  public CompletableFuture<Boolean> exists(String key) {
+    return executeCommand(commandObjects.exists(key));
+  }
+
+  public CompletableFuture<Long> exists(String... keys) {
+    return executeCommand(commandObjects.exists(keys));
+  }
+
+  public CompletableFuture<Boolean> exists(byte[] key) {
+    return executeCommand(commandObjects.exists(key));
+  }
+
+  public CompletableFuture<Long> exists(byte[]... keys) {
+    return executeCommand(commandObjects.exists(keys));
+  }
+
+  public CompletableFuture<String> type(String key) {
+    return executeCommand(commandObjects.type(key));
+  }
+
+  public CompletableFuture<String> type(byte[] key) {
+    return executeCommand(commandObjects.type(key));
+  }
+
+  public CompletableFuture<Long> expire(String key, long seconds) {
+    return executeCommand(commandObjects.expire(key, seconds));
+  }
+
+  public CompletableFuture<Long> expire(byte[] key, long seconds) {
+    return executeCommand(commandObjects.expire(key, seconds));
+  }
+
+  public CompletableFuture<Long> pexpire(String key, long milliseconds) {
+    return executeCommand(commandObjects.pexpire(key, milliseconds));
+  }
+
+  public CompletableFuture<Long> pexpire(byte[] key, long milliseconds) {
+    return executeCommand(commandObjects.pexpire(key, milliseconds));
+  }
+
+  public CompletableFuture<Long> ttl(String key) {
+    return executeCommand(commandObjects.ttl(key));
+  }
+
+  public CompletableFuture<Long> ttl(byte[] key) {
+    return executeCommand(commandObjects.ttl(key));
+  }
+
+  public CompletableFuture<Long> touch(String... keys) {
+    return executeCommand(commandObjects.touch(keys));
+  }
+
+  public CompletableFuture<Long> touch(byte[]... keys) {
+    return executeCommand(commandObjects.touch(keys));
+  }
+
+  public CompletableFuture<Long> del(String key) {
+    return executeCommand(commandObjects.del(key));
+  }
+
+  public CompletableFuture<Long> del(String... keys) {
+    return executeCommand(commandObjects.del(keys));
+  }
+
+  public CompletableFuture<Long> del(byte[] key) {
+    return executeCommand(commandObjects.del(key));
+  }
+
+  public CompletableFuture<Long> del(byte[]... keys) {
+    return executeCommand(commandObjects.del(keys));
+  }
+
+  public CompletableFuture<Long> unlink(String key) {
+    return executeCommand(commandObjects.unlink(key));
+  }
+
+  public CompletableFuture<Long> unlink(String... keys) {
+    return executeCommand(commandObjects.unlink(keys));
+  }
+
+  public CompletableFuture<Long> unlink(byte[] key) {
+    return executeCommand(commandObjects.unlink(key));
+  }
+
+  public CompletableFuture<Long> unlink(byte[]... keys) {
+    return executeCommand(commandObjects.unlink(keys));
+  }
+
+  // Key commands
+
+  // String commands
+  public CompletableFuture<String> set(String key, String value) {
+    return executeCommand(commandObjects.set(key, value));
+  }
+
+  public CompletableFuture<String> set(String key, String value, SetParams params) {
+    return executeCommand(commandObjects.set(key, value, params));
+  }
+
+  public CompletableFuture<String> set(byte[] key, byte[] value) {
+    return executeCommand(commandObjects.set(key, value));
+  }
+
+  public CompletableFuture<String> set(byte[] key, byte[] value, SetParams params) {
+    return executeCommand(commandObjects.set(key, value, params));
+  }
+
+  public CompletableFuture<String> get(String key) {
+    return executeCommand(commandObjects.get(key));
+  }
+
+  public CompletableFuture<byte[]> get(byte[] key) {
+    return executeCommand(commandObjects.get(key));
+  }
+
+  public CompletableFuture<String> getDel(String key) {
+    return executeCommand(commandObjects.getDel(key));
+  }
+
+  public CompletableFuture<byte[]> getDel(byte[] key) {
+    return executeCommand(commandObjects.getDel(key));
+  }
+
+  public CompletableFuture<String> setex(String key, long seconds, String value) {
+    return executeCommand(commandObjects.setex(key, seconds, value));
+  }
+
+  public CompletableFuture<String> setex(byte[] key, long seconds, byte[] value) {
+    return executeCommand(commandObjects.setex(key, seconds, value));
+  }
+
+  public CompletableFuture<List<String>> mget(String... keys) {
+    return executeCommand(commandObjects.mget(keys));
+  }
+
+  public CompletableFuture<List<byte[]>> mget(byte[]... keys) {
+    return executeCommand(commandObjects.mget(keys));
+  }
+
+  public CompletableFuture<String> mset(String... keysvalues) {
+    return executeCommand(commandObjects.mset(keysvalues));
+  }
+
+  public CompletableFuture<String> mset(byte[]... keysvalues) {
+    return executeCommand(commandObjects.mset(keysvalues));
+  }
+
+  public CompletableFuture<Long> incr(String key) {
+    return executeCommand(commandObjects.incr(key));
+  }
+
+  public CompletableFuture<Long> incr(byte[] key) {
+    return executeCommand(commandObjects.incr(key));
+  }
+
+  public CompletableFuture<Long> incrBy(String key, long increment) {
+    return executeCommand(commandObjects.incrBy(key, increment));
+  }
+
+  public CompletableFuture<Long> incrBy(byte[] key, long increment) {
+    return executeCommand(commandObjects.incrBy(key, increment));
+  }
+
+  public CompletableFuture<Long> decr(String key) {
+    return executeCommand(commandObjects.decr(key));
+  }
+
+  public CompletableFuture<Long> decr(byte[] key) {
+    return executeCommand(commandObjects.decr(key));
+  }
+
+  public CompletableFuture<Long> decrBy(String key, long decrement) {
+    return executeCommand(commandObjects.decrBy(key, decrement));
+  }
+
+  public CompletableFuture<Long> decrBy(byte[] key, long decrement) {
+    return executeCommand(commandObjects.decrBy(key, decrement));
+  }
+
+  public CompletableFuture<Long> append(String key, String value) {
+    return executeCommand(commandObjects.append(key, value));
+  }
+
+  public CompletableFuture<Long> append(byte[] key, byte[] value) {
+    return executeCommand(commandObjects.append(key, value));
+  }
+
+  public CompletableFuture<Long> strlen(String key) {
+    return executeCommand(commandObjects.strlen(key));
+  }
+
+  public CompletableFuture<Long> strlen(byte[] key) {
+    return executeCommand(commandObjects.strlen(key));
+  }
+
+  // String commands
+
+  // List commands
+  public CompletableFuture<Long> rpush(String key, String... strings) {
+    return executeCommand(commandObjects.rpush(key, strings));
+  }
+
+  public CompletableFuture<Long> rpush(byte[] key, byte[]... strings) {
+    return executeCommand(commandObjects.rpush(key, strings));
+  }
+
+  public CompletableFuture<Long> lpush(String key, String... strings) {
+    return executeCommand(commandObjects.lpush(key, strings));
+  }
+
+  public CompletableFuture<Long> lpush(byte[] key, byte[]... strings) {
+    return executeCommand(commandObjects.lpush(key, strings));
+  }
+
+  public CompletableFuture<Long> llen(String key) {
+    return executeCommand(commandObjects.llen(key));
+  }
+
+  public CompletableFuture<Long> llen(byte[] key) {
+    return executeCommand(commandObjects.llen(key));
+  }
+
+  public CompletableFuture<List<String>> lrange(String key, long start, long stop) {
+    return executeCommand(commandObjects.lrange(key, start, stop));
+  }
+
+  public CompletableFuture<List<byte[]>> lrange(byte[] key, long start, long stop) {
+    return executeCommand(commandObjects.lrange(key, start, stop));
+  }
+
+  public CompletableFuture<String> lpop(String key) {
+    return executeCommand(commandObjects.lpop(key));
+  }
+
+  public CompletableFuture<byte[]> lpop(byte[] key) {
+    return executeCommand(commandObjects.lpop(key));
+  }
+
+  public CompletableFuture<String> rpop(String key) {
+    return executeCommand(commandObjects.rpop(key));
+  }
+
+  public CompletableFuture<byte[]> rpop(byte[] key) {
+    return executeCommand(commandObjects.rpop(key));
+  }
+
+  // List commands
+
+  // Hash commands
+  public CompletableFuture<Long> hset(String key, String field, String value) {
+    return executeCommand(commandObjects.hset(key, field, value));
+  }
+
+  public CompletableFuture<Long> hset(String key, Map<String, String> hash) {
+    return executeCommand(commandObjects.hset(key, hash));
+  }
+
+  public CompletableFuture<Long> hset(byte[] key, byte[] field, byte[] value) {
+    return executeCommand(commandObjects.hset(key, field, value));
+  }
+
+  public CompletableFuture<Long> hset(byte[] key, Map<byte[], byte[]> hash) {
+    return executeCommand(commandObjects.hset(key, hash));
+  }
+
+  public CompletableFuture<String> hget(String key, String field) {
+    return executeCommand(commandObjects.hget(key, field));
+  }
+
+  public CompletableFuture<byte[]> hget(byte[] key, byte[] field) {
+    return executeCommand(commandObjects.hget(key, field));
+  }
+
+  public CompletableFuture<List<String>> hmget(String key, String... fields) {
+    return executeCommand(commandObjects.hmget(key, fields));
+  }
+
+  public CompletableFuture<List<byte[]>> hmget(byte[] key, byte[]... fields) {
+    return executeCommand(commandObjects.hmget(key, fields));
+  }
+
+  public CompletableFuture<Long> hincrBy(String key, String field, long value) {
+    return executeCommand(commandObjects.hincrBy(key, field, value));
+  }
+
+  public CompletableFuture<Long> hincrBy(byte[] key, byte[] field, long value) {
+    return executeCommand(commandObjects.hincrBy(key, field, value));
+  }
+
+  public CompletableFuture<Boolean> hexists(String key, String field) {
+    return executeCommand(commandObjects.hexists(key, field));
+  }
+
+  public CompletableFuture<Boolean> hexists(byte[] key, byte[] field) {
+    return executeCommand(commandObjects.hexists(key, field));
+  }
+
+  public CompletableFuture<Long> hdel(String key, String... field) {
+    return executeCommand(commandObjects.hdel(key, field));
+  }
+
+  public CompletableFuture<Long> hdel(byte[] key, byte[]... field) {
+    return executeCommand(commandObjects.hdel(key, field));
+  }
+
+  public CompletableFuture<Long> hlen(String key) {
+    return executeCommand(commandObjects.hlen(key));
+  }
+
+  public CompletableFuture<Long> hlen(byte[] key) {
+    return executeCommand(commandObjects.hlen(key));
+  }
+
+  public CompletableFuture<Map<String, String>> hgetAll(String key) {
+    return executeCommand(commandObjects.hgetAll(key));
+  }
+
+  public CompletableFuture<Map<byte[], byte[]>> hgetAll(byte[] key) {
+    return executeCommand(commandObjects.hgetAll(key));
+  }
+
+  // Hash commands
+
+  // Set commands
+  public CompletableFuture<Long> sadd(String key, String... members) {
+    return executeCommand(commandObjects.sadd(key, members));
+  }
+
+  public CompletableFuture<Long> sadd(byte[] key, byte[]... members) {
+    return executeCommand(commandObjects.sadd(key, members));
+  }
+
+  public CompletableFuture<Set<String>> smembers(String key) {
+    return executeCommand(commandObjects.smembers(key));
+  }
+
+  public CompletableFuture<Set<byte[]>> smembers(byte[] key) {
+    return executeCommand(commandObjects.smembers(key));
+  }
+
+  public CompletableFuture<Long> srem(String key, String... members) {
+    return executeCommand(commandObjects.srem(key, members));
+  }
+
+  public CompletableFuture<Long> srem(byte[] key, byte[]... members) {
+    return executeCommand(commandObjects.srem(key, members));
+  }
+
+  public CompletableFuture<Long> scard(String key) {
+    return executeCommand(commandObjects.scard(key));
+  }
+
+  public CompletableFuture<Long> scard(byte[] key) {
+    return executeCommand(commandObjects.scard(key));
+  }
+
+  public CompletableFuture<Boolean> sismember(String key, String member) {
+    return executeCommand(commandObjects.sismember(key, member));
+  }
+
+  public CompletableFuture<Boolean> sismember(byte[] key, byte[] member) {
+    return executeCommand(commandObjects.sismember(key, member));
+  }
+
+  // Set commands
+
+  // Sorted Set commands
+  public CompletableFuture<Long> zadd(String key, double score, String member) {
+    return executeCommand(commandObjects.zadd(key, score, member));
+  }
+
+  public CompletableFuture<Long> zadd(String key, Map<String, Double> scoreMembers) {
+    return executeCommand(commandObjects.zadd(key, scoreMembers));
+  }
+
+  public CompletableFuture<Long> zadd(byte[] key, double score, byte[] member) {
+    return executeCommand(commandObjects.zadd(key, score, member));
+  }
+
+  public CompletableFuture<Long> zadd(byte[] key, Map<byte[], Double> scoreMembers) {
+    return executeCommand(commandObjects.zadd(key, scoreMembers));
+  }
+
+  public CompletableFuture<Double> zincrby(String key, double increment, String member) {
+    return executeCommand(commandObjects.zincrby(key, increment, member));
+  }
+
+  public CompletableFuture<Double> zincrby(byte[] key, double increment, byte[] member) {
+    return executeCommand(commandObjects.zincrby(key, increment, member));
+  }
+
+  public CompletableFuture<Long> zrem(String key, String... members) {
+    return executeCommand(commandObjects.zrem(key, members));
+  }
+
+  public CompletableFuture<Long> zrem(byte[] key, byte[]... members) {
+    return executeCommand(commandObjects.zrem(key, members));
+  }
+
+  public CompletableFuture<Long> zrank(String key, String member) {
+    return executeCommand(commandObjects.zrank(key, member));
+  }
+
+  public CompletableFuture<Long> zrank(byte[] key, byte[] member) {
+    return executeCommand(commandObjects.zrank(key, member));
+  }
+
+  public CompletableFuture<Long> zcard(String key) {
+    return executeCommand(commandObjects.zcard(key));
+  }
+
+  public CompletableFuture<Long> zcard(byte[] key) {
+    return executeCommand(commandObjects.zcard(key));
+  }
+
+  public CompletableFuture<Double> zscore(String key, String member) {
+    return executeCommand(commandObjects.zscore(key, member));
+  }
+
+  public CompletableFuture<Double> zscore(byte[] key, byte[] member) {
+    return executeCommand(commandObjects.zscore(key, member));
+  }
+
+  public CompletableFuture<List<String>> zrange(String key, long start, long stop) {
+    return executeCommand(commandObjects.zrange(key, start, stop));
+  }
+
+  public CompletableFuture<List<Tuple>> zrangeWithScores(String key, long start, long stop) {
+    return executeCommand(commandObjects.zrangeWithScores(key, start, stop));
+  }
+
+  // Sorted Set commands
+}
@@ -1,6 +1,8 @@
 package io.valkey;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,9 +32,12 @@ import io.valkey.resps.StreamPendingSummary;
 import io.valkey.resps.Tuple;
 import io.valkey.resps.LCSMatchResult.MatchedPosition;
 import io.valkey.resps.LCSMatchResult.Position;
+import io.valkey.util.BufferPool;
+import io.valkey.util.ByteSlice;
 import io.valkey.util.DoublePrecision;
 import io.valkey.util.JedisByteHashMap;
 import io.valkey.util.KeyValue;
+import io.valkey.util.RedisInputStream;
 import io.valkey.util.SafeEncoder;
 
 public final class BuilderFactory {
@@ -85,12 +90,20 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<Long> LONG = new Builder<Long>() {
+  public static final Builder<Long> LONG = new DecodingBuilder<Long>() {
     @Override
     public Long build(Object data) {
       return (Long) data;
     }
 
+    @Override
+    public Long decode(byte type, RedisInputStream is) {
+      if (type == Protocol.COLON_BYTE) {
+        return is.readLongCrLf();
+      }
+      return fallback(type, is);
+    }
+
     @Override
     public String toString() {
       return "Long";
@@ -115,7 +128,7 @@ public final class BuilderFactory {
 
   };
 
-  public static final Builder<Double> DOUBLE = new Builder<Double>() {
+  public static final Builder<Double> DOUBLE = new DecodingBuilder<Double>() {
     @Override
     public Double build(Object data) {
       if (data == null) return null;
@@ -123,6 +136,18 @@ public final class BuilderFactory {
       else return DoublePrecision.parseFloatingPointNumber(STRING.build(data));
     }
 
+    @Override
+    public Double decode(byte type, RedisInputStream is) {
+      switch (type) {
+        case Protocol.COMMA_BYTE:
+          return is.readDoubleCrLf();
+        case Protocol.DOLLAR_BYTE:
+          return DoublePrecision.parseFloatingPointNumber(Protocol.readString(type, is));
+        default:
+          return fallback(type, is);
+      }
+    }
+
     @Override
     public String toString() {
       return "Double";
@@ -213,6 +238,138 @@ public final class BuilderFactory {
     }
   };
 
+  /**
+   * Reads a string reply into a slice of {@link BufferPool#DEFAULT}, which must be released.
+   */
+  public static final Builder<ByteSlice> BYTE_SLICE = new DecodingBuilder<ByteSlice>() {
+    @Override
+    public ByteSlice build(Object data) {
+      return data == null ? null : ByteSlice.wrap((byte[]) data);
+    }
+
+    @Override
+    public ByteSlice decode(byte type, RedisInputStream is) {
+      return Protocol.readSlice(type, is, BufferPool.DEFAULT);
+    }
+
+    @Override
+    public boolean isZeroCopy() {
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "ByteSlice";
+    }
+  };
+
+  /**
+   * Reads a map reply into slices of {@link BufferPool#DEFAULT}, which must be released.
+   */
+  public static final Builder<Map<ByteSlice, ByteSlice>> BYTE_SLICE_MAP
+      = new DecodingBuilder<Map<ByteSlice, ByteSlice>>() {
+    @Override
+    public Map<ByteSlice, ByteSlice> build(Object data) {
+      final Map<byte[], byte[]> binary = BINARY_MAP.build(data);
+      final Map<ByteSlice, ByteSlice> map = new HashMap<>(binary.size(), 1f);
+      binary.forEach((k, v) -> map.put(BYTE_SLICE.build(k), BYTE_SLICE.build(v)));
+      return map;
+    }
+
+    @Override
+    public Map<ByteSlice, ByteSlice> decode(byte type, RedisInputStream is) {
+      final int pairs = readPairCount(type, is);
+      if (pairs < 0) return fallback(type, is);
+      final Map<ByteSlice, ByteSlice> map = new HashMap<>(pairs, 1f);
+      JedisDataException error = null;
+      for (int i = 0; i < pairs; i++) {
+        ByteSlice key = null;
+        try {
+          key = Protocol.readSlice(is.readByte(), is, BufferPool.DEFAULT);
+          map.put(key, Protocol.readSlice(is.readByte(), is, BufferPool.DEFAULT));
+        } catch (JedisDataException e) {
+          if (key != null) key.release();
+          if (error == null) error = e;
+        }
+      }
+      if (error != null) {
+        map.forEach((k, v) -> {
+          if (k != null) k.release();
+          if (v != null) v.release();
+        });
+        throw error;
+      }
+      return map;
+    }
+
+    @Override
+    public boolean isZeroCopy() {
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "Map<ByteSlice, ByteSlice>";
+    }
+  };
+
+  /**
+   * Writes a string reply to the channel, chunk by chunk, instead of reading it into memory.
+   * @return builder of the number of bytes written, or {@code null} for a null reply
+   */
+  public static Builder<Long> bulkToChannel(WritableByteChannel target) {
+    return new DecodingBuilder<Long>() {
+      @Override
+      public Long build(Object data) {
+        return data == null ? null : Protocol.writeToChannel((byte[]) data, target);
+      }
+
+      @Override
+      public Long decode(byte type, RedisInputStream is) {
+        return Protocol.readToChannel(type, is, target);
+      }
+
+      @Override
+      public boolean isZeroCopy() {
+        return true;
+      }
+
+      @Override
+      public String toString() {
+        return "Long";
+      }
+    };
+  }
+
+  /**
+   * Reads a string reply into the buffer, instead of a new array. If it does not fit in the
+   * remaining space, the buffer is left unchanged.
+   * @return builder of the length of the reply, or {@code null} for a null reply
+   */
+  public static Builder<Long> bulkInto(ByteBuffer dst) {
+    return new DecodingBuilder<Long>() {
+      @Override
+      public Long build(Object data) {
+        return data == null ? null : Protocol.writeInto((byte[]) data, dst);
+      }
+
+      @Override
+      public Long decode(byte type, RedisInputStream is) {
+        return Protocol.readInto(type, is, dst);
+      }
+
+      @Override
+      public boolean isZeroCopy() {
+        return true;
+      }
+
+      @Override
+      public String toString() {
+        return "Long";
+      }
+    };
+  }
+
   public static final Builder<Set<byte[]>> BINARY_SET = new Builder<Set<byte[]>>() {
     @Override
     @SuppressWarnings("unchecked")
@@ -272,19 +429,24 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<String> STRING = new Builder<String>() {
+  public static final Builder<String> STRING = new DecodingBuilder<String>() {
     @Override
     public String build(Object data) {
       return data == null ? null : SafeEncoder.encode((byte[]) data);
     }
 
+    @Override
+    public String decode(byte type, RedisInputStream is) {
+      return Protocol.readString(type, is);
+    }
+
     @Override
     public String toString() {
       return "String";
     }
   };
 
-  public static final Builder<List<String>> STRING_LIST = new Builder<List<String>>() {
+  public static final Builder<List<String>> STRING_LIST = new DecodingBuilder<List<String>>() {
     @Override
     @SuppressWarnings("unchecked")
     public List<String> build(Object data) {
@@ -292,6 +454,26 @@ public final class BuilderFactory {
       return ((List<Object>) data).stream().map(STRING::build).collect(Collectors.toList());
     }
 
+    @Override
+    public List<String> decode(byte type, RedisInputStream is) {
+      if (type != Protocol.ASTERISK_BYTE && type != Protocol.TILDE_BYTE) {
+        return fallback(type, is);
+      }
+      final int num = is.readIntCrLf();
+      if (num == -1) return null;
+      final List<String> list = new ArrayList<>(num);
+      JedisDataException error = null;
+      for (int i = 0; i < num; i++) {
+        try {
+          list.add(Protocol.readString(is));
+        } catch (JedisDataException e) {
+          if (error == null) error = e;
+        }
+      }
+      if (error != null) throw error;
+      return list;
+    }
+
     @Override
     public String toString() {
       return "List<String>";
@@ -312,7 +494,7 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<Map<byte[], byte[]>> BINARY_MAP = new Builder<Map<byte[], byte[]>>() {
+  public static final Builder<Map<byte[], byte[]>> BINARY_MAP = new DecodingBuilder<Map<byte[], byte[]>>() {
     @Override
     @SuppressWarnings("unchecked")
     public Map<byte[], byte[]> build(Object data) {
@@ -337,13 +519,31 @@ public final class BuilderFactory {
       }
     }
 
+    @Override
+    public Map<byte[], byte[]> decode(byte type, RedisInputStream is) {
+      final int pairs = readPairCount(type, is);
+      if (pairs < 0) return fallback(type, is);
+      if (pairs == 0) return Collections.emptyMap();
+      final Map<byte[], byte[]> map = new JedisByteHashMap();
+      JedisDataException error = null;
+      for (int i = 0; i < pairs; i++) {
+        try {
+          map.put(Protocol.readBinary(is), Protocol.readBinary(is));
+        } catch (JedisDataException e) {
+          if (error == null) error = e;
+        }
+      }
+      if (error != null) throw error;
+      return map;
+    }
+
     @Override
     public String toString() {
       return "Map<byte[], byte[]>";
     }
   };
 
-  public static final Builder<Map<String, String>> STRING_MAP = new Builder<Map<String, String>>() {
+  public static final Builder<Map<String, String>> STRING_MAP = new DecodingBuilder<Map<String, String>>() {
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, String> build(Object data) {
@@ -368,6 +568,24 @@ public final class BuilderFactory {
       }
     }
 
+    @Override
+    public Map<String, String> decode(byte type, RedisInputStream is) {
+      final int pairs = readPairCount(type, is);
+      if (pairs < 0) return fallback(type, is);
+      if (pairs == 0) return Collections.emptyMap();
+      final Map<String, String> map = new HashMap<>(pairs, 1f);
+      JedisDataException error = null;
+      for (int i = 0; i < pairs; i++) {
+        try {
+          map.put(Protocol.readString(is), Protocol.readString(is));
+        } catch (JedisDataException e) {
+          if (error == null) error = e;
+        }
+      }
+      if (error != null) throw error;
+      return map;
+    }
+
     @Override
     public String toString() {
       return "Map<String, String>";
@@ -647,7 +865,7 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<List<Tuple>> TUPLE_LIST = new Builder<List<Tuple>>() {
+  public static final Builder<List<Tuple>> TUPLE_LIST = new DecodingBuilder<List<Tuple>>() {
     @Override
     @SuppressWarnings("unchecked")
     public List<Tuple> build(Object data) {
@@ -663,6 +881,30 @@ public final class BuilderFactory {
       return result;
     }
 
+    @Override
+    public List<Tuple> decode(byte type, RedisInputStream is) {
+      if (type != Protocol.ASTERISK_BYTE) {
+        return fallback(type, is);
+      }
+      final int num = is.readIntCrLf();
+      if (num == -1) return null;
+      final List<Tuple> result = new ArrayList<>(num / 2);
+      JedisDataException error = null;
+      for (int i = 0; i < num / 2; i++) {
+        try {
+          byte[] element = Protocol.readBinary(is);
+          byte scoreType = is.readByte();
+          Double score = scoreType == Protocol.COMMA_BYTE ? is.readDoubleCrLf()
+              : DoublePrecision.parseFloatingPointNumber(Protocol.readString(scoreType, is));
+          result.add(new Tuple(element, score));
+        } catch (JedisDataException e) {
+          if (error == null) error = e;
+        }
+      }
+      if (error != null) throw error;
+      return result;
+    }
+
     @Override
     public String toString() {
       return "List<Tuple>";
@@ -2160,6 +2402,32 @@ public final class BuilderFactory {
     }
   }
 
+  /**
+   * A {@link Builder} which decodes its reply straight from the stream, and builds the generic reply
+   * of any type it does not expect.
+   */
+  private abstract static class DecodingBuilder<T> extends Builder<T> implements ReplyDecoder<T> {
+
+    protected final T fallback(byte type, RedisInputStream is) {
+      return build(Protocol.read(type, is));
+    }
+
+    /**
+     * @return the number of key-value pairs of a RESP3 map or a flat RESP2 array, or -1 for other
+     * types
+     */
+    protected static int readPairCount(byte type, RedisInputStream is) {
+      switch (type) {
+        case Protocol.PERCENT_BYTE:
+          return Math.max(is.readIntCrLf(), 0);
+        case Protocol.ASTERISK_BYTE:
+          return Math.max(is.readIntCrLf(), 0) / 2;
+        default:
+          return -1;
+      }
+    }
+  }
+
   private BuilderFactory() {
     throw new InstantiationError("Must not instantiate this class");
   }
@@ -3,10 +3,13 @@ package io.valkey;
 import io.valkey.commands.ProtocolCommand;
 import io.valkey.exceptions.JedisClusterOperationException;
 import io.valkey.util.JedisClusterCRC16;
+import io.valkey.util.SafeEncoder;
 
 public class ClusterCommandArguments extends CommandArguments {
 
   private int commandHashSlot = -1;
+  private int keyCount = 0;
+  private Object firstKey = null;
 
   public ClusterCommandArguments(ProtocolCommand command) {
     super(command);
@@ -16,8 +19,22 @@ public class ClusterCommandArguments extends CommandArguments {
     return commandHashSlot;
   }
 
+  /**
+   * A String key is encoded by each call, which is left to the rare callers which need it.
+   * @return the key of a command with exactly one key, otherwise {@code null}
+   */
+  public byte[] getSingleKey() {
+    if (keyCount != 1) {
+      return null;
+    }
+    return firstKey instanceof String ? SafeEncoder.encode((String) firstKey) : (byte[]) firstKey;
+  }
+
   @Override
   protected CommandArguments processKey(byte[] key) {
+    if (keyCount++ == 0) {
+      firstKey = key;
+    }
     final int hashSlot = JedisClusterCRC16.getSlot(key);
     if (commandHashSlot < 0) {
       commandHashSlot = hashSlot;
@@ -29,6 +46,9 @@ public class ClusterCommandArguments extends CommandArguments {
 
   @Override
   protected CommandArguments processKey(String key) {
+    if (keyCount++ == 0) {
+      firstKey = key;
+    }
     final int hashSlot = JedisClusterCRC16.getSlot(key);
     if (commandHashSlot < 0) {
       commandHashSlot = hashSlot;
@@ -2,7 +2,9 @@ package io.valkey;
 
 import java.time.Duration;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import io.valkey.exceptions.JedisMovedDataException;
 import io.valkey.providers.ClusterConnectionProvider;
 import io.valkey.util.IOUtils;
 
@@ -65,6 +67,21 @@ public class ClusterPipeline extends MultiNodePipelineBase {
     return provider.getConnection(nodeKey);
   }
 
+  @Override
+  protected ExecutorService getSyncExecutor() {
+    return provider.getWorkerExecutor();
+  }
+
+  @Override
+  protected boolean isFollowingRedirections() {
+    return true;
+  }
+
+  @Override
+  protected void onMovedRedirection(JedisMovedDataException moved) {
+    provider.slotMoved(moved);
+  }
+
   /**
    * This method must be called after constructor, if graph commands are going to be used.
    */
@@ -0,0 +1,54 @@
+package io.valkey;
+
+/**
+ * Snapshot of the counters of the slot cache of a cluster client.
+ */
+public class ClusterTopologyStats {
+
+  private final long slotUpdates;
+  private final long renewalRequests;
+  private final long coalescedRenewalRequests;
+  private final long renewals;
+
+  public ClusterTopologyStats(long slotUpdates, long renewalRequests, long coalescedRenewalRequests,
+      long renewals) {
+    this.slotUpdates = slotUpdates;
+    this.renewalRequests = renewalRequests;
+    this.coalescedRenewalRequests = coalescedRenewalRequests;
+    this.renewals = renewals;
+  }
+
+  /**
+   * @return number of slots assigned to the target node of a MOVED redirection
+   */
+  public long getSlotUpdates() {
+    return slotUpdates;
+  }
+
+  /**
+   * @return number of requested background renewals of all slots
+   */
+  public long getRenewalRequests() {
+    return renewalRequests;
+  }
+
+  /**
+   * @return number of requested renewals which were merged into an already pending one
+   */
+  public long getCoalescedRenewalRequests() {
+    return coalescedRenewalRequests;
+  }
+
+  /**
+   * @return number of renewals of all slots which were run, requested or not
+   */
+  public long getRenewals() {
+    return renewals;
+  }
+
+  @Override
+  public String toString() {
+    return "ClusterTopologyStats{slotUpdates=" + slotUpdates + ", renewalRequests=" + renewalRequests
+        + ", coalescedRenewalRequests=" + coalescedRenewalRequests + ", renewals=" + renewals + "}";
+  }
+}
@@ -16,6 +16,8 @@ public class CommandArguments implements Iterable<Rawable> {
 
   private boolean blocking;
 
+  private boolean replayable = true;
+
   private CommandArguments() {
     throw new InstantiationError();
   }
@@ -33,17 +35,22 @@ public class CommandArguments implements Iterable<Rawable> {
     if (arg == null) {
       throw new IllegalArgumentException("null is not a valid argument.");
     } else if (arg instanceof Rawable) {
+      if (arg instanceof RawableFactory.RawChannel) {
+        replayable = false;
+      }
       args.add((Rawable) arg);
     } else if (arg instanceof byte[]) {
       args.add(RawableFactory.from((byte[]) arg));
     } else if (arg instanceof Integer) {
-      args.add(RawableFactory.from((Integer) arg));
+      args.add(RawableFactory.from((int) (Integer) arg));
+    } else if (arg instanceof Long) {
+      args.add(RawableFactory.from((long) (Long) arg));
     } else if (arg instanceof Double) {
       args.add(RawableFactory.from((Double) arg));
     } else if (arg instanceof Boolean) {
       args.add(RawableFactory.from((Boolean) arg ? 1 : 0));
     } else if (arg instanceof float[]) {
-      args.add(RawableFactory.from(RediSearchUtil.toByteArray((float[]) arg)));
+      args.add(RawableFactory.wrap(RediSearchUtil.toByteArray((float[]) arg)));
     } else if (arg instanceof String) {
       args.add(RawableFactory.from((String) arg));
     } else if (arg instanceof GeoCoordinate) {
@@ -144,4 +151,17 @@ public class CommandArguments implements Iterable<Rawable> {
     this.blocking = true;
     return this;
   }
+
+  /**
+   * @return {@code false} if the command must not be sent again after a failure or a redirection,
+   * because it streams an argument from a channel or its reply to a channel
+   */
+  public boolean isReplayable() {
+    return replayable;
+  }
+
+  public CommandArguments nonReplayable() {
+    this.replayable = false;
+    return this;
+  }
 }
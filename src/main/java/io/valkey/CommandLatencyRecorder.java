@@ -0,0 +1,71 @@
+package io.valkey;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.valkey.commands.ProtocolCommand;
+import io.valkey.util.LatencyHistogram;
+
+/**
+ * A {@link CommandListener} which records the latencies of the commands per command and per node,
+ * e.g. to be configured by {@link DefaultJedisClientConfig.Builder#commandListener(CommandListener)}
+ * and to be shared by all connections of a client.
+ */
+public class CommandLatencyRecorder implements CommandListener {
+
+  private final ConcurrentMap<ProtocolCommand, LatencyHistogram> commandLatencies = new ConcurrentHashMap<>();
+  private final ConcurrentMap<HostAndPort, LatencyHistogram> nodeLatencies = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ProtocolCommand, LongAdder> commandFailures = new ConcurrentHashMap<>();
+
+  @Override
+  public void commandExecuted(ProtocolCommand command, HostAndPort node, long bytesWritten,
+      long bytesRead, long durationNanos, Throwable failure) {
+    get(commandLatencies, command, c -> new LatencyHistogram()).record(durationNanos);
+    if (node != null) {
+      get(nodeLatencies, node, n -> new LatencyHistogram()).record(durationNanos);
+    }
+    if (failure != null) {
+      get(commandFailures, command, c -> new LongAdder()).increment();
+    }
+  }
+
+  // ConcurrentHashMap#computeIfAbsent locks its bin even when the key exists
+  private static <K, V> V get(ConcurrentMap<K, V> map, K key, Function<K, V> factory) {
+    V value = map.get(key);
+    return value != null ? value : map.computeIfAbsent(key, factory);
+  }
+
+  /**
+   * @return latencies of the command in nanoseconds, or {@code null} if it was not executed
+   */
+  public LatencyHistogram getLatencies(ProtocolCommand command) {
+    return commandLatencies.get(command);
+  }
+
+  /**
+   * @return latencies of the commands executed by the node in nanoseconds, or {@code null}
+   */
+  public LatencyHistogram getLatencies(HostAndPort node) {
+    return nodeLatencies.get(node);
+  }
+
+  public Map<ProtocolCommand, LatencyHistogram> getCommandLatencies() {
+    return Collections.unmodifiableMap(commandLatencies);
+  }
+
+  public Map<HostAndPort, LatencyHistogram> getNodeLatencies() {
+    return Collections.unmodifiableMap(nodeLatencies);
+  }
+
+  /**
+   * @return the number of executions of the command which failed
+   */
+  public long getFailures(ProtocolCommand command) {
+    LongAdder failures = commandFailures.get(command);
+    return failures == null ? 0 : failures.sum();
+  }
+}
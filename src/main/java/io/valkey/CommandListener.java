@@ -0,0 +1,25 @@
+package io.valkey;
+
+import io.valkey.commands.ProtocolCommand;
+
+/**
+ * Listener of the commands which are executed by connections, configured by
+ * {@link JedisClientConfig#getCommandListener()}. It is called by the thread which executed the
+ * command, after the reply was read, so it must be thread-safe and should return quickly. Commands
+ * served from a {@link io.valkey.csc.ClientSideCache} are reported as well, without bytes written or
+ * read.
+ * @see CommandLatencyRecorder
+ */
+public interface CommandListener {
+
+  /**
+   * @param command the executed command
+   * @param node the server, or {@code null} if the connection doesn't know it
+   * @param bytesWritten size of the sent command
+   * @param bytesRead size of the read reply
+   * @param durationNanos time from sending the command until its reply was read
+   * @param failure the exception thrown by the command, including error replies, or {@code null}
+   */
+  void commandExecuted(ProtocolCommand command, HostAndPort node, long bytesWritten, long bytesRead,
+      long durationNanos, Throwable failure);
+}
@@ -1,5 +1,8 @@
 package io.valkey;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -15,6 +18,7 @@ import io.valkey.args.FunctionRestorePolicy;
 import io.valkey.args.GeoUnit;
 import io.valkey.args.ListDirection;
 import io.valkey.args.ListPosition;
+import io.valkey.args.RawableFactory;
 import io.valkey.args.SortedSetOption;
 import io.valkey.bloom.BFInsertParams;
 import io.valkey.bloom.BFReserveParams;
@@ -103,6 +107,7 @@ import io.valkey.search.aggr.AggregationBuilder;
 import io.valkey.search.aggr.AggregationResult;
 import io.valkey.search.schemafields.SchemaField;
 import io.valkey.timeseries.TimeSeriesProtocol.*;
+import io.valkey.util.ByteSlice;
 import io.valkey.util.KeyValue;
 
 public class CommandObjects {
@@ -503,6 +508,11 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.SET).key(key).add(value), BuilderFactory.STRING);
   }
 
+  public final CommandObject<String> set(byte[] key, ReadableByteChannel source, long length) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key)
+        .add(RawableFactory.from(source, length)), BuilderFactory.STRING);
+  }
+
   public final CommandObject<String> set(byte[] key, byte[] value, SetParams params) {
     return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).addParams(params), BuilderFactory.STRING);
   }
@@ -532,6 +542,19 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.BINARY);
   }
 
+  public final CommandObject<Long> getInto(byte[] key, ByteBuffer dst) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.bulkInto(dst));
+  }
+
+  public final CommandObject<Long> get(byte[] key, WritableByteChannel target) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).nonReplayable(),
+        BuilderFactory.bulkToChannel(target));
+  }
+
+  public final CommandObject<ByteSlice> getSlice(byte[] key) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.BYTE_SLICE);
+  }
+
   public final CommandObject<byte[]> setGet(byte[] key, byte[] value) {
     return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).add(Keyword.GET), BuilderFactory.BINARY);
   }
@@ -833,6 +856,10 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.LINDEX).key(key).add(index), BuilderFactory.BINARY);
   }
 
+  public final CommandObject<Long> lindexInto(byte[] key, long index, ByteBuffer dst) {
+    return new CommandObject<>(commandArguments(Command.LINDEX).key(key).add(index), BuilderFactory.bulkInto(dst));
+  }
+
   public final CommandObject<String> lset(String key, long index, String value) {
     return new CommandObject<>(commandArguments(Command.LSET).key(key).add(index).add(value), BuilderFactory.STRING);
   }
@@ -1099,6 +1126,10 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.HGET).key(key).add(field), BuilderFactory.BINARY);
   }
 
+  public final CommandObject<Long> hgetInto(byte[] key, byte[] field, ByteBuffer dst) {
+    return new CommandObject<>(commandArguments(Command.HGET).key(key).add(field), BuilderFactory.bulkInto(dst));
+  }
+
   public final CommandObject<Long> hsetnx(byte[] key, byte[] field, byte[] value) {
     return new CommandObject<>(commandArguments(Command.HSETNX).key(key).add(field).add(value), BuilderFactory.LONG);
   }
@@ -1188,6 +1219,10 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.HGETALL).key(key), BuilderFactory.BINARY_MAP);
   }
 
+  public final CommandObject<Map<ByteSlice, ByteSlice>> hgetAllSlices(byte[] key) {
+    return new CommandObject<>(commandArguments(Command.HGETALL).key(key), BuilderFactory.BYTE_SLICE_MAP);
+  }
+
   public final CommandObject<byte[]> hrandfield(byte[] key) {
     return new CommandObject<>(commandArguments(Command.HRANDFIELD).key(key), BuilderFactory.BINARY);
   }
@@ -0,0 +1,465 @@
+package io.valkey;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.valkey.exceptions.JedisException;
+
+/**
+ * A connection pool for many threads which borrow and return connections at a high rate.
+ * <p>
+ * Instead of the idle object deque of {@link org.apache.commons.pool2.impl.GenericObjectPool}, all
+ * connections are kept in a shared list and claimed by a compare-and-set of their state. A thread
+ * first tries the connection it returned last, which usually is still idle, so that borrowing
+ * rarely touches the shared list. Threads which wait for a connection get returned connections
+ * handed over directly.
+ * <p>
+ * The pool is configured by the usual {@link GenericObjectPoolConfig} settings. Connections are
+ * validated on borrow only if they have been idle for longer than
+ * {@link ConnectionPoolConfig#getValidationInterval()}; eviction of idle connections, and the
+ * release of their buffers, runs on a shared thread.
+ */
+public class ConcurrentConnectionPool extends ConnectionPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConcurrentConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int REMOVED = -1;
+
+  /**
+   * Waiting threads look for an idle connection at least this often, in case of a returned
+   * connection which was not handed over to them.
+   */
+  private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final PooledObjectFactory<Connection> factory;
+  private final long validationIntervalNanos;
+
+  private final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<>();
+  private final Map<Connection, Entry> entryByConnection = new ConcurrentHashMap<>();
+  private final ThreadLocal<Entry> lastUsed = new ThreadLocal<>();
+  private final SynchronousQueue<Entry> handoff = new SynchronousQueue<>(true);
+  private final AtomicInteger total = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private volatile ScheduledFuture<?> evictionTask;
+
+  public ConcurrentConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+  }
+
+  public ConcurrentConnectionPool(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    super(factory, withoutEvictor(poolConfig), true);
+    this.factory = factory;
+    this.validationIntervalNanos = poolConfig instanceof ConnectionPoolConfig
+        ? ((ConnectionPoolConfig) poolConfig).getValidationInterval().toNanos() : 0;
+    final Duration evictionInterval = poolConfig.getDurationBetweenEvictionRuns();
+    if (!evictionInterval.isNegative() && !evictionInterval.isZero()) {
+      final long millis = evictionInterval.toMillis();
+      evictionTask = Evictor.INSTANCE.scheduleWithFixedDelay(this::evictQuietly, millis, millis,
+          TimeUnit.MILLISECONDS);
+    } else if (getBufferReleaseIdleNanos() >= 0) {
+      final long nanos = getBufferReleaseInterval().toNanos();
+      evictionTask = Evictor.INSTANCE.scheduleWithFixedDelay(this::releaseIdleBuffers, nanos, nanos,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * The evictor of the base pool would maintain its own idle objects.
+   */
+  private static GenericObjectPoolConfig<Connection> withoutEvictor(
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    GenericObjectPoolConfig<Connection> config = poolConfig.clone();
+    config.setTimeBetweenEvictionRuns(Duration.ofMillis(-1));
+    return config;
+  }
+
+  @Override
+  Connection borrowResource() {
+    try {
+      return borrowObject(getMaxWaitDuration());
+    } catch (JedisException je) {
+      throw je;
+    } catch (Exception e) {
+      throw new JedisException("Could not get a resource from the pool", e);
+    }
+  }
+
+  @Override
+  public void returnResource(final Connection resource) {
+    if (resource != null) {
+      returnObject(resource);
+    }
+  }
+
+  @Override
+  public void returnBrokenResource(final Connection resource) {
+    if (resource != null) {
+      invalidateObject(resource);
+    }
+  }
+
+  @Override
+  public Connection borrowObject() throws Exception {
+    return borrowObject(getMaxWaitDuration());
+  }
+
+  @Override
+  public Connection borrowObject(long borrowMaxWaitMillis) throws Exception {
+    return borrowObject(Duration.ofMillis(borrowMaxWaitMillis));
+  }
+
+  @Override
+  public Connection borrowObject(Duration borrowMaxWaitDuration) throws Exception {
+    assertNotClosed();
+    final long deadline = borrowMaxWaitDuration.isNegative() ? Long.MAX_VALUE
+        : System.nanoTime() + borrowMaxWaitDuration.toNanos();
+
+    while (true) {
+      Entry entry = claimIdle();
+      if (entry == null) {
+        entry = create(IN_USE);
+      }
+      if (entry == null) {
+        entry = await(deadline);
+      }
+
+      if (activate(entry)) {
+        lastUsed.set(entry);
+        return entry.connection();
+      }
+    }
+  }
+
+  private Entry claimIdle() {
+    final Entry last = lastUsed.get();
+    if (last != null && last.claim()) {
+      return last;
+    }
+    for (Entry entry : entries) {
+      if (entry.claim()) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Waits for a connection to be returned or for space to create one.
+   */
+  private Entry await(final long deadline) throws Exception {
+    if (!getBlockWhenExhausted()) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new NoSuchElementException("Timeout waiting for idle object");
+        }
+        final Entry handedOver = handoff.poll(Math.min(remaining, WAIT_SLICE_NANOS),
+            TimeUnit.NANOSECONDS);
+        if (handedOver != null && handedOver.claim()) {
+          return handedOver;
+        }
+        assertNotClosed();
+        Entry entry = claimIdle();
+        if (entry == null) {
+          entry = create(IN_USE);
+        }
+        if (entry != null) {
+          return entry;
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Activates and, if it has been idle for a while, validates a claimed connection. A connection
+   * which fails is destroyed.
+   */
+  private boolean activate(final Entry entry) throws Exception {
+    try {
+      factory.activateObject(entry.pooled);
+      final boolean validate = entry.fresh ? getTestOnCreate()
+          : getTestOnBorrow() && System.nanoTime() - entry.lastReturned >= validationIntervalNanos;
+      if (validate && !factory.validateObject(entry.pooled)) {
+        throw new NoSuchElementException("Unable to validate object");
+      }
+      entry.fresh = false;
+      return true;
+    } catch (Exception e) {
+      final boolean fresh = entry.fresh;
+      destroy(entry);
+      if (fresh) {
+        throw e;
+      }
+      logger.debug("Dropping a pooled connection which can't be activated.", e);
+      return false;
+    }
+  }
+
+  /**
+   * Creates a connection in the given state, if the pool is not full.
+   * @return the new entry, or {@code null} if the pool is full
+   */
+  private Entry create(final int state) throws Exception {
+    final int maxTotal = getMaxTotal();
+    while (true) {
+      final int current = total.get();
+      if (maxTotal >= 0 && current >= maxTotal) {
+        return null;
+      }
+      if (total.compareAndSet(current, current + 1)) {
+        break;
+      }
+    }
+
+    final PooledObject<Connection> pooled;
+    try {
+      pooled = factory.makeObject();
+    } catch (Exception e) {
+      total.decrementAndGet();
+      throw e;
+    }
+    final Entry entry = new Entry(pooled, state);
+    entryByConnection.put(pooled.getObject(), entry);
+    entries.add(entry);
+    if (state == IDLE) {
+      idle.incrementAndGet();
+      signalWaiter(entry);
+    }
+    return entry;
+  }
+
+  @Override
+  public void returnObject(final Connection connection) {
+    final Entry entry = entryByConnection.get(connection);
+    if (entry == null || entry.state.get() != IN_USE) {
+      throw new IllegalStateException("Returned object not currently part of this pool");
+    }
+
+    try {
+      if (getTestOnReturn() && !factory.validateObject(entry.pooled)) {
+        destroy(entry);
+        return;
+      }
+      factory.passivateObject(entry.pooled);
+    } catch (Exception e) {
+      destroy(entry);
+      return;
+    }
+
+    if (isClosed() || (getMaxIdle() >= 0 && idle.get() >= getMaxIdle())) {
+      destroy(entry);
+      return;
+    }
+    entry.lastReturned = System.nanoTime();
+    idle.incrementAndGet();
+    entry.state.set(IDLE);
+    signalWaiter(entry);
+  }
+
+  private void signalWaiter(final Entry entry) {
+    if (waiters.get() > 0) {
+      handoff.offer(entry);
+    }
+  }
+
+  @Override
+  public void invalidateObject(final Connection connection) {
+    invalidateObject(connection, DestroyMode.NORMAL);
+  }
+
+  @Override
+  public void invalidateObject(final Connection connection, final DestroyMode destroyMode) {
+    final Entry entry = entryByConnection.get(connection);
+    if (entry != null) {
+      destroy(entry);
+    }
+  }
+
+  private void destroy(final Entry entry) {
+    final int previous = entry.state.getAndSet(REMOVED);
+    if (previous == REMOVED) {
+      return;
+    }
+    if (previous == IDLE) {
+      idle.decrementAndGet();
+    }
+    entries.remove(entry);
+    entryByConnection.remove(entry.connection());
+    total.decrementAndGet();
+    try {
+      factory.destroyObject(entry.pooled);
+    } catch (Exception e) {
+      logger.debug("Error while destroying a pooled connection.", e);
+    }
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertNotClosed();
+    create(IDLE);
+  }
+
+  /**
+   * Destroys the connections which have been idle for too long, validates idle connections if
+   * {@link #getTestWhileIdle() testWhileIdle}, releases the buffers of the connections which have
+   * been idle for a while, and then opens connections up to {@link #getMinIdle() minIdle}.
+   */
+  @Override
+  public void evict() throws Exception {
+    if (isClosed()) {
+      return;
+    }
+    final long minIdleNanos = getMinEvictableIdleDuration().toNanos();
+    final long softMinIdleNanos = getSoftMinEvictableIdleDuration().toNanos();
+    final long now = System.nanoTime();
+    for (Entry entry : entries) {
+      if (!entry.claim()) {
+        continue;
+      }
+      final long idleNanos = now - entry.lastReturned;
+      boolean keep = !((minIdleNanos > 0 && idleNanos > minIdleNanos)
+          || (softMinIdleNanos > 0 && idleNanos > softMinIdleNanos && idle.get() + 1 > getMinIdle()));
+      if (keep && getTestWhileIdle()) {
+        try {
+          factory.activateObject(entry.pooled);
+          keep = factory.validateObject(entry.pooled);
+          factory.passivateObject(entry.pooled);
+        } catch (Exception e) {
+          keep = false;
+        }
+      }
+      if (keep && getBufferReleaseIdleNanos() >= 0 && idleNanos >= getBufferReleaseIdleNanos()) {
+        entry.pooled.getObject().releaseBuffers();
+      }
+      if (keep) {
+        idle.incrementAndGet();
+        entry.state.set(IDLE);
+        signalWaiter(entry);
+      } else {
+        destroy(entry);
+      }
+    }
+
+    final int missing = getMinIdle() - idle.get();
+    for (int i = 0; i < missing && create(IDLE) != null; i++) {
+      // opened an idle connection
+    }
+  }
+
+  /**
+   * Releases the buffers of the connections which have been idle for a while, if eviction is
+   * disabled.
+   */
+  private void releaseIdleBuffers() {
+    final long now = System.nanoTime();
+    for (Entry entry : entries) {
+      if (now - entry.lastReturned < getBufferReleaseIdleNanos() || !entry.claim()) {
+        continue;
+      }
+      entry.connection().releaseBuffers();
+      idle.incrementAndGet();
+      entry.state.set(IDLE);
+      signalWaiter(entry);
+    }
+  }
+
+  private void evictQuietly() {
+    try {
+      evict();
+    } catch (Exception e) {
+      logger.debug("Error while evicting pooled connections.", e);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (Entry entry : entries) {
+      if (entry.claim()) {
+        destroy(entry);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    ScheduledFuture<?> task = evictionTask;
+    if (task != null) {
+      task.cancel(false);
+    }
+    super.destroy();
+    clear();
+  }
+
+  @Override
+  public int getNumActive() {
+    return Math.max(total.get() - idle.get(), 0);
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  @Override
+  public int getNumWaiters() {
+    return waiters.get();
+  }
+
+  private void assertNotClosed() {
+    if (isClosed()) {
+      throw new IllegalStateException("Pool not open");
+    }
+  }
+
+  private final class Entry {
+
+    private final PooledObject<Connection> pooled;
+    private final AtomicInteger state;
+    private volatile long lastReturned = System.nanoTime();
+    // created for the borrowing thread, which gets the creation failures
+    private boolean fresh;
+
+    Entry(PooledObject<Connection> pooled, int state) {
+      this.pooled = pooled;
+      this.state = new AtomicInteger(state);
+      this.fresh = state == IN_USE;
+    }
+
+    Connection connection() {
+      return pooled.getObject();
+    }
+
+    boolean claim() {
+      if (state.compareAndSet(IDLE, IN_USE)) {
+        idle.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+  }
+}
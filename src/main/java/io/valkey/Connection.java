@@ -11,17 +11,20 @@ import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import io.valkey.Protocol.Command;
 import io.valkey.Protocol.Keyword;
 import io.valkey.args.ClientAttributeOption;
 import io.valkey.args.Rawable;
+import io.valkey.args.RawableFactory;
 import io.valkey.commands.ProtocolCommand;
 import io.valkey.exceptions.JedisConnectionException;
 import io.valkey.exceptions.JedisDataException;
 import io.valkey.exceptions.JedisException;
 import io.valkey.exceptions.JedisValidationException;
+import io.valkey.jfr.FlightRecorderEvents;
 import io.valkey.util.IOUtils;
 import io.valkey.util.RedisInputStream;
 import io.valkey.util.RedisOutputStream;
@@ -37,6 +40,8 @@ public class Connection implements Closeable {
   private int soTimeout = 0;
   private int infiniteSoTimeout = 0;
   private boolean broken = false;
+  private Predicate<List<Object>> pushHandler = null;
+  private CommandListener commandListener = null;
 
   public Connection() {
     this(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
@@ -135,20 +140,99 @@ public class Connection implements Closeable {
   }
 
   public <T> T executeCommand(final CommandObject<T> commandObject) {
+    return executeCommand(commandObject, false);
+  }
+
+  /**
+   * Executes a command of a slot which this node is importing. ASKING is sent in the same write as
+   * the command, and its reply is read before the one of the command.
+   */
+  public <T> T executeAskingCommand(final CommandObject<T> commandObject) {
+    return executeCommand(commandObject, true);
+  }
+
+  private <T> T executeCommand(final CommandObject<T> commandObject, final boolean asking) {
+    final CommandListener listener = commandListener;
+    final Object event = FlightRecorderEvents.beginCommand();
+    if (listener == null && event == null) {
+      return execute(commandObject, asking);
+    }
+
+    final RedisOutputStream os = outputStream;
+    final RedisInputStream is = inputStream;
+    final long written = os != null ? os.getBytesWritten() : 0;
+    final long read = is != null ? is.getBytesRead() : 0;
+    final long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      return execute(commandObject, asking);
+    } catch (RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      final long duration = System.nanoTime() - start;
+      // the streams are new if the command had to reconnect
+      final long bytesWritten = outputStream == null ? 0
+          : outputStream.getBytesWritten() - (outputStream == os ? written : 0);
+      final long bytesRead = inputStream == null ? 0
+          : inputStream.getBytesRead() - (inputStream == is ? read : 0);
+      final ProtocolCommand command = commandObject.getArguments().getCommand();
+      final HostAndPort node = socketFactory instanceof DefaultJedisSocketFactory
+          ? ((DefaultJedisSocketFactory) socketFactory).getHostAndPort() : null;
+      FlightRecorderEvents.commitCommand(event, command, node, bytesWritten, bytesRead, failure);
+      if (listener != null) {
+        try {
+          listener.commandExecuted(command, node, bytesWritten, bytesRead, duration, failure);
+        } catch (RuntimeException e) {
+          // a failing listener must not fail the command
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends the command and reads its reply. Called within the reporting of the command to the
+   * {@link CommandListener} and Flight Recorder, so a subclass may serve the reply otherwise here.
+   */
+  protected <T> T execute(final CommandObject<T> commandObject, final boolean asking) {
     final CommandArguments args = commandObject.getArguments();
+    if (asking) {
+      sendCommand(Command.ASKING);
+    }
     sendCommand(args);
+    if (asking) {
+      try {
+        getStatusCodeReply();
+      } catch (JedisDataException e) {
+        // the reply of the command is still to be read
+        try {
+          getOne();
+        } catch (JedisDataException ignored) {
+        }
+        throw e;
+      }
+    }
     if (!args.isBlocking()) {
-      return commandObject.getBuilder().build(getOne());
+      return getReply(commandObject.getBuilder());
     } else {
       try {
         setTimeoutInfinite();
-        return commandObject.getBuilder().build(getOne());
+        return getReply(commandObject.getBuilder());
       } finally {
         rollbackTimeout();
       }
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <T> T getReply(final Builder<T> builder) {
+    if (builder instanceof ReplyDecoder) {
+      flush();
+      return readProtocolWithCheckingBroken(builder, (ReplyDecoder<T>) builder);
+    }
+    return builder.build(getOne());
+  }
+
   public void sendCommand(final ProtocolCommand cmd) {
     sendCommand(new CommandArguments(cmd));
   }
@@ -336,7 +420,7 @@ public class Connection implements Closeable {
     return readProtocolWithCheckingBroken();
   }
 
-  protected void flush() {
+  public void flush() {
     try {
       outputStream.flush();
     } catch (IOException ex) {
@@ -345,13 +429,43 @@ public class Connection implements Closeable {
     }
   }
 
+  private <T> T readProtocolWithCheckingBroken(final Builder<T> builder, final ReplyDecoder<T> decoder) {
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    try {
+      if (pushHandler != null) {
+        final List<Object> push = Protocol.readPushesBeforeReply(inputStream, pushHandler);
+        if (push != null) {
+          return builder.build(push);
+        }
+      }
+      final T reply = Protocol.decode(inputStream, decoder);
+      inputStream.adaptBuffer();
+      return reply;
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    } catch (JedisDataException de) {
+      throw de; // error replies and elements are read completely
+    } catch (RuntimeException re) {
+      // a reply of an unexpected shape may be left partly read, its rest would be read as the next one
+      broken = true;
+      throw re;
+    }
+  }
+
   protected Object readProtocolWithCheckingBroken() {
     if (broken) {
       throw new JedisConnectionException("Attempting to read from a broken connection");
     }
 
     try {
-      return Protocol.read(inputStream);
+      final Object reply = pushHandler != null ? Protocol.read(inputStream, pushHandler)
+          : Protocol.read(inputStream);
+      inputStream.adaptBuffer();
+      return reply;
 //      Object read = Protocol.read(inputStream);
 //      System.out.println(SafeEncoder.encodeObject(read));
 //      return read;
@@ -361,6 +475,43 @@ public class Connection implements Closeable {
     }
   }
 
+  /**
+   * RESP3 push messages read by this connection are handed to {@code pushHandler} first; only those
+   * it does not handle are returned as replies.
+   */
+  protected final void setPushHandler(Predicate<List<Object>> pushHandler) {
+    this.pushHandler = pushHandler;
+  }
+
+  /**
+   * Processes the push messages which have already been received, without blocking for more.
+   */
+  protected void readPushes() {
+    if (broken || pushHandler == null || !isConnected()) {
+      return;
+    }
+
+    try {
+      Protocol.readPushes(inputStream, pushHandler);
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    }
+  }
+
+  /**
+   * Gives the I/O buffers back to the shared pool while the connection is idle. They are taken again
+   * when the connection is used.
+   */
+  public void releaseBuffers() {
+    if (outputStream != null) {
+      outputStream.releaseBuffer();
+    }
+    if (inputStream != null) {
+      inputStream.releaseBuffer();
+    }
+  }
+
   public List<Object> getMany(final int count) {
     flush();
     final List<Object> responses = new ArrayList<>(count);
@@ -396,26 +547,47 @@ public class Connection implements Closeable {
       connect();
 
       protocol = config.getRedisProtocol();
+      commandListener = config.getCommandListener();
 
       final Supplier<RedisCredentials> credentialsProvider = config.getCredentialsProvider();
       if (credentialsProvider instanceof RedisCredentialsProvider) {
         final RedisCredentialsProvider redisCredentialsProvider = (RedisCredentialsProvider) credentialsProvider;
         try {
           redisCredentialsProvider.prepare();
-          helloOrAuth(protocol, redisCredentialsProvider.get());
+          handshake(config, redisCredentialsProvider.get());
         } finally {
           redisCredentialsProvider.cleanUp();
         }
       } else {
-        helloOrAuth(protocol, credentialsProvider != null ? credentialsProvider.get()
+        handshake(config, credentialsProvider != null ? credentialsProvider.get()
             : new DefaultRedisCredentials(config.getUser(), config.getPassword()));
       }
 
-      List<CommandArguments> fireAndForgetMsg = new ArrayList<>();
+    } catch (JedisException je) {
+      try {
+        disconnect();
+      } catch (Exception e) {
+        // the first exception 'je' will be thrown
+      }
+      throw je;
+    }
+  }
+
+  /**
+   * Sends all commands of the handshake at once and reads their replies afterwards, so that a new
+   * connection is ready after a single round trip. An error of HELLO, AUTH or SELECT is thrown, in
+   * the order of the commands; errors of the CLIENT commands, e.g. by servers which don't know
+   * CLIENT SETINFO, are ignored.
+   */
+  private void handshake(final JedisClientConfig config, final RedisCredentials credentials) {
+    final List<HandshakeStep> steps = new ArrayList<>();
+    final byte[] rawPass = helloOrAuth(steps, protocol, credentials);
 
+    try {
       String clientName = config.getClientName();
       if (clientName != null && validateClientInfo(clientName)) {
-        fireAndForgetMsg.add(new CommandArguments(Command.CLIENT).add(Keyword.SETNAME).add(clientName));
+        steps.add(new HandshakeStep(new CommandArguments(Command.CLIENT).add(Keyword.SETNAME)
+            .add(clientName), false));
       }
 
       // CLIENT SETINFO LIB-NAME & LIB-VER
@@ -429,14 +601,14 @@ public class Connection implements Closeable {
           if (libNameSuffix != null) { // validation is moved into ClientSetInfoConfig constructor
             libName = libName + '(' + libNameSuffix + ')';
           }
-          fireAndForgetMsg.add(new CommandArguments(Command.CLIENT).add(Keyword.SETINFO)
-              .add(ClientAttributeOption.LIB_NAME.getRaw()).add(libName));
+          steps.add(new HandshakeStep(new CommandArguments(Command.CLIENT).add(Keyword.SETINFO)
+              .add(ClientAttributeOption.LIB_NAME.getRaw()).add(libName), false));
         }
 
         String libVersion = JedisMetaInfo.getVersion();
         if (libVersion != null && validateClientInfo(libVersion)) {
-          fireAndForgetMsg.add(new CommandArguments(Command.CLIENT).add(Keyword.SETINFO)
-              .add(ClientAttributeOption.LIB_VER.getRaw()).add(libVersion));
+          steps.add(new HandshakeStep(new CommandArguments(Command.CLIENT).add(Keyword.SETINFO)
+              .add(ClientAttributeOption.LIB_VER.getRaw()).add(libVersion), false));
         }
       }
 
@@ -445,39 +617,49 @@ public class Connection implements Closeable {
       if (capaConfig == null) capaConfig = ClientCapaConfig.DEFAULT;
       if (!capaConfig.isDisabled()) {
         if (capaConfig.isRedirect()) {
-          fireAndForgetMsg.add(new CommandArguments(Command.CLIENT).add(Keyword.CAPA)
-              .add(ClientAttributeOption.REDIRECT.getRaw()));
+          steps.add(new HandshakeStep(new CommandArguments(Command.CLIENT).add(Keyword.CAPA)
+              .add(ClientAttributeOption.REDIRECT.getRaw()), false));
         }
       }
 
-      for (CommandArguments arg : fireAndForgetMsg) {
-        sendCommand(arg);
-      }
-      getMany(fireAndForgetMsg.size());
-
       int dbIndex = config.getDatabase();
       if (dbIndex > 0) {
-        select(dbIndex);
+        steps.add(new HandshakeStep(new CommandArguments(Command.SELECT).add(dbIndex), true));
       }
 
-    } catch (JedisException je) {
-      try {
-        disconnect();
-      } catch (Exception e) {
-        // the first exception 'je' will be thrown
+      if (steps.isEmpty()) {
+        return;
+      }
+      for (HandshakeStep step : steps) {
+        sendCommand(step.arguments);
+      }
+      flush();
+    } finally {
+      if (rawPass != null) {
+        Arrays.fill(rawPass, (byte) 0); // clear sensitive data
+      }
+    }
+
+    final List<Object> replies = getMany(steps.size());
+    for (int i = 0; i < steps.size(); i++) {
+      if (steps.get(i).fatal && replies.get(i) instanceof JedisDataException) {
+        throw (JedisDataException) replies.get(i);
       }
-      throw je;
     }
   }
 
-  private void helloOrAuth(final RedisProtocol protocol, final RedisCredentials credentials) {
+  /**
+   * Adds HELLO and/or AUTH to the handshake.
+   * @return the encoded password, which must be cleared after sending, or {@code null}
+   */
+  private static byte[] helloOrAuth(final List<HandshakeStep> steps, final RedisProtocol protocol,
+      final RedisCredentials credentials) {
 
     if (credentials == null || credentials.getPassword() == null) {
       if (protocol != null) {
-        sendCommand(Command.HELLO, encode(protocol.version()));
-        getOne();
+        steps.add(new HandshakeStep(new CommandArguments(Command.HELLO).add(protocol.version()), true));
       }
-      return;
+      return null;
     }
 
     // Source: https://stackoverflow.com/a/9670279/4021802
@@ -485,35 +667,41 @@ public class Connection implements Closeable {
     byte[] rawPass = Arrays.copyOfRange(passBuf.array(), passBuf.position(), passBuf.limit());
     Arrays.fill(passBuf.array(), (byte) 0); // clear sensitive data
 
-    try {
-      /// actual HELLO or AUTH -->
-      if (protocol != null) {
-        if (credentials.getUser() != null) {
-          sendCommand(Command.HELLO, encode(protocol.version()),
-              Keyword.AUTH.getRaw(), encode(credentials.getUser()), rawPass);
-          getOne(); // Map
-        } else {
-          sendCommand(Command.AUTH, rawPass);
-          getStatusCodeReply(); // OK
-          sendCommand(Command.HELLO, encode(protocol.version()));
-          getOne(); // Map
-        }
-      } else { // protocol == null
-        if (credentials.getUser() != null) {
-          sendCommand(Command.AUTH, encode(credentials.getUser()), rawPass);
-        } else {
-          sendCommand(Command.AUTH, rawPass);
-        }
-        getStatusCodeReply(); // OK
+    /// actual HELLO or AUTH -->
+    if (protocol != null) {
+      if (credentials.getUser() != null) {
+        steps.add(new HandshakeStep(new CommandArguments(Command.HELLO).add(protocol.version())
+            .add(Keyword.AUTH).add(credentials.getUser()).add(RawableFactory.wrap(rawPass)), true));
+      } else {
+        steps.add(new HandshakeStep(new CommandArguments(Command.AUTH)
+            .add(RawableFactory.wrap(rawPass)), true));
+        steps.add(new HandshakeStep(new CommandArguments(Command.HELLO).add(protocol.version()), true));
+      }
+    } else { // protocol == null
+      if (credentials.getUser() != null) {
+        steps.add(new HandshakeStep(new CommandArguments(Command.AUTH).add(credentials.getUser())
+            .add(RawableFactory.wrap(rawPass)), true));
+      } else {
+        steps.add(new HandshakeStep(new CommandArguments(Command.AUTH)
+            .add(RawableFactory.wrap(rawPass)), true));
       }
-      /// <-- actual HELLO or AUTH
-    } finally {
-
-      Arrays.fill(rawPass, (byte) 0); // clear sensitive data
     }
+    /// <-- actual HELLO or AUTH
 
     // clearing 'char[] credentials.getPassword()' should be
     // handled in RedisCredentialsProvider.cleanUp()
+    return rawPass;
+  }
+
+  private static class HandshakeStep {
+
+    private final CommandArguments arguments;
+    private final boolean fatal;
+
+    HandshakeStep(CommandArguments arguments, boolean fatal) {
+      this.arguments = arguments;
+      this.fatal = fatal;
+    }
   }
 
   public String select(final int index) {
@@ -7,6 +7,8 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.valkey.csc.CacheConnection;
+import io.valkey.csc.ClientSideCache;
 import io.valkey.exceptions.JedisException;
 
 /**
@@ -20,19 +22,40 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
 
   private final JedisClientConfig clientConfig;
 
+  private final ClientSideCache clientSideCache;
+
   public ConnectionFactory(final HostAndPort hostAndPort) {
     this.clientConfig = DefaultJedisClientConfig.builder().build();
     this.jedisSocketFactory = new DefaultJedisSocketFactory(hostAndPort);
+    this.clientSideCache = null;
   }
 
   public ConnectionFactory(final HostAndPort hostAndPort, final JedisClientConfig clientConfig) {
+    this(hostAndPort, clientConfig, null);
+  }
+
+  /**
+   * @param clientSideCache if not {@code null}, {@link CacheConnection}s sharing it are created
+   */
+  public ConnectionFactory(final HostAndPort hostAndPort, final JedisClientConfig clientConfig,
+      final ClientSideCache clientSideCache) {
     this.clientConfig = DefaultJedisClientConfig.copyConfig(clientConfig);
     this.jedisSocketFactory = new DefaultJedisSocketFactory(hostAndPort, this.clientConfig);
+    this.clientSideCache = clientSideCache;
   }
 
   public ConnectionFactory(final JedisSocketFactory jedisSocketFactory, final JedisClientConfig clientConfig) {
     this.clientConfig = DefaultJedisClientConfig.copyConfig(clientConfig);
     this.jedisSocketFactory = jedisSocketFactory;
+    this.clientSideCache = null;
+  }
+
+  /**
+   * @return the server of the connections, or {@code null} if the socket factory doesn't tell it
+   */
+  HostAndPort getHostAndPort() {
+    return jedisSocketFactory instanceof DefaultJedisSocketFactory
+        ? ((DefaultJedisSocketFactory) jedisSocketFactory).getHostAndPort() : null;
   }
 
   @Override
@@ -56,7 +79,8 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
   public PooledObject<Connection> makeObject() throws Exception {
     Connection jedis = null;
     try {
-      jedis = new Connection(jedisSocketFactory, clientConfig);
+      jedis = clientSideCache == null ? new Connection(jedisSocketFactory, clientConfig)
+          : new CacheConnection(jedisSocketFactory, clientConfig, clientSideCache);
       return new DefaultPooledObject<>(jedis);
     } catch (JedisException je) {
       logger.debug("Error while makeObject", je);
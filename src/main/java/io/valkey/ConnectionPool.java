@@ -1,17 +1,39 @@
 package io.valkey;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.EvictionConfig;
+import org.apache.commons.pool2.impl.EvictionPolicy;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import io.valkey.annots.Internal;
+import io.valkey.jfr.FlightRecorderEvents;
 import io.valkey.util.Pool;
 
 public class ConnectionPool extends Pool<Connection> {
 
+  /**
+   * Shortest time between the evictor runs which only release buffers.
+   */
+  private static final long MIN_BUFFER_RELEASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private boolean warmUpOnCreate = true;
+  private int warmUpParallelism = ConnectionPoolConfig.DEFAULT_WARM_UP_PARALLELISM;
+  private long bufferReleaseIdleNanos = ConnectionPoolConfig.DEFAULT_BUFFER_RELEASE_IDLE_TIME.toNanos();
+
   public ConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
     this(new ConnectionFactory(hostAndPort, clientConfig));
   }
 
   public ConnectionPool(PooledObjectFactory<Connection> factory) {
     super(factory);
+    setUpBufferRelease();
   }
 
   public ConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig,
@@ -21,13 +43,166 @@ public class ConnectionPool extends Pool<Connection> {
 
   public ConnectionPool(PooledObjectFactory<Connection> factory,
       GenericObjectPoolConfig<Connection> poolConfig) {
+    this(factory, poolConfig, false);
+  }
+
+  /**
+   * @param maintainsIdle whether the subclass maintains the idle connections itself, instead of
+   * the evictor of the base pool
+   */
+  ConnectionPool(PooledObjectFactory<Connection> factory, GenericObjectPoolConfig<Connection> poolConfig,
+      boolean maintainsIdle) {
     super(factory, poolConfig);
+    if (poolConfig instanceof ConnectionPoolConfig) {
+      this.warmUpOnCreate = ((ConnectionPoolConfig) poolConfig).getWarmUpOnCreate();
+      this.warmUpParallelism = ((ConnectionPoolConfig) poolConfig).getWarmUpParallelism();
+      this.bufferReleaseIdleNanos = ((ConnectionPoolConfig) poolConfig).getBufferReleaseIdleTime().toNanos();
+    }
+    if (!maintainsIdle) {
+      setUpBufferRelease();
+    }
+  }
+
+  /**
+   * Creates a {@link ConcurrentConnectionPool} if the config asks so, by
+   * {@link ConnectionPoolConfig#setConcurrent(boolean)} or the system property
+   * {@code jedis.pool.concurrent}, or a common pool otherwise.
+   * @param poolConfig may be {@code null} for the default config
+   */
+  public static ConnectionPool create(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    final boolean concurrent = poolConfig instanceof ConnectionPoolConfig
+        ? ((ConnectionPoolConfig) poolConfig).getConcurrent() : ConnectionPoolConfig.DEFAULT_CONCURRENT;
+    if (concurrent) {
+      return new ConcurrentConnectionPool(factory,
+          poolConfig != null ? poolConfig : new GenericObjectPoolConfig<>());
+    }
+    return poolConfig != null ? new ConnectionPool(factory, poolConfig) : new ConnectionPool(factory);
+  }
+
+  /**
+   * Opens connections in the background until the pool has {@link #getMinIdle() minIdle} idle
+   * connections.
+   * @return the number of connections which were opened
+   * @see ConnectionPoolConfig#setWarmUpParallelism(int)
+   */
+  public CompletableFuture<Integer> warmUp() {
+    return warmUp(getMinIdle() - getNumIdle(), warmUpParallelism);
+  }
+
+  /**
+   * Called by clients after creating the pool, to warm it up unless disabled by
+   * {@link ConnectionPoolConfig#setWarmUpOnCreate(boolean)}.
+   */
+  @Internal
+  public void warmUpOnCreate() {
+    if (warmUpOnCreate && getMinIdle() > 0) {
+      warmUp();
+    }
   }
 
   @Override
   public Connection getResource() {
-    Connection conn = super.getResource();
-    conn.setHandlingPool(this);
-    return conn;
+    final Object event = FlightRecorderEvents.beginPoolBorrow();
+    if (event == null) {
+      Connection conn = borrowResource();
+      conn.setHandlingPool(this);
+      return conn;
+    }
+
+    Throwable failure = null;
+    try {
+      Connection conn = borrowResource();
+      conn.setHandlingPool(this);
+      return conn;
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      final PooledObjectFactory<Connection> factory = getFactory();
+      FlightRecorderEvents.commitPoolBorrow(event, factory instanceof ConnectionFactory
+          ? ((ConnectionFactory) factory).getHostAndPort() : null,
+          getNumActive(), getNumIdle(), getNumWaiters(), failure);
+    }
+  }
+
+  /**
+   * Lets the evictor release the buffers of idle connections. If eviction is disabled, as by default
+   * with a plain {@link GenericObjectPoolConfig}, the evictor is enabled only to release buffers;
+   * it then neither evicts nor validates connections, but opens connections up to
+   * {@link #getMinIdle() minIdle} as usual.
+   */
+  private void setUpBufferRelease() {
+    if (bufferReleaseIdleNanos < 0) {
+      return;
+    }
+    final Duration evictionInterval = getDurationBetweenEvictionRuns();
+    final boolean releaseOnly = evictionInterval.isNegative() || evictionInterval.isZero();
+    setEvictionPolicy(new ReleasingBuffersEvictionPolicy(getEvictionPolicy(), releaseOnly));
+    if (releaseOnly) {
+      setTestWhileIdle(false);
+      setNumTestsPerEvictionRun(-1);
+      setDurationBetweenEvictionRuns(getBufferReleaseInterval());
+    }
+  }
+
+  /**
+   * @return how often buffers are released if the connections are not evicted otherwise
+   */
+  final Duration getBufferReleaseInterval() {
+    return Duration.ofNanos(Math.max(bufferReleaseIdleNanos, MIN_BUFFER_RELEASE_INTERVAL_NANOS));
+  }
+
+  /**
+   * @return how long a connection is idle before its buffers are released, negative for never
+   * @see ConnectionPoolConfig#setBufferReleaseIdleTime(Duration)
+   */
+  final long getBufferReleaseIdleNanos() {
+    return bufferReleaseIdleNanos;
+  }
+
+  /**
+   * Releases the buffers of the connections tested by the evictor which have been idle for long,
+   * instead of releasing them each time a connection is returned.
+   */
+  private final class ReleasingBuffersEvictionPolicy implements EvictionPolicy<Connection> {
+
+    private final EvictionPolicy<Connection> policy;
+    private final boolean releaseOnly;
+
+    private ReleasingBuffersEvictionPolicy(EvictionPolicy<Connection> policy, boolean releaseOnly) {
+      this.policy = policy;
+      this.releaseOnly = releaseOnly;
+    }
+
+    @Override
+    public boolean evict(EvictionConfig config, PooledObject<Connection> underTest, int idleCount) {
+      if (!releaseOnly && policy.evict(config, underTest, idleCount)) {
+        return true;
+      }
+      if (underTest.getIdleDuration().toNanos() >= bufferReleaseIdleNanos) {
+        underTest.getObject().releaseBuffers();
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Borrows a connection by the methods of the base pool.
+   */
+  Connection borrowResource() {
+    return super.getResource();
+  }
+
+  /**
+   * Shared thread of the pools which maintain their idle connections themselves.
+   */
+  static class Evictor {
+
+    static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "valkey-pool-evictor");
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 }
@@ -5,6 +5,28 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 public class ConnectionPoolConfig extends GenericObjectPoolConfig<Connection> {
 
+  public static final int DEFAULT_WARM_UP_PARALLELISM = 4;
+
+  /**
+   * Whether clients create {@link ConcurrentConnectionPool}s by default.
+   */
+  static final boolean DEFAULT_CONCURRENT = Boolean.parseBoolean(
+      System.getProperty("jedis.pool.concurrent", "false"));
+
+  /**
+   * Default of {@link #setBufferReleaseIdleTime(Duration)}, from the system properties
+   * {@code jedis.bufferSize.releaseIdle} and {@code jedis.bufferSize.releaseIdleMillis}.
+   */
+  static final Duration DEFAULT_BUFFER_RELEASE_IDLE_TIME = Boolean.parseBoolean(
+      System.getProperty("jedis.bufferSize.releaseIdle", "true"))
+      ? Duration.ofMillis(Long.getLong("jedis.bufferSize.releaseIdleMillis", 10000)) : Duration.ofMillis(-1);
+
+  private boolean warmUpOnCreate = true;
+  private int warmUpParallelism = DEFAULT_WARM_UP_PARALLELISM;
+  private boolean concurrent = DEFAULT_CONCURRENT;
+  private Duration validationInterval = Duration.ofMillis(500);
+  private Duration bufferReleaseIdleTime = DEFAULT_BUFFER_RELEASE_IDLE_TIME;
+
   public ConnectionPoolConfig() {
     // defaults to make your life with connection pool easier :)
     setTestWhileIdle(true);
@@ -12,4 +34,67 @@ public class ConnectionPoolConfig extends GenericObjectPoolConfig<Connection> {
     setTimeBetweenEvictionRuns(Duration.ofMillis(30000));
     setNumTestsPerEvictionRun(-1);
   }
+
+  public boolean getWarmUpOnCreate() {
+    return warmUpOnCreate;
+  }
+
+  /**
+   * Whether pools which clients create, initially or for new cluster nodes, are filled up to
+   * {@link #getMinIdle() minIdle} connections in the background.
+   */
+  public void setWarmUpOnCreate(boolean warmUpOnCreate) {
+    this.warmUpOnCreate = warmUpOnCreate;
+  }
+
+  public int getWarmUpParallelism() {
+    return warmUpParallelism;
+  }
+
+  /**
+   * The number of connections of a pool which are opened at the same time while warming up.
+   */
+  public void setWarmUpParallelism(int warmUpParallelism) {
+    this.warmUpParallelism = warmUpParallelism;
+  }
+
+  public boolean getConcurrent() {
+    return concurrent;
+  }
+
+  /**
+   * Whether clients create a {@link ConcurrentConnectionPool} instead of a pool based on
+   * {@link org.apache.commons.pool2.impl.GenericObjectPool}. Defaults to the system property
+   * {@code jedis.pool.concurrent}.
+   */
+  public void setConcurrent(boolean concurrent) {
+    this.concurrent = concurrent;
+  }
+
+  public Duration getValidationInterval() {
+    return validationInterval;
+  }
+
+  /**
+   * Connections of a {@link ConcurrentConnectionPool} which were used more recently than this are
+   * not validated on borrow, even if {@link #getTestOnBorrow() testOnBorrow} is set.
+   */
+  public void setValidationInterval(Duration validationInterval) {
+    this.validationInterval = validationInterval;
+  }
+
+  public Duration getBufferReleaseIdleTime() {
+    return bufferReleaseIdleTime;
+  }
+
+  /**
+   * Connections which have been idle for longer than this give their I/O buffers back to the shared
+   * pool. It is checked by the evictor, so it is effectively rounded up to the
+   * {@link #getDurationBetweenEvictionRuns() time between eviction runs}; if eviction is disabled,
+   * the evictor still runs this often (at least every 100 ms) to release buffers, without evicting
+   * or validating connections. Negative never releases them.
+   */
+  public void setBufferReleaseIdleTime(Duration bufferReleaseIdleTime) {
+    this.bufferReleaseIdleTime = bufferReleaseIdleTime;
+  }
 }
@@ -27,11 +27,14 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
   private final ClientSetInfoConfig clientSetInfoConfig;
   private final ClientCapaConfig clientCapaConfig;
 
+  private final CommandListener commandListener;
+
   private DefaultJedisClientConfig(RedisProtocol protocol, int connectionTimeoutMillis, int soTimeoutMillis,
       int blockingSocketTimeoutMillis, Supplier<RedisCredentials> credentialsProvider, int database,
       String clientName, boolean ssl, SSLSocketFactory sslSocketFactory, SSLParameters sslParameters,
       HostnameVerifier hostnameVerifier, HostAndPortMapper hostAndPortMapper,
-      ClientSetInfoConfig clientSetInfoConfig, ClientCapaConfig clientCapaConfig) {
+      ClientSetInfoConfig clientSetInfoConfig, ClientCapaConfig clientCapaConfig,
+      CommandListener commandListener) {
     this.redisProtocol = protocol;
     this.connectionTimeoutMillis = connectionTimeoutMillis;
     this.socketTimeoutMillis = soTimeoutMillis;
@@ -46,6 +49,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     this.hostAndPortMapper = hostAndPortMapper;
     this.clientSetInfoConfig = clientSetInfoConfig;
     this.clientCapaConfig = clientCapaConfig;
+    this.commandListener = commandListener;
   }
 
   @Override
@@ -129,6 +133,11 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return clientCapaConfig;
   }
 
+  @Override
+  public CommandListener getCommandListener() {
+    return commandListener;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -157,6 +166,8 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     private ClientSetInfoConfig clientSetInfoConfig = ClientSetInfoConfig.DEFAULT;
     private ClientCapaConfig clientCapaConfig = ClientCapaConfig.DEFAULT;
 
+    private CommandListener commandListener = null;
+
     private Builder() {
     }
 
@@ -168,7 +179,8 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
       return new DefaultJedisClientConfig(redisProtocol, connectionTimeoutMillis, socketTimeoutMillis,
           blockingSocketTimeoutMillis, credentialsProvider, database, clientName, ssl,
-          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig, clientCapaConfig);
+          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig, clientCapaConfig,
+          commandListener);
     }
 
     /**
@@ -268,6 +280,11 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       this.clientCapaConfig = capaConfig;
       return this;
     }
+
+    public Builder commandListener(CommandListener commandListener) {
+      this.commandListener = commandListener;
+      return this;
+    }
   }
 
   public static DefaultJedisClientConfig create(int connectionTimeoutMillis, int soTimeoutMillis,
@@ -277,7 +294,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return new DefaultJedisClientConfig(null,
         connectionTimeoutMillis, soTimeoutMillis, blockingSocketTimeoutMillis,
         new DefaultRedisCredentialsProvider(new DefaultRedisCredentials(user, password)), database,
-        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null, null);
+        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null, null, null);
   }
 
   public static DefaultJedisClientConfig copyConfig(JedisClientConfig copy) {
@@ -286,6 +303,6 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
         copy.getBlockingSocketTimeoutMillis(), copy.getCredentialsProvider(),
         copy.getDatabase(), copy.getClientName(), copy.isSsl(), copy.getSslSocketFactory(),
         copy.getSslParameters(), copy.getHostnameVerifier(), copy.getHostAndPortMapper(),
-        copy.getClientSetInfoConfig(), copy.getClientCapaConfig());
+        copy.getClientSetInfoConfig(), copy.getClientCapaConfig(), copy.getCommandListener());
   }
 }
@@ -91,4 +91,12 @@ public interface JedisClientConfig {
   default ClientCapaConfig getClientCapaConfig() {
     return ClientCapaConfig.DEFAULT;
   }
+
+  /**
+   * Notified of every command which is executed by a connection.
+   * @return command listener, or {@code null}
+   */
+  default CommandListener getCommandListener() {
+    return null;
+  }
 }
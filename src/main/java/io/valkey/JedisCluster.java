@@ -1,12 +1,20 @@
 package io.valkey;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import io.valkey.executors.ClusterCommandExecutor;
 import io.valkey.providers.ClusterConnectionProvider;
 import io.valkey.util.JedisClusterCRC16;
 
@@ -205,6 +213,16 @@ public class JedisCluster extends UnifiedJedis {
         maxAttempts, maxTotalRetriesDuration, clientConfig.getRedisProtocol());
   }
 
+  /**
+   * @param readFrom chooses the nodes, primary or replicas, which read-only commands are sent to
+   */
+  public JedisCluster(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Duration topologyRefreshPeriod, int maxAttempts,
+      Duration maxTotalRetriesDuration, ReadFrom readFrom) {
+    this(new ClusterConnectionProvider(clusterNodes, clientConfig, poolConfig, topologyRefreshPeriod, readFrom),
+        maxAttempts, maxTotalRetriesDuration, clientConfig.getRedisProtocol());
+  }
+
   public JedisCluster(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig, int maxAttempts,
       Duration maxTotalRetriesDuration, GenericObjectPoolConfig<Connection> poolConfig) {
     this(new ClusterConnectionProvider(clusterNodes, clientConfig, poolConfig), maxAttempts, maxTotalRetriesDuration,
@@ -230,7 +248,162 @@ public class JedisCluster extends UnifiedJedis {
     return ((ClusterConnectionProvider) provider).getConnectionFromSlot(slot);
   }
 
+  /**
+   * @return how often slots were updated from MOVED redirections and renewed as a whole
+   */
+  public ClusterTopologyStats getTopologyStats() {
+    return ((ClusterConnectionProvider) provider).getTopologyStats();
+  }
+
   // commands
+  /**
+   * Keys of different hash slots are fetched with one MGET per slot, the slots of each node
+   * pipelined and the nodes called in parallel.
+   */
+  @Override
+  public List<String> mget(String... keys) {
+    return scatterGather(keys, 1, JedisClusterCRC16::getSlot, commandObjects::mget, super::mget);
+  }
+
+  @Override
+  public List<byte[]> mget(byte[]... keys) {
+    return scatterGather(keys, 1, JedisClusterCRC16::getSlot, commandObjects::mget, super::mget);
+  }
+
+  /**
+   * Keys of different hash slots are set with one MSET per slot, so the keys are not set atomically.
+   */
+  @Override
+  public String mset(String... keysvalues) {
+    return scatter(keysvalues, 2, JedisClusterCRC16::getSlot, commandObjects::mset, super::mset).get(0);
+  }
+
+  @Override
+  public String mset(byte[]... keysvalues) {
+    return scatter(keysvalues, 2, JedisClusterCRC16::getSlot, commandObjects::mset, super::mset).get(0);
+  }
+
+  @Override
+  public long del(String... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::del, super::del));
+  }
+
+  @Override
+  public long del(byte[]... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::del, super::del));
+  }
+
+  @Override
+  public long unlink(String... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::unlink, super::unlink));
+  }
+
+  @Override
+  public long unlink(byte[]... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::unlink, super::unlink));
+  }
+
+  @Override
+  public long exists(String... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::exists, super::exists));
+  }
+
+  @Override
+  public long exists(byte[]... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::exists, super::exists));
+  }
+
+  @Override
+  public long touch(String... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::touch, super::touch));
+  }
+
+  @Override
+  public long touch(byte[]... keys) {
+    return sum(scatter(keys, 1, JedisClusterCRC16::getSlot, commandObjects::touch, super::touch));
+  }
+
+  /**
+   * Splits {@code args} by the hash slot of their keys and executes one command per slot.
+   *
+   * @param args keys, each followed by {@code step - 1} values
+   * @param singleSlot executes the command, if all keys belong to a single slot
+   * @return the replies of the commands of the slots
+   */
+  private <K, T> List<T> scatter(K[] args, int step, ToIntFunction<K> slotFunction,
+      Function<K[], CommandObject<T>> commandFunction, Function<K[], T> singleSlot) {
+    Collection<List<Integer>> slotGroups = groupBySlot(args, step, slotFunction);
+    if (slotGroups.size() < 2) {
+      return Collections.singletonList(singleSlot.apply(args));
+    }
+
+    List<CommandObject<T>> commands = new ArrayList<>(slotGroups.size());
+    for (List<Integer> group : slotGroups) {
+      commands.add(commandFunction.apply(select(args, step, group)));
+    }
+    return ((ClusterCommandExecutor) executor).executeMultiSlotCommands(commands);
+  }
+
+  /**
+   * Same as {@link #scatter}, with the list replies of the slots put back in the order of the keys.
+   */
+  private <K, V> List<V> scatterGather(K[] keys, int step, ToIntFunction<K> slotFunction,
+      Function<K[], CommandObject<List<V>>> commandFunction, Function<K[], List<V>> singleSlot) {
+    Collection<List<Integer>> slotGroups = groupBySlot(keys, step, slotFunction);
+    if (slotGroups.size() < 2) {
+      return singleSlot.apply(keys);
+    }
+
+    List<CommandObject<List<V>>> commands = new ArrayList<>(slotGroups.size());
+    for (List<Integer> group : slotGroups) {
+      commands.add(commandFunction.apply(select(keys, step, group)));
+    }
+    List<List<V>> replies = ((ClusterCommandExecutor) executor).executeMultiSlotCommands(commands);
+
+    List<V> gathered = new ArrayList<>(Collections.nCopies(keys.length / step, null));
+    int g = 0;
+    for (List<Integer> group : slotGroups) {
+      List<V> reply = replies.get(g++);
+      for (int i = 0; i < group.size(); i++) {
+        gathered.set(group.get(i) / step, reply.get(i));
+      }
+    }
+    return gathered;
+  }
+
+  /**
+   * @return positions of the keys in {@code args}, grouped by hash slot
+   */
+  private static <K> Collection<List<Integer>> groupBySlot(K[] args, int step, ToIntFunction<K> slotFunction) {
+    if (args.length % step != 0) {
+      return Collections.emptyList(); // left to the server to reply with an error
+    }
+    Map<Integer, List<Integer>> slotGroups = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i += step) {
+      slotGroups.computeIfAbsent(slotFunction.applyAsInt(args[i]), slot -> new ArrayList<>()).add(i);
+    }
+    return slotGroups.values();
+  }
+
+  private static <K> K[] select(K[] args, int step, List<Integer> positions) {
+    K[] selected = Arrays.copyOf(args, positions.size() * step);
+    int s = 0;
+    for (int position : positions) {
+      for (int j = 0; j < step; j++) {
+        selected[s++] = args[position + j];
+      }
+    }
+    return selected;
+  }
+
+  private static long sum(List<Long> replies) {
+    long sum = 0;
+    for (Long reply : replies) {
+      sum += reply;
+    }
+    return sum;
+  }
+
   public long spublish(String channel, String message) {
     return executeCommand(commandObjects.spublish(channel, message));
   }
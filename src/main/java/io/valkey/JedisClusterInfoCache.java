@@ -10,22 +10,30 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.valkey.annots.Internal;
 import io.valkey.exceptions.JedisClusterOperationException;
+import io.valkey.exceptions.JedisDataException;
 import io.valkey.exceptions.JedisException;
+import io.valkey.jfr.FlightRecorderEvents;
+import io.valkey.util.KeyValue;
 import io.valkey.util.SafeEncoder;
 
 @Internal
@@ -33,13 +41,19 @@ public class JedisClusterInfoCache {
 
   private static final Logger logger = LoggerFactory.getLogger(JedisClusterInfoCache.class);
 
-  private final Map<String, ConnectionPool> nodes = new HashMap<>();
-  private final ConnectionPool[] slots = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS];
-  private final HostAndPort[] slotNodes = new HostAndPort[Protocol.CLUSTER_HASHSLOTS];
+  private final Map<String, ConnectionPool> nodes = new ConcurrentHashMap<>();
+  private final Map<String, ConnectionPool> readOnlyNodes = new ConcurrentHashMap<>();
 
-  private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-  private final Lock r = rwl.readLock();
-  private final Lock w = rwl.writeLock();
+  /**
+   * Never modified once published; changes are made on a copy which then replaces it, so that slot
+   * lookups need no lock.
+   */
+  private volatile SlotTable slotTable = new SlotTable();
+
+  /**
+   * Serializes the changes of the nodes and of the slot table.
+   */
+  private final Lock w = new ReentrantLock();
   private final Lock rediscoverLock = new ReentrantLock();
 
   private final GenericObjectPoolConfig<Connection> poolConfig;
@@ -49,9 +63,25 @@ public class JedisClusterInfoCache {
   private static final int MASTER_NODE_INDEX = 2;
 
   /**
-   * The single thread executor for the topology refresh task.
+   * Default minimum time between two renewals of the slots requested by MOVED redirections.
+   */
+  public static final Duration DEFAULT_TOPOLOGY_REFRESH_MIN_INTERVAL = Duration.ofSeconds(1);
+
+  /**
+   * The single thread executor for the topology refresh task and the requested renewals.
    */
   private ScheduledExecutorService topologyRefreshExecutor = null;
+  private boolean closed = false;
+
+  private volatile long refreshMinIntervalNanos = DEFAULT_TOPOLOGY_REFRESH_MIN_INTERVAL.toNanos();
+  private volatile boolean useClusterShards = false;
+  private final AtomicBoolean renewalScheduled = new AtomicBoolean(false);
+  private volatile long lastRenewalNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+  private final LongAdder slotUpdates = new LongAdder();
+  private final LongAdder renewalRequests = new LongAdder();
+  private final LongAdder coalescedRenewalRequests = new LongAdder();
+  private final LongAdder renewals = new LongAdder();
 
   class TopologyRefreshTask implements Runnable {
     @Override
@@ -79,8 +109,7 @@ public class JedisClusterInfoCache {
     this.startNodes = startNodes;
     if (topologyRefreshPeriod != null) {
       logger.info("Cluster topology refresh start, period: {}, startNodes: {}", topologyRefreshPeriod, startNodes);
-      topologyRefreshExecutor = Executors.newSingleThreadScheduledExecutor();
-      topologyRefreshExecutor.scheduleWithFixedDelay(new TopologyRefreshTask(), topologyRefreshPeriod.toMillis(),
+      getTopologyRefreshExecutor().scheduleWithFixedDelay(new TopologyRefreshTask(), topologyRefreshPeriod.toMillis(),
           topologyRefreshPeriod.toMillis(), TimeUnit.MILLISECONDS);
     }
   }
@@ -109,7 +138,7 @@ public class JedisClusterInfoCache {
   }
 
   public void discoverClusterNodesAndSlots(Connection jedis) {
-    List<Object> slotsInfo = executeClusterSlots(jedis);
+    List<Object> slotsInfo = executeClusterTopology(jedis);
     if (System.getProperty(JedisCluster.INIT_NO_ERROR_PROPERTY) == null) {
       if (slotsInfo.isEmpty()) {
         throw new JedisClusterOperationException("Cluster slots list is empty.");
@@ -121,6 +150,7 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       reset();
+      SlotTable table = new SlotTable();
       for (Object slotInfoObj : slotsInfo) {
         List<Object> slotInfo = (List<Object>) slotInfoObj;
 
@@ -132,6 +162,7 @@ public class JedisClusterInfoCache {
 
         // hostInfos
         int size = slotInfo.size();
+        List<HostAndPort> replicas = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -139,12 +170,16 @@ public class JedisClusterInfoCache {
           }
 
           HostAndPort targetNode = generateHostAndPort(hostInfos);
-          setupNodeIfNotExist(targetNode);
+          ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
+            table.assign(slotNums, targetNode, targetPool);
+          } else {
+            replicas.add(targetNode);
           }
         }
+        table.assignReplicas(slotNums, replicas);
       }
+      slotTable = table;
     } finally {
       w.unlock();
     }
@@ -153,6 +188,10 @@ public class JedisClusterInfoCache {
   public void renewClusterSlots(Connection jedis) {
     // If rediscovering is already in process - no need to start one more same rediscovering, just return
     if (rediscoverLock.tryLock()) {
+      lastRenewalNanos = System.nanoTime();
+      renewals.increment();
+      final Object event = FlightRecorderEvents.beginClusterRefresh();
+      final SlotTable previous = slotTable;
       try {
         // First, if jedis is available, use jedis renew.
         if (jedis != null) {
@@ -193,12 +232,104 @@ public class JedisClusterInfoCache {
 
       } finally {
         rediscoverLock.unlock();
+        if (FlightRecorderEvents.shouldCommit(event)) {
+          final SlotTable current = slotTable;
+          FlightRecorderEvents.commitClusterRefresh(event, current != previous,
+              current.changedSlots(previous), nodes.size());
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies a MOVED redirection: the slot is assigned to the target node at once, and a renewal of
+   * all slots is requested, as other slots are likely being moved as well.
+   */
+  public void movedSlot(int slot, HostAndPort targetNode) {
+    if (!targetNode.equals(slotTable.nodes[slot])) {
+      assignSlotToNode(slot, targetNode);
+      slotUpdates.increment();
+    }
+    requestClusterSlotsRenewal();
+  }
+
+  /**
+   * Renews the slots in the background, at most once per
+   * {@link #setTopologyRefreshMinInterval(Duration) minimum interval}. Requests made while a renewal
+   * is pending are coalesced into it.
+   */
+  public void requestClusterSlotsRenewal() {
+    renewalRequests.increment();
+    if (!renewalScheduled.compareAndSet(false, true)) {
+      coalescedRenewalRequests.increment();
+      return;
+    }
+
+    long delay = Math.max(0, lastRenewalNanos + refreshMinIntervalNanos - System.nanoTime());
+    try {
+      ScheduledExecutorService executor = getTopologyRefreshExecutor();
+      if (executor != null) {
+        executor.schedule(() -> {
+          lastRenewalNanos = System.nanoTime();
+          renewalScheduled.set(false);
+          renewClusterSlots(null);
+        }, delay, TimeUnit.NANOSECONDS);
+        return;
       }
+    } catch (RejectedExecutionException e) {
+      // closed meanwhile
     }
+    renewalScheduled.set(false);
+  }
+
+  /**
+   * Sets the minimum time between two renewals requested by {@link #requestClusterSlotsRenewal()}.
+   * Zero renews at once after each request which is not coalesced.
+   */
+  public void setTopologyRefreshMinInterval(Duration minInterval) {
+    if (minInterval.isNegative()) {
+      throw new IllegalArgumentException("Topology refresh min interval must not be negative.");
+    }
+    this.refreshMinIntervalNanos = minInterval.toNanos();
+  }
+
+  /**
+   * Reads the topology with CLUSTER SHARDS instead of CLUSTER SLOTS. Nodes not supporting CLUSTER
+   * SHARDS are read with CLUSTER SLOTS.
+   */
+  public void setUseClusterShards(boolean useClusterShards) {
+    this.useClusterShards = useClusterShards;
+  }
+
+  public ClusterTopologyStats getTopologyStats() {
+    return new ClusterTopologyStats(slotUpdates.sum(), renewalRequests.sum(),
+        coalescedRenewalRequests.sum(), renewals.sum());
+  }
+
+  /**
+   * Runs a task at once and then periodically on the thread which refreshes the topology, until this
+   * cache is closed. The task must not block for long, as it delays the renewals of the slots.
+   */
+  public void schedulePeriodicTask(Runnable task, Duration period) {
+    ScheduledExecutorService executor = getTopologyRefreshExecutor();
+    if (executor != null) {
+      executor.scheduleWithFixedDelay(task, 0, period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private synchronized ScheduledExecutorService getTopologyRefreshExecutor() {
+    if (topologyRefreshExecutor == null && !closed) {
+      topologyRefreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "valkey-cluster-topology-refresh");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return topologyRefreshExecutor;
   }
 
   private void discoverClusterSlots(Connection jedis) {
-    List<Object> slotsInfo = executeClusterSlots(jedis);
+    List<Object> slotsInfo = executeClusterTopology(jedis);
     if (System.getProperty(JedisCluster.INIT_NO_ERROR_PROPERTY) == null) {
       if (slotsInfo.isEmpty()) {
         throw new JedisClusterOperationException("Cluster slots list is empty.");
@@ -209,8 +340,8 @@ public class JedisClusterInfoCache {
     }
     w.lock();
     try {
-      Arrays.fill(slots, null);
-      Arrays.fill(slotNodes, null);
+      // built aside, readers keep using the current table until it is replaced
+      SlotTable table = new SlotTable();
       Set<String> hostAndPortKeys = new HashSet<>();
 
       for (Object slotInfoObj : slotsInfo) {
@@ -223,6 +354,7 @@ public class JedisClusterInfoCache {
         List<Integer> slotNums = getAssignedSlotArray(slotInfo);
 
         int size = slotInfo.size();
+        List<HostAndPort> replicas = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -231,12 +363,16 @@ public class JedisClusterInfoCache {
 
           HostAndPort targetNode = generateHostAndPort(hostInfos);
           hostAndPortKeys.add(getNodeKey(targetNode));
-          setupNodeIfNotExist(targetNode);
+          ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
+            table.assign(slotNums, targetNode, targetPool);
+          } else {
+            replicas.add(targetNode);
           }
         }
+        table.assignReplicas(slotNums, replicas);
       }
+      slotTable = table;
 
       // Remove dead nodes according to the latest query
       Iterator<Entry<String, ConnectionPool>> entryIt = nodes.entrySet().iterator();
@@ -254,6 +390,7 @@ public class JedisClusterInfoCache {
           entryIt.remove();
         }
       }
+      destroyPools(readOnlyNodes, hostAndPortKeys);
     } finally {
       w.unlock();
     }
@@ -266,94 +403,122 @@ public class JedisClusterInfoCache {
   }
 
   public ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
+    String nodeKey = getNodeKey(node);
+    ConnectionPool existingPool = nodes.get(nodeKey);
+    if (existingPool != null) return existingPool;
+
     w.lock();
     try {
-      String nodeKey = getNodeKey(node);
-      ConnectionPool existingPool = nodes.get(nodeKey);
+      existingPool = nodes.get(nodeKey);
       if (existingPool != null) return existingPool;
 
-      ConnectionPool nodePool = poolConfig == null ? new ConnectionPool(node, clientConfig)
-          : new ConnectionPool(node, clientConfig, poolConfig);
+      ConnectionPool nodePool = ConnectionPool.create(new ConnectionFactory(node, clientConfig),
+          poolConfig);
       nodes.put(nodeKey, nodePool);
+      nodePool.warmUpOnCreate();
       return nodePool;
     } finally {
       w.unlock();
     }
   }
 
-  public void assignSlotToNode(int slot, HostAndPort targetNode) {
+  /**
+   * Connections of the returned pool are switched to READONLY mode, so that they can serve reads of
+   * the slots of the node's primary.
+   */
+  public ConnectionPool setupReadOnlyNodeIfNotExist(final HostAndPort node) {
+    String nodeKey = getNodeKey(node);
+    ConnectionPool existingPool = readOnlyNodes.get(nodeKey);
+    if (existingPool != null) return existingPool;
+
     w.lock();
     try {
-      ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
-      slots[slot] = targetPool;
-      slotNodes[slot] = targetNode;
+      existingPool = readOnlyNodes.get(nodeKey);
+      if (existingPool != null) return existingPool;
+
+      ReadOnlyConnectionFactory factory = new ReadOnlyConnectionFactory(node, clientConfig);
+      ConnectionPool nodePool = ConnectionPool.create(factory, poolConfig);
+      readOnlyNodes.put(nodeKey, nodePool);
+      nodePool.warmUpOnCreate();
+      return nodePool;
     } finally {
       w.unlock();
     }
   }
 
+  public void assignSlotToNode(int slot, HostAndPort targetNode) {
+    assignSlotsToNode(Collections.singletonList(slot), targetNode);
+  }
+
   public void assignSlotsToNode(List<Integer> targetSlots, HostAndPort targetNode) {
     w.lock();
     try {
       ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
-      for (Integer slot : targetSlots) {
-        slots[slot] = targetPool;
-        slotNodes[slot] = targetNode;
-      }
+      SlotTable table = slotTable.copy();
+      table.assign(targetSlots, targetNode, targetPool);
+      slotTable = table;
     } finally {
       w.unlock();
     }
   }
 
-  public ConnectionPool getNode(String nodeKey) {
-    r.lock();
+  public void assignSlotsToReplicas(List<Integer> targetSlots, List<HostAndPort> replicas) {
+    w.lock();
     try {
-      return nodes.get(nodeKey);
+      SlotTable table = slotTable.copy();
+      table.assignReplicas(targetSlots, replicas);
+      slotTable = table;
     } finally {
-      r.unlock();
+      w.unlock();
     }
   }
 
+  public ConnectionPool getNode(String nodeKey) {
+    return nodes.get(nodeKey);
+  }
+
   public ConnectionPool getNode(HostAndPort node) {
     return getNode(getNodeKey(node));
   }
 
   public ConnectionPool getSlotPool(int slot) {
-    r.lock();
-    try {
-      return slots[slot];
-    } finally {
-      r.unlock();
-    }
+    return slotTable.pools[slot];
   }
 
   public HostAndPort getSlotNode(int slot) {
-    r.lock();
-    try {
-      return slotNodes[slot];
-    } finally {
-      r.unlock();
-    }
+    return slotTable.nodes[slot];
+  }
+
+  public List<HostAndPort> getSlotReplicas(int slot) {
+    HostAndPort[] replicas = slotTable.replicas[slot];
+    return replicas == null ? Collections.emptyList() : Arrays.asList(replicas);
   }
 
   public Map<String, ConnectionPool> getNodes() {
-    r.lock();
-    try {
-      return new HashMap<>(nodes);
-    } finally {
-      r.unlock();
+    return new HashMap<>(nodes);
+  }
+
+  /**
+   * @return the pools of the nodes which are the primary of at least one slot
+   */
+  public Map<String, ConnectionPool> getPrimaryNodes() {
+    final SlotTable table = slotTable;
+    Map<String, ConnectionPool> primaries = new HashMap<>();
+    HostAndPort previous = null;
+    for (int slot = 0; slot < table.nodes.length; slot++) {
+      HostAndPort node = table.nodes[slot];
+      if (node != null && !node.equals(previous)) {
+        primaries.putIfAbsent(getNodeKey(node), table.pools[slot]);
+        previous = node;
+      }
     }
+    return primaries;
   }
 
   public List<ConnectionPool> getShuffledNodesPool() {
-    r.lock();
-    try {
-      List<ConnectionPool> pools = new ArrayList<>(nodes.values());
-      Collections.shuffle(pools);
-      return pools;
-    } finally {
-      r.unlock();
-    }
+    List<ConnectionPool> pools = new ArrayList<>(nodes.values());
+    Collections.shuffle(pools);
+    return pools;
   }
 
   /**
@@ -372,18 +537,36 @@ public class JedisClusterInfoCache {
         }
       }
       nodes.clear();
-      Arrays.fill(slots, null);
-      Arrays.fill(slotNodes, null);
+      destroyPools(readOnlyNodes, Collections.emptySet());
+      slotTable = new SlotTable();
     } finally {
       w.unlock();
     }
   }
 
   public void close() {
+    synchronized (this) {
+      closed = true;
+      if (topologyRefreshExecutor != null) {
+        logger.info("Cluster topology refresh shutdown, startNodes: {}", startNodes);
+        topologyRefreshExecutor.shutdownNow();
+      }
+    }
     reset();
-    if (topologyRefreshExecutor != null) {
-      logger.info("Cluster topology refresh shutdown, startNodes: {}", startNodes);
-      topologyRefreshExecutor.shutdownNow();
+  }
+
+  private static void destroyPools(Map<String, ConnectionPool> pools, Set<String> keep) {
+    Iterator<Entry<String, ConnectionPool>> entryIt = pools.entrySet().iterator();
+    while (entryIt.hasNext()) {
+      Entry<String, ConnectionPool> entry = entryIt.next();
+      if (!keep.contains(entry.getKey())) {
+        try {
+          entry.getValue().destroy();
+        } catch (RuntimeException e) {
+          // pass, may be this node dead
+        }
+        entryIt.remove();
+      }
     }
   }
 
@@ -392,11 +575,94 @@ public class JedisClusterInfoCache {
     return hnp.toString();
   }
 
+  private List<Object> executeClusterTopology(Connection jedis) {
+    if (useClusterShards) {
+      try {
+        return executeClusterShards(jedis);
+      } catch (JedisDataException e) {
+        logger.debug("CLUSTER SHARDS failed on {}, using CLUSTER SLOTS.", jedis, e);
+      }
+    }
+    return executeClusterSlots(jedis);
+  }
+
   private List<Object> executeClusterSlots(Connection jedis) {
     jedis.sendCommand(Protocol.Command.CLUSTER, "SLOTS");
     return jedis.getObjectMultiBulkReply();
   }
 
+  /**
+   * @return the shards in the form of the reply of CLUSTER SLOTS, the replicas limited to those
+   * which are online
+   */
+  private List<Object> executeClusterShards(Connection jedis) {
+    jedis.sendCommand(Protocol.Command.CLUSTER, "SHARDS");
+    List<Object> shards = jedis.getObjectMultiBulkReply();
+
+    List<Object> slotsInfo = new ArrayList<>();
+    for (Object shard : shards) {
+      Map<String, Object> shardInfo = toMap(shard);
+      List<Object> primary = null;
+      List<Object> replicas = new ArrayList<>();
+      for (Object node : (List<Object>) shardInfo.get("nodes")) {
+        Map<String, Object> nodeInfo = toMap(node);
+        String role = encodeIfBytes(nodeInfo.get("role"));
+        if ("master".equals(role) || "primary".equals(role)) {
+          primary = toHostInfos(nodeInfo);
+        } else if ("online".equals(encodeIfBytes(nodeInfo.get("health")))) {
+          replicas.add(toHostInfos(nodeInfo));
+        }
+      }
+      if (primary == null) {
+        continue;
+      }
+
+      List<Object> ranges = (List<Object>) shardInfo.get("slots");
+      for (int i = 0; i + 1 < ranges.size(); i += 2) {
+        List<Object> slotInfo = new ArrayList<>(MASTER_NODE_INDEX + 1 + replicas.size());
+        slotInfo.add(ranges.get(i));
+        slotInfo.add(ranges.get(i + 1));
+        slotInfo.add(primary);
+        slotInfo.addAll(replicas);
+        slotsInfo.add(slotInfo);
+      }
+    }
+    return slotsInfo;
+  }
+
+  /**
+   * @return the preferred endpoint and the port of the node, like in the reply of CLUSTER SLOTS
+   */
+  private List<Object> toHostInfos(Map<String, Object> nodeInfo) {
+    String host = encodeIfBytes(nodeInfo.get("endpoint"));
+    if (host == null || host.isEmpty() || "?".equals(host)) {
+      host = encodeIfBytes(nodeInfo.get("ip"));
+    }
+    Object port = clientConfig.isSsl() && nodeInfo.get("tls-port") != null
+        ? nodeInfo.get("tls-port") : nodeInfo.get("port");
+    return Arrays.asList(SafeEncoder.encode(host), port);
+  }
+
+  private static Map<String, Object> toMap(Object reply) {
+    List<Object> list = (List<Object>) reply;
+    Map<String, Object> map = new HashMap<>();
+    if (!list.isEmpty() && list.get(0) instanceof KeyValue) {
+      for (Object entry : list) {
+        KeyValue<Object, Object> keyValue = (KeyValue<Object, Object>) entry;
+        map.put(encodeIfBytes(keyValue.getKey()), keyValue.getValue());
+      }
+    } else {
+      for (int i = 0; i + 1 < list.size(); i += 2) {
+        map.put(encodeIfBytes(list.get(i)), list.get(i + 1));
+      }
+    }
+    return map;
+  }
+
+  private static String encodeIfBytes(Object value) {
+    return value instanceof byte[] ? SafeEncoder.encode((byte[]) value) : (String) value;
+  }
+
   private List<Integer> getAssignedSlotArray(List<Object> slotInfo) {
     List<Integer> slotNums = new ArrayList<>();
     for (int slot = ((Long) slotInfo.get(0)).intValue(); slot <= ((Long) slotInfo.get(1))
@@ -405,4 +671,77 @@ public class JedisClusterInfoCache {
     }
     return slotNums;
   }
+
+  /**
+   * The primary node, its pool and the replica nodes of each slot.
+   */
+  private static final class SlotTable {
+
+    private final ConnectionPool[] pools;
+    private final HostAndPort[] nodes;
+    private final HostAndPort[][] replicas;
+
+    private SlotTable() {
+      this(new ConnectionPool[Protocol.CLUSTER_HASHSLOTS], new HostAndPort[Protocol.CLUSTER_HASHSLOTS],
+          new HostAndPort[Protocol.CLUSTER_HASHSLOTS][]);
+    }
+
+    private SlotTable(ConnectionPool[] pools, HostAndPort[] nodes, HostAndPort[][] replicas) {
+      this.pools = pools;
+      this.nodes = nodes;
+      this.replicas = replicas;
+    }
+
+    private SlotTable copy() {
+      return new SlotTable(pools.clone(), nodes.clone(), replicas.clone());
+    }
+
+    /**
+     * @return the number of slots whose primary node differs from the other table
+     */
+    private int changedSlots(SlotTable other) {
+      int changed = 0;
+      for (int slot = 0; slot < nodes.length; slot++) {
+        if (!Objects.equals(nodes[slot], other.nodes[slot])) {
+          changed++;
+        }
+      }
+      return changed;
+    }
+
+    private void assign(List<Integer> targetSlots, HostAndPort targetNode, ConnectionPool targetPool) {
+      for (Integer slot : targetSlots) {
+        pools[slot] = targetPool;
+        nodes[slot] = targetNode;
+      }
+    }
+
+    private void assignReplicas(List<Integer> targetSlots, List<HostAndPort> replicaNodes) {
+      HostAndPort[] replicaArray = replicaNodes.isEmpty() ? null : replicaNodes.toArray(new HostAndPort[0]);
+      for (Integer slot : targetSlots) {
+        replicas[slot] = replicaArray;
+      }
+    }
+  }
+
+  private static class ReadOnlyConnectionFactory extends ConnectionFactory {
+
+    ReadOnlyConnectionFactory(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+      super(hostAndPort, clientConfig);
+    }
+
+    @Override
+    public PooledObject<Connection> makeObject() throws Exception {
+      PooledObject<Connection> pooledConnection = super.makeObject();
+      Connection connection = pooledConnection.getObject();
+      try {
+        connection.sendCommand(Protocol.Command.READONLY);
+        connection.getStatusCodeReply();
+      } catch (JedisException je) {
+        connection.close();
+        throw je;
+      }
+      return pooledConnection;
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package io.valkey;
 
 import java.net.URI;
+import java.time.Duration;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
@@ -8,6 +9,8 @@ import javax.net.ssl.SSLSocketFactory;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import io.valkey.csc.ClientSideCache;
+import io.valkey.executors.AutoPipeliningCommandExecutor;
 import io.valkey.providers.PooledConnectionProvider;
 import io.valkey.util.JedisURIHelper;
 import io.valkey.util.Pool;
@@ -376,6 +379,21 @@ public class JedisPooled extends UnifiedJedis {
     super(new PooledConnectionProvider(hostAndPort, clientConfig, poolConfig), clientConfig.getRedisProtocol());
   }
 
+  /**
+   * Cacheable read commands are served from {@code clientSideCache}, which is kept valid with CLIENT
+   * TRACKING. Requires {@link RedisProtocol#RESP3}.
+   */
+  public JedisPooled(final HostAndPort hostAndPort, final JedisClientConfig clientConfig,
+      final ClientSideCache clientSideCache) {
+    this(hostAndPort, clientConfig, clientSideCache, new GenericObjectPoolConfig<Connection>());
+  }
+
+  public JedisPooled(final HostAndPort hostAndPort, final JedisClientConfig clientConfig,
+      final ClientSideCache clientSideCache, final GenericObjectPoolConfig<Connection> poolConfig) {
+    super(new PooledConnectionProvider(hostAndPort, clientConfig, clientSideCache, poolConfig),
+        clientConfig.getRedisProtocol());
+  }
+
   public JedisPooled(final GenericObjectPoolConfig<Connection> poolConfig,
       final JedisSocketFactory jedisSocketFactory, final JedisClientConfig clientConfig) {
     super(new PooledConnectionProvider(new ConnectionFactory(jedisSocketFactory, clientConfig), poolConfig),
@@ -394,6 +412,17 @@ public class JedisPooled extends UnifiedJedis {
     super(provider);
   }
 
+  /**
+   * Commands of all threads are pipelined over {@code sharedConnections} connections of the pool.
+   *
+   * @see AutoPipeliningCommandExecutor
+   */
+  public JedisPooled(PooledConnectionProvider provider, int sharedConnections, int maxBatchSize,
+      Duration flushInterval) {
+    super(new AutoPipeliningCommandExecutor(provider, sharedConnections, maxBatchSize, flushInterval),
+        provider, new CommandObjects());
+  }
+
   public final Pool<Connection> getPool() {
     return ((PooledConnectionProvider) provider).getPool();
   }
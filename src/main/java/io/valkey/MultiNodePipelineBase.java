@@ -1,19 +1,25 @@
 package io.valkey;
 
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.valkey.exceptions.JedisAskDataException;
 import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisMovedDataException;
+import io.valkey.exceptions.JedisRedirectionException;
 import io.valkey.graph.GraphCommandObjects;
 import io.valkey.providers.ConnectionProvider;
 import io.valkey.util.IOUtils;
@@ -26,16 +32,21 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
    * The number of processes for {@code sync()}. If you have enough cores for client (and you have
    * more than 3 cluster nodes), you may increase this number of workers.
    * Suggestion:&nbsp;&le;&nbsp;cluster&nbsp;nodes.
+   * <p>
+   * Only used by pipelines which don't provide a shared executor by {@link #getSyncExecutor()}.
+   * @deprecated Configure the workers per client, e.g. by
+   * {@link io.valkey.providers.ClusterConnectionProvider#setWorkers(int)}.
    */
+  @Deprecated
   public static volatile int MULTI_NODE_PIPELINE_SYNC_WORKERS = 3;
 
-  private final Map<HostAndPort, Queue<Response<?>>> pipelinedResponses;
+  private final Map<HostAndPort, Queue<PipelinedCommand>> pipelinedCommands;
   private final Map<HostAndPort, Connection> connections;
   private volatile boolean syncing = false;
 
   public MultiNodePipelineBase(CommandObjects commandObjects) {
     super(commandObjects);
-    pipelinedResponses = new LinkedHashMap<>();
+    pipelinedCommands = new LinkedHashMap<>();
     connections = new LinkedHashMap<>();
   }
 
@@ -53,34 +64,66 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
 
   protected abstract Connection getConnection(HostAndPort nodeKey);
 
+  /**
+   * The executor which reads the replies of the nodes in {@link #sync()}. It is shared and must not
+   * be shut down by the pipeline.
+   * @return shared executor, or {@code null} to use a new executor for each sync
+   */
+  protected ExecutorService getSyncExecutor() {
+    return null;
+  }
+
+  /**
+   * If {@code true}, commands which are replied with MOVED or ASK are sent once more to the
+   * redirected node in {@link #sync()}.
+   */
+  protected boolean isFollowingRedirections() {
+    return false;
+  }
+
+  /**
+   * Called for each command replied with MOVED, before the redirected commands are re-sent.
+   */
+  protected void onMovedRedirection(JedisMovedDataException moved) {
+  }
+
   @Override
   protected final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
     HostAndPort nodeKey = getNodeKey(commandObject.getArguments());
 
-    Queue<Response<?>> queue;
+    Queue<PipelinedCommand> queue;
     Connection connection;
-    if (pipelinedResponses.containsKey(nodeKey)) {
-      queue = pipelinedResponses.get(nodeKey);
+    if (pipelinedCommands.containsKey(nodeKey)) {
+      queue = pipelinedCommands.get(nodeKey);
       connection = connections.get(nodeKey);
     } else {
-      Connection newOne = getConnection(nodeKey);
-      connections.putIfAbsent(nodeKey, newOne);
-      connection = connections.get(nodeKey);
-      if (connection != newOne) {
-        log.debug("Duplicate connection to {}, closing it.", nodeKey);
-        IOUtils.closeQuietly(newOne);
-      }
-
-      pipelinedResponses.putIfAbsent(nodeKey, new LinkedList<>());
-      queue = pipelinedResponses.get(nodeKey);
+      connection = getOrCreateConnection(nodeKey);
+      pipelinedCommands.putIfAbsent(nodeKey, new LinkedList<>());
+      queue = pipelinedCommands.get(nodeKey);
     }
 
     connection.sendCommand(commandObject.getArguments());
     Response<T> response = new Response<>(commandObject.getBuilder());
-    queue.add(response);
+    queue.add(new PipelinedCommand(response,
+        isFollowingRedirections() ? commandObject.getArguments() : null));
     return response;
   }
 
+  private Connection getOrCreateConnection(HostAndPort nodeKey) {
+    Connection connection = connections.get(nodeKey);
+    if (connection != null) {
+      return connection;
+    }
+    Connection newOne = getConnection(nodeKey);
+    connections.putIfAbsent(nodeKey, newOne);
+    connection = connections.get(nodeKey);
+    if (connection != newOne) {
+      log.debug("Duplicate connection to {}, closing it.", nodeKey);
+      IOUtils.closeQuietly(newOne);
+    }
+    return connection;
+  }
+
   @Override
   public void close() {
     try {
@@ -97,32 +140,65 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
     }
     syncing = true;
 
-    ExecutorService executorService = Executors.newFixedThreadPool(MULTI_NODE_PIPELINE_SYNC_WORKERS);
+    ExecutorService executorService = getSyncExecutor();
+    boolean ownExecutor = executorService == null;
+    if (ownExecutor) {
+      executorService = Executors.newFixedThreadPool(MULTI_NODE_PIPELINE_SYNC_WORKERS);
+    }
+
+    try {
+      Queue<PipelinedCommand> redirected = isFollowingRedirections() ? new ConcurrentLinkedQueue<>() : null;
+      readReplies(executorService, pipelinedCommands, redirected);
 
-    CountDownLatch countDownLatch = new CountDownLatch(pipelinedResponses.size());
-    Iterator<Map.Entry<HostAndPort, Queue<Response<?>>>> pipelinedResponsesIterator
-        = pipelinedResponses.entrySet().iterator();
-    while (pipelinedResponsesIterator.hasNext()) {
-      Map.Entry<HostAndPort, Queue<Response<?>>> entry = pipelinedResponsesIterator.next();
+      if (redirected != null && !redirected.isEmpty()) {
+        resendRedirected(redirected);
+        readReplies(executorService, pipelinedCommands, null);
+      }
+    } finally {
+      if (ownExecutor) {
+        executorService.shutdownNow();
+      }
+      syncing = false;
+    }
+  }
+
+  /**
+   * Reads the replies of all nodes in parallel. Replies with redirection are collected into
+   * {@code redirected}, if it is not {@code null}, instead of being set.
+   */
+  private void readReplies(ExecutorService executorService,
+      Map<HostAndPort, Queue<PipelinedCommand>> commands, Queue<PipelinedCommand> redirected) {
+    Set<HostAndPort> brokenNodes = ConcurrentHashMap.newKeySet();
+    CountDownLatch countDownLatch = new CountDownLatch(commands.size());
+    Runnable callerTask = null;
+    for (Map.Entry<HostAndPort, Queue<PipelinedCommand>> entry : commands.entrySet()) {
       HostAndPort nodeKey = entry.getKey();
-      Queue<Response<?>> queue = entry.getValue();
+      Queue<PipelinedCommand> queue = entry.getValue();
       Connection connection = connections.get(nodeKey);
-      executorService.submit(() -> {
+      Runnable task = () -> {
         try {
-          List<Object> unformatted = connection.getMany(queue.size());
-          for (Object o : unformatted) {
-            queue.poll().set(o);
-          }
+          readReplies(connection, queue, redirected);
         } catch (JedisConnectionException jce) {
           log.error("Error with connection to " + nodeKey, jce);
-          // cleanup the connection
-          pipelinedResponsesIterator.remove();
-          connections.remove(nodeKey);
-          IOUtils.closeQuietly(connection);
+          brokenNodes.add(nodeKey);
         } finally {
           countDownLatch.countDown();
         }
-      });
+      };
+
+      // the calling thread reads one of the nodes itself instead of only waiting
+      if (callerTask == null) {
+        callerTask = task;
+        continue;
+      }
+      try {
+        executorService.submit(task);
+      } catch (RejectedExecutionException ree) {
+        task.run();
+      }
+    }
+    if (callerTask != null) {
+      callerTask.run();
     }
 
     try {
@@ -131,9 +207,79 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
       log.error("Thread is interrupted during sync.", e);
     }
 
-    executorService.shutdownNow();
+    // cleanup the broken connections
+    for (HostAndPort nodeKey : brokenNodes) {
+      pipelinedCommands.remove(nodeKey);
+      IOUtils.closeQuietly(connections.remove(nodeKey));
+    }
+  }
 
-    syncing = false;
+  private static void readReplies(Connection connection, Queue<PipelinedCommand> queue,
+      Queue<PipelinedCommand> redirected) {
+    int count = 0;
+    for (PipelinedCommand command : queue) {
+      count += command.asking ? 2 : 1;
+    }
+    if (count == 0) {
+      return;
+    }
+
+    List<Object> unformatted = connection.getMany(count);
+    int index = 0;
+    while (!queue.isEmpty()) {
+      PipelinedCommand command = queue.poll();
+      if (command.asking) {
+        index++; // reply of ASKING
+      }
+      Object reply = unformatted.get(index++);
+      if (redirected != null && reply instanceof JedisRedirectionException) {
+        command.redirection = (JedisRedirectionException) reply;
+        redirected.add(command);
+      } else {
+        command.response.set(reply);
+      }
+    }
+  }
+
+  /**
+   * Sends the redirected commands to their target nodes, preceded by ASKING for ASK replies. If the
+   * target node can't be reached, the redirection is the reply of the command.
+   */
+  private void resendRedirected(Queue<PipelinedCommand> redirected) {
+    for (PipelinedCommand command : redirected) {
+      if (command.redirection instanceof JedisMovedDataException) {
+        onMovedRedirection((JedisMovedDataException) command.redirection);
+      }
+    }
+
+    for (PipelinedCommand command : redirected) {
+      HostAndPort nodeKey = command.redirection.getTargetNode();
+      try {
+        Connection connection = getOrCreateConnection(nodeKey);
+        command.asking = command.redirection instanceof JedisAskDataException;
+        if (command.asking) {
+          connection.sendCommand(Protocol.Command.ASKING);
+        }
+        connection.sendCommand(command.arguments);
+        pipelinedCommands.computeIfAbsent(nodeKey, k -> new LinkedList<>()).add(command);
+      } catch (JedisConnectionException jce) {
+        log.error("Error with connection to " + nodeKey, jce);
+        command.response.set(command.redirection);
+      }
+    }
+  }
+
+  private static class PipelinedCommand {
+
+    private final Response<?> response;
+    private final CommandArguments arguments;
+    private boolean asking = false;
+    private JedisRedirectionException redirection;
+
+    PipelinedCommand(Response<?> response, CommandArguments arguments) {
+      this.response = response;
+      this.arguments = arguments;
+    }
   }
 
   @Deprecated
@@ -1,11 +1,14 @@
 package io.valkey;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Predicate;
 
 import io.valkey.exceptions.JedisAccessControlException;
 import io.valkey.exceptions.JedisAskDataException;
@@ -17,8 +20,12 @@ import io.valkey.exceptions.JedisMovedDataException;
 import io.valkey.exceptions.JedisNoScriptException;
 import io.valkey.exceptions.*;
 import io.valkey.args.Rawable;
+import io.valkey.args.RawableFactory;
 import io.valkey.commands.ProtocolCommand;
+import io.valkey.util.BufferPool;
+import io.valkey.util.ByteSlice;
 import io.valkey.util.KeyValue;
+import io.valkey.util.NumberEncoder;
 import io.valkey.util.RedisInputStream;
 import io.valkey.util.RedisOutputStream;
 import io.valkey.util.SafeEncoder;
@@ -76,11 +83,25 @@ public final class Protocol {
       os.write(ASTERISK_BYTE);
       os.writeIntCrLf(args.size());
       for (Rawable arg : args) {
-        os.write(DOLLAR_BYTE);
-        final byte[] bin = arg.getRaw();
-        os.writeIntCrLf(bin.length);
-        os.write(bin);
-        os.writeCrLf();
+        if (arg instanceof Command) {
+          os.write(((Command) arg).bulk);
+        } else if (arg instanceof Keyword) {
+          os.write(((Keyword) arg).bulk);
+        } else if (arg instanceof RawableFactory.RawLong) {
+          os.writeLongAsBulk(((RawableFactory.RawLong) arg).getValue());
+        } else if (arg instanceof RawableFactory.RawChannel) {
+          final RawableFactory.RawChannel channel = (RawableFactory.RawChannel) arg;
+          os.write(DOLLAR_BYTE);
+          os.writeLongCrLf(channel.getLength());
+          os.writeFrom(channel.stream(), channel.getLength());
+          os.writeCrLf();
+        } else {
+          os.write(DOLLAR_BYTE);
+          final byte[] bin = arg.getRaw();
+          os.writeIntCrLf(bin.length);
+          os.write(bin);
+          os.writeCrLf();
+        }
       }
     } catch (IOException e) {
       throw new JedisConnectionException(e);
@@ -150,7 +171,10 @@ public final class Protocol {
   }
 
   private static Object process(final RedisInputStream is) {
-    final byte b = is.readByte();
+    return process(is.readByte(), is);
+  }
+
+  private static Object process(final byte b, final RedisInputStream is) {
     //System.out.println((char) b);
     switch (b) {
       case PLUS_BYTE:
@@ -239,16 +263,261 @@ public final class Protocol {
     return process(is);
   }
 
+  /**
+   * Reads the rest of a reply whose type byte has already been read.
+   */
+  public static Object read(final byte type, final RedisInputStream is) {
+    return process(type, is);
+  }
+
+  /**
+   * Reads a reply by the decoder. Error replies are thrown as by {@link #read(RedisInputStream)}.
+   */
+  public static <T> T decode(final RedisInputStream is, final ReplyDecoder<T> decoder) {
+    final byte b = is.readByte();
+    if (b == MINUS_BYTE) {
+      processError(is);
+    }
+    return decoder.decode(b, is);
+  }
+
+  /**
+   * Reads a reply which is expected to be a string, without building a generic reply.
+   */
+  public static byte[] readBinary(final RedisInputStream is) {
+    return readBinary(is.readByte(), is);
+  }
+
+  /**
+   * Reads the rest of a reply, whose type byte has already been read, which is expected to be a
+   * string.
+   */
+  public static byte[] readBinary(final byte type, final RedisInputStream is) {
+    switch (type) {
+      case DOLLAR_BYTE:
+        return processBulkReply(is);
+      case PLUS_BYTE:
+        return is.readLineBytes();
+      default:
+        return (byte[]) process(type, is);
+    }
+  }
+
+  /**
+   * Reads a reply which is expected to be a string and decodes it straight from the buffer.
+   */
+  public static String readString(final RedisInputStream is) {
+    return readString(is.readByte(), is);
+  }
+
+  /**
+   * Reads the rest of a reply, whose type byte has already been read, which is expected to be a
+   * string and decodes it straight from the buffer.
+   */
+  public static String readString(final byte type, final RedisInputStream is) {
+    if (type != DOLLAR_BYTE) {
+      final Object reply = process(type, is);
+      return reply == null ? null : SafeEncoder.encode((byte[]) reply);
+    }
+
+    final int len = is.readIntCrLf();
+    if (len == -1) {
+      return null;
+    }
+    final String read = is.readString(len, SafeEncoder.DEFAULT_CHARSET);
+
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+
+    return read;
+  }
+
+  /**
+   * Reads the rest of a reply, whose type byte has already been read, which is expected to be a
+   * string into a slice of a pooled buffer.
+   */
+  public static ByteSlice readSlice(final byte type, final RedisInputStream is, final BufferPool pool) {
+    if (type != DOLLAR_BYTE) {
+      final Object reply = process(type, is);
+      return reply == null ? null : ByteSlice.wrap((byte[]) reply);
+    }
+
+    final int len = is.readIntCrLf();
+    if (len == -1) {
+      return null;
+    }
+    final ByteSlice read = pool.read(is, len);
+
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+
+    return read;
+  }
+
+  /**
+   * Reads the rest of a reply, whose type byte has already been read, which is expected to be a
+   * string into the buffer. If the content does not fit in the remaining space of the buffer, it is
+   * skipped and the buffer is left unchanged.
+   * @return length of the content, or {@code null} for a null reply
+   */
+  public static Long readInto(final byte type, final RedisInputStream is, final ByteBuffer dst) {
+    if (type != DOLLAR_BYTE) {
+      final Object reply = process(type, is);
+      return reply == null ? null : writeInto((byte[]) reply, dst);
+    }
+
+    final int len = is.readIntCrLf();
+    if (len == -1) {
+      return null;
+    }
+    if (len <= dst.remaining()) {
+      is.readInto(dst, len);
+    } else {
+      is.skipBytes(len);
+    }
+
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+
+    return (long) len;
+  }
+
+  /**
+   * @return length of the content
+   */
+  public static Long writeInto(final byte[] content, final ByteBuffer dst) {
+    if (content.length <= dst.remaining()) {
+      dst.put(content);
+    }
+    return (long) content.length;
+  }
+
+  /**
+   * Reads the rest of a reply, whose type byte has already been read, which is expected to be a
+   * string and writes its content to the channel without holding it in memory.
+   * @return number of bytes written, or {@code null} for a null reply
+   */
+  public static Long readToChannel(final byte type, final RedisInputStream is,
+      final WritableByteChannel target) {
+    if (type != DOLLAR_BYTE) {
+      final Object reply = process(type, is);
+      return reply == null ? null : writeToChannel((byte[]) reply, target);
+    }
+
+    final int len = is.readIntCrLf();
+    if (len == -1) {
+      return null;
+    }
+    IOException failure = null;
+    try {
+      is.transferTo(target, len);
+    } catch (IOException e) {
+      failure = e;
+    }
+
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+
+    if (failure != null) {
+      throw new JedisException("Could not write the reply to the channel.", failure);
+    }
+    return (long) len;
+  }
+
+  /**
+   * @return number of bytes written
+   */
+  public static Long writeToChannel(final byte[] content, final WritableByteChannel target) {
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(content);
+      while (buffer.hasRemaining()) {
+        target.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new JedisException("Could not write the reply to the channel.", e);
+    }
+    return (long) content.length;
+  }
+
+  /**
+   * Reads a reply, handing RESP3 push messages to {@code pushHandler} first. Push messages which are
+   * not handled, e.g. those of Pub/Sub, are returned as the reply.
+   */
+  public static Object read(final RedisInputStream is, final Predicate<List<Object>> pushHandler) {
+    while (true) {
+      final byte b = is.readByte();
+      if (b != GREATER_THAN_BYTE) {
+        return process(b, is);
+      }
+      final List<Object> push = processMultiBulkReply(is);
+      if (!pushHandler.test(push)) {
+        return push;
+      }
+    }
+  }
+
+  /**
+   * Hands the RESP3 push messages which precede the next reply to {@code pushHandler}, blocking until
+   * the reply starts.
+   * @return the first push message which {@code pushHandler} does not handle, which is the reply
+   * then, or {@code null} if the next reply is not a push message
+   */
+  public static List<Object> readPushesBeforeReply(final RedisInputStream is,
+      final Predicate<List<Object>> pushHandler) {
+    while (is.peekByte() == GREATER_THAN_BYTE) {
+      is.readByte();
+      final List<Object> push = processMultiBulkReply(is);
+      if (!pushHandler.test(push)) {
+        return push;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Hands the RESP3 push messages which have already been received to {@code pushHandler}, without
+   * blocking for more. Stops at the first byte which does not start a push message.
+   */
+  public static void readPushes(final RedisInputStream is, final Predicate<List<Object>> pushHandler) {
+    while (is.available() > 0 && is.peekByte() == GREATER_THAN_BYTE) {
+      is.readByte();
+      pushHandler.test(processMultiBulkReply(is));
+    }
+  }
+
+  /**
+   * @return {@code $<length>\r\n<raw>\r\n}
+   */
+  private static byte[] toBulk(byte[] raw) {
+    byte[] length = NumberEncoder.encode(raw.length);
+    byte[] bulk = new byte[1 + length.length + 2 + raw.length + 2];
+    int pos = 0;
+    bulk[pos++] = DOLLAR_BYTE;
+    System.arraycopy(length, 0, bulk, pos, length.length);
+    pos += length.length;
+    bulk[pos++] = '\r';
+    bulk[pos++] = '\n';
+    System.arraycopy(raw, 0, bulk, pos, raw.length);
+    pos += raw.length;
+    bulk[pos++] = '\r';
+    bulk[pos] = '\n';
+    return bulk;
+  }
+
   public static final byte[] toByteArray(final boolean value) {
     return value ? BYTES_TRUE : BYTES_FALSE;
   }
 
   public static final byte[] toByteArray(final int value) {
-    return SafeEncoder.encode(String.valueOf(value));
+    return NumberEncoder.encode(value);
   }
 
   public static final byte[] toByteArray(final long value) {
-    return SafeEncoder.encode(String.valueOf(value));
+    return NumberEncoder.encode(value);
   }
 
   public static final byte[] toByteArray(final double value) {
@@ -293,9 +562,11 @@ public final class Protocol {
     SENTINEL, MODULE, ACL, TOUCH, MEMORY, LOLWUT, COMMAND, RESET, LATENCY, WAITAOF;
 
     private final byte[] raw;
+    private final byte[] bulk;
 
     private Command() {
       raw = SafeEncoder.encode(name());
+      bulk = toBulk(raw);
     }
 
     @Override
@@ -317,13 +588,15 @@ public final class Protocol {
     STOREDIST, TO, FORCE, TIMEOUT, DB, UNLOAD, ABORT, IDX, MINMATCHLEN, WITHMATCHLEN, FULL,
     DELETE, LIBRARYNAME, WITHCODE, DESCRIPTION, GETKEYS, GETKEYSANDFLAGS, DOCS, FILTERBY, DUMP,
     MODULE, ACLCAT, PATTERN, DOCTOR, LATEST, HISTORY, USAGE, SAMPLES, PURGE, STATS, LOADEX, CONFIG, ARGS, RANK,
-    NOW, VERSION, ADDR, SKIPME, USER, LADDR,
+    NOW, VERSION, ADDR, SKIPME, USER, LADDR, TRACKING, ON, OFF, BCAST, PREFIX, REDIRECT,
     CHANNELS, NUMPAT, NUMSUB, SHARDCHANNELS, SHARDNUMSUB, NOVALUES, MAXAGE, CAPA;
 
     private final byte[] raw;
+    private final byte[] bulk;
 
     private Keyword() {
       raw = SafeEncoder.encode(name());
+      bulk = toBulk(raw);
     }
 
     @Override
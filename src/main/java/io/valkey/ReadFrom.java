@@ -0,0 +1,117 @@
+package io.valkey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chooses the nodes of a slot which read-only commands are sent to in cluster mode.
+ * <p>
+ * Custom policies may be implemented by extending this class.
+ *
+ * @see io.valkey.providers.ClusterConnectionProvider
+ */
+public abstract class ReadFrom {
+
+  /**
+   * Read from the primary only; the default.
+   */
+  public static final ReadFrom MASTER = new ReadFrom() {
+    @Override
+    public List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+        ToLongFunction<HostAndPort> latencies) {
+      return Collections.singletonList(primary);
+    }
+  };
+
+  /**
+   * Read from a random replica only.
+   */
+  public static final ReadFrom REPLICA = new ReadFrom() {
+    @Override
+    public List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+        ToLongFunction<HostAndPort> latencies) {
+      return shuffled(replicas);
+    }
+  };
+
+  /**
+   * Read from a random replica, or from the primary if no replica is reachable.
+   */
+  public static final ReadFrom REPLICA_PREFERRED = new ReadFrom() {
+    @Override
+    public List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+        ToLongFunction<HostAndPort> latencies) {
+      List<HostAndPort> nodes = shuffled(replicas);
+      nodes.add(primary);
+      return nodes;
+    }
+  };
+
+  /**
+   * Read from a random node of the slot, primary or replica.
+   */
+  public static final ReadFrom ANY = new ReadFrom() {
+    @Override
+    public List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+        ToLongFunction<HostAndPort> latencies) {
+      List<HostAndPort> nodes = new ArrayList<>(replicas.size() + 1);
+      nodes.add(primary);
+      nodes.addAll(replicas);
+      Collections.shuffle(nodes);
+      return nodes;
+    }
+  };
+
+  /**
+   * Read from the node of the slot, primary or replica, with the lowest measured PING latency.
+   */
+  public static final ReadFrom LOWEST_LATENCY = new ReadFrom() {
+    @Override
+    public List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+        ToLongFunction<HostAndPort> latencies) {
+      List<HostAndPort> nodes = new ArrayList<>(replicas.size() + 1);
+      nodes.add(primary);
+      nodes.addAll(replicas);
+      // each latency is looked up once, not once per comparison
+      Map<HostAndPort, Long> measured = new HashMap<>();
+      for (HostAndPort node : nodes) {
+        measured.put(node, latencies.applyAsLong(node));
+      }
+      nodes.sort(Comparator.comparingLong(measured::get));
+      return nodes;
+    }
+
+    @Override
+    public boolean isLatencyAware() {
+      return true;
+    }
+  };
+
+  /**
+   * @param primary the primary node of the slot
+   * @param replicas the replica nodes of the slot, may be empty
+   * @param latencies the latest PING latency of a node in nanoseconds, {@link Long#MAX_VALUE} if
+   * unknown; only measured, periodically in the background, if {@link #isLatencyAware()}
+   * @return the nodes to read from, in order of preference; the first reachable one is used
+   */
+  public abstract List<HostAndPort> select(HostAndPort primary, List<HostAndPort> replicas,
+      ToLongFunction<HostAndPort> latencies);
+
+  /**
+   * @return {@code true} if the latencies of the nodes are used by {@link #select}
+   */
+  public boolean isLatencyAware() {
+    return false;
+  }
+
+  private static List<HostAndPort> shuffled(List<HostAndPort> nodes) {
+    List<HostAndPort> shuffled = new ArrayList<>(nodes);
+    Collections.shuffle(shuffled);
+    return shuffled;
+  }
+}
@@ -0,0 +1,34 @@
+package io.valkey;
+
+import io.valkey.util.RedisInputStream;
+
+/**
+ * A {@link Builder} may implement this to decode its reply straight from the stream, instead of
+ * converting the generic reply which {@link Protocol#read(RedisInputStream)} builds.
+ * <p>
+ * Error replies are handled before the decoder is called. Replies of a type the decoder does not
+ * expect should be read by {@link Protocol#read(byte, RedisInputStream)} and built as usual.
+ * A decoder must read the whole reply, also if it throws the
+ * {@link io.valkey.exceptions.JedisDataException} of an error element; a connection whose decoder
+ * throws any other exception is marked broken.
+ *
+ * @param <T> type of the decoded reply
+ */
+public interface ReplyDecoder<T> {
+
+  /**
+   * @param type the RESP type byte of the reply, which has already been read
+   * @param is stream positioned right after the type byte
+   * @return decoded reply
+   */
+  T decode(byte type, RedisInputStream is);
+
+  /**
+   * @return whether the decoder keeps the reply out of the array which
+   * {@link Protocol#read(RedisInputStream)} would read it into, as by writing it to a buffer or
+   * channel of the caller; such replies are not cached
+   */
+  default boolean isZeroCopy() {
+    return false;
+  }
+}
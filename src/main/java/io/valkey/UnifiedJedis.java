@@ -1,6 +1,9 @@
 package io.valkey;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -120,6 +123,7 @@ import io.valkey.search.aggr.AggregationBuilder;
 import io.valkey.search.aggr.AggregationResult;
 import io.valkey.search.aggr.FtAggregateIteration;
 import io.valkey.search.schemafields.SchemaField;
+import io.valkey.util.ByteSlice;
 import io.valkey.util.IOUtils;
 import io.valkey.util.JedisURIHelper;
 import io.valkey.util.KeyValue;
@@ -868,6 +872,16 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.set(key, value));
   }
 
+  /**
+   * Like {@link #set(byte[], byte[])}, but {@code length} bytes of the channel are streamed to the
+   * connection chunk by chunk, so large values never have to fit in memory. The command is not
+   * retried or redirected, as the channel is consumed: a failure which would otherwise be retried
+   * throws at once.
+   */
+  public String set(byte[] key, ReadableByteChannel source, long length) {
+    return executeCommand(commandObjects.set(key, source, length));
+  }
+
   @Override
   public String set(byte[] key, byte[] value, SetParams params) {
     return executeCommand(commandObjects.set(key, value, params));
@@ -878,6 +892,38 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.get(key));
   }
 
+  /**
+   * Like {@link #get(byte[])}, but the value is read into the caller's buffer instead of a new
+   * array. If the value does not fit in the remaining space of the buffer, the buffer is left
+   * unchanged and the returned length tells how much space is needed.
+   * @return length of the value, or -1 if the key does not exist
+   */
+  public long getInto(byte[] key, ByteBuffer dst) {
+    return lengthOrNil(executeCommand(commandObjects.getInto(key, dst)));
+  }
+
+  private static long lengthOrNil(Long length) {
+    return length != null ? length : -1;
+  }
+
+  /**
+   * Like {@link #get(byte[])}, but the value is written to the channel chunk by chunk as it is read
+   * from the connection, so large values never have to fit in memory. The command is not retried
+   * or redirected, as part of the value may already have been written.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Long get(byte[] key, WritableByteChannel target) {
+    return executeCommand(commandObjects.get(key, target));
+  }
+
+  /**
+   * Like {@link #get(byte[])}, but the value is read into a slice of a pooled buffer instead of a
+   * new array. The slice must be released.
+   */
+  public ByteSlice getSlice(byte[] key) {
+    return executeCommand(commandObjects.getSlice(key));
+  }
+
   @Override
   public byte[] setGet(byte[] key, byte[] value) {
     return executeCommand(commandObjects.setGet(key, value));
@@ -1248,6 +1294,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.lindex(key, index));
   }
 
+  /**
+   * Like {@link #lindex(byte[], long)}, but the element is read into the caller's buffer, as by
+   * {@link #getInto(byte[], ByteBuffer)}.
+   * @return length of the element, or -1 if there is no such element
+   */
+  public long lindexInto(byte[] key, long index, ByteBuffer dst) {
+    return lengthOrNil(executeCommand(commandObjects.lindexInto(key, index, dst)));
+  }
+
   @Override
   public String lset(String key, long index, String value) {
     return executeCommand(commandObjects.lset(key, index, value));
@@ -1555,6 +1610,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hget(key, field));
   }
 
+  /**
+   * Like {@link #hget(byte[], byte[])}, but the value is read into the caller's buffer, as by
+   * {@link #getInto(byte[], ByteBuffer)}.
+   * @return length of the value, or -1 if the field does not exist
+   */
+  public long hgetInto(byte[] key, byte[] field, ByteBuffer dst) {
+    return lengthOrNil(executeCommand(commandObjects.hgetInto(key, field, dst)));
+  }
+
   @Override
   public long hsetnx(byte[] key, byte[] field, byte[] value) {
     return executeCommand(commandObjects.hsetnx(key, field, value));
@@ -1650,6 +1714,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Like {@link #hgetAll(byte[])}, but the fields and values are read into slices of pooled buffers
+   * instead of new arrays. The slices must be released.
+   */
+  public Map<ByteSlice, ByteSlice> hgetAllSlices(byte[] key) {
+    return executeCommand(commandObjects.hgetAllSlices(key));
+  }
+
   @Override
   public String hrandfield(String key) {
     return executeCommand(commandObjects.hrandfield(key));
@@ -4987,6 +5059,18 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     }
   }
 
+  /**
+   * Opens an asynchronous twin of this object, which shares nothing but the command settings with it
+   * and must be closed separately.
+   * @return asynchronous client
+   */
+  public AsyncUnifiedJedis async() {
+    if (provider instanceof PooledConnectionProvider) {
+      return new AsyncUnifiedJedis(((PooledConnectionProvider) provider).createAsyncConnection(), commandObjects);
+    }
+    throw new IllegalStateException("It is not allowed to create AsyncUnifiedJedis from this " + getClass());
+  }
+
   /**
    * @return transaction object
    */
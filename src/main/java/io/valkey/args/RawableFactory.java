@@ -1,10 +1,15 @@
 package io.valkey.args;
 
-import static io.valkey.Protocol.toByteArray;
-
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Arrays;
 
 import io.valkey.Protocol;
+import io.valkey.exceptions.JedisException;
 import io.valkey.util.SafeEncoder;
 
 /**
@@ -18,7 +23,16 @@ public final class RawableFactory {
    * @return raw
    */
   public static Rawable from(int i) {
-    return from(Protocol.toByteArray(i));
+    return new RawLong(i);
+  }
+
+  /**
+   * Get a {@link Rawable} from a {@code long}.
+   * @param l numeric value
+   * @return raw
+   */
+  public static Rawable from(long l) {
+    return new RawLong(l);
   }
 
   /**
@@ -27,7 +41,7 @@ public final class RawableFactory {
    * @return raw
    */
   public static Rawable from(double d) {
-    return from(Protocol.toByteArray(d));
+    return wrap(Protocol.toByteArray(d));
   }
 
   /**
@@ -39,6 +53,28 @@ public final class RawableFactory {
     return new Raw(binary);
   }
 
+  /**
+   * Get a {@link Rawable} from a byte array without copying it. The array must not be modified
+   * until the command is sent.
+   * @param binary value
+   * @return raw
+   */
+  public static Rawable wrap(byte[] binary) {
+    return new Raw(binary, false);
+  }
+
+  /**
+   * Get a {@link Rawable} which streams {@code length} bytes of a blocking channel when the command
+   * is sent, instead of holding them in memory. The content can be sent only once, so commands with
+   * it are not retried.
+   * @param source channel, read from its current position
+   * @param length number of bytes to send
+   * @return raw
+   */
+  public static Rawable from(ReadableByteChannel source, long length) {
+    return new RawChannel(source, length);
+  }
+
   /**
    * Get a {@link Rawable} from a {@link String}.
    * @param string value
@@ -56,7 +92,11 @@ public final class RawableFactory {
     private final byte[] raw;
 
     public Raw(byte[] raw) {
-      this.raw = Arrays.copyOf(raw, raw.length);
+      this(raw, true);
+    }
+
+    private Raw(byte[] raw, boolean copy) {
+      this.raw = copy ? Arrays.copyOf(raw, raw.length) : raw;
     }
 
     @Override
@@ -77,6 +117,119 @@ public final class RawableFactory {
     }
   }
 
+  /**
+   * A {@link Rawable} of an integral number. It is written to the connection without encoding it
+   * into a byte array first.
+   */
+  public static class RawLong implements Rawable {
+
+    private final long value;
+    private byte[] raw;
+
+    public RawLong(long value) {
+      this.value = value;
+    }
+
+    public long getValue() {
+      return value;
+    }
+
+    @Override
+    public byte[] getRaw() {
+      if (raw == null) {
+        raw = Protocol.toByteArray(value);
+      }
+      return raw;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      return value == ((RawLong) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(value);
+    }
+  }
+
+  /**
+   * A {@link Rawable} whose content is streamed from a channel when the command is sent. The content
+   * can be read only once: either it is streamed, or {@link #getRaw()} reads it into memory, after
+   * which the command sends the bytes read.
+   */
+  public static class RawChannel implements Rawable {
+
+    private final ReadableByteChannel source;
+    private final long length;
+
+    private byte[] raw;
+    private boolean streamed;
+
+    public RawChannel(ReadableByteChannel source, long length) {
+      if (length < 0) {
+        throw new IllegalArgumentException("Length must not be negative.");
+      }
+      this.source = source;
+      this.length = length;
+    }
+
+    public ReadableByteChannel getSource() {
+      return source;
+    }
+
+    public long getLength() {
+      return length;
+    }
+
+    /**
+     * @return the channel the content is sent from, the source channel unless the content was read
+     * by {@link #getRaw()}
+     * @throws IllegalStateException if the content was already streamed
+     */
+    public synchronized ReadableByteChannel stream() {
+      if (raw != null) {
+        return Channels.newChannel(new ByteArrayInputStream(raw));
+      }
+      if (streamed) {
+        throw new IllegalStateException("Streamed argument was already sent.");
+      }
+      streamed = true;
+      return source;
+    }
+
+    /**
+     * Reads the whole content into memory, if it was not streamed yet.
+     * @throws IllegalStateException if the content was already streamed
+     */
+    @Override
+    public synchronized byte[] getRaw() {
+      if (raw != null) {
+        return raw;
+      }
+      if (streamed) {
+        throw new IllegalStateException("Streamed argument was already sent.");
+      }
+      if (length > Integer.MAX_VALUE - 8) {
+        throw new IllegalStateException("Streamed argument is too large to be read into memory.");
+      }
+      final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+      try {
+        while (buffer.hasRemaining()) {
+          if (source.read(buffer) < 0) {
+            throw new EOFException("Channel ended " + buffer.remaining() + " bytes before the declared length.");
+          }
+        }
+      } catch (IOException e) {
+        throw new JedisException(e);
+      }
+      raw = buffer.array();
+      return raw;
+    }
+  }
+
   /**
    * A {@link Rawable} wrapping a {@link String}.
    */
@@ -0,0 +1,81 @@
+package io.valkey.csc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configuration of a {@link ClientSideCache}.
+ */
+public final class CacheConfig {
+
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private final int maxSize;
+  private final boolean broadcast;
+  private final List<String> prefixes;
+
+  private CacheConfig(int maxSize, boolean broadcast, List<String> prefixes) {
+    this.maxSize = maxSize;
+    this.broadcast = broadcast;
+    this.prefixes = prefixes;
+  }
+
+  /**
+   * @return maximum number of cached replies, the least recently used ones are evicted beyond it
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return {@code true} if tracking is enabled in BCAST mode
+   */
+  public boolean isBroadcast() {
+    return broadcast;
+  }
+
+  /**
+   * @return key prefixes of the BCAST mode; empty means all keys
+   */
+  public List<String> getPrefixes() {
+    return prefixes;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private boolean broadcast = false;
+    private final List<String> prefixes = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    public CacheConfig build() {
+      return new CacheConfig(maxSize, broadcast, Collections.unmodifiableList(new ArrayList<>(prefixes)));
+    }
+
+    public Builder maxSize(int maxSize) {
+      if (maxSize < 1) {
+        throw new IllegalArgumentException("maxSize must be positive.");
+      }
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    /**
+     * Enables tracking in BCAST mode; the server then sends invalidations for all keys matching the
+     * prefixes, whether they have been read by the connection or not.
+     */
+    public Builder broadcast(String... prefixes) {
+      this.broadcast = true;
+      this.prefixes.addAll(Arrays.asList(prefixes));
+      return this;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package io.valkey.csc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.valkey.Builder;
+import io.valkey.CommandArguments;
+import io.valkey.CommandObject;
+import io.valkey.Connection;
+import io.valkey.JedisClientConfig;
+import io.valkey.JedisSocketFactory;
+import io.valkey.Protocol.Command;
+import io.valkey.Protocol.Keyword;
+import io.valkey.RedisProtocol;
+import io.valkey.ReplyDecoder;
+import io.valkey.exceptions.JedisException;
+import io.valkey.exceptions.JedisValidationException;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * A {@link Connection} which enables CLIENT TRACKING and serves the replies of cacheable read
+ * commands from a {@link ClientSideCache}.
+ * <p>
+ * The invalidation messages are redirected to the listening connection of the cache, which reads
+ * them as they arrive. They are RESP3 push messages, so RESP3 is required.
+ */
+public class CacheConnection extends Connection {
+
+  private static final byte[] INVALIDATE = SafeEncoder.encode("invalidate");
+
+  private static final byte[] TRACKING_REDIR_BROKEN = SafeEncoder.encode("tracking-redir-broken");
+
+  private final ClientSideCache cache;
+  private final JedisSocketFactory socketFactory;
+  private final JedisClientConfig clientConfig;
+  private long redirect = -1;
+  private boolean tracking = false;
+
+  public CacheConnection(final JedisSocketFactory socketFactory, JedisClientConfig clientConfig,
+      ClientSideCache cache) {
+    super(socketFactory, clientConfig);
+    this.cache = cache;
+    this.socketFactory = socketFactory;
+    this.clientConfig = clientConfig;
+    try {
+      if (getRedisProtocol() != RedisProtocol.RESP3) {
+        throw new JedisValidationException("Client side caching is only supported with RESP3.");
+      }
+      setPushHandler(this::handlePush);
+      final long listenerId = cache.startTracking(socketFactory, clientConfig);
+      tracking = true;
+      enableTracking(listenerId);
+    } catch (JedisException je) {
+      try {
+        disconnect();
+      } catch (Exception e) {
+        // the first exception 'je' will be thrown
+      }
+      throw je;
+    }
+  }
+
+  public final ClientSideCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Serves cacheable commands from the cache, still reported to the command listener as executed.
+   */
+  @Override
+  protected <T> T execute(final CommandObject<T> commandObject, final boolean asking) {
+    final CommandArguments args = commandObject.getArguments();
+    if (asking) {
+      return super.execute(commandObject, true);
+    }
+    if (!args.isReplayable() || isZeroCopy(commandObject.getBuilder())) {
+      // a reply streamed to the caller is not to be read into memory, let alone kept
+      return super.execute(commandObject, false);
+    }
+    final ClientSideCache.CacheKey cacheKey = cache.cacheKey(args);
+    if (cacheKey == null) {
+      return super.execute(commandObject, false);
+    }
+
+    // taken before the listener is checked: if it fails from here on, the flush changes the version
+    // and the reply, whose invalidations may be lost, is not put
+    final long version = cache.version(cacheKey);
+    final long listenerId = cache.getListenerId(socketFactory, clientConfig);
+    if (listenerId != redirect) {
+      // the former listener failed, its invalidations are lost
+      sendCommand(new CommandArguments(Command.CLIENT).add(Keyword.TRACKING).add(Keyword.OFF));
+      getStatusCodeReply();
+      cache.invalidateSource(this);
+      enableTracking(listenerId);
+    }
+
+    readPushes();
+    Object reply = cache.get(cacheKey);
+    if (reply == null) {
+      sendCommand(args);
+      reply = getOne();
+      if (reply != null) {
+        cache.put(cacheKey, reply, this, version);
+      }
+    }
+    return commandObject.getBuilder().build(reply);
+  }
+
+  @Override
+  public void disconnect() {
+    try {
+      super.disconnect();
+    } finally {
+      if (cache != null) {
+        cache.invalidateSource(this);
+      }
+      if (tracking) {
+        tracking = false;
+        cache.stopTracking();
+      }
+    }
+  }
+
+  private static boolean isZeroCopy(Builder<?> builder) {
+    return builder instanceof ReplyDecoder && ((ReplyDecoder<?>) builder).isZeroCopy();
+  }
+
+  private void enableTracking(long listenerId) {
+    final CacheConfig config = cache.getConfig();
+    CommandArguments args = new CommandArguments(Command.CLIENT).add(Keyword.TRACKING).add(Keyword.ON)
+        .add(Keyword.REDIRECT).add(listenerId);
+    if (config.isBroadcast()) {
+      args.add(Keyword.BCAST);
+      for (String prefix : config.getPrefixes()) {
+        args.add(Keyword.PREFIX).add(prefix);
+      }
+    }
+    sendCommand(args);
+    getStatusCodeReply();
+    redirect = listenerId;
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean handlePush(List<Object> push) {
+    if (push.size() != 2 || !(push.get(0) instanceof byte[])) {
+      return false;
+    }
+    if (Arrays.equals(INVALIDATE, (byte[]) push.get(0))) {
+      cache.invalidate((List<byte[]>) push.get(1));
+      return true;
+    }
+    // the listener is gone; it is replaced before the next lookup
+    return Arrays.equals(TRACKING_REDIR_BROKEN, (byte[]) push.get(0));
+  }
+}
@@ -0,0 +1,53 @@
+package io.valkey.csc;
+
+/**
+ * Snapshot of the counters of a {@link ClientSideCache}.
+ */
+public class CacheStats {
+
+  private final long hits;
+  private final long misses;
+  private final long invalidations;
+  private final long evictions;
+  private final int size;
+
+  public CacheStats(long hits, long misses, long invalidations, long evictions, int size) {
+    this.hits = hits;
+    this.misses = misses;
+    this.invalidations = invalidations;
+    this.evictions = evictions;
+    this.size = size;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return number of cached replies removed because of invalidation messages
+   */
+  public long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * @return number of cached replies removed because the cache was full
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{hits=" + hits + ", misses=" + misses + ", invalidations=" + invalidations
+        + ", evictions=" + evictions + ", size=" + size + "}";
+  }
+}
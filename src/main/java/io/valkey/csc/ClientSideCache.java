@@ -0,0 +1,401 @@
+package io.valkey.csc;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.valkey.CommandArguments;
+import io.valkey.JedisClientConfig;
+import io.valkey.JedisSocketFactory;
+import io.valkey.Protocol.Command;
+import io.valkey.args.Rawable;
+import io.valkey.commands.ProtocolCommand;
+
+/**
+ * A bounded store of replies of read commands, kept valid by server-assisted client side caching
+ * (CLIENT TRACKING).
+ * <p>
+ * Replies are put by {@link CacheConnection}s, which enable tracking with their invalidation
+ * messages redirected to a single listening connection of the cache. It reads them on a thread of
+ * its own, so a reply is invalidated even while the connection which read it is idle in a pool. A
+ * single cache can be shared by all connections of a pool, to the same server. The listener is
+ * opened by the first connection and closed with the last one. The least recently used replies are
+ * evicted when {@link CacheConfig#getMaxSize()} is reached; large caches are split into segments by
+ * the hash of the command, which are locked and evicted from separately, so hits of concurrent
+ * connections do not serialise on a single lock.
+ * <p>
+ * Cached replies are returned as they have been read; binary replies must not be modified.
+ */
+public class ClientSideCache {
+
+  private static final EnumSet<Command> SINGLE_KEY_COMMANDS = EnumSet.of(
+      Command.GET, Command.GETRANGE, Command.STRLEN, Command.GETBIT, Command.BITCOUNT, Command.BITPOS,
+      Command.HGET, Command.HMGET, Command.HGETALL, Command.HEXISTS, Command.HLEN, Command.HKEYS,
+      Command.HVALS, Command.HSTRLEN,
+      Command.LRANGE, Command.LLEN, Command.LINDEX, Command.LPOS,
+      Command.SMEMBERS, Command.SISMEMBER, Command.SMISMEMBER, Command.SCARD,
+      Command.ZSCORE, Command.ZMSCORE, Command.ZCARD, Command.ZRANGE, Command.ZRANK, Command.ZCOUNT);
+
+  private static final EnumSet<Command> MULTI_KEY_COMMANDS = EnumSet.of(Command.MGET);
+
+  /**
+   * Number of stripes of the invalidation counters, see {@link #version(CacheKey)}.
+   */
+  private static final int VERSION_STRIPES = 1024;
+
+  private static final int MAX_SEGMENTS = 16;
+
+  /**
+   * Least number of replies of a segment, below which a cache has fewer segments.
+   */
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final CacheConfig config;
+
+  private final Segment[] segments;
+  private final Map<ByteBuffer, Set<CacheKey>> keyIndex = new HashMap<>();
+  private final long[] versions = new long[VERSION_STRIPES];
+  private long flushes = 0;
+
+  private final Object listenerLock = new Object();
+  private InvalidationListener listener;
+  private volatile long listenerId = -1;
+  private int trackingConnections = 0;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public ClientSideCache() {
+    this(CacheConfig.builder().build());
+  }
+
+  public ClientSideCache(CacheConfig config) {
+    this.config = config;
+    final int count = Math.max(1, Math.min(MAX_SEGMENTS,
+        Integer.highestOneBit(config.getMaxSize() / MIN_SEGMENT_SIZE)));
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment(config.getMaxSize() / count);
+    }
+  }
+
+  public final CacheConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * @return the key to cache the reply of the command with, or {@code null} if the command is not
+   * cacheable
+   */
+  CacheKey cacheKey(CommandArguments args) {
+    final ProtocolCommand command = args.getCommand();
+    final int keyCount;
+    if (SINGLE_KEY_COMMANDS.contains(command)) {
+      keyCount = 1;
+    } else if (MULTI_KEY_COMMANDS.contains(command)) {
+      keyCount = args.size() - 1;
+    } else {
+      return null;
+    }
+    if (args.size() < 2) {
+      return null;
+    }
+
+    final byte[][] raw = new byte[args.size()][];
+    final ByteBuffer[] keys = new ByteBuffer[keyCount];
+    int i = 0;
+    for (Rawable arg : args) {
+      raw[i] = arg.getRaw();
+      if (i > 0 && i <= keyCount) {
+        keys[i - 1] = ByteBuffer.wrap(raw[i]);
+      }
+      i++;
+    }
+    return new CacheKey(raw, keys);
+  }
+
+  /**
+   * @return the cached reply, or {@code null} if there is none
+   */
+  Object get(CacheKey cacheKey) {
+    final Segment segment = segment(cacheKey);
+    final CacheEntry entry;
+    synchronized (segment) {
+      entry = segment.get(cacheKey);
+    }
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.reply;
+  }
+
+  /**
+   * @return a number which changes whenever a key of the cache key is invalidated; a reply read after
+   * it was taken is only put if it is still the same
+   */
+  synchronized long version(CacheKey cacheKey) {
+    long version = flushes;
+    for (ByteBuffer key : cacheKey.keys) {
+      version += versions[stripe(key)];
+    }
+    return version;
+  }
+
+  /**
+   * Puts the reply, unless a key of it was invalidated since the version was taken, as the reply
+   * may have been read before the invalidation.
+   * @param source the connection which read the reply, and which the server tracks its keys for
+   * @param version taken by {@link #version(CacheKey)} before the command was sent
+   */
+  synchronized void put(CacheKey cacheKey, Object reply, Object source, long version) {
+    if (version(cacheKey) != version) {
+      return;
+    }
+    final Segment segment = segment(cacheKey);
+    final CacheEntry previous;
+    synchronized (segment) {
+      previous = segment.put(cacheKey, new CacheEntry(reply, source));
+    }
+    if (previous == null) {
+      for (ByteBuffer key : cacheKey.keys) {
+        keyIndex.computeIfAbsent(key, k -> new HashSet<>()).add(cacheKey);
+      }
+    }
+  }
+
+  /**
+   * Removes the replies of the given keys.
+   * @param keys invalidated keys; {@code null} means all keys, as sent when the server flushes
+   */
+  public void invalidate(List<byte[]> keys) {
+    if (keys == null) {
+      flush();
+      return;
+    }
+    synchronized (this) {
+      for (byte[] key : keys) {
+        versions[stripe(ByteBuffer.wrap(key))]++;
+        Set<CacheKey> cacheKeys = keyIndex.remove(ByteBuffer.wrap(key));
+        if (cacheKeys == null) {
+          continue;
+        }
+        for (CacheKey cacheKey : cacheKeys) {
+          final Segment segment = segment(cacheKey);
+          final CacheEntry entry;
+          synchronized (segment) {
+            entry = segment.remove(cacheKey);
+          }
+          if (entry != null) {
+            unindex(cacheKey);
+            invalidations.increment();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the replies read by the given connection, as their invalidations would not be received
+   * anymore.
+   */
+  synchronized void invalidateSource(Object source) {
+    List<CacheKey> removed = new ArrayList<>();
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = segment.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<CacheKey, CacheEntry> entry = iterator.next();
+          if (entry.getValue().source == source) {
+            iterator.remove();
+            removed.add(entry.getKey());
+          }
+        }
+      }
+    }
+    for (CacheKey cacheKey : removed) {
+      unindex(cacheKey);
+    }
+  }
+
+  /**
+   * Removes all replies.
+   */
+  public synchronized void flush() {
+    flushes++;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        invalidations.add(segment.size());
+        segment.clear();
+      }
+    }
+    keyIndex.clear();
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public CacheStats getStats() {
+    return new CacheStats(hits.sum(), misses.sum(), invalidations.sum(), evictions.sum(), size());
+  }
+
+  /**
+   * Registers a connection which is going to track its keys, opening the listener which its
+   * invalidation messages are redirected to if there is none.
+   * @return the id of the listener
+   */
+  long startTracking(JedisSocketFactory socketFactory, JedisClientConfig clientConfig) {
+    synchronized (listenerLock) {
+      long id = getListenerId(socketFactory, clientConfig);
+      trackingConnections++;
+      return id;
+    }
+  }
+
+  /**
+   * @return the id of the listener, opened if it was closed or has failed
+   */
+  long getListenerId(JedisSocketFactory socketFactory, JedisClientConfig clientConfig) {
+    long id = listenerId;
+    if (id >= 0) {
+      return id;
+    }
+    synchronized (listenerLock) {
+      if (listener == null) {
+        listener = new InvalidationListener(this, socketFactory, clientConfig);
+        listenerId = listener.getClientId();
+      }
+      return listenerId;
+    }
+  }
+
+  /**
+   * Unregisters a tracking connection; the listener is closed with the last one.
+   */
+  void stopTracking() {
+    synchronized (listenerLock) {
+      if (--trackingConnections == 0 && listener != null) {
+        listener.close();
+        listener = null;
+        listenerId = -1;
+      }
+    }
+  }
+
+  /**
+   * Called by the listener when it stops reading. The invalidations which were redirected to it are
+   * lost from then on, so all replies are removed, and connections redirect to a new listener.
+   */
+  void listenerEnded(InvalidationListener ended) {
+    synchronized (listenerLock) {
+      if (listener != ended) {
+        return; // closed with the last connection
+      }
+      listener = null;
+      listenerId = -1;
+    }
+    flush();
+  }
+
+  private Segment segment(CacheKey cacheKey) {
+    final int hash = cacheKey.hashCode;
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  private static int stripe(ByteBuffer key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+  }
+
+  private void unindex(CacheKey cacheKey) {
+    for (ByteBuffer key : cacheKey.keys) {
+      Set<CacheKey> cacheKeys = keyIndex.get(key);
+      if (cacheKeys != null) {
+        cacheKeys.remove(cacheKey);
+        if (cacheKeys.isEmpty()) {
+          keyIndex.remove(key);
+        }
+      }
+    }
+  }
+
+  static final class CacheKey {
+
+    private final byte[][] args;
+    private final ByteBuffer[] keys;
+    private final int hashCode;
+
+    private CacheKey(byte[][] args, ByteBuffer[] keys) {
+      this.args = args;
+      this.keys = keys;
+      this.hashCode = Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof CacheKey)) return false;
+      CacheKey other = (CacheKey) o;
+      return hashCode == other.hashCode && Arrays.deepEquals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * Replies of a share of the cache keys, in access order. Guarded by its own monitor; the cache
+   * monitor is taken first where both are needed.
+   */
+  private final class Segment extends LinkedHashMap<CacheKey, CacheEntry> {
+
+    private final int maxSize;
+
+    private Segment(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+      if (size() <= maxSize) {
+        return false;
+      }
+      // only put evicts, which holds the cache monitor that guards the key index
+      unindex(eldest.getKey());
+      evictions.increment();
+      return true;
+    }
+  }
+
+  private static final class CacheEntry {
+
+    private final Object reply;
+    private final Object source;
+
+    private CacheEntry(Object reply, Object source) {
+      this.reply = reply;
+      this.source = source;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.valkey.csc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.valkey.BuilderFactory;
+import io.valkey.CommandArguments;
+import io.valkey.CommandObject;
+import io.valkey.Connection;
+import io.valkey.JedisClientConfig;
+import io.valkey.JedisSocketFactory;
+import io.valkey.Protocol.Command;
+import io.valkey.Protocol.Keyword;
+import io.valkey.exceptions.JedisException;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * A connection which the {@link CacheConnection}s of a {@link ClientSideCache} redirect their
+ * invalidation messages to (CLIENT TRACKING ... REDIRECT). A thread of its own reads the messages
+ * as soon as they arrive, so replies are invalidated even while the connections which read them
+ * are idle.
+ */
+final class InvalidationListener implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(InvalidationListener.class);
+
+  private static final byte[] INVALIDATE = SafeEncoder.encode("invalidate");
+
+  private final ClientSideCache cache;
+  private final Connection connection;
+  private final long clientId;
+  private volatile boolean closed = false;
+
+  InvalidationListener(ClientSideCache cache, JedisSocketFactory socketFactory, JedisClientConfig clientConfig) {
+    this.cache = cache;
+    this.connection = new Connection(socketFactory, clientConfig);
+    try {
+      this.clientId = connection.executeCommand(new CommandObject<>(
+          new CommandArguments(Command.CLIENT).add(Keyword.ID), BuilderFactory.LONG));
+      connection.setTimeoutInfinite();
+    } catch (JedisException je) {
+      connection.close();
+      throw je;
+    }
+
+    Thread thread = new Thread(this, "valkey-cache-invalidation-" + clientId);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * @return the id of the connection, which tracking is redirected to
+   */
+  long getClientId() {
+    return clientId;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void run() {
+    try {
+      while (!closed) {
+        Object message = connection.getUnflushedObject();
+        if (!(message instanceof List)) {
+          continue;
+        }
+        List<Object> push = (List<Object>) message;
+        if (push.size() == 2 && push.get(0) instanceof byte[]
+            && Arrays.equals(INVALIDATE, (byte[]) push.get(0))) {
+          cache.invalidate((List<byte[]>) push.get(1));
+        }
+      }
+    } catch (JedisException je) {
+      if (!closed) {
+        log.debug("Invalidation listener {} failed.", clientId, je);
+      }
+    } finally {
+      connection.close();
+      cache.listenerEnded(this);
+    }
+  }
+
+  void close() {
+    closed = true;
+    connection.close();
+  }
+}
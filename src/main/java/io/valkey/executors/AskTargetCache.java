@@ -0,0 +1,92 @@
+package io.valkey.executors;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.valkey.HostAndPort;
+import io.valkey.Protocol;
+
+/**
+ * The nodes which keys of migrating slots were moved to, learned from ASK redirections. Commands of
+ * these keys are sent to the importing node with ASKING at once, instead of being redirected by the
+ * migrating node each time. An entry expires if no ASK renews it within the time to live.
+ */
+final class AskTargetCache {
+
+  /**
+   * Keys of a slot remembered at most; further keys of the slot are redirected as usual.
+   */
+  static final int MAX_KEYS_PER_SLOT = 1024;
+
+  private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(Protocol.CLUSTER_HASHSLOTS);
+
+  private volatile long ttlNanos;
+
+  AskTargetCache(long ttlNanos) {
+    this.ttlNanos = ttlNanos;
+  }
+
+  void setTtlNanos(long ttlNanos) {
+    this.ttlNanos = ttlNanos;
+    for (int slot = 0; slot < entries.length(); slot++) {
+      entries.set(slot, null);
+    }
+  }
+
+  /**
+   * @return whether keys of the slot may be known to be moved, so that {@link #get(int, byte[])} is
+   * worth the key of a command
+   */
+  boolean mayContain(int slot) {
+    return entries.get(slot) != null;
+  }
+
+  /**
+   * @return the node which the key was moved to, or {@code null} if it is not known to be moved
+   */
+  HostAndPort get(int slot, byte[] key) {
+    final Entry entry = entries.get(slot);
+    if (entry == null) {
+      return null;
+    }
+    if (System.nanoTime() - entry.expiresAt > 0) {
+      entries.compareAndSet(slot, entry, null);
+      return null;
+    }
+    return entry.keys.contains(ByteBuffer.wrap(key)) ? entry.target : null;
+  }
+
+  void put(int slot, byte[] key, HostAndPort target) {
+    final long expiresAt = System.nanoTime() + ttlNanos;
+    Entry entry = entries.get(slot);
+    if (entry == null || !entry.target.equals(target) || System.nanoTime() - entry.expiresAt > 0) {
+      Entry created = new Entry(target, expiresAt);
+      if (!entries.compareAndSet(slot, entry, created)) {
+        return; // replaced meanwhile, the key is learned again from its next ASK
+      }
+      entry = created;
+    }
+    entry.expiresAt = expiresAt;
+    if (entry.keys.size() < MAX_KEYS_PER_SLOT) {
+      entry.keys.add(ByteBuffer.wrap(key));
+    }
+  }
+
+  void remove(int slot) {
+    entries.set(slot, null);
+  }
+
+  private static final class Entry {
+
+    private final HostAndPort target;
+    private final Set<ByteBuffer> keys = ConcurrentHashMap.newKeySet();
+    private volatile long expiresAt;
+
+    private Entry(HostAndPort target, long expiresAt) {
+      this.target = target;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
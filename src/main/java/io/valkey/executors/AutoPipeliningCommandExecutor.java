@@ -0,0 +1,378 @@
+package io.valkey.executors;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.valkey.CommandArguments;
+import io.valkey.CommandObject;
+import io.valkey.Connection;
+import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.exceptions.JedisException;
+import io.valkey.providers.ConnectionProvider;
+import io.valkey.util.IOUtils;
+
+/**
+ * A {@link CommandExecutor} which pipelines the commands of all caller threads over a small number
+ * of shared connections.
+ * <p>
+ * Commands are queued by the callers and written in batches by a writer thread per shared
+ * connection; a batch is flushed when {@code maxBatchSize} commands are collected, or when no more
+ * commands arrive within {@code flushInterval}. A reader thread per shared connection matches the
+ * replies to the callers in FIFO order, the same way {@link io.valkey.Pipeline} does for its
+ * {@link io.valkey.Response}s. The calling thread still blocks until its reply arrives.
+ * <p>
+ * Blocking commands (BLPOP, XREAD BLOCK, ...) are executed on a dedicated connection of the
+ * provider, as they would hold up all other commands of a shared connection. The shared connections
+ * are borrowed with {@link ConnectionProvider#getConnection()}, so this executor is meant for
+ * providers of a single endpoint (e.g. {@link io.valkey.providers.PooledConnectionProvider}).
+ */
+public class AutoPipeliningCommandExecutor implements CommandExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(AutoPipeliningCommandExecutor.class);
+
+  public static final int DEFAULT_CONNECTIONS = 2;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+  public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ZERO;
+
+  private static final AtomicInteger EXECUTOR_IDS = new AtomicInteger();
+
+  private static final long READER_POLL_MILLIS = 100;
+
+  protected final ConnectionProvider provider;
+  private final int maxBatchSize;
+  private final long flushIntervalNanos;
+  private final SharedConnection[] connections;
+  private final AtomicInteger nextConnection = new AtomicInteger();
+
+  private volatile boolean closed = false;
+
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider) {
+    this(provider, DEFAULT_CONNECTIONS, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * @param provider provides the shared connections, and the connections of blocking commands
+   * @param connections number of shared connections
+   * @param maxBatchSize maximum number of commands written before a flush
+   * @param flushInterval how long to wait for more commands before flushing an incomplete batch;
+   * {@link Duration#ZERO} flushes as soon as no more commands are queued
+   */
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider, int connections, int maxBatchSize,
+      Duration flushInterval) {
+    if (connections < 1) {
+      throw new IllegalArgumentException("connections must be positive.");
+    }
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be positive.");
+    }
+    if (flushInterval.isNegative()) {
+      throw new IllegalArgumentException("flushInterval must not be negative.");
+    }
+    this.provider = provider;
+    this.maxBatchSize = maxBatchSize;
+    this.flushIntervalNanos = flushInterval.toNanos();
+
+    final String name = "valkey-autopipeline-" + EXECUTOR_IDS.incrementAndGet();
+    this.connections = new SharedConnection[connections];
+    for (int i = 0; i < connections; i++) {
+      this.connections[i] = new SharedConnection(name + "-" + i);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (SharedConnection connection : connections) {
+      connection.shutdown();
+    }
+    for (SharedConnection connection : connections) {
+      connection.awaitShutdown();
+    }
+    IOUtils.closeQuietly(this.provider);
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandObject<T> commandObject) {
+    final CommandArguments args = commandObject.getArguments();
+    if (args.isBlocking()) {
+      try (Connection connection = provider.getConnection(args)) {
+        return connection.executeCommand(commandObject);
+      }
+    }
+
+    final PendingCommand pending = new PendingCommand(args);
+    nextSharedConnection().submit(pending);
+    return commandObject.getBuilder().build(pending.awaitReply());
+  }
+
+  private SharedConnection nextSharedConnection() {
+    if (connections.length == 1) {
+      return connections[0];
+    }
+    return connections[Math.floorMod(nextConnection.getAndIncrement(), connections.length)];
+  }
+
+  /**
+   * Queue and writer thread of a shared connection. The underlying {@link Connection} is replaced
+   * by a new one of the provider when it breaks.
+   */
+  private final class SharedConnection implements Runnable {
+
+    private final BlockingQueue<PendingCommand> queue = new LinkedBlockingQueue<>();
+    private final String name;
+    private final Thread writer;
+    private ReplyReader reader = null; // only accessed by the writer thread
+
+    private SharedConnection(String name) {
+      this.name = name;
+      this.writer = new Thread(this, name + "-writer");
+      this.writer.setDaemon(true);
+      this.writer.start();
+    }
+
+    private void submit(PendingCommand pending) {
+      if (closed) {
+        throw new JedisConnectionException("Executor is closed.");
+      }
+      queue.add(pending);
+      if (closed) {
+        // the writer may have drained the queue already
+        failQueued(new JedisConnectionException("Executor is closed."));
+      }
+    }
+
+    @Override
+    public void run() {
+      final List<PendingCommand> batch = new ArrayList<>(maxBatchSize);
+      try {
+        while (!closed) {
+          collect(batch);
+          write(batch);
+          batch.clear();
+        }
+      } catch (InterruptedException ie) {
+        // closed
+      } finally {
+        JedisConnectionException closedException = new JedisConnectionException("Executor is closed.");
+        for (PendingCommand pending : batch) {
+          pending.fail(closedException);
+        }
+        failQueued(closedException);
+        if (reader != null) {
+          reader.shutdown();
+        }
+      }
+    }
+
+    private void collect(List<PendingCommand> batch) throws InterruptedException {
+      batch.add(queue.take());
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      if (flushIntervalNanos > 0) {
+        final long deadline = System.nanoTime() + flushIntervalNanos;
+        long remaining;
+        while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+          PendingCommand pending = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (pending == null) {
+            break;
+          }
+          batch.add(pending);
+          queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+      }
+    }
+
+    private void write(List<PendingCommand> batch) {
+      final ReplyReader current;
+      try {
+        current = currentReader();
+      } catch (JedisException je) {
+        for (PendingCommand pending : batch) {
+          pending.fail(je);
+        }
+        return;
+      }
+
+      for (int i = 0; i < batch.size(); i++) {
+        if (!current.expect(batch.get(i))) {
+          JedisConnectionException broken = new JedisConnectionException("Shared connection is broken.");
+          for (int j = i; j < batch.size(); j++) {
+            batch.get(j).fail(broken);
+          }
+          return;
+        }
+      }
+
+      try {
+        for (PendingCommand pending : batch) {
+          current.connection.sendCommand(pending.args);
+        }
+        current.connection.flush();
+      } catch (JedisException je) {
+        // fails the whole batch, as it has been handed to the reader
+        current.fail(je);
+      }
+    }
+
+    private ReplyReader currentReader() {
+      if (reader == null || reader.isBroken()) {
+        if (reader != null) {
+          log.debug("Replacing broken connection of {}.", name);
+        }
+        reader = new ReplyReader(provider.getConnection(), name + "-reader");
+      }
+      return reader;
+    }
+
+    private void failQueued(JedisException exception) {
+      PendingCommand pending;
+      while ((pending = queue.poll()) != null) {
+        pending.fail(exception);
+      }
+    }
+
+    private void shutdown() {
+      writer.interrupt();
+    }
+
+    private void awaitShutdown() {
+      try {
+        writer.join();
+        ReplyReader last = reader;
+        if (last != null) {
+          last.thread.join();
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Reads the replies of a single {@link Connection} and completes the pending commands in the order
+   * they have been written. The connection is given back to the provider when the reader stops.
+   */
+  private static final class ReplyReader implements Runnable {
+
+    private final Connection connection;
+    private final BlockingQueue<PendingCommand> inFlight = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private boolean broken = false; // guarded by this
+    private volatile boolean shutdown = false;
+
+    private ReplyReader(Connection connection, String name) {
+      this.connection = connection;
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+
+    /**
+     * @return {@code false} if the connection is broken and the command can not be sent
+     */
+    private synchronized boolean expect(PendingCommand pending) {
+      if (broken) {
+        return false;
+      }
+      inFlight.add(pending);
+      return true;
+    }
+
+    private synchronized boolean isBroken() {
+      return broken;
+    }
+
+    private synchronized void fail(JedisException exception) {
+      broken = true;
+      connection.setBroken();
+      PendingCommand pending;
+      while ((pending = inFlight.poll()) != null) {
+        pending.fail(exception);
+      }
+    }
+
+    private void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          final PendingCommand pending;
+          try {
+            pending = inFlight.poll(READER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+          } catch (InterruptedException ie) {
+            fail(new JedisConnectionException("Reader is interrupted."));
+            return;
+          }
+          if (pending == null) {
+            if (shutdown || isBroken()) {
+              return;
+            }
+            continue;
+          }
+
+          try {
+            pending.complete(connection.getUnflushedObject());
+          } catch (JedisDataException de) {
+            pending.fail(de);
+          } catch (JedisException je) {
+            // broken before the caller learns about it, so that its next command is not written here
+            fail(je);
+            pending.fail(je);
+            return;
+          } catch (RuntimeException re) {
+            JedisConnectionException jce = new JedisConnectionException(re);
+            fail(jce);
+            pending.fail(jce);
+            return;
+          }
+        }
+      } finally {
+        IOUtils.closeQuietly(connection);
+      }
+    }
+  }
+
+  private static final class PendingCommand {
+
+    private final CommandArguments args;
+    private final CompletableFuture<Object> reply = new CompletableFuture<>();
+
+    private PendingCommand(CommandArguments args) {
+      this.args = args;
+    }
+
+    private void complete(Object value) {
+      reply.complete(value);
+    }
+
+    private void fail(Throwable exception) {
+      reply.completeExceptionally(exception);
+    }
+
+    private Object awaitReply() {
+      try {
+        return reply.join();
+      } catch (CompletionException ce) {
+        // keeps the type of error replies, e.g. JedisAccessControlException
+        Throwable cause = ce.getCause();
+        if (cause instanceof JedisException) {
+          throw (JedisException) cause;
+        }
+        throw new JedisException(cause);
+      }
+    }
+  }
+}
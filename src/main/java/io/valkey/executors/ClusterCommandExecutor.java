@@ -2,20 +2,28 @@ package io.valkey.executors;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+import io.valkey.ClusterCommandArguments;
+import io.valkey.CommandArguments;
 import io.valkey.CommandObject;
 import io.valkey.Connection;
 import io.valkey.ConnectionPool;
 import io.valkey.HostAndPort;
-import io.valkey.Protocol;
 import io.valkey.annots.VisibleForTesting;
 import io.valkey.exceptions.JedisAskDataException;
 import io.valkey.exceptions.JedisBroadcastException;
 import io.valkey.exceptions.JedisClusterOperationException;
 import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisDataException;
 import io.valkey.exceptions.JedisMovedDataException;
 import io.valkey.exceptions.JedisRedirectionException;
 import io.valkey.util.IOUtils;
@@ -26,12 +34,42 @@ import io.valkey.providers.ClusterConnectionProvider;
 
 public class ClusterCommandExecutor implements CommandExecutor {
 
+  /**
+   * Default time to live of the nodes learned from ASK redirections, see
+   * {@link #setAskTargetTtl(Duration)}.
+   */
+  public static final Duration DEFAULT_ASK_TARGET_TTL = Duration.ofSeconds(5);
+
+  /**
+   * Default number of groups of nodes a broadcast command is split into, see
+   * {@link #setBroadcastParallelism(int)}.
+   */
+  public static final int DEFAULT_BROADCAST_PARALLELISM = 16;
+
+  /**
+   * The nodes which {@link #broadcastCommand(CommandObject)} runs a command on.
+   */
+  public enum BroadcastTarget {
+    /**
+     * All known nodes, replicas included.
+     */
+    ALL_NODES,
+    /**
+     * The nodes which are the primary of at least one slot.
+     */
+    PRIMARIES;
+  }
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   public final ClusterConnectionProvider provider;
   protected final int maxAttempts;
   protected final Duration maxTotalRetriesDuration;
 
+  private final AskTargetCache askTargets = new AskTargetCache(DEFAULT_ASK_TARGET_TTL.toNanos());
+  private volatile int broadcastParallelism = DEFAULT_BROADCAST_PARALLELISM;
+  private volatile BroadcastTarget broadcastTarget = BroadcastTarget.ALL_NODES;
+
   public ClusterCommandExecutor(ClusterConnectionProvider provider, int maxAttempts,
       Duration maxTotalRetriesDuration) {
     this.provider = provider;
@@ -39,36 +77,101 @@ public class ClusterCommandExecutor implements CommandExecutor {
     this.maxTotalRetriesDuration = maxTotalRetriesDuration;
   }
 
+  /**
+   * Sets how long the node which a key of a migrating slot was moved to is remembered. Commands of
+   * such a key are sent to that node with ASKING at once, instead of being redirected with ASK.
+   * Zero disables it.
+   */
+  public void setAskTargetTtl(Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("ASK target TTL must not be negative.");
+    }
+    askTargets.setTtlNanos(ttl.toNanos());
+  }
+
+  /**
+   * Sets the number of groups of nodes a broadcast command is split into. The calling thread runs one
+   * group, the others are run on the workers of the provider, so at most
+   * {@link ClusterConnectionProvider#setWorkers(int) workers}&nbsp;+&nbsp;1 nodes are called at the
+   * same time. One runs the command on one node after the other, on the calling thread.
+   */
+  public void setBroadcastParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Broadcast parallelism must be positive.");
+    }
+    this.broadcastParallelism = parallelism;
+  }
+
+  /**
+   * Sets the nodes which broadcast commands are run on. Default is {@link BroadcastTarget#ALL_NODES}.
+   */
+  public void setBroadcastTarget(BroadcastTarget target) {
+    this.broadcastTarget = target;
+  }
+
   @Override
   public void close() {
     this.provider.close();
   }
 
+  /**
+   * Runs the command on the nodes chosen by {@link #setBroadcastTarget(BroadcastTarget)}, in
+   * {@link #setBroadcastParallelism(int)} groups which run in parallel on the calling thread and the
+   * bounded workers of the provider.
+   *
+   * @return the reply, if all nodes replied the same
+   * @throws JedisBroadcastException with the reply or the error of each node otherwise
+   */
   @Override
   public final <T> T broadcastCommand(CommandObject<T> commandObject) {
-    Map<String, ConnectionPool> connectionMap = provider.getConnectionMap();
+    Map<String, ConnectionPool> connectionMap = broadcastTarget == BroadcastTarget.PRIMARIES
+        ? provider.getPrimaryConnectionMap() : provider.getConnectionMap();
+    final List<Map.Entry<String, ConnectionPool>> entries = new ArrayList<>(connectionMap.entrySet());
+
+    // each group of nodes is run one node after the other, the groups in parallel
+    final Object[] nodeReplies = new Object[entries.size()];
+    final int groups = Math.min(broadcastParallelism, entries.size());
+    final List<Future<?>> futures = new ArrayList<>(Math.max(groups - 1, 0));
+    for (int group = 1; group < groups; group++) {
+      final int first = group;
+      futures.add(provider.getWorkerExecutor().submit(
+          () -> broadcastToGroup(commandObject, entries, first, groups, nodeReplies)));
+    }
+    if (groups > 0) {
+      broadcastToGroup(commandObject, entries, 0, groups, nodeReplies);
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new JedisClusterOperationException(ie);
+      } catch (ExecutionException ee) {
+        throw new JedisClusterOperationException(ee.getCause());
+      }
+    }
 
     boolean isErrored = false;
     T reply = null;
     JedisBroadcastException bcastError = new JedisBroadcastException();
-    for (Map.Entry<String, ConnectionPool> entry : connectionMap.entrySet()) {
-      HostAndPort node = HostAndPort.from(entry.getKey());
-      ConnectionPool pool = entry.getValue();
-      try (Connection connection = pool.getResource()) {
-        T aReply = execute(connection, commandObject);
-        bcastError.addReply(node, aReply);
-        if (isErrored) { // already errored
-        } else if (reply == null) {
-          reply = aReply; // ok
-        } else if (reply.equals(aReply)) {
-          // ok
-        } else {
-          isErrored = true;
-          reply = null;
-        }
-      } catch (Exception anError) {
-        bcastError.addReply(node, anError);
+    for (int i = 0; i < entries.size(); i++) {
+      HostAndPort node = HostAndPort.from(entries.get(i).getKey());
+      Object nodeReply = nodeReplies[i];
+      bcastError.addReply(node, nodeReply);
+      if (nodeReply instanceof Exception) {
         isErrored = true;
+        continue;
+      }
+      @SuppressWarnings("unchecked")
+      T aReply = (T) nodeReply;
+      if (isErrored) { // already errored
+      } else if (reply == null) {
+        reply = aReply; // ok
+      } else if (reply.equals(aReply)) {
+        // ok
+      } else {
+        isErrored = true;
+        reply = null;
       }
     }
     if (isErrored) {
@@ -77,26 +180,46 @@ public class ClusterCommandExecutor implements CommandExecutor {
     return reply;
   }
 
+  private HostAndPort askTarget(int slot, CommandArguments args) {
+    final byte[] key = ((ClusterCommandArguments) args).getSingleKey();
+    return key != null ? askTargets.get(slot, key) : null;
+  }
+
+  private <T> void broadcastToGroup(CommandObject<T> commandObject,
+      List<Map.Entry<String, ConnectionPool>> entries, int first, int step, Object[] nodeReplies) {
+    for (int i = first; i < entries.size(); i += step) {
+      try (Connection connection = entries.get(i).getValue().getResource()) {
+        nodeReplies[i] = execute(connection, commandObject);
+      } catch (Exception anError) {
+        nodeReplies[i] = anError;
+      }
+    }
+  }
+
   @Override
   public final <T> T executeCommand(CommandObject<T> commandObject) {
     Instant deadline = Instant.now().plus(maxTotalRetriesDuration);
 
+    final CommandArguments args = commandObject.getArguments();
+    final int slot = args instanceof ClusterCommandArguments
+        ? ((ClusterCommandArguments) args).getCommandHashSlot() : -1;
+
     JedisRedirectionException redirect = null;
     int consecutiveConnectionFailures = 0;
     Exception lastException = null;
     for (int attemptsLeft = this.maxAttempts; attemptsLeft > 0; attemptsLeft--) {
       Connection connection = null;
       try {
-        if (redirect != null) {
-          connection = provider.getConnection(redirect.getTargetNode());
-          if (redirect instanceof JedisAskDataException) {
-            // TODO: Pipeline asking with the original command to make it faster....
-            connection.executeCommand(Protocol.Command.ASKING);
-          }
-        } else {
-          connection = provider.getConnection(commandObject.getArguments());
+        final HostAndPort askTarget = redirect instanceof JedisAskDataException ? redirect.getTargetNode()
+            : redirect == null && slot >= 0 && askTargets.mayContain(slot) ? askTarget(slot, args) : null;
+        if (askTarget != null) {
+          // ASKING is sent in the same write as the command
+          connection = provider.getConnection(askTarget);
+          return executeAsking(connection, commandObject);
         }
 
+        connection = redirect != null ? provider.getConnection(redirect.getTargetNode())
+            : provider.getConnection(args);
         return execute(connection, commandObject);
 
       } catch (JedisClusterOperationException jnrcne) {
@@ -104,7 +227,13 @@ public class ClusterCommandExecutor implements CommandExecutor {
       } catch (JedisConnectionException jce) {
         lastException = jce;
         ++consecutiveConnectionFailures;
+        if (slot >= 0) {
+          askTargets.remove(slot);
+        }
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        if (connection != null && !args.isReplayable()) {
+          throw new JedisClusterOperationException("Command with streamed arguments can't be retried.", jce);
+        }
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
         boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
         if (reset) {
@@ -121,8 +250,20 @@ public class ClusterCommandExecutor implements CommandExecutor {
         redirect = jre;
         // if MOVED redirection occurred,
         if (jre instanceof JedisMovedDataException) {
-          // it rebuilds cluster's slot cache recommended by Redis cluster specification
-          provider.renewSlotCache(connection);
+          // the slot is updated at once, the whole slot cache is rebuilt in the background
+          provider.slotMoved((JedisMovedDataException) jre);
+          if (slot >= 0) {
+            askTargets.remove(slot);
+          }
+        } else if (slot >= 0 && jre instanceof JedisAskDataException) {
+          // the key is only encoded for the rare commands which are asked to go elsewhere
+          final byte[] key = ((ClusterCommandArguments) args).getSingleKey();
+          if (key != null) {
+            askTargets.put(slot, key, jre.getTargetNode());
+          }
+        }
+        if (!args.isReplayable()) {
+          throw new JedisClusterOperationException("Command with streamed arguments can't be redirected.", jre);
         }
       } finally {
         IOUtils.closeQuietly(connection);
@@ -138,6 +279,92 @@ public class ClusterCommandExecutor implements CommandExecutor {
     throw maxAttemptsException;
   }
 
+  /**
+   * Executes commands of different hash slots. The commands of each node are pipelined over a single
+   * connection, and the nodes are called in parallel on the workers of the provider, see
+   * {@link ClusterConnectionProvider#setWorkers(int)}. Commands which are redirected, or whose node
+   * can not be reached, are retried one by one with {@link #executeCommand(CommandObject)}.
+   *
+   * @param commandObjects commands created with {@link ClusterCommandArguments}
+   * @return the replies, in the order of the commands
+   */
+  public final <T> List<T> executeMultiSlotCommands(List<CommandObject<T>> commandObjects) {
+    final Map<HostAndPort, List<Integer>> nodeIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < commandObjects.size(); i++) {
+      int slot = ((ClusterCommandArguments) commandObjects.get(i).getArguments()).getCommandHashSlot();
+      nodeIndexes.computeIfAbsent(provider.getNode(slot), node -> new ArrayList<>()).add(i);
+    }
+
+    final Object[] replies = new Object[commandObjects.size()];
+    final List<Future<?>> futures = new ArrayList<>(nodeIndexes.size());
+    Map.Entry<HostAndPort, List<Integer>> callerNode = null;
+    for (Map.Entry<HostAndPort, List<Integer>> entry : nodeIndexes.entrySet()) {
+      if (callerNode == null) {
+        callerNode = entry; // the calling thread takes one node itself
+        continue;
+      }
+      futures.add(provider.getWorkerExecutor().submit(
+          () -> executeOnNode(entry.getKey(), entry.getValue(), commandObjects, replies)));
+    }
+
+    if (callerNode != null) {
+      executeOnNode(callerNode.getKey(), callerNode.getValue(), commandObjects, replies);
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new JedisClusterOperationException(ie);
+      } catch (ExecutionException ee) {
+        Throwable cause = ee.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new JedisClusterOperationException(cause);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    List<T> list = (List<T>) Arrays.asList(replies);
+    return list;
+  }
+
+  private <T> void executeOnNode(HostAndPort node, List<Integer> indexes,
+      List<CommandObject<T>> commandObjects, Object[] replies) {
+    List<Object> unformatted = null;
+    if (node != null) {
+      try (Connection connection = provider.getConnection(node)) {
+        for (int index : indexes) {
+          connection.sendCommand(commandObjects.get(index).getArguments());
+        }
+        unformatted = connection.getMany(indexes.size());
+      } catch (JedisConnectionException jce) {
+        log.debug("Failed pipelining to {}, retrying the commands one by one.", node, jce);
+      }
+    }
+
+    if (unformatted != null) {
+      for (Object reply : unformatted) {
+        if (reply instanceof JedisMovedDataException) {
+          provider.slotMoved((JedisMovedDataException) reply);
+        }
+      }
+    }
+
+    for (int i = 0; i < indexes.size(); i++) {
+      final int index = indexes.get(i);
+      final CommandObject<T> commandObject = commandObjects.get(index);
+      if (unformatted == null || unformatted.get(i) instanceof JedisRedirectionException) {
+        replies[index] = executeCommand(commandObject);
+      } else if (unformatted.get(i) instanceof JedisDataException) {
+        throw (JedisDataException) unformatted.get(i);
+      } else {
+        replies[index] = commandObject.getBuilder().build(unformatted.get(i));
+      }
+    }
+  }
+
   /**
    * WARNING: This method is accessible for the purpose of testing.
    * This should not be used or overriden.
@@ -147,6 +374,15 @@ public class ClusterCommandExecutor implements CommandExecutor {
     return connection.executeCommand(commandObject);
   }
 
+  /**
+   * WARNING: This method is accessible for the purpose of testing.
+   * This should not be used or overriden.
+   */
+  @VisibleForTesting
+  protected <T> T executeAsking(Connection connection, CommandObject<T> commandObject) {
+    return connection.executeAskingCommand(commandObject);
+  }
+
   /**
    * Related values should be reset if <code>TRUE</code> is returned.
    *
@@ -52,6 +52,9 @@ public class RedirectCommandExecutor implements CommandExecutor {
                 lastException = jce;
                 ++consecutiveConnectionFailures;
                 log.debug("Failed connecting to Redis: {}", connection, jce);
+                if (connection != null && !commandObject.getArguments().isReplayable()) {
+                    throw new JedisException("Command with streamed arguments can't be retried.", jce);
+                }
                 // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
                 boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
                 if (reset) {
@@ -65,6 +68,9 @@ public class RedirectCommandExecutor implements CommandExecutor {
                 log.debug("Redirected by server to {}", jre.getTargetNode());
                 consecutiveConnectionFailures = 0;
                 provider.renewPool(connection, jre.getTargetNode());
+                if (!commandObject.getArguments().isReplayable()) {
+                    throw new JedisException("Command with streamed arguments can't be redirected.", jre);
+                }
             } finally {
                 IOUtils.closeQuietly(connection);
             }
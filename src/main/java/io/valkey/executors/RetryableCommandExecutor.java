@@ -62,6 +62,9 @@ public class RetryableCommandExecutor implements CommandExecutor {
         lastException = jce;
         ++consecutiveConnectionFailures;
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        if (connection != null && !commandObject.getArguments().isReplayable()) {
+          throw new JedisException("Command with streamed arguments can't be retried.", jce);
+        }
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
         boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
         if (reset) {
@@ -72,6 +75,9 @@ public class RetryableCommandExecutor implements CommandExecutor {
         if (handler != null) {
           handler.handleException(e);
         }
+        if (!commandObject.getArguments().isReplayable()) {
+          throw new JedisException("Command with streamed arguments can't be retried.", e);
+        }
       } finally {
         if (connection != null) {
           connection.close();
@@ -0,0 +1,23 @@
+package io.valkey.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.valkey.ClusterRefresh")
+@Label("Valkey Cluster Refresh")
+@Description("Renewal of the slot cache of a cluster client")
+@Category("Valkey")
+class ClusterRefreshEvent extends Event {
+
+  @Label("Renewed")
+  boolean renewed;
+
+  @Label("Changed Slots")
+  int changedSlots;
+
+  @Label("Nodes")
+  int nodes;
+}
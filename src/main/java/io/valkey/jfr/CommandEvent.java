@@ -0,0 +1,34 @@
+package io.valkey.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.valkey.Command")
+@Label("Valkey Command")
+@Description("A command executed by a connection, from sending it until its reply was read")
+@Category("Valkey")
+@StackTrace(false)
+class CommandEvent extends Event {
+
+  @Label("Command")
+  String command;
+
+  @Label("Node")
+  String node;
+
+  @Label("Bytes Written")
+  @DataAmount
+  long bytesWritten;
+
+  @Label("Reply Size")
+  @DataAmount
+  long replySize;
+
+  @Label("Failure")
+  String failure;
+}
@@ -0,0 +1,72 @@
+package io.valkey.jfr;
+
+import io.valkey.HostAndPort;
+import io.valkey.annots.Internal;
+import io.valkey.commands.ProtocolCommand;
+
+/**
+ * Emits the JDK Flight Recorder events of the client: {@code io.valkey.Command},
+ * {@code io.valkey.PoolBorrow} and {@code io.valkey.ClusterRefresh}.
+ * <p>
+ * The {@code begin} methods return {@code null} if the event is not being recorded, so that the
+ * callers skip all further work; and also if JFR is not available, e.g. on older Java 8 runtimes,
+ * or disabled by the system property {@code jedis.jfr=false}.
+ */
+@Internal
+public final class FlightRecorderEvents {
+
+  private static final boolean AVAILABLE = isAvailable();
+
+  private FlightRecorderEvents() {
+  }
+
+  private static boolean isAvailable() {
+    if (!Boolean.parseBoolean(System.getProperty("jedis.jfr", "true"))) {
+      return false;
+    }
+    try {
+      Class.forName("jdk.jfr.Event");
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  public static Object beginCommand() {
+    return AVAILABLE ? JfrEvents.beginCommand() : null;
+  }
+
+  public static void commitCommand(Object event, ProtocolCommand command, HostAndPort node,
+      long bytesWritten, long replySize, Throwable failure) {
+    if (event != null) {
+      JfrEvents.commitCommand(event, command, node, bytesWritten, replySize, failure);
+    }
+  }
+
+  public static Object beginPoolBorrow() {
+    return AVAILABLE ? JfrEvents.beginPoolBorrow() : null;
+  }
+
+  public static void commitPoolBorrow(Object event, HostAndPort node, int active, int idle,
+      int waiters, Throwable failure) {
+    if (event != null) {
+      JfrEvents.commitPoolBorrow(event, node, active, idle, waiters, failure);
+    }
+  }
+
+  public static Object beginClusterRefresh() {
+    return AVAILABLE ? JfrEvents.beginClusterRefresh() : null;
+  }
+
+  /**
+   * Ends the event; its details only need to be collected if this returns {@code true}.
+   */
+  public static boolean shouldCommit(Object event) {
+    return event != null && JfrEvents.shouldCommit(event);
+  }
+
+  public static void commitClusterRefresh(Object event, boolean renewed, int changedSlots,
+      int nodes) {
+    JfrEvents.commitClusterRefresh(event, renewed, changedSlots, nodes);
+  }
+}
@@ -0,0 +1,90 @@
+package io.valkey.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+import io.valkey.HostAndPort;
+import io.valkey.commands.ProtocolCommand;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * The code which uses the JFR API, only loaded if it is available.
+ */
+final class JfrEvents {
+
+  private static final EventType COMMAND = EventType.getEventType(CommandEvent.class);
+  private static final EventType POOL_BORROW = EventType.getEventType(PoolBorrowEvent.class);
+  private static final EventType CLUSTER_REFRESH = EventType.getEventType(ClusterRefreshEvent.class);
+
+  private JfrEvents() {
+  }
+
+  static Object beginCommand() {
+    if (!COMMAND.isEnabled()) {
+      return null;
+    }
+    CommandEvent event = new CommandEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitCommand(Object begun, ProtocolCommand command, HostAndPort node,
+      long bytesWritten, long replySize, Throwable failure) {
+    CommandEvent event = (CommandEvent) begun;
+    event.end();
+    if (event.shouldCommit()) {
+      event.command = command == null ? null : SafeEncoder.encode(command.getRaw());
+      event.node = node == null ? null : node.toString();
+      event.bytesWritten = bytesWritten;
+      event.replySize = replySize;
+      event.failure = failure == null ? null : failure.toString();
+      event.commit();
+    }
+  }
+
+  static Object beginPoolBorrow() {
+    if (!POOL_BORROW.isEnabled()) {
+      return null;
+    }
+    PoolBorrowEvent event = new PoolBorrowEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitPoolBorrow(Object begun, HostAndPort node, int active, int idle, int waiters,
+      Throwable failure) {
+    PoolBorrowEvent event = (PoolBorrowEvent) begun;
+    event.end();
+    if (event.shouldCommit()) {
+      event.node = node == null ? null : node.toString();
+      event.active = active;
+      event.idle = idle;
+      event.waiters = waiters;
+      event.failure = failure == null ? null : failure.toString();
+      event.commit();
+    }
+  }
+
+  static Object beginClusterRefresh() {
+    if (!CLUSTER_REFRESH.isEnabled()) {
+      return null;
+    }
+    ClusterRefreshEvent event = new ClusterRefreshEvent();
+    event.begin();
+    return event;
+  }
+
+  static boolean shouldCommit(Object begun) {
+    Event event = (Event) begun;
+    event.end();
+    return event.shouldCommit();
+  }
+
+  static void commitClusterRefresh(Object begun, boolean renewed, int changedSlots, int nodes) {
+    ClusterRefreshEvent event = (ClusterRefreshEvent) begun;
+    event.renewed = renewed;
+    event.changedSlots = changedSlots;
+    event.nodes = nodes;
+    event.commit();
+  }
+}
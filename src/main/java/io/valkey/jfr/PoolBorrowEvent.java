@@ -0,0 +1,29 @@
+package io.valkey.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.valkey.PoolBorrow")
+@Label("Valkey Pool Borrow")
+@Description("Borrowing a connection from a pool; the duration is the wait time")
+@Category("Valkey")
+class PoolBorrowEvent extends Event {
+
+  @Label("Node")
+  String node;
+
+  @Label("Active Connections")
+  int active;
+
+  @Label("Idle Connections")
+  int idle;
+
+  @Label("Waiting Threads")
+  int waiters;
+
+  @Label("Failure")
+  String failure;
+}
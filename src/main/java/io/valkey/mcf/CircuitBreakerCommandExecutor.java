@@ -1,5 +1,6 @@
 package io.valkey.mcf;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.decorators.Decorators;
 import io.github.resilience4j.decorators.Decorators.DecorateSupplier;
@@ -7,6 +8,7 @@ import io.github.resilience4j.decorators.Decorators.DecorateSupplier;
 import io.valkey.CommandObject;
 import io.valkey.Connection;
 import io.valkey.annots.Experimental;
+import io.valkey.exceptions.JedisException;
 import io.valkey.executors.CommandExecutor;
 import io.valkey.providers.MultiClusterPooledConnectionProvider;
 import io.valkey.providers.MultiClusterPooledConnectionProvider.Cluster;
@@ -32,10 +34,14 @@ public class CircuitBreakerCommandExecutor extends CircuitBreakerFailoverBase im
 
         DecorateSupplier<T> supplier = Decorators.ofSupplier(() -> this.handleExecuteCommand(commandObject, cluster));
 
-        supplier.withRetry(cluster.getRetry());
+        // a command streaming from or to a channel can't be sent again
+        final boolean replayable = commandObject.getArguments().isReplayable();
+        if (replayable) {
+            supplier.withRetry(cluster.getRetry());
+        }
         supplier.withCircuitBreaker(cluster.getCircuitBreaker());
         supplier.withFallback(provider.getFallbackExceptionList(),
-                e -> this.handleClusterFailover(commandObject, cluster.getCircuitBreaker()));
+                e -> this.handleClusterFailover(commandObject, cluster.getCircuitBreaker(), replayable, e));
 
         return supplier.decorate().get();
     }
@@ -52,10 +58,16 @@ public class CircuitBreakerCommandExecutor extends CircuitBreakerFailoverBase im
     /**
      * Functional interface wrapped in retry and circuit breaker logic to handle open circuit breaker failure scenarios
      */
-    private <T> T handleClusterFailover(CommandObject<T> commandObject, CircuitBreaker circuitBreaker) {
+    private <T> T handleClusterFailover(CommandObject<T> commandObject, CircuitBreaker circuitBreaker,
+            boolean replayable, Throwable failure) {
 
         clusterFailover(circuitBreaker);
 
+        // a call rejected by the open circuit breaker has sent nothing yet
+        if (!replayable && !(failure instanceof CallNotPermittedException)) {
+            throw new JedisException("Command with streamed arguments can't be retried.", failure);
+        }
+
         // Recursive call to the initiating method so the operation can be retried on the next cluster connection
         return executeCommand(commandObject);
     }
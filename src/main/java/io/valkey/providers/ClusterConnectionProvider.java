@@ -3,11 +3,17 @@ package io.valkey.providers;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.valkey.ClusterCommandArguments;
+import io.valkey.ClusterTopologyStats;
 import io.valkey.CommandArguments;
 import io.valkey.Connection;
 import io.valkey.ConnectionPool;
@@ -15,15 +21,60 @@ import io.valkey.HostAndPort;
 import io.valkey.JedisClientConfig;
 import io.valkey.JedisCluster;
 import io.valkey.JedisClusterInfoCache;
+import io.valkey.Protocol.Command;
+import io.valkey.ReadFrom;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.valkey.exceptions.JedisClusterOperationException;
 import io.valkey.exceptions.JedisException;
+import io.valkey.exceptions.JedisMovedDataException;
 
 public class ClusterConnectionProvider implements ConnectionProvider {
 
+  /**
+   * Commands which may be sent to replicas, if {@link ReadFrom} allows it.
+   */
+  private static final EnumSet<Command> READ_ONLY_COMMANDS = EnumSet.of(
+      Command.GET, Command.MGET, Command.STRLEN, Command.GETRANGE, Command.SUBSTR, Command.LCS,
+      Command.GETBIT, Command.BITCOUNT, Command.BITPOS, Command.BITFIELD_RO,
+      Command.EXISTS, Command.TYPE, Command.TTL, Command.PTTL, Command.EXPIRETIME, Command.PEXPIRETIME,
+      Command.DUMP, Command.SORT_RO,
+      Command.HGET, Command.HMGET, Command.HGETALL, Command.HEXISTS, Command.HLEN, Command.HKEYS,
+      Command.HVALS, Command.HSTRLEN, Command.HRANDFIELD, Command.HSCAN,
+      Command.LLEN, Command.LRANGE, Command.LINDEX, Command.LPOS,
+      Command.SMEMBERS, Command.SISMEMBER, Command.SMISMEMBER, Command.SCARD, Command.SRANDMEMBER,
+      Command.SINTER, Command.SUNION, Command.SDIFF, Command.SINTERCARD, Command.SSCAN,
+      Command.ZRANGE, Command.ZREVRANGE, Command.ZRANGEBYSCORE, Command.ZREVRANGEBYSCORE,
+      Command.ZRANGEBYLEX, Command.ZREVRANGEBYLEX, Command.ZCARD, Command.ZSCORE, Command.ZMSCORE,
+      Command.ZRANK, Command.ZREVRANK, Command.ZCOUNT, Command.ZLEXCOUNT, Command.ZRANDMEMBER,
+      Command.ZDIFF, Command.ZINTER, Command.ZUNION, Command.ZINTERCARD, Command.ZSCAN,
+      Command.GEODIST, Command.GEOHASH, Command.GEOPOS, Command.GEORADIUS_RO,
+      Command.GEORADIUSBYMEMBER_RO, Command.GEOSEARCH,
+      Command.PFCOUNT, Command.XLEN, Command.XRANGE, Command.XREVRANGE,
+      Command.EVAL_RO, Command.EVALSHA_RO, Command.FCALL_RO);
+
+  private static final Duration LATENCY_PROBE_PERIOD = Duration.ofSeconds(10);
+
+  /**
+   * Default number of threads which run the work of a command on several nodes, see
+   * {@link #setWorkers(int)}.
+   */
+  public static final int DEFAULT_WORKERS = 3;
+
+  private static final Logger log = LoggerFactory.getLogger(ClusterConnectionProvider.class);
+
   protected final JedisClusterInfoCache cache;
 
+  private ReadFrom readFrom = ReadFrom.MASTER;
+  private volatile Map<HostAndPort, Long> latencies = Collections.emptyMap();
+
+  private int workers = DEFAULT_WORKERS;
+  private boolean virtualThreadWorkers = false;
+  private volatile ExecutorService workerExecutor = null;
+  private boolean workerExecutorOwned = false;
+
   public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig) {
     this.cache = new JedisClusterInfoCache(clientConfig, clusterNodes);
     initializeSlotsCache(clusterNodes, clientConfig);
@@ -41,6 +92,20 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     initializeSlotsCache(clusterNodes, clientConfig);
   }
 
+  /**
+   * @param poolConfig may be {@code null}
+   * @param topologyRefreshPeriod may be {@code null}, to not refresh the topology periodically
+   * @param readFrom chooses the nodes which read-only commands are sent to
+   */
+  public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Duration topologyRefreshPeriod, ReadFrom readFrom) {
+    this(clusterNodes, clientConfig, poolConfig, topologyRefreshPeriod);
+    this.readFrom = readFrom;
+    if (readFrom.isLatencyAware()) {
+      cache.schedulePeriodicTask(this::probeLatencies, LATENCY_PROBE_PERIOD);
+    }
+  }
+
   private void initializeSlotsCache(Set<HostAndPort> startNodes, JedisClientConfig clientConfig) {
     if (startNodes.isEmpty()) {
       throw new JedisClusterOperationException("No nodes to initialize cluster slots cache.");
@@ -73,7 +138,90 @@ public class ClusterConnectionProvider implements ConnectionProvider {
 
   @Override
   public void close() {
-    cache.close();
+    try {
+      shutdownWorkerExecutor();
+    } finally {
+      cache.close();
+    }
+  }
+
+  /**
+   * Sets the number of threads which run the work of a command on several nodes: reading the replies
+   * of the nodes in {@code sync()} of cluster pipelines, multi-slot commands and broadcast commands.
+   * The calling thread takes one node itself, so the nodes of one call run on at most
+   * {@code workers + 1} threads. If you have enough cores for client (and you have more than 3
+   * cluster nodes), you may increase this number of workers. Suggestion:&nbsp;&le;&nbsp;cluster&nbsp;nodes.
+   */
+  public synchronized void setWorkers(int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers must be positive.");
+    }
+    shutdownWorkerExecutor();
+    this.workers = workers;
+  }
+
+  /**
+   * Runs the work of {@link #getWorkerExecutor()} on virtual threads instead of a fixed number of
+   * workers; their number is then not bounded. Virtual threads need JDK 21 or newer; on older
+   * runtimes the workers are used.
+   */
+  public synchronized void setVirtualThreadWorkers(boolean virtualThreads) {
+    shutdownWorkerExecutor();
+    this.virtualThreadWorkers = virtualThreads;
+  }
+
+  /**
+   * Uses the given executor instead of {@link #setWorkers(int) workers}. The executor is not shut
+   * down when this provider is closed.
+   */
+  public synchronized void setWorkerExecutor(ExecutorService executor) {
+    shutdownWorkerExecutor();
+    this.workerExecutor = executor;
+  }
+
+  /**
+   * @return the bounded executor shared by all pipelines, multi-slot and broadcast commands of this
+   * provider; it must not be shut down by them
+   */
+  public ExecutorService getWorkerExecutor() {
+    ExecutorService executor = this.workerExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = this.workerExecutor;
+        if (executor == null) {
+          executor = virtualThreadWorkers ? newVirtualThreadExecutor() : null;
+          if (executor == null) {
+            final AtomicInteger threadIds = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(workers, runnable -> {
+              Thread thread = new Thread(runnable, "valkey-cluster-worker-" + threadIds.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+          }
+          this.workerExecutorOwned = true;
+          this.workerExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  private synchronized void shutdownWorkerExecutor() {
+    ExecutorService executor = this.workerExecutor;
+    if (executor != null && workerExecutorOwned) {
+      executor.shutdown();
+    }
+    this.workerExecutor = null;
+    this.workerExecutorOwned = false;
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      log.warn("Virtual threads are not available, using platform threads for the workers.");
+      return null;
+    }
   }
 
   public void renewSlotCache() {
@@ -84,6 +232,34 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     cache.renewClusterSlots(jedis);
   }
 
+  /**
+   * Assigns the slot of a MOVED redirection to its target node, and renews all slots in the
+   * background, at most once per {@link #setTopologyRefreshMinInterval(Duration) minimum interval}.
+   */
+  public void slotMoved(JedisMovedDataException moved) {
+    cache.movedSlot(moved.getSlot(), moved.getTargetNode());
+  }
+
+  /**
+   * Sets the minimum time between two renewals of the slots caused by MOVED redirections. Default is
+   * {@link JedisClusterInfoCache#DEFAULT_TOPOLOGY_REFRESH_MIN_INTERVAL}.
+   */
+  public void setTopologyRefreshMinInterval(Duration minInterval) {
+    cache.setTopologyRefreshMinInterval(minInterval);
+  }
+
+  /**
+   * Reads the topology with CLUSTER SHARDS instead of CLUSTER SLOTS, which leaves out replicas
+   * which are not online.
+   */
+  public void setUseClusterShards(boolean useClusterShards) {
+    cache.setUseClusterShards(useClusterShards);
+  }
+
+  public ClusterTopologyStats getTopologyStats() {
+    return cache.getTopologyStats();
+  }
+
   public Map<String, ConnectionPool> getNodes() {
     return cache.getNodes();
   }
@@ -96,10 +272,20 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     return node != null ? cache.setupNodeIfNotExist(node).getResource() : getConnection();
   }
 
+  public final ReadFrom getReadFrom() {
+    return readFrom;
+  }
+
   @Override
   public Connection getConnection(CommandArguments args) {
     final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
-    return slot >= 0 ? getConnectionFromSlot(slot) : getConnection();
+    if (slot < 0) {
+      return getConnection();
+    }
+    if (readFrom != ReadFrom.MASTER && !args.isBlocking() && READ_ONLY_COMMANDS.contains(args.getCommand())) {
+      return getReadConnectionFromSlot(slot);
+    }
+    return getConnectionFromSlot(slot);
   }
 
   @Override
@@ -158,8 +344,69 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     }
   }
 
+  /**
+   * Borrows a connection of a node of the slot chosen by {@link ReadFrom}. Connections to replicas
+   * are in READONLY mode.
+   */
+  public Connection getReadConnectionFromSlot(int slot) {
+    HostAndPort primary = cache.getSlotNode(slot);
+    if (primary == null) {
+      return getConnectionFromSlot(slot);
+    }
+
+    final Map<HostAndPort, Long> measured = this.latencies;
+    List<HostAndPort> nodes = readFrom.select(primary, cache.getSlotReplicas(slot),
+        node -> measured.getOrDefault(node, Long.MAX_VALUE));
+    JedisException suppressed = null;
+    for (HostAndPort node : nodes) {
+      try {
+        ConnectionPool pool = node.equals(primary) ? cache.setupNodeIfNotExist(node)
+            : cache.setupReadOnlyNodeIfNotExist(node);
+        return pool.getResource();
+      } catch (JedisException ex) {
+        if (suppressed == null) { // remembering first suppressed exception
+          suppressed = ex;
+        }
+      }
+    }
+
+    JedisClusterOperationException noReachableNode
+        = new JedisClusterOperationException("No reachable node to read slot " + slot + " from.");
+    if (suppressed != null) {
+      noReachableNode.addSuppressed(suppressed);
+    }
+    throw noReachableNode;
+  }
+
+  /**
+   * Measures the PING latency of all known nodes, in the background, so that reads only look up the
+   * latest measurements. An unreachable node gets {@link Long#MAX_VALUE}.
+   */
+  private void probeLatencies() {
+    Map<HostAndPort, Long> probed = new HashMap<>();
+    for (Map.Entry<String, ConnectionPool> node : cache.getNodes().entrySet()) {
+      long latency;
+      try (Connection connection = node.getValue().getResource()) {
+        long start = System.nanoTime();
+        connection.ping();
+        latency = System.nanoTime() - start;
+      } catch (JedisException ex) {
+        latency = Long.MAX_VALUE;
+      }
+      probed.put(HostAndPort.from(node.getKey()), latency);
+    }
+    this.latencies = Collections.unmodifiableMap(probed);
+  }
+
   @Override
   public Map<String, ConnectionPool> getConnectionMap() {
     return Collections.unmodifiableMap(getNodes());
   }
+
+  /**
+   * @return the pools of the primary nodes, by their {@code host:port}
+   */
+  public Map<String, ConnectionPool> getPrimaryConnectionMap() {
+    return Collections.unmodifiableMap(cache.getPrimaryNodes());
+  }
 }
@@ -3,12 +3,15 @@ package io.valkey.providers;
 import java.util.Collections;
 import java.util.Map;
 
+import io.valkey.AsyncConnection;
 import io.valkey.CommandArguments;
 import io.valkey.Connection;
 import io.valkey.ConnectionFactory;
 import io.valkey.ConnectionPool;
+import io.valkey.DefaultJedisClientConfig;
 import io.valkey.HostAndPort;
 import io.valkey.JedisClientConfig;
+import io.valkey.csc.ClientSideCache;
 import io.valkey.util.Pool;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -17,36 +20,51 @@ public class PooledConnectionProvider implements ConnectionProvider {
 
   private final Pool<Connection> pool;
   private Object connectionMapKey = "";
+  private JedisClientConfig clientConfig = null;
 
   public PooledConnectionProvider(HostAndPort hostAndPort) {
     this(new ConnectionFactory(hostAndPort));
     this.connectionMapKey = hostAndPort;
+    this.clientConfig = DefaultJedisClientConfig.builder().build();
   }
 
   public PooledConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
-    this(new ConnectionPool(hostAndPort, clientConfig));
+    this(ConnectionPool.create(new ConnectionFactory(hostAndPort, clientConfig), null));
     this.connectionMapKey = hostAndPort;
+    this.clientConfig = clientConfig;
   }
 
   public PooledConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
       GenericObjectPoolConfig<Connection> poolConfig) {
     this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
     this.connectionMapKey = hostAndPort;
+    this.clientConfig = clientConfig;
+  }
+
+  /**
+   * The pooled connections serve cacheable read commands from {@code clientSideCache}.
+   */
+  public PooledConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      ClientSideCache clientSideCache, GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig, clientSideCache), poolConfig);
+    this.connectionMapKey = hostAndPort;
+    this.clientConfig = clientConfig;
   }
 
   public PooledConnectionProvider(PooledObjectFactory<Connection> factory) {
-    this(new ConnectionPool(factory));
+    this(ConnectionPool.create(factory, null));
     this.connectionMapKey = factory;
   }
 
   public PooledConnectionProvider(PooledObjectFactory<Connection> factory,
       GenericObjectPoolConfig<Connection> poolConfig) {
-    this(new ConnectionPool(factory, poolConfig));
+    this(ConnectionPool.create(factory, poolConfig));
     this.connectionMapKey = factory;
   }
 
-  private PooledConnectionProvider(Pool<Connection> pool) {
+  private PooledConnectionProvider(ConnectionPool pool) {
     this.pool = pool;
+    pool.warmUpOnCreate();
   }
 
   @Override
@@ -58,6 +76,19 @@ public class PooledConnectionProvider implements ConnectionProvider {
     return pool;
   }
 
+  /**
+   * Opens a new {@link AsyncConnection} to the same server and with the same client configuration
+   * as the pooled connections.
+   * @return a new asynchronous connection
+   * @throws IllegalStateException if this provider was not created with a {@link HostAndPort}
+   */
+  public AsyncConnection createAsyncConnection() {
+    if (clientConfig == null) {
+      throw new IllegalStateException("Server address is not known to " + getClass().getSimpleName() + ".");
+    }
+    return new AsyncConnection((HostAndPort) connectionMapKey, clientConfig);
+  }
+
   @Override
   public Connection getConnection() {
     return pool.getResource();
@@ -44,7 +44,13 @@ public class RedirectConnectionProvider implements ConnectionProvider {
     this.hostAndPort = hostAndPort;
     this.clientConfig = clientConfig;
     this.poolConfig = poolConfig;
-    this.pool = new ConnectionPool(hostAndPort, clientConfig, poolConfig);
+    this.pool = newPool();
+  }
+
+  private ConnectionPool newPool() {
+    ConnectionPool newPool = new ConnectionPool(hostAndPort, clientConfig, poolConfig);
+    newPool.warmUpOnCreate();
+    return newPool;
   }
 
   public void renewPool(Connection connection, HostAndPort targetNode) {
@@ -69,7 +75,7 @@ public class RedirectConnectionProvider implements ConnectionProvider {
               logger.warn("close pool get exception, hostAndPort:{}", oldNode, e);
             }
           }
-          this.pool = new ConnectionPool(hostAndPort, clientConfig, poolConfig);
+          this.pool = newPool();
         } finally {
           w.unlock();
         }
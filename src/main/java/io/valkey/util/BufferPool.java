@@ -0,0 +1,209 @@
+package io.valkey.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference-counted byte buffers for {@link ByteSlice}s, and buffers of
+ * {@link RedisInputStream}/{@link RedisOutputStream}.
+ * <p>
+ * Small slices are carved out of a chunk owned by the reading thread; the chunk is reused once all
+ * of its slices are released. Larger slices and stream buffers get a whole array of a power-of-two
+ * size class. Arrays above {@code maxPooledSize} are not pooled, and free arrays are only kept while
+ * they take at most {@code maxPooledBytes} in total.
+ */
+public final class BufferPool {
+
+  public static final BufferPool DEFAULT = new BufferPool(64 * 1024, 4 * 1024 * 1024, 16, 32L * 1024 * 1024);
+
+  /**
+   * Pool of the buffers of connection streams, which are released while connections are idle.
+   */
+  public static final BufferPool STREAMS = new BufferPool(64 * 1024, 4 * 1024 * 1024, 256, 16L * 1024 * 1024);
+
+  private final int chunkSize;
+  private final int smallSize;
+  private final int maxPooledSize;
+  private final int maxPooledPerClass;
+  private final long maxPooledBytes;
+
+  private final Queue<Chunk> freeChunks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger freeChunkCount = new AtomicInteger();
+  private final Queue<byte[]>[] freeBuffers;
+  private final AtomicInteger[] freeBufferCounts;
+  private final AtomicLong freeBufferBytes = new AtomicLong();
+  private final ThreadLocal<Chunk> currentChunk = new ThreadLocal<>();
+
+  /**
+   * @param chunkSize size of the chunks which small slices are carved out of
+   * @param maxPooledSize largest array which is pooled
+   * @param maxPooledPerClass number of free arrays kept per size class
+   */
+  public BufferPool(int chunkSize, int maxPooledSize, int maxPooledPerClass) {
+    this(chunkSize, maxPooledSize, maxPooledPerClass, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param chunkSize size of the chunks which small slices are carved out of
+   * @param maxPooledSize largest array which is pooled
+   * @param maxPooledPerClass number of free arrays kept per size class
+   * @param maxPooledBytes total size of the free arrays kept, of all size classes
+   */
+  @SuppressWarnings("unchecked")
+  public BufferPool(int chunkSize, int maxPooledSize, int maxPooledPerClass, long maxPooledBytes) {
+    if (chunkSize <= 0 || maxPooledSize < chunkSize || maxPooledPerClass < 0 || maxPooledBytes < 0) {
+      throw new IllegalArgumentException("Invalid buffer pool sizes.");
+    }
+    this.chunkSize = chunkSize;
+    this.smallSize = Math.max(chunkSize / 16, 1);
+    this.maxPooledSize = maxPooledSize;
+    this.maxPooledPerClass = maxPooledPerClass;
+    this.maxPooledBytes = maxPooledBytes;
+
+    final int classes = sizeClass(maxPooledSize) + 1;
+    this.freeBuffers = new Queue[classes];
+    this.freeBufferCounts = new AtomicInteger[classes];
+    for (int i = 0; i < classes; i++) {
+      freeBuffers[i] = new ConcurrentLinkedQueue<>();
+      freeBufferCounts[i] = new AtomicInteger();
+    }
+  }
+
+  /**
+   * Reads {@code length} bytes of the stream into a pooled slice.
+   */
+  public ByteSlice read(RedisInputStream is, int length) {
+    final ByteSlice slice = allocate(length);
+    final byte[] array = slice.array();
+    int offset = 0;
+    while (offset < length) {
+      offset += is.read(array, slice.offset() + offset, length - offset);
+    }
+    return slice;
+  }
+
+  /**
+   * Takes an array of at least {@code size} bytes, which should be given back by
+   * {@link #give(byte[])} when it is not needed anymore.
+   */
+  public byte[] take(int size) {
+    if (size > maxPooledSize) {
+      return new byte[size];
+    }
+    final int sizeClass = sizeClass(size);
+    final byte[] buffer = freeBuffers[sizeClass].poll();
+    if (buffer == null) {
+      return new byte[1 << sizeClass];
+    }
+    freeBufferCounts[sizeClass].decrementAndGet();
+    freeBufferBytes.addAndGet(-buffer.length);
+    return buffer;
+  }
+
+  /**
+   * Gives back an array taken by {@link #take(int)}. It must not be used afterwards.
+   */
+  public void give(byte[] buffer) {
+    final int length = buffer.length;
+    if (length == 0 || length > maxPooledSize || Integer.bitCount(length) != 1) {
+      return;
+    }
+    if (freeBufferBytes.addAndGet(length) > maxPooledBytes) {
+      freeBufferBytes.addAndGet(-length);
+      return;
+    }
+    final int sizeClass = sizeClass(length);
+    if (freeBufferCounts[sizeClass].incrementAndGet() <= maxPooledPerClass) {
+      freeBuffers[sizeClass].offer(buffer);
+    } else {
+      freeBufferCounts[sizeClass].decrementAndGet();
+      freeBufferBytes.addAndGet(-length);
+    }
+  }
+
+  /**
+   * @return total size of the free arrays kept by {@link #give(byte[])}
+   */
+  public long getPooledBytes() {
+    return freeBufferBytes.get();
+  }
+
+  ByteSlice allocate(int length) {
+    if (length <= smallSize) {
+      Chunk chunk = currentChunk.get();
+      if (chunk == null || chunk.array.length - chunk.position < length) {
+        if (chunk != null) {
+          chunk.release();
+        }
+        chunk = freeChunks.poll();
+        if (chunk != null) {
+          freeChunkCount.decrementAndGet();
+          chunk.reset();
+        } else {
+          chunk = new Chunk(new byte[chunkSize], true);
+        }
+        currentChunk.set(chunk);
+      }
+      chunk.refs.incrementAndGet();
+      final ByteSlice slice = new ByteSlice(chunk.array, chunk.position, length, chunk);
+      chunk.position += length;
+      return slice;
+    }
+
+    if (length > maxPooledSize) {
+      return new ByteSlice(new byte[length], 0, length, null);
+    }
+    return new ByteSlice(take(length), 0, length, new Chunk(null, false));
+  }
+
+  private static int sizeClass(int length) {
+    return 32 - Integer.numberOfLeadingZeros(length - 1);
+  }
+
+  private void recycle(Chunk chunk) {
+    if (freeChunkCount.incrementAndGet() <= maxPooledPerClass) {
+      freeChunks.offer(chunk);
+    } else {
+      freeChunkCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * A pooled buffer of slices. A shared chunk of small slices holds one reference while it is the
+   * current chunk of a thread, and one for every live slice. A chunk of a single large slice only
+   * gives the array of its slice back.
+   */
+  final class Chunk {
+
+    private final byte[] array;
+    private final boolean shared;
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private int position = 0;
+
+    private Chunk(byte[] array, boolean shared) {
+      this.array = array;
+      this.shared = shared;
+    }
+
+    private void reset() {
+      position = 0;
+      refs.set(1);
+    }
+
+    void release(ByteSlice slice) {
+      if (!shared) {
+        give(slice.array());
+      } else {
+        release();
+      }
+    }
+
+    private void release() {
+      if (refs.decrementAndGet() == 0) {
+        recycle(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package io.valkey.util;
+
+/**
+ * Adapts the size of a stream buffer to the observed traffic. The buffer grows when messages
+ * repeatedly fill it more than once, and shrinks when a whole window of messages used no more than
+ * a quarter of it. It never becomes smaller than the initial size nor larger than the maximum size.
+ */
+final class BufferSizing {
+
+  static final int MAX_BUFFER_SIZE = Integer.parseInt(
+      System.getProperty("jedis.bufferSize.max", "524288"));
+
+  private static final int SHRINK_WINDOW = 64;
+
+  private final int initialSize;
+  private final int maxSize;
+
+  private int fullFills = 0;
+  private int largestFill = 0;
+  private int messages = 0;
+
+  BufferSizing(int initialSize) {
+    this.initialSize = initialSize;
+    this.maxSize = Math.max(initialSize, MAX_BUFFER_SIZE);
+  }
+
+  /**
+   * Records that {@code filled} bytes of a buffer of {@code capacity} bytes were used at once.
+   */
+  void filled(int filled, int capacity) {
+    if (filled >= capacity - (capacity >> 3)) {
+      fullFills++;
+    }
+    if (filled > largestFill) {
+      largestFill = filled;
+    }
+  }
+
+  /**
+   * Called at the end of a message.
+   * @return the size the buffer should have for the next messages
+   */
+  int nextSize(int capacity) {
+    if (fullFills >= 2 && capacity < maxSize) {
+      reset();
+      return Math.min(capacity << 1, maxSize);
+    }
+    fullFills = 0;
+
+    if (++messages < SHRINK_WINDOW) {
+      return capacity;
+    }
+    final int largest = largestFill;
+    reset();
+    if (largest <= capacity >> 2 && capacity >> 1 >= initialSize) {
+      return capacity >> 1;
+    }
+    return capacity;
+  }
+
+  private void reset() {
+    fullFills = 0;
+    largestFill = 0;
+    messages = 0;
+  }
+}
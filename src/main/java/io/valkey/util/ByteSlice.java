@@ -0,0 +1,194 @@
+package io.valkey.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only view of a bulk reply inside a buffer of a {@link BufferPool}. The buffer is returned to
+ * the pool when the slice is released, so the content must not be used afterwards. Use
+ * {@link #toByteArray()} to keep a copy.
+ * <p>
+ * Slices are reference counted: {@link #retain()} for every additional owner, and
+ * {@link #release()} (or {@link #close()}) once per owner.
+ */
+public final class ByteSlice implements AutoCloseable {
+
+  private final byte[] array;
+  private final int offset;
+  private final int length;
+  private final BufferPool.Chunk chunk;
+  private final AtomicInteger refs = new AtomicInteger(1);
+
+  ByteSlice(byte[] array, int offset, int length, BufferPool.Chunk chunk) {
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+    this.chunk = chunk;
+  }
+
+  /**
+   * @return a slice over the whole array, which is not pooled
+   */
+  public static ByteSlice wrap(byte[] array) {
+    return new ByteSlice(array, 0, array.length, null);
+  }
+
+  byte[] array() {
+    return array;
+  }
+
+  int offset() {
+    return offset;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public byte byteAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+    }
+    ensureAccessible();
+    return array[offset + index];
+  }
+
+  /**
+   * @return a read-only buffer sharing the content of this slice
+   */
+  public ByteBuffer asByteBuffer() {
+    ensureAccessible();
+    return ByteBuffer.wrap(array, offset, length).slice().asReadOnlyBuffer();
+  }
+
+  public byte[] toByteArray() {
+    ensureAccessible();
+    return Arrays.copyOfRange(array, offset, offset + length);
+  }
+
+  public String toString(Charset charset) {
+    ensureAccessible();
+    return new String(array, offset, length, charset);
+  }
+
+  public boolean contentEquals(byte[] bytes) {
+    if (bytes.length != length) {
+      return false;
+    }
+    ensureAccessible();
+    for (int i = 0; i < length; i++) {
+      if (array[offset + i] != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses the content as a decimal integer, without copying it.
+   * @throws NumberFormatException if the content is not a decimal integer
+   */
+  public long parseLong() {
+    ensureAccessible();
+    if (length == 0) {
+      throw new NumberFormatException("empty slice");
+    }
+    final boolean negative = array[offset] == '-';
+    int i = negative || array[offset] == '+' ? 1 : 0;
+    if (i == length || length - i > 19) {
+      return Long.parseLong(toString(SafeEncoder.DEFAULT_CHARSET));
+    }
+    long value = 0;
+    for (; i < length; i++) {
+      final int digit = array[offset + i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("For input: \"" + toString(SafeEncoder.DEFAULT_CHARSET) + "\"");
+      }
+      value = value * 10 - digit;
+      if (value > 0) { // overflow
+        return Long.parseLong(toString(SafeEncoder.DEFAULT_CHARSET));
+      }
+    }
+    if (!negative) {
+      if (value == Long.MIN_VALUE) {
+        return Long.parseLong(toString(SafeEncoder.DEFAULT_CHARSET));
+      }
+      value = -value;
+    }
+    return value;
+  }
+
+  public double parseDouble() {
+    return DoublePrecision.parseFloatingPointNumber(toString(SafeEncoder.DEFAULT_CHARSET));
+  }
+
+  /**
+   * Adds an owner of this slice.
+   * @return this slice
+   */
+  public ByteSlice retain() {
+    for (;;) {
+      final int current = refs.get();
+      if (current <= 0) {
+        throw new IllegalStateException("Slice is already released.");
+      }
+      if (refs.compareAndSet(current, current + 1)) {
+        return this;
+      }
+    }
+  }
+
+  /**
+   * Removes an owner of this slice. The buffer is returned to its pool after the last owner.
+   */
+  public void release() {
+    final int remaining = refs.decrementAndGet();
+    if (remaining == 0) {
+      if (chunk != null) {
+        chunk.release(this);
+      }
+    } else if (remaining < 0) {
+      refs.incrementAndGet();
+      throw new IllegalStateException("Slice is already released.");
+    }
+  }
+
+  @Override
+  public void close() {
+    release();
+  }
+
+  private void ensureAccessible() {
+    if (refs.get() <= 0) {
+      throw new IllegalStateException("Slice is already released.");
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ByteSlice)) return false;
+    ByteSlice that = (ByteSlice) o;
+    if (length != that.length) return false;
+    for (int i = 0; i < length; i++) {
+      if (array[offset + i] != that.array[that.offset + i]) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < length; i++) {
+      result = 31 * result + array[offset + i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "ByteSlice[length=" + length + "]";
+  }
+}
@@ -0,0 +1,75 @@
+package io.valkey.util;
+
+/**
+ * Encodes integral numbers as ASCII decimal digits without going through {@link String}.
+ */
+public final class NumberEncoder {
+
+  private NumberEncoder() {
+    throw new InstantiationError("Must not instantiate this class");
+  }
+
+  /**
+   * @param value number
+   * @return the number of bytes of the decimal representation, including the sign
+   */
+  public static int size(long value) {
+    int size = 1;
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        return 20;
+      }
+      size++;
+      value = -value;
+    }
+    long limit = 10;
+    for (int i = 1; i < 19; i++) {
+      if (value < limit) {
+        return size;
+      }
+      limit *= 10;
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Writes the decimal representation of the number ending right before {@code end}.
+   * @param value number
+   * @param buf destination, must have room for {@link #size(long)} bytes before {@code end}
+   * @param end exclusive end index
+   */
+  public static void encode(long value, byte[] buf, int end) {
+    if (value == Long.MIN_VALUE) {
+      byte[] min = SafeEncoder.encode(Long.toString(value));
+      System.arraycopy(min, 0, buf, end - min.length, min.length);
+      return;
+    }
+
+    boolean negative = value < 0;
+    if (negative) {
+      value = -value;
+    }
+
+    int pos = end;
+    do {
+      long q = value / 10;
+      buf[--pos] = (byte) ('0' + (int) (value - q * 10));
+      value = q;
+    } while (value != 0);
+
+    if (negative) {
+      buf[--pos] = '-';
+    }
+  }
+
+  /**
+   * @param value number
+   * @return the decimal representation of the number
+   */
+  public static byte[] encode(long value) {
+    byte[] buf = new byte[size(value)];
+    encode(value, buf, buf.length);
+    return buf;
+  }
+}
@@ -1,12 +1,29 @@
 package io.valkey.util;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import io.valkey.exceptions.JedisException;
 
 public class Pool<T> extends GenericObjectPool<T> {
 
+  private static final Logger logger = LoggerFactory.getLogger(Pool.class);
+
+  /**
+   * Limit of the threads which warm up pools, shared by all pools.
+   */
+  private static final int MAX_WARM_UP_THREADS = 16;
+
   // Legacy
   public Pool(GenericObjectPoolConfig<T> poolConfig, PooledObjectFactory<T> factory) {
     this(factory, poolConfig);
@@ -75,4 +92,59 @@ public class Pool<T> extends GenericObjectPool<T> {
       throw new JedisException("Error trying to add idle objects", e);
     }
   }
+
+  /**
+   * Adds up to {@code count} idle objects in the background, creating at most {@code parallelism}
+   * of them at the same time. Objects are not added beyond the maximum total of the pool. Warming
+   * up stops at the first object which can't be created.
+   * @return the number of objects which were added; join it to wait for the warm-up
+   */
+  public CompletableFuture<Integer> warmUp(int count, int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Warm-up parallelism must be positive.");
+    }
+    final int maxTotal = getMaxTotal();
+    if (maxTotal >= 0) {
+      count = Math.min(count, maxTotal - getNumActive() - getNumIdle());
+    }
+    if (count <= 0) {
+      return CompletableFuture.completedFuture(0);
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(count);
+    final AtomicInteger added = new AtomicInteger();
+    final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, count)];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = CompletableFuture.runAsync(() -> {
+        while (!isClosed() && remaining.getAndDecrement() > 0) {
+          try {
+            addObject();
+            added.incrementAndGet();
+          } catch (Exception e) {
+            if (remaining.getAndSet(0) > 0) {
+              logger.warn("Could not warm up the pool.", e);
+            }
+          }
+        }
+      }, WarmUpExecutor.INSTANCE);
+    }
+    return CompletableFuture.allOf(workers).thenApply(v -> added.get());
+  }
+
+  private static class WarmUpExecutor {
+
+    private static final ExecutorService INSTANCE = create();
+
+    private static ExecutorService create() {
+      final AtomicInteger threads = new AtomicInteger();
+      final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_WARM_UP_THREADS,
+          MAX_WARM_UP_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "valkey-pool-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
 }
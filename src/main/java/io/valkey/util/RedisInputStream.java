@@ -14,6 +14,9 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import io.valkey.exceptions.JedisConnectionException;
 
 /**
@@ -27,16 +30,29 @@ public class RedisInputStream extends FilterInputStream {
       System.getProperty("jedis.bufferSize.input",
           System.getProperty("jedis.bufferSize", "8192")));
 
-  protected final byte[] buf;
+  private static final byte[] NO_BUFFER = new byte[0];
+
+  private final BufferPool pool = BufferPool.STREAMS;
+  private final BufferSizing sizing;
+  private int bufferSize;
+
+  /**
+   * The buffer is taken from the pool when it is first filled, and may be replaced by
+   * {@link #adaptBuffer()} or given back by {@link #releaseBuffer()}.
+   */
+  protected byte[] buf = NO_BUFFER;
 
   protected int count, limit;
 
+  private long filled = 0;
+
   public RedisInputStream(InputStream in, int size) {
     super(in);
     if (size <= 0) {
       throw new IllegalArgumentException("Buffer size <= 0");
     }
-    buf = new byte[size];
+    bufferSize = size;
+    sizing = new BufferSizing(size);
   }
 
   public RedisInputStream(InputStream in) {
@@ -48,9 +64,32 @@ public class RedisInputStream extends FilterInputStream {
     return buf[count++];
   }
 
-  private void ensureCrLf() {
-    final byte[] buf = this.buf;
+  /**
+   * Returns the next byte without consuming it.
+   */
+  public byte peekByte() throws JedisConnectionException {
+    ensureFill();
+    return buf[count];
+  }
+
+  /**
+   * Counts the buffered bytes as well as those which can be read from the underlying stream without
+   * blocking.
+   */
+  @Override
+  public int available() {
+    final int buffered = Math.max(limit - count, 0);
+    if (buffered > 0) {
+      return buffered;
+    }
+    try {
+      return in.available();
+    } catch (IOException e) {
+      throw new JedisConnectionException(e);
+    }
+  }
 
+  private void ensureCrLf() {
     ensureFill();
     if (buf[count++] == '\r') {
 
@@ -169,8 +208,6 @@ public class RedisInputStream extends FilterInputStream {
   }
 
   public boolean readBooleanCrLf() {
-    final byte[] buf = this.buf;
-
     ensureFill();
     final byte b = buf[count++];
 
@@ -187,9 +224,8 @@ public class RedisInputStream extends FilterInputStream {
   }
 
   public long readLongCrLf() {
-    final byte[] buf = this.buf;
-
     ensureFill();
+    final byte[] buf = this.buf;
 
     final boolean isNeg = buf[count] == '-';
     if (isNeg) {
@@ -225,6 +261,82 @@ public class RedisInputStream extends FilterInputStream {
     return new BigInteger(readLine());
   }
 
+  /**
+   * Reads {@code len} bytes as a string. If they are buffered already, the string is decoded
+   * straight from the buffer.
+   */
+  public String readString(final int len, final Charset charset) {
+    ensureFill();
+    if (limit - count >= len) {
+      final String read = new String(buf, count, len, charset);
+      count += len;
+      return read;
+    }
+
+    final byte[] read = new byte[len];
+    int offset = 0;
+    while (offset < len) {
+      offset += read(read, offset, len - offset);
+    }
+    return new String(read, charset);
+  }
+
+  /**
+   * Copies the next {@code length} bytes into the buffer, which must have enough space remaining.
+   */
+  public void readInto(final ByteBuffer dst, final int length) {
+    int remaining = length;
+    while (remaining > 0) {
+      ensureFill();
+      final int size = Math.min(limit - count, remaining);
+      dst.put(buf, count, size);
+      count += size;
+      remaining -= size;
+    }
+  }
+
+  /**
+   * Consumes the next {@code length} bytes.
+   */
+  public void skipBytes(final int length) {
+    int remaining = length;
+    while (remaining > 0) {
+      ensureFill();
+      final int size = Math.min(limit - count, remaining);
+      count += size;
+      remaining -= size;
+    }
+  }
+
+  /**
+   * Writes the next {@code length} bytes to the channel, chunk by chunk from the buffer. If the
+   * channel fails, the remaining bytes are still consumed, so that the stream stays at a reply
+   * boundary, and the failure is thrown afterwards.
+   */
+  public void transferTo(final WritableByteChannel target, final int length) throws IOException {
+    IOException failure = null;
+    int remaining = length;
+    while (remaining > 0) {
+      ensureFill();
+      final int size = Math.min(limit - count, remaining);
+      if (failure == null) {
+        try {
+          final ByteBuffer chunk = ByteBuffer.wrap(buf, count, size);
+          while (chunk.hasRemaining()) {
+            target.write(chunk);
+          }
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+      count += size;
+      remaining -= size;
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
   @Override
   public int read(byte[] b, int off, int len) throws JedisConnectionException {
     ensureFill();
@@ -235,12 +347,56 @@ public class RedisInputStream extends FilterInputStream {
     return length;
   }
 
+  /**
+   * @return the number of bytes which have been consumed from this stream
+   */
+  public long getBytesRead() {
+    return filled - (limit - count);
+  }
+
+  /**
+   * Called at the end of a reply to resize the buffer according to the sizes of the recent replies.
+   * The buffer is only replaced if no bytes of further replies are buffered.
+   */
+  public void adaptBuffer() {
+    if (buf.length == 0) {
+      return;
+    }
+    final int size = sizing.nextSize(buf.length);
+    if (size != buf.length && count >= limit) {
+      bufferSize = size;
+      pool.give(buf);
+      buf = pool.take(size);
+      count = limit = 0;
+    }
+  }
+
+  /**
+   * Gives the buffer back to the pool, if no bytes are buffered. A buffer is taken again by the next
+   * read.
+   * @return {@code true} if the buffer was released
+   */
+  public boolean releaseBuffer() {
+    if (count < limit) {
+      return false;
+    }
+    if (buf.length != 0) {
+      pool.give(buf);
+      buf = NO_BUFFER;
+      count = limit = 0;
+    }
+    return true;
+  }
+
   /**
    * This method assumes there are required bytes to be read. If we cannot read anymore bytes an
    * exception is thrown to quickly ascertain that the stream was smaller than expected.
    */
   private void ensureFill() throws JedisConnectionException {
     if (count >= limit) {
+      if (buf.length == 0) {
+        buf = pool.take(bufferSize);
+      }
       try {
         limit = in.read(buf);
         count = 0;
@@ -250,6 +406,8 @@ public class RedisInputStream extends FilterInputStream {
       } catch (IOException e) {
         throw new JedisConnectionException(e);
       }
+      filled += limit;
+      sizing.filled(limit, buf.length);
     }
   }
 }
@@ -1,8 +1,11 @@
 package io.valkey.util;
 
+import java.io.EOFException;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * The class implements a buffered output stream without synchronization There are also special
@@ -15,10 +18,22 @@ public final class RedisOutputStream extends FilterOutputStream {
       System.getProperty("jedis.bufferSize.output",
           System.getProperty("jedis.bufferSize", "8192")));
 
-  protected final byte[] buf;
+  private static final byte[] NO_BUFFER = new byte[0];
+
+  private final BufferPool pool = BufferPool.STREAMS;
+  private final BufferSizing sizing;
+  private int bufferSize;
+
+  /**
+   * The buffer is taken from the pool when it is first written, and may be replaced when flushed
+   * or given back by {@link #releaseBuffer()}.
+   */
+  protected byte[] buf = NO_BUFFER;
 
   protected int count;
 
+  private long flushed = 0;
+
   private final static int[] sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999, 99999999,
       999999999, Integer.MAX_VALUE };
 
@@ -49,16 +64,44 @@ public final class RedisOutputStream extends FilterOutputStream {
     if (size <= 0) {
       throw new IllegalArgumentException("Buffer size <= 0");
     }
-    buf = new byte[size];
+    bufferSize = size;
+    sizing = new BufferSizing(size);
   }
 
   private void flushBuffer() throws IOException {
     if (count > 0) {
+      sizing.filled(count, buf.length);
       out.write(buf, 0, count);
+      flushed += count;
       count = 0;
+    } else if (buf.length == 0) {
+      buf = pool.take(bufferSize);
     }
   }
 
+  /**
+   * @return the number of bytes which have been written to this stream
+   */
+  public long getBytesWritten() {
+    return flushed + count;
+  }
+
+  /**
+   * Gives the buffer back to the pool, if nothing is buffered. A buffer is taken again by the next
+   * write.
+   * @return {@code true} if the buffer was released
+   */
+  public boolean releaseBuffer() {
+    if (count > 0) {
+      return false;
+    }
+    if (buf.length != 0) {
+      pool.give(buf);
+      buf = NO_BUFFER;
+    }
+    return true;
+  }
+
   public void write(final byte b) throws IOException {
     if (count == buf.length) {
       flushBuffer();
@@ -73,9 +116,13 @@ public final class RedisOutputStream extends FilterOutputStream {
 
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (buf.length == 0) {
+      flushBuffer();
+    }
     if (len >= buf.length) {
       flushBuffer();
       out.write(b, off, len);
+      flushed += len;
     } else {
       if (len >= buf.length - count) {
         flushBuffer();
@@ -133,9 +180,61 @@ public final class RedisOutputStream extends FilterOutputStream {
     writeCrLf();
   }
 
+  public void writeLongCrLf(long value) throws IOException {
+    final int size = NumberEncoder.size(value);
+    if (size + 2 >= buf.length - count) {
+      flushBuffer();
+    }
+    if (size + 2 > buf.length) {
+      write(NumberEncoder.encode(value));
+    } else {
+      NumberEncoder.encode(value, buf, count + size);
+      count += size;
+    }
+    writeCrLf();
+  }
+
+  /**
+   * Writes the number as a bulk string, i.e. {@code $<length>\r\n<number>\r\n}, directly into the
+   * buffer.
+   */
+  public void writeLongAsBulk(long value) throws IOException {
+    write((byte) '$');
+    writeIntCrLf(NumberEncoder.size(value));
+    writeLongCrLf(value);
+  }
+
+  /**
+   * Writes {@code length} bytes of the channel through the buffer, without reading the whole
+   * content into memory. The channel must be blocking.
+   */
+  public void writeFrom(final ReadableByteChannel source, final long length) throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      if (count == buf.length) {
+        flushBuffer();
+      }
+      final ByteBuffer chunk = ByteBuffer.wrap(buf, count, (int) Math.min(buf.length - count, remaining));
+      final int read = source.read(chunk);
+      if (read < 0) {
+        throw new EOFException("Channel ended " + remaining + " bytes before the declared length.");
+      }
+      count += read;
+      remaining -= read;
+    }
+  }
+
   @Override
   public void flush() throws IOException {
     flushBuffer();
     out.flush();
+
+    // a flush ends a batch of commands, which is the unit the buffer size is adapted to
+    final int size = sizing.nextSize(buf.length);
+    if (size != buf.length && buf.length != 0) {
+      bufferSize = size;
+      pool.give(buf);
+      buf = pool.take(size);
+    }
   }
 }
@@ -0,0 +1,134 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.util.SafeEncoder;
+
+public class AsyncConnectionTest {
+
+  private static final HostAndPort hnp = HostAndPorts.getRedisServers().get(0);
+
+  private static final JedisClientConfig config = DefaultJedisClientConfig.builder().password("foobared").build();
+
+  private static int scan(String frame) {
+    byte[] bytes = SafeEncoder.encode(frame);
+    return AsyncConnection.scanFrame(bytes, 0, bytes.length);
+  }
+
+  @Test
+  public void scanCompleteFrames() {
+    String[] frames = { "+OK\r\n", ":10\r\n", "$-1\r\n", "$3\r\nfoo\r\n", "*0\r\n",
+        "*2\r\n$3\r\nfoo\r\n:100\r\n", "%1\r\n+key\r\n*1\r\n$3\r\nbar\r\n",
+        ">3\r\n$7\r\nmessage\r\n$1\r\nc\r\n$0\r\n\r\n" };
+    for (String frame : frames) {
+      assertEquals(frame, frame.length(), scan(frame));
+    }
+    assertEquals(9, scan("$3\r\nfoo\r\n+OK\r\n"));
+  }
+
+  @Test
+  public void scanIncompleteFrames() {
+    assertEquals(-1, scan(""));
+    assertEquals(-1, scan("+OK\r"));
+    assertEquals(-1, scan("$3\r\nfo"));
+    assertEquals(-1, scan("$3\r\nfoo\r"));
+    assertEquals(-1, scan("*2\r\n$3\r\nfoo\r\n"));
+    assertEquals(-1, scan("%1\r\n+key\r\n"));
+  }
+
+  @Test
+  public void scanResumesIncompleteFrames() {
+    String frames = "*2\r\n$3\r\nfoo\r\n*2\r\n:1\r\n%1\r\n+key\r\n$0\r\n\r\n+OK\r\n";
+    byte[] bytes = SafeEncoder.encode(frames);
+    AsyncConnection.FrameScanner scanner = new AsyncConnection.FrameScanner();
+    List<Integer> ends = new ArrayList<>();
+    for (int limit = 1; limit <= bytes.length; limit++) {
+      int end;
+      while ((end = scanner.scan(bytes, limit)) >= 0) {
+        ends.add(end);
+      }
+    }
+    assertEquals(Arrays.asList(frames.length() - 5, frames.length()), ends);
+  }
+
+  @Test
+  public void scanDeeplyNestedFrame() {
+    StringBuilder frame = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      frame.append("*1\r\n");
+    }
+    frame.append(":1\r\n");
+    assertEquals(frame.length(), scan(frame.toString()));
+    assertEquals(-1, scan(frame.substring(0, frame.length() - 1)));
+  }
+
+  @Test
+  public void executeCommands() throws Exception {
+    try (AsyncConnection connection = new AsyncConnection(hnp, config)) {
+      CommandObjects commandObjects = new CommandObjects();
+      assertEquals("OK", connection.executeCommand(commandObjects.set("foo", "bar")).get());
+      assertEquals("bar", connection.executeCommand(commandObjects.get("foo")).get());
+    }
+  }
+
+  @Test
+  public void manyCommandsInFlight() throws Exception {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(hnp, config)) {
+      jedis.del("counter").get();
+      List<CompletableFuture<Long>> replies = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++) {
+        replies.add(jedis.incr("counter"));
+      }
+      for (int i = 0; i < replies.size(); i++) {
+        assertEquals(i + 1, replies.get(i).get(5, TimeUnit.SECONDS).longValue());
+      }
+    }
+  }
+
+  @Test
+  public void errorReplyCompletesExceptionally() throws Exception {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(hnp, config)) {
+      jedis.set("foo", "bar").get();
+      try {
+        jedis.incr("foo").get();
+        fail("Should throw an exception");
+      } catch (ExecutionException ee) {
+        assertTrue(ee.getCause() instanceof JedisDataException);
+      }
+      assertEquals("bar", jedis.get("foo").get());
+    }
+  }
+
+  @Test
+  public void asyncFromUnifiedJedis() throws Exception {
+    try (UnifiedJedis jedis = new UnifiedJedis(hnp, config);
+        AsyncUnifiedJedis async = jedis.async()) {
+      jedis.set("foo", "bar");
+      assertEquals("bar", async.get("foo").get());
+    }
+  }
+
+  @Test
+  public void closeFailsPendingCommands() throws Exception {
+    AsyncConnection connection = new AsyncConnection(hnp, config);
+    connection.close();
+    try {
+      connection.executeCommand(Protocol.Command.PING).get();
+      fail("Should throw an exception");
+    } catch (ExecutionException ee) {
+      assertTrue(ee.getCause() instanceof io.valkey.exceptions.JedisConnectionException);
+    }
+  }
+}
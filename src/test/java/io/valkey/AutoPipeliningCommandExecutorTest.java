@@ -0,0 +1,185 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.valkey.args.Rawable;
+import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.executors.AutoPipeliningCommandExecutor;
+import io.valkey.providers.ConnectionProvider;
+import io.valkey.util.SafeEncoder;
+
+public class AutoPipeliningCommandExecutorTest {
+
+  private static final CommandObjects COMMAND_OBJECTS = new CommandObjects();
+
+  private static CommandObject<String> echo(String message) {
+    return new CommandObject<>(new CommandArguments(Protocol.Command.ECHO).add(message), BuilderFactory.STRING);
+  }
+
+  @Test
+  public void repliesAreMatchedToCallers() throws Exception {
+    EchoConnection connection = new EchoConnection();
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenReturn(connection);
+
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try (AutoPipeliningCommandExecutor executor = new AutoPipeliningCommandExecutor(provider, 1, 16, Duration.ZERO)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final String prefix = "caller-" + t + "-";
+        futures.add(callers.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            assertEquals(prefix + i, executor.executeCommand(echo(prefix + i)));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(8 * 500, connection.sent);
+      assertTrue(connection.flushes <= connection.sent);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void commandsAreFlushedInBatches() throws Exception {
+    EchoConnection connection = new EchoConnection();
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenReturn(connection);
+
+    ExecutorService callers = Executors.newFixedThreadPool(4);
+    try (AutoPipeliningCommandExecutor executor = new AutoPipeliningCommandExecutor(provider, 1, 4, Duration.ofSeconds(5))) {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final String message = "message-" + t;
+        futures.add(callers.submit(() -> executor.executeCommand(echo(message))));
+      }
+      for (int t = 0; t < 4; t++) {
+        assertEquals("message-" + t, futures.get(t).get(4, TimeUnit.SECONDS));
+      }
+      assertEquals(4, connection.sent);
+      assertEquals(1, connection.flushes);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void errorReplyFailsOnlyItsCommand() {
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenAnswer(invocation -> new EchoConnection());
+
+    try (AutoPipeliningCommandExecutor executor = new AutoPipeliningCommandExecutor(provider)) {
+      try {
+        executor.executeCommand(echo("ERR"));
+        fail("Should throw JedisDataException");
+      } catch (JedisDataException de) {
+        assertEquals("ERR", de.getMessage());
+      }
+      assertEquals("foo", executor.executeCommand(echo("foo")));
+    }
+  }
+
+  @Test
+  public void brokenConnectionIsReplaced() {
+    EchoConnection first = new EchoConnection();
+    EchoConnection second = new EchoConnection();
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenReturn(first, second);
+
+    try (AutoPipeliningCommandExecutor executor = new AutoPipeliningCommandExecutor(provider, 1, 16, Duration.ZERO)) {
+      assertEquals("foo", executor.executeCommand(echo("foo")));
+      try {
+        executor.executeCommand(echo("BROKEN"));
+        fail("Should throw JedisConnectionException");
+      } catch (JedisConnectionException jce) {
+        // expected
+      }
+      assertTrue(first.isBroken());
+      assertEquals("bar", executor.executeCommand(echo("bar")));
+      assertEquals(1, second.sent);
+    }
+  }
+
+  @Test
+  public void blockingCommandUsesDedicatedConnection() {
+    EchoConnection shared = new EchoConnection();
+    Connection dedicated = mock(Connection.class);
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenReturn(shared);
+    when(provider.getConnection(any(CommandArguments.class))).thenReturn(dedicated);
+    CommandObject<List<String>> blpop = COMMAND_OBJECTS.blpop(0, "list");
+    when(dedicated.executeCommand(blpop)).thenReturn(null);
+
+    try (AutoPipeliningCommandExecutor executor = new AutoPipeliningCommandExecutor(provider)) {
+      executor.executeCommand(blpop);
+      assertEquals(0, shared.sent);
+    }
+  }
+
+  /**
+   * Replies to ECHO commands once they are flushed. "ERR" is replied as an error, and "BROKEN"
+   * breaks the connection.
+   */
+  private static class EchoConnection extends Connection {
+
+    private final List<String> unflushed = new ArrayList<>();
+    private final BlockingQueue<String> flushed = new LinkedBlockingQueue<>();
+    private volatile int sent = 0;
+    private volatile int flushes = 0;
+
+    @Override
+    public void sendCommand(CommandArguments args) {
+      Iterator<Rawable> iterator = args.iterator();
+      iterator.next();
+      unflushed.add(SafeEncoder.encode(iterator.next().getRaw()));
+      sent++;
+    }
+
+    @Override
+    public void flush() {
+      flushes++;
+      flushed.addAll(unflushed);
+      unflushed.clear();
+    }
+
+    @Override
+    public Object getUnflushedObject() {
+      final String message;
+      try {
+        message = flushed.take();
+      } catch (InterruptedException ie) {
+        throw new JedisConnectionException(ie);
+      }
+      if (message.equals("ERR")) {
+        throw new JedisDataException(message);
+      }
+      if (message.equals("BROKEN")) {
+        setBroken();
+        throw new JedisConnectionException(message);
+      }
+      return SafeEncoder.encode(message);
+    }
+  }
+}
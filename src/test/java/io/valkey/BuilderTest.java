@@ -1,10 +1,23 @@
 package io.valkey;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.resps.Tuple;
+import io.valkey.util.ByteSlice;
+import io.valkey.util.RedisInputStream;
+import io.valkey.util.SafeEncoder;
+
 public class BuilderTest {
 
   @Test
@@ -25,4 +38,76 @@ public class BuilderTest {
       Assert.assertEquals("empty String", expected.getMessage());
     }
   }
+
+  @Test
+  public void decodeLong() {
+    assertEquals(Long.valueOf(-42), decode(BuilderFactory.LONG, ":-42\r\n"));
+    assertNull(decode(BuilderFactory.LONG, "_\r\n"));
+  }
+
+  @Test
+  public void decodeStringList() {
+    assertEquals(Arrays.asList("a", null, "bc"),
+        decode(BuilderFactory.STRING_LIST, "*3\r\n$1\r\na\r\n$-1\r\n+bc\r\n"));
+    assertNull(decode(BuilderFactory.STRING_LIST, "*-1\r\n"));
+  }
+
+  @Test
+  public void decodeStringMap() {
+    Map<String, String> expected = new HashMap<>();
+    expected.put("f1", "v1");
+    expected.put("f2", "");
+    assertEquals(expected, decode(BuilderFactory.STRING_MAP, "*4\r\n$2\r\nf1\r\n$2\r\nv1\r\n$2\r\nf2\r\n$0\r\n\r\n"));
+    assertEquals(expected, decode(BuilderFactory.STRING_MAP, "%2\r\n$2\r\nf1\r\n$2\r\nv1\r\n$2\r\nf2\r\n$0\r\n\r\n"));
+    assertEquals(0, decode(BuilderFactory.STRING_MAP, "%0\r\n").size());
+  }
+
+  @Test
+  public void decodeBinaryMap() {
+    Map<byte[], byte[]> map = decode(BuilderFactory.BINARY_MAP, "%1\r\n$1\r\nf\r\n$1\r\nv\r\n");
+    assertEquals(1, map.size());
+    Assert.assertArrayEquals("v".getBytes(), map.get("f".getBytes()));
+  }
+
+  @Test
+  public void decodeTupleList() {
+    List<Tuple> tuples = decode(BuilderFactory.TUPLE_LIST, "*4\r\n$1\r\na\r\n$3\r\n1.5\r\n$1\r\nb\r\n$3\r\ninf\r\n");
+    assertEquals(Arrays.asList(new Tuple("a", 1.5), new Tuple("b", Double.POSITIVE_INFINITY)), tuples);
+  }
+
+  @Test
+  public void decodeByteSlices() {
+    ByteSlice value = decode(BuilderFactory.BYTE_SLICE, "$5\r\nvalue\r\n");
+    assertEquals("value", value.toString(SafeEncoder.DEFAULT_CHARSET));
+    value.release();
+    assertNull(decode(BuilderFactory.BYTE_SLICE, "$-1\r\n"));
+
+    Map<ByteSlice, ByteSlice> map = decode(BuilderFactory.BYTE_SLICE_MAP, "%1\r\n$1\r\nf\r\n$2\r\n12\r\n");
+    assertEquals(12, map.get(ByteSlice.wrap("f".getBytes())).parseLong());
+    map.forEach((k, v) -> {
+      k.release();
+      v.release();
+    });
+  }
+
+  @Test
+  public void decodeDrainsReplyWithErrorElement() {
+    RedisInputStream is = stream("*2\r\n-ERR first\r\n$1\r\na\r\n:1\r\n");
+    try {
+      Protocol.decode(is, (ReplyDecoder<List<String>>) BuilderFactory.STRING_LIST);
+      Assert.fail("Error element should be thrown.");
+    } catch (JedisDataException expected) {
+      assertEquals("ERR first", expected.getMessage());
+    }
+    assertEquals(Long.valueOf(1), Protocol.read(is));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T decode(Builder<T> builder, String reply) {
+    return Protocol.decode(stream(reply), (ReplyDecoder<T>) builder);
+  }
+
+  private static RedisInputStream stream(String reply) {
+    return new RedisInputStream(new ByteArrayInputStream(reply.getBytes()));
+  }
 }
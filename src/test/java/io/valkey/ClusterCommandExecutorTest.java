@@ -9,15 +9,25 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongConsumer;
 
 import io.valkey.exceptions.JedisAskDataException;
+import io.valkey.exceptions.JedisBroadcastException;
 import io.valkey.exceptions.JedisClusterOperationException;
 import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisDataException;
 import io.valkey.exceptions.JedisMovedDataException;
 import io.valkey.executors.ClusterCommandExecutor;
 import io.valkey.providers.ClusterConnectionProvider;
+import io.valkey.util.SafeEncoder;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -134,17 +144,78 @@ public class ClusterCommandExecutorTest {
 
     InOrder inOrder = inOrder(connectionHandler);
     inOrder.verify(connectionHandler).getConnection(STR_COM_OBJECT.getArguments());
-    inOrder.verify(connectionHandler).renewSlotCache(ArgumentMatchers.any());
+    inOrder.verify(connectionHandler).slotMoved(ArgumentMatchers.any());
     inOrder.verify(connectionHandler).getConnection(movedTarget);
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void nonReplayableCommandIsNotRedirected() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    final HostAndPort movedTarget = new HostAndPort(null, 0);
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        throw new JedisMovedDataException("", movedTarget, 0);
+      }
+
+      @Override
+      protected void sleep(long ignored) {
+        throw new RuntimeException("This test should never sleep");
+      }
+    };
+    CommandObject<String> streamed = new CommandObject<>(
+        new ClusterCommandArguments(null).key("").nonReplayable(), null);
+
+    try {
+      testMe.executeCommand(streamed);
+      fail("expected a JedisClusterOperationException");
+    } catch (JedisClusterOperationException e) {
+      assertEquals(JedisMovedDataException.class, e.getCause().getClass());
+    }
+
+    InOrder inOrder = inOrder(connectionHandler);
+    inOrder.verify(connectionHandler).getConnection(streamed.getArguments());
+    inOrder.verify(connectionHandler).slotMoved(ArgumentMatchers.any());
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void nonReplayableCommandIsNotRetried() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    Connection connection = mock(Connection.class);
+    CommandObject<String> streamed = new CommandObject<>(
+        new ClusterCommandArguments(null).key("").nonReplayable(), null);
+    when(connectionHandler.getConnection(streamed.getArguments())).thenReturn(connection);
+
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        throw new JedisConnectionException("Connection reset");
+      }
+
+      @Override
+      protected void sleep(long ignored) {
+        throw new RuntimeException("This test should never sleep");
+      }
+    };
+
+    try {
+      testMe.executeCommand(streamed);
+      fail("expected a JedisClusterOperationException");
+    } catch (JedisClusterOperationException e) {
+      assertEquals(JedisConnectionException.class, e.getCause().getClass());
+    }
+    Mockito.verify(connectionHandler, times(1)).getConnection(streamed.getArguments());
+  }
+
   @Test
   public void runAskSuccess() {
     ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
     Connection connection = mock(Connection.class);
     final HostAndPort askTarget = new HostAndPort(null, 0);
     when(connectionHandler.getConnection(askTarget)).thenReturn(connection);
+    when(connection.executeAskingCommand(STR_COM_OBJECT)).thenReturn("foo");
 
     ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
       boolean isFirstCall = true;
@@ -158,7 +229,7 @@ public class ClusterCommandExecutorTest {
           throw new JedisAskDataException("", askTarget, 0);
         }
 
-        return (T) "foo";
+        throw new IllegalStateException("ASK must be followed with ASKING");
       }
 
       @Override
@@ -172,11 +243,65 @@ public class ClusterCommandExecutorTest {
     InOrder inOrder = inOrder(connectionHandler, connection);
     inOrder.verify(connectionHandler).getConnection(STR_COM_OBJECT.getArguments());
     inOrder.verify(connectionHandler).getConnection(askTarget);
-    // inOrder.verify(connection).asking();
+    inOrder.verify(connection).executeAskingCommand(STR_COM_OBJECT);
     inOrder.verify(connection).close(); // From the finally clause in runWithRetries()
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void askTargetsAreRemembered() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    Connection source = mock(Connection.class);
+    Connection target = mock(Connection.class);
+    final HostAndPort askTarget = new HostAndPort("target", 0);
+    final CommandObject<String> migrated = get("migrated");
+    final CommandObject<String> other = get("other");
+    when(connectionHandler.getConnection(migrated.getArguments())).thenReturn(source);
+    when(connectionHandler.getConnection(other.getArguments())).thenReturn(source);
+    when(connectionHandler.getConnection(askTarget)).thenReturn(target);
+    when(target.executeAskingCommand(migrated)).thenReturn("moved");
+
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        if (commandObject == migrated) {
+          int slot = ((ClusterCommandArguments) commandObject.getArguments()).getCommandHashSlot();
+          throw new JedisAskDataException("", askTarget, slot);
+        }
+        return (T) "local";
+      }
+    };
+
+    assertEquals("moved", testMe.executeCommand(migrated));
+    assertEquals("moved", testMe.executeCommand(migrated));
+    assertEquals("local", testMe.executeCommand(other));
+
+    // the first command only is redirected by the migrating node
+    Mockito.verify(connectionHandler, times(1)).getConnection(migrated.getArguments());
+    Mockito.verify(target, times(2)).executeAskingCommand(migrated);
+
+    testMe.setAskTargetTtl(Duration.ZERO);
+    assertEquals("moved", testMe.executeCommand(migrated));
+    Mockito.verify(connectionHandler, times(2)).getConnection(migrated.getArguments());
+  }
+
+  @Test
+  public void keyIsNotEncodedWithoutAskTargets() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    ClusterCommandArguments args = Mockito.spy(new ClusterCommandArguments(Protocol.Command.GET));
+    args.key("foo");
+    CommandObject<String> commandObject = new CommandObject<>(args, BuilderFactory.STRING);
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        return (T) "foo";
+      }
+    };
+
+    assertEquals("foo", testMe.executeCommand(commandObject));
+    Mockito.verify(args, Mockito.never()).getSingleKey();
+  }
+
   // requires 'execute(Connection connection, CommandObject<T> commandObject)' separately
   @Test
   public void runMovedThenAllNodesFailing() {
@@ -229,7 +354,7 @@ public class ClusterCommandExecutorTest {
     }
     InOrder inOrder = inOrder(connectionHandler, sleep);
     inOrder.verify(connectionHandler).getConnection(STR_COM_OBJECT.getArguments());
-    inOrder.verify(connectionHandler).renewSlotCache(redirecter);
+    inOrder.verify(connectionHandler).slotMoved(ArgumentMatchers.any());
     inOrder.verify(connectionHandler, times(2)).getConnection(movedTarget);
     inOrder.verify(sleep).accept(ArgumentMatchers.anyLong());
     inOrder.verify(connectionHandler).renewSlotCache();
@@ -355,4 +480,147 @@ public class ClusterCommandExecutorTest {
     inOrder.verifyNoMoreInteractions();
     assertEquals(0L, totalSleepMs.get());
   }
+
+  @Test
+  public void multiSlotCommandsArePipelinedPerNode() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    HostAndPort first = new HostAndPort("first", 0);
+    HostAndPort second = new HostAndPort("second", 0);
+    Connection firstConnection = mock(Connection.class);
+    Connection secondConnection = mock(Connection.class);
+    when(connectionHandler.getNode(ArgumentMatchers.anyInt()))
+        .thenAnswer(invocation -> (int) invocation.getArgument(0) < 8192 ? first : second);
+    when(connectionHandler.getConnection(first)).thenReturn(firstConnection);
+    when(connectionHandler.getConnection(second)).thenReturn(secondConnection);
+    when(firstConnection.getMany(2)).thenReturn(Arrays.asList(SafeEncoder.encode("b"), SafeEncoder.encode("c")));
+    when(secondConnection.getMany(1)).thenReturn(Collections.singletonList(
+        new JedisMovedDataException("MOVED", first, 12182)));
+    ExecutorService workers = Executors.newFixedThreadPool(1);
+    when(connectionHandler.getWorkerExecutor()).thenReturn(workers);
+
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        return (T) "retried";
+      }
+
+      @Override
+      protected void sleep(long ignored) {
+        throw new RuntimeException("This test should never sleep");
+      }
+    };
+
+    // slots: "b" 3300, "foo" 12182, "c" 7365
+    List<CommandObject<String>> commands = Arrays.asList(get("b"), get("foo"), get("c"));
+    try {
+      assertEquals(Arrays.asList("b", "retried", "c"), testMe.executeMultiSlotCommands(commands));
+    } finally {
+      testMe.close();
+      workers.shutdown();
+    }
+    Mockito.verify(firstConnection).sendCommand(commands.get(0).getArguments());
+    Mockito.verify(firstConnection).sendCommand(commands.get(2).getArguments());
+    Mockito.verify(secondConnection).sendCommand(commands.get(1).getArguments());
+    Mockito.verify(connectionHandler).slotMoved(ArgumentMatchers.any());
+  }
+
+  @Test
+  public void broadcastRunsOnNodesInParallel() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    Map<String, ConnectionPool> pools = pools("a:1", "b:2", "c:3");
+    when(connectionHandler.getConnectionMap()).thenReturn(pools);
+    ExecutorService workers = Executors.newFixedThreadPool(2);
+    ExecutorService oneWorker = Executors.newFixedThreadPool(1);
+    when(connectionHandler.getWorkerExecutor()).thenReturn(workers);
+
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return (T) "OK";
+      }
+    };
+    try {
+      long start = System.nanoTime();
+      assertEquals("OK", testMe.broadcastCommand(STR_COM_OBJECT));
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      MatcherAssert.assertThat(millis, Matchers.lessThan(500L));
+
+      // bounded by the workers of the provider and the calling thread
+      when(connectionHandler.getWorkerExecutor()).thenReturn(oneWorker);
+      start = System.nanoTime();
+      assertEquals("OK", testMe.broadcastCommand(STR_COM_OBJECT));
+      millis = (System.nanoTime() - start) / 1_000_000;
+      MatcherAssert.assertThat(millis, Matchers.greaterThanOrEqualTo(400L));
+
+      testMe.setBroadcastParallelism(1);
+      start = System.nanoTime();
+      assertEquals("OK", testMe.broadcastCommand(STR_COM_OBJECT));
+      millis = (System.nanoTime() - start) / 1_000_000;
+      MatcherAssert.assertThat(millis, Matchers.greaterThanOrEqualTo(600L));
+    } finally {
+      testMe.close();
+      workers.shutdown();
+      oneWorker.shutdown();
+    }
+  }
+
+  @Test
+  public void broadcastAggregatesRepliesAndErrors() {
+    ClusterConnectionProvider connectionHandler = mock(ClusterConnectionProvider.class);
+    Map<String, ConnectionPool> pools = pools("a:1", "b:2", "c:3");
+    Map<String, ConnectionPool> primaries = pools("a:1", "b:2");
+    when(connectionHandler.getConnectionMap()).thenReturn(pools);
+    when(connectionHandler.getPrimaryConnectionMap()).thenReturn(primaries);
+    ExecutorService workers = Executors.newFixedThreadPool(2);
+    when(connectionHandler.getWorkerExecutor()).thenReturn(workers);
+    final Connection failing = pools.get("c:3").getResource();
+
+    ClusterCommandExecutor testMe = new ClusterCommandExecutor(connectionHandler, 10, ONE_SECOND) {
+      @Override
+      public <T> T execute(Connection connection, CommandObject<T> commandObject) {
+        if (connection == failing) {
+          throw new JedisDataException("READONLY You can't write against a read only replica.");
+        }
+        return (T) "OK";
+      }
+    };
+    try {
+      try {
+        testMe.broadcastCommand(STR_COM_OBJECT);
+        fail("broadcast did not fail");
+      } catch (JedisBroadcastException e) {
+        assertEquals(3, e.getReplies().size());
+        assertEquals("OK", e.getReplies().get(HostAndPort.from("a:1")));
+        assertEquals("OK", e.getReplies().get(HostAndPort.from("b:2")));
+        MatcherAssert.assertThat(e.getReplies().get(HostAndPort.from("c:3")),
+            Matchers.instanceOf(JedisDataException.class));
+      }
+
+      testMe.setBroadcastTarget(ClusterCommandExecutor.BroadcastTarget.PRIMARIES);
+      assertEquals("OK", testMe.broadcastCommand(STR_COM_OBJECT));
+    } finally {
+      testMe.close();
+      workers.shutdown();
+    }
+  }
+
+  private static Map<String, ConnectionPool> pools(String... nodes) {
+    Map<String, ConnectionPool> pools = new LinkedHashMap<>();
+    for (String node : nodes) {
+      ConnectionPool pool = mock(ConnectionPool.class);
+      Connection connection = mock(Connection.class);
+      when(pool.getResource()).thenReturn(connection);
+      pools.put(node, pool);
+    }
+    return pools;
+  }
+
+  private static CommandObject<String> get(String key) {
+    return new CommandObject<>(new ClusterCommandArguments(Protocol.Command.GET).key(key), BuilderFactory.STRING);
+  }
 }
@@ -0,0 +1,132 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import io.valkey.exceptions.JedisAskDataException;
+import io.valkey.exceptions.JedisConnectionException;
+import io.valkey.exceptions.JedisMovedDataException;
+import io.valkey.providers.ClusterConnectionProvider;
+import io.valkey.util.JedisClusterCRC16;
+import io.valkey.util.SafeEncoder;
+
+public class ClusterPipelineSyncTest {
+
+  private static final HostAndPort NODE_A = new HostAndPort("a", 7000);
+  private static final HostAndPort NODE_B = new HostAndPort("b", 7001);
+
+  private ExecutorService executor;
+  private ClusterConnectionProvider provider;
+  private Connection connectionA;
+  private Connection connectionB;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    provider = mock(ClusterConnectionProvider.class);
+    connectionA = mock(Connection.class);
+    connectionB = mock(Connection.class);
+    when(provider.getNode(anyInt())).thenAnswer(invocation ->
+        invocation.<Integer>getArgument(0) == JedisClusterCRC16.getSlot("a") ? NODE_A : NODE_B);
+    when(provider.getConnection(NODE_A)).thenReturn(connectionA);
+    when(provider.getConnection(NODE_B)).thenReturn(connectionB);
+    when(provider.getWorkerExecutor()).thenReturn(executor);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void syncUsesSharedExecutor() {
+    when(connectionA.getMany(1)).thenReturn(Collections.singletonList(SafeEncoder.encode("1")));
+    when(connectionB.getMany(1)).thenReturn(Collections.singletonList(SafeEncoder.encode("2")));
+
+    for (int i = 0; i < 3; i++) {
+      ClusterPipeline pipeline = new ClusterPipeline(provider);
+      Response<String> a = pipeline.get("a");
+      Response<String> b = pipeline.get("b");
+      pipeline.sync();
+
+      assertEquals("1", a.get());
+      assertEquals("2", b.get());
+    }
+
+    assertFalse(executor.isShutdown());
+    verify(provider, times(3)).getWorkerExecutor();
+  }
+
+  @Test
+  public void syncDropsBrokenConnection() {
+    when(connectionA.getMany(1)).thenThrow(new JedisConnectionException("broken"));
+    when(connectionB.getMany(1)).thenReturn(Collections.singletonList(SafeEncoder.encode("2")));
+
+    ClusterPipeline pipeline = new ClusterPipeline(provider);
+    pipeline.get("a");
+    Response<String> b = pipeline.get("b");
+    pipeline.sync();
+
+    assertEquals("2", b.get());
+    verify(connectionA).close();
+
+    pipeline.close();
+    verify(connectionA, times(1)).close();
+    verify(connectionB).close();
+  }
+
+  @Test
+  public void syncResendsMovedCommands() {
+    int slot = JedisClusterCRC16.getSlot("b");
+    when(connectionA.getMany(1)).thenReturn(Collections.singletonList(SafeEncoder.encode("1")));
+    when(connectionB.getMany(2)).thenReturn(Arrays.asList(
+        new JedisMovedDataException("MOVED", NODE_A, slot), SafeEncoder.encode("3")));
+
+    ClusterPipeline pipeline = new ClusterPipeline(provider);
+    Response<String> a = pipeline.get("a");
+    Response<String> b = pipeline.get("b");
+    Response<String> b2 = pipeline.get("b");
+    pipeline.sync();
+
+    assertEquals("1", a.get());
+    assertEquals("1", b.get());
+    assertEquals("3", b2.get());
+    verify(provider).slotMoved(any(JedisMovedDataException.class));
+    verify(connectionA, times(2)).sendCommand(any(CommandArguments.class));
+  }
+
+  @Test
+  public void syncResendsAskCommandsWithAsking() {
+    int slot = JedisClusterCRC16.getSlot("b");
+    when(connectionB.getMany(1)).thenReturn(Collections.singletonList(
+        new JedisAskDataException("ASK", NODE_A, slot)));
+    when(connectionA.getMany(2)).thenReturn(Arrays.asList(SafeEncoder.encode("OK"), SafeEncoder.encode("2")));
+
+    ClusterPipeline pipeline = new ClusterPipeline(provider);
+    Response<String> b = pipeline.get("b");
+    pipeline.sync();
+
+    assertEquals("2", b.get());
+    verify(provider, times(0)).slotMoved(any(JedisMovedDataException.class));
+    InOrder order = inOrder(connectionA);
+    order.verify(connectionA).sendCommand(Protocol.Command.ASKING);
+    order.verify(connectionA).sendCommand(any(CommandArguments.class));
+  }
+}
@@ -0,0 +1,113 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.valkey.mocked.server.StandInCluster;
+import io.valkey.providers.ClusterConnectionProvider;
+
+public class ClusterTopologyRefreshTest {
+
+  private StandInCluster cluster;
+  private Set<HostAndPort> nodes;
+
+  @Before
+  public void setUp() throws Exception {
+    cluster = new StandInCluster(3).start();
+    nodes = new HashSet<>(cluster.getNodes());
+  }
+
+  @After
+  public void tearDown() {
+    cluster.close();
+  }
+
+  @Test
+  public void movedUpdatesSlotsAndCoalescesRenewals() throws InterruptedException {
+    ClusterConnectionProvider provider = new ClusterConnectionProvider(nodes,
+        DefaultJedisClientConfig.builder().build());
+    provider.setTopologyRefreshMinInterval(Duration.ofMinutes(1));
+    try (JedisCluster jedis = new JedisCluster(provider, 5, Duration.ofSeconds(5))) {
+      for (int i = 0; i < 100; i++) {
+        jedis.set("key:" + i, "value:" + i);
+      }
+      long topologyRequests = cluster.getTopologyRequestCount();
+
+      cluster.assign(0, Protocol.CLUSTER_HASHSLOTS - 1, 2);
+      for (int i = 0; i < 100; i++) {
+        assertEquals("value:" + i, jedis.get("key:" + i));
+      }
+      waitForRenewals(jedis, 1);
+
+      ClusterTopologyStats stats = jedis.getTopologyStats();
+      assertTrue(stats.getSlotUpdates() > 0);
+      assertTrue(stats.getRenewalRequests() >= stats.getSlotUpdates());
+      assertEquals(1, stats.getRenewals());
+      assertEquals(topologyRequests + 1, cluster.getTopologyRequestCount());
+
+      // renewed as a whole, no more redirections
+      long moved = cluster.getMovedCount();
+      for (int i = 0; i < 100; i++) {
+        assertEquals("value:" + i, jedis.get("key:" + i));
+      }
+      assertEquals(moved, cluster.getMovedCount());
+    }
+  }
+
+  @Test
+  public void renewalsAreRateLimited() throws InterruptedException {
+    JedisClusterInfoCache cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(), nodes);
+    try (Connection connection = new Connection(cluster.getNodes().get(0))) {
+      cache.discoverClusterNodesAndSlots(connection);
+    }
+    cache.setTopologyRefreshMinInterval(Duration.ofMillis(200));
+    try {
+      long end = System.currentTimeMillis() + 700;
+      while (System.currentTimeMillis() < end) {
+        cache.requestClusterSlotsRenewal();
+        Thread.sleep(1);
+      }
+      Thread.sleep(300);
+
+      long renewals = cache.getTopologyStats().getRenewals();
+      assertTrue("renewals: " + renewals, renewals >= 2 && renewals <= 5);
+    } finally {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void clusterShards() {
+    JedisClusterInfoCache cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(), nodes);
+    cache.setUseClusterShards(true);
+    try (Connection connection = new Connection(cluster.getNodes().get(0))) {
+      cache.discoverClusterNodesAndSlots(connection);
+      for (int slot = 0; slot < Protocol.CLUSTER_HASHSLOTS; slot += 1000) {
+        assertEquals(cluster.getNodes().get(cluster.getOwner(slot)), cache.getSlotNode(slot));
+      }
+
+      cluster.assign(0, 100, 2);
+      cache.renewClusterSlots(connection);
+      assertEquals(cluster.getNodes().get(2), cache.getSlotNode(50));
+      assertEquals(cluster.getNodes().get(0), cache.getSlotNode(101));
+      assertEquals(3, cache.getNodes().size());
+    } finally {
+      cache.close();
+    }
+  }
+
+  private static void waitForRenewals(JedisCluster jedis, long renewals) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (jedis.getTopologyStats().getRenewals() < renewals && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
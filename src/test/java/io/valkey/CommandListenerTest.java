@@ -0,0 +1,91 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import org.junit.Test;
+
+import io.valkey.Protocol.Command;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.util.SafeEncoder;
+
+public class CommandListenerTest {
+
+  private static Connection connection(String replies, CommandListener listener) {
+    final Socket socket = new Socket() {
+      private final InputStream in = new ByteArrayInputStream(SafeEncoder.encode(replies));
+      private final OutputStream out = new ByteArrayOutputStream();
+
+      @Override
+      public InputStream getInputStream() {
+        return in;
+      }
+
+      @Override
+      public OutputStream getOutputStream() {
+        return out;
+      }
+
+      @Override
+      public int getSoTimeout() {
+        return 0;
+      }
+
+      @Override
+      public boolean isBound() {
+        return true;
+      }
+
+      @Override
+      public boolean isConnected() {
+        return true;
+      }
+    };
+    JedisClientConfig config = DefaultJedisClientConfig.builder()
+        .clientSetInfoConfig(ClientSetInfoConfig.DISABLED)
+        .clientCapaConfig(ClientCapaConfig.DISABLED)
+        .commandListener(listener).build();
+    return new Connection(() -> socket, config);
+  }
+
+  @Test
+  public void commandsAreRecorded() {
+    CommandLatencyRecorder recorder = new CommandLatencyRecorder();
+    Connection connection = connection("$3\r\nbar\r\n-ERR wrong\r\n", recorder);
+    CommandObjects commandObjects = new CommandObjects();
+
+    assertEquals("bar", connection.executeCommand(commandObjects.get("foo")));
+    try {
+      connection.executeCommand(commandObjects.get("foo"));
+      fail("The error reply should be thrown.");
+    } catch (JedisDataException e) {
+      assertEquals("ERR wrong", e.getMessage());
+    }
+
+    assertEquals(2, recorder.getLatencies(Command.GET).getCount());
+    assertEquals(1, recorder.getFailures(Command.GET));
+    assertTrue(recorder.getLatencies(Command.GET).getMax() > 0);
+    assertNull(recorder.getLatencies(Command.SET));
+  }
+
+  @Test
+  public void bytesAreCounted() {
+    long[] bytes = new long[2];
+    Connection connection = connection("$3\r\nbar\r\n", (command, node, written, read, nanos, failure) -> {
+      bytes[0] = written;
+      bytes[1] = read;
+    });
+
+    connection.executeCommand(new CommandObjects().get("foo"));
+    assertEquals("*2\r\n$3\r\nGET\r\n$3\r\nfoo\r\n".length(), bytes[0]);
+    assertEquals("$3\r\nbar\r\n".length(), bytes[1]);
+  }
+}
@@ -0,0 +1,256 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+import io.valkey.exceptions.JedisException;
+
+public class ConcurrentConnectionPoolTest {
+
+  private static class MockFactory extends BasePooledObjectFactory<Connection> {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+    private final AtomicInteger validated = new AtomicInteger();
+
+    @Override
+    public Connection create() {
+      created.incrementAndGet();
+      return mock(Connection.class);
+    }
+
+    @Override
+    public PooledObject<Connection> wrap(Connection connection) {
+      return new DefaultPooledObject<>(connection);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<Connection> p) {
+      validated.incrementAndGet();
+      return true;
+    }
+
+    @Override
+    public void destroyObject(PooledObject<Connection> p) {
+      destroyed.incrementAndGet();
+    }
+  }
+
+  private static ConnectionPoolConfig config(int maxTotal) {
+    ConnectionPoolConfig config = new ConnectionPoolConfig();
+    config.setMaxTotal(maxTotal);
+    config.setMaxIdle(maxTotal);
+    config.setTimeBetweenEvictionRuns(Duration.ofMillis(-1));
+    return config;
+  }
+
+  @Test
+  public void threadGetsItsLastConnectionBack() {
+    MockFactory factory = new MockFactory();
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(factory, config(4))) {
+      Connection first = pool.getResource();
+      Connection second = pool.getResource();
+      pool.returnResource(first);
+      pool.returnResource(second);
+
+      assertSame(second, pool.getResource());
+      assertEquals(2, factory.created.get());
+      assertEquals(1, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void waitingThreadGetsReturnedConnection() throws Exception {
+    ConnectionPoolConfig config = config(1);
+    config.setMaxWait(Duration.ofSeconds(5));
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(new MockFactory(), config)) {
+      Connection connection = pool.getResource();
+      CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(pool::getResource);
+      while (pool.getNumWaiters() == 0) {
+        Thread.sleep(1);
+      }
+      pool.returnResource(connection);
+      assertSame(connection, waiting.get());
+    }
+  }
+
+  @Test
+  public void exhaustedPoolFails() {
+    ConnectionPoolConfig config = config(1);
+    config.setBlockWhenExhausted(false);
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(new MockFactory(), config)) {
+      pool.getResource();
+      try {
+        pool.getResource();
+        fail("The pool should be exhausted.");
+      } catch (JedisException e) {
+        assertEquals("Pool exhausted", e.getCause().getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void brokenConnectionIsReplaced() {
+    MockFactory factory = new MockFactory();
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(factory, config(1))) {
+      Connection broken = pool.getResource();
+      pool.returnBrokenResource(broken);
+      assertEquals(1, factory.destroyed.get());
+
+      assertNotSame(broken, pool.getResource());
+      assertEquals(2, factory.created.get());
+    }
+  }
+
+  @Test
+  public void recentlyUsedConnectionIsNotValidated() throws InterruptedException {
+    MockFactory factory = new MockFactory();
+    ConnectionPoolConfig config = config(1);
+    config.setTestOnBorrow(true);
+    config.setValidationInterval(Duration.ofMillis(50));
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(factory, config)) {
+      pool.returnResource(pool.getResource());
+      pool.returnResource(pool.getResource());
+      assertEquals(0, factory.validated.get());
+
+      Thread.sleep(60);
+      pool.getResource();
+      assertEquals(1, factory.validated.get());
+    }
+  }
+
+  @Test
+  public void evictionKeepsMinIdle() throws Exception {
+    MockFactory factory = new MockFactory();
+    ConnectionPoolConfig config = config(4);
+    config.setMinIdle(2);
+    config.setTestWhileIdle(false);
+    config.setMinEvictableIdleTime(Duration.ofMillis(1));
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(factory, config)) {
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        connections.add(pool.getResource());
+      }
+      connections.forEach(pool::returnResource);
+      Thread.sleep(5);
+
+      pool.evict();
+      assertEquals(4, factory.destroyed.get());
+      assertEquals(2, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void buffersAreReleasedOnlyByEvictionOfIdleConnections() throws Exception {
+    ConnectionPoolConfig config = config(4);
+    config.setTestWhileIdle(false);
+    config.setTimeBetweenEvictionRuns(Duration.ofHours(1)); // evicted by the test
+    config.setBufferReleaseIdleTime(Duration.ofMillis(50));
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(new MockFactory(), config)) {
+      Connection connection = pool.getResource();
+      pool.returnResource(connection);
+      verify(connection, never()).releaseBuffers();
+
+      pool.evict();
+      verify(connection, never()).releaseBuffers();
+
+      Thread.sleep(60);
+      pool.evict();
+      verify(connection).releaseBuffers();
+      assertEquals(1, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void buffersAreReleasedWithoutEviction() {
+    ConnectionPoolConfig config = config(4);
+    config.setBufferReleaseIdleTime(Duration.ofMillis(50));
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(new MockFactory(), config)) {
+      Connection connection = pool.getResource();
+      pool.returnResource(connection);
+      verify(connection, timeout(2000).atLeastOnce()).releaseBuffers();
+      assertEquals(1, pool.getNumIdle());
+      assertSame(connection, pool.getResource());
+    }
+  }
+
+  @Test
+  public void commonPoolReleasesBuffersWithoutEviction() {
+    try (ConnectionPool pool = new ConnectionPool(new MockFactory())) {
+      // the default config disables eviction; the evictor only releases buffers then
+      assertTrue(pool.getDurationBetweenEvictionRuns().compareTo(Duration.ZERO) > 0);
+      assertFalse(pool.getTestWhileIdle());
+    }
+
+    ConnectionPoolConfig config = config(4);
+    config.setTestWhileIdle(true);
+    config.setMinEvictableIdleTime(Duration.ofMillis(1));
+    config.setBufferReleaseIdleTime(Duration.ofMillis(50));
+    MockFactory factory = new MockFactory();
+    try (ConnectionPool pool = new ConnectionPool(factory, config)) {
+      Connection connection = pool.getResource();
+      pool.returnResource(connection);
+      verify(connection, timeout(2000).atLeastOnce()).releaseBuffers();
+      assertEquals(1, pool.getNumIdle());
+      assertEquals(0, factory.destroyed.get());
+      assertEquals(0, factory.validated.get());
+    }
+  }
+
+  @Test
+  public void connectionsAreNeverShared() throws Exception {
+    MockFactory factory = new MockFactory();
+    ConnectionPoolConfig config = config(4);
+    config.setMaxWait(Duration.ofSeconds(10));
+    Set<Connection> inUse = ConcurrentHashMap.newKeySet();
+    AtomicInteger shared = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try (ConcurrentConnectionPool pool = new ConcurrentConnectionPool(factory, config)) {
+      List<CompletableFuture<Void>> workers = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        workers.add(CompletableFuture.runAsync(() -> {
+          for (int i = 0; i < 5000; i++) {
+            Connection connection = pool.getResource();
+            if (!inUse.add(connection)) {
+              shared.incrementAndGet();
+            }
+            inUse.remove(connection);
+            pool.returnResource(connection);
+          }
+        }, executor));
+      }
+      CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).get();
+
+      assertEquals(0, shared.get());
+      assertTrue(factory.created.get() <= 4);
+      assertEquals(0, pool.getNumActive());
+      assertEquals(factory.created.get(), pool.getNumIdle());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
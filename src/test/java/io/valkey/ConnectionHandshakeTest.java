@@ -0,0 +1,162 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.util.RedisInputStream;
+import io.valkey.util.SafeEncoder;
+
+public class ConnectionHandshakeTest {
+
+  /**
+   * Replies to all commands written before a read, once the replies to former commands have been
+   * read, so that commands which are sent after waiting for a reply would block the handshake.
+   */
+  private static class HandshakeSocket extends Socket {
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private final List<String> commands = new ArrayList<>();
+    private final Function<String, String> replies;
+    private InputStream input;
+    private int repliedBytes = 0;
+    private boolean closed = false;
+
+    HandshakeSocket(Function<String, String> replies) {
+      this.replies = replies;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return written;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new InputStream() {
+        @Override
+        public int read() throws IOException {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          if (input == null || input.available() == 0) {
+            input = new ByteArrayInputStream(reply());
+          }
+          return input.read(b, off, len);
+        }
+      };
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] reply() {
+      byte[] bytes = written.toByteArray();
+      RedisInputStream sent = new RedisInputStream(
+          new ByteArrayInputStream(bytes, repliedBytes, bytes.length - repliedBytes));
+      repliedBytes = bytes.length;
+      StringBuilder reply = new StringBuilder();
+      while (sent.available() > 0) {
+        List<byte[]> command = (List<byte[]>) Protocol.read(sent);
+        String name = SafeEncoder.encode(command.get(0));
+        if (command.size() > 1 && "CLIENT".equals(name)) {
+          name += " " + SafeEncoder.encode(command.get(1));
+        }
+        commands.add(name);
+        reply.append(replies.apply(name)).append("\r\n");
+      }
+      return SafeEncoder.encode(reply.toString());
+    }
+
+    @Override
+    public int getSoTimeout() {
+      return 0;
+    }
+
+    @Override
+    public boolean isBound() {
+      return true;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return true;
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static Connection connect(HandshakeSocket socket, JedisClientConfig config) {
+    return new Connection(new JedisSocketFactory() {
+      @Override
+      public Socket createSocket() {
+        return socket;
+      }
+    }, config);
+  }
+
+  @Test
+  public void handshakeIsSentInOneBatch() {
+    HandshakeSocket socket = new HandshakeSocket(
+        command -> command.equals("CLIENT SETINFO") ? "-ERR unknown subcommand 'SETINFO'" : "+OK");
+    Connection connection = connect(socket, DefaultJedisClientConfig.builder()
+        .password("secret").clientName("name").database(2).build());
+
+    assertEquals("AUTH", socket.commands.get(0));
+    assertEquals("CLIENT SETNAME", socket.commands.get(1));
+    assertEquals("SELECT", socket.commands.get(socket.commands.size() - 1));
+    assertTrue(socket.commands.contains("CLIENT SETINFO"));
+    assertTrue(connection.isConnected());
+    assertFalse(connection.isBroken());
+  }
+
+  @Test
+  public void replyOfUnexpectedShapeBreaksConnection() {
+    HandshakeSocket socket = new HandshakeSocket(
+        command -> command.equals("LRANGE") ? "*2\r\n:1\r\n$1\r\na" : "+OK");
+    Connection connection = connect(socket, DefaultJedisClientConfig.builder().build());
+    try {
+      connection.executeCommand(new CommandObjects().lrange("list", 0, -1));
+      fail("An integer element should not be decoded as a string.");
+    } catch (ClassCastException expected) {
+    }
+    // the rest of the reply must not be read as the reply of the next command
+    assertTrue(connection.isBroken());
+  }
+
+  @Test
+  public void authenticationErrorIsThrown() {
+    HandshakeSocket socket = new HandshakeSocket(
+        command -> command.equals("AUTH") ? "-WRONGPASS invalid password" : "-NOAUTH Authentication required.");
+    try {
+      connect(socket, DefaultJedisClientConfig.builder().password("wrong").database(2).build());
+      fail("The handshake should fail.");
+    } catch (JedisDataException e) {
+      assertTrue(e.getMessage().startsWith("WRONGPASS"));
+    }
+    assertEquals("SELECT", socket.commands.get(socket.commands.size() - 1));
+    assertTrue(socket.closed);
+  }
+}
@@ -0,0 +1,54 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JedisClusterInfoCacheTest {
+
+  private static final HostAndPort PRIMARY = new HostAndPort("localhost", 7379);
+  private static final HostAndPort REPLICA = new HostAndPort("localhost", 7380);
+
+  private JedisClusterInfoCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(), Collections.emptySet());
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void assignedSlotsAreLookedUp() {
+    cache.assignSlotsToNode(Arrays.asList(0, 1, 2), PRIMARY);
+    cache.assignSlotsToReplicas(Arrays.asList(1, 2), Collections.singletonList(REPLICA));
+
+    assertEquals(PRIMARY, cache.getSlotNode(1));
+    assertSame(cache.getNode(PRIMARY), cache.getSlotPool(1));
+    assertEquals(Collections.singletonList(REPLICA), cache.getSlotReplicas(2));
+    assertTrue(cache.getSlotReplicas(0).isEmpty());
+    assertNull(cache.getSlotNode(3));
+    assertNull(cache.getSlotPool(3));
+  }
+
+  @Test
+  public void resetClearsSlots() {
+    cache.assignSlotToNode(5, PRIMARY);
+    cache.reset();
+
+    assertNull(cache.getSlotNode(5));
+    assertNull(cache.getSlotPool(5));
+    assertTrue(cache.getNodes().isEmpty());
+  }
+}
@@ -1,6 +1,8 @@
 package io.valkey;
 
+import io.valkey.args.RawableFactory;
 import io.valkey.exceptions.JedisBusyException;
+import io.valkey.exceptions.JedisException;
 import io.valkey.util.RedisInputStream;
 import io.valkey.util.RedisOutputStream;
 import io.valkey.util.SafeEncoder;
@@ -14,11 +16,16 @@ import static io.valkey.util.AssertUtil.assertByteArrayListEquals;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,6 +54,132 @@ public class ProtocolTest {
     assertEquals(expectedCommand, sb.toString());
   }
 
+  @Test
+  public void buildACommandWithNumbersAndKeywords() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(baos, 16);
+
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.ZADD).add("k").add(Protocol.Keyword.NX)
+        .add(1.5).add(-42).add(Long.MAX_VALUE).add(Long.MIN_VALUE).add(0L));
+    ros.flush();
+
+    assertEquals("*8\r\n$4\r\nZADD\r\n$1\r\nk\r\n$2\r\nNX\r\n$3\r\n1.5\r\n$3\r\n-42\r\n"
+        + "$19\r\n9223372036854775807\r\n$20\r\n-9223372036854775808\r\n$1\r\n0\r\n",
+        new String(baos.toByteArray(), StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void buildACommandWithStreamedArgument() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(baos, 8);
+    byte[] value = "a value longer than the buffer".getBytes();
+
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.SET).add("k")
+        .add(RawableFactory.from(Channels.newChannel(new ByteArrayInputStream(value)), value.length)));
+    ros.flush();
+
+    assertEquals("*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$30\r\na value longer than the buffer\r\n",
+        new String(baos.toByteArray(), StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void streamedArgumentIsReadIntoMemoryOnRequest() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(baos, 8);
+    byte[] value = "a value longer than the buffer".getBytes();
+    CommandArguments args = new CommandArguments(Protocol.Command.SET).add("k")
+        .add(RawableFactory.from(Channels.newChannel(new ByteArrayInputStream(value)), value.length));
+    Assert.assertFalse(args.isReplayable());
+
+    // e.g. for logging, before the command is sent
+    List<byte[]> raws = new ArrayList<>();
+    args.forEach(arg -> raws.add(arg.getRaw()));
+    assertArrayEquals(value, raws.get(2));
+
+    Protocol.sendCommand(ros, args);
+    ros.flush();
+    assertEquals("*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$30\r\na value longer than the buffer\r\n",
+        new String(baos.toByteArray(), StandardCharsets.US_ASCII));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void streamedArgumentIsSentOnlyOnce() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(baos, 8);
+    byte[] value = "value".getBytes();
+    CommandArguments args = new CommandArguments(Protocol.Command.SET).add("k")
+        .add(RawableFactory.from(Channels.newChannel(new ByteArrayInputStream(value)), value.length));
+
+    Protocol.sendCommand(ros, args);
+    Protocol.sendCommand(ros, args);
+  }
+
+  @Test
+  public void readBulkReplyToChannel() {
+    InputStream is = new ByteArrayInputStream("$30\r\na value longer than the buffer\r\n$-1\r\n".getBytes());
+    RedisInputStream ris = new RedisInputStream(is, 8);
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+    assertEquals(Long.valueOf(30), Protocol.readToChannel(ris.readByte(), ris, Channels.newChannel(target)));
+    assertEquals("a value longer than the buffer", new String(target.toByteArray()));
+    assertNull(Protocol.readToChannel(ris.readByte(), ris, Channels.newChannel(target)));
+  }
+
+  @Test
+  public void readBulkReplyIntoBuffer() {
+    InputStream is = new ByteArrayInputStream("$30\r\na value longer than the buffer\r\n$5\r\nvalue\r\n$-1\r\n:1\r\n".getBytes());
+    RedisInputStream ris = new RedisInputStream(is, 8);
+    ByteBuffer direct = ByteBuffer.allocateDirect(16);
+
+    assertEquals(Long.valueOf(30), Protocol.readInto(ris.readByte(), ris, direct)); // too large, skipped
+    assertEquals(0, direct.position());
+    assertEquals(Long.valueOf(5), Protocol.readInto(ris.readByte(), ris, direct));
+    assertNull(Protocol.readInto(ris.readByte(), ris, direct));
+    assertEquals(1L, Protocol.read(ris));
+
+    direct.flip();
+    byte[] read = new byte[direct.remaining()];
+    direct.get(read);
+    assertEquals("value", new String(read));
+  }
+
+  @Test
+  public void failingChannelDoesNotBreakTheStream() {
+    InputStream is = new ByteArrayInputStream("$30\r\na value longer than the buffer\r\n:1\r\n".getBytes());
+    RedisInputStream ris = new RedisInputStream(is, 8);
+    WritableByteChannel failing = new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer src) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    try {
+      Protocol.readToChannel(ris.readByte(), ris, failing);
+      fail("Failure of the channel should be thrown.");
+    } catch (JedisException expected) {
+      assertEquals("disk full", expected.getCause().getMessage());
+    }
+    assertEquals(1L, Protocol.read(ris));
+  }
+
+  @Test
+  public void toByteArrayOfNumbers() {
+    for (long value : new long[]{ 0, 7, -7, 10, 99, 100, -1000, Integer.MAX_VALUE, Integer.MIN_VALUE,
+        Long.MAX_VALUE, Long.MIN_VALUE, 999999999999999999L, 1000000000000000000L }) {
+      assertEquals(String.valueOf(value), SafeEncoder.encode(Protocol.toByteArray(value)));
+    }
+  }
+
   @Test(expected = IOException.class)
   public void writeOverflow() throws IOException {
     RedisOutputStream ros = new RedisOutputStream(new OutputStream() {
@@ -139,4 +272,47 @@ public class ProtocolTest {
     }
     fail("Expected a JedisBusyException to be thrown.");
   }
+
+  @Test
+  public void pushMessagesAreHandedToHandler() {
+    InputStream is = new ByteArrayInputStream(
+        ">2\r\n$10\r\ninvalidate\r\n*1\r\n$3\r\nfoo\r\n$3\r\nbar\r\n".getBytes());
+    List<List<Object>> pushes = new ArrayList<>();
+    Object response = Protocol.read(new RedisInputStream(is), pushes::add);
+    assertArrayEquals(SafeEncoder.encode("bar"), (byte[]) response);
+    assertEquals(1, pushes.size());
+    assertArrayEquals(SafeEncoder.encode("invalidate"), (byte[]) pushes.get(0).get(0));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void unhandledPushMessageIsReturned() {
+    InputStream is = new ByteArrayInputStream(">2\r\n$7\r\nmessage\r\n$3\r\nfoo\r\n".getBytes());
+    List<Object> response = (List<Object>) Protocol.read(new RedisInputStream(is), push -> false);
+    assertArrayEquals(SafeEncoder.encode("message"), (byte[]) response.get(0));
+  }
+
+  @Test
+  public void readPushesStopsAtReply() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(
+        ">2\r\n$10\r\ninvalidate\r\n_\r\n+OK\r\n".getBytes()));
+    List<List<Object>> pushes = new ArrayList<>();
+    Protocol.readPushes(is, pushes::add);
+    assertEquals(1, pushes.size());
+    assertNull(pushes.get(0).get(1));
+    assertArrayEquals(SafeEncoder.encode("OK"), (byte[]) Protocol.read(is));
+  }
+
+  @Test
+  public void readPushesBeforeReplyReturnsUnhandledPush() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(
+        ">2\r\n$10\r\ninvalidate\r\n_\r\n:1\r\n>1\r\n$5\r\nother\r\n".getBytes()));
+    List<List<Object>> pushes = new ArrayList<>();
+    assertNull(Protocol.readPushesBeforeReply(is, push -> pushes.add(push) && pushes.size() == 1));
+    assertEquals(1, pushes.size());
+    assertEquals(Long.valueOf(1), Protocol.read(is));
+
+    List<Object> unhandled = Protocol.readPushesBeforeReply(is, push -> false);
+    assertArrayEquals(SafeEncoder.encode("other"), (byte[]) unhandled.get(0));
+  }
 }
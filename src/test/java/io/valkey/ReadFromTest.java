@@ -0,0 +1,69 @@
+package io.valkey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ReadFromTest {
+
+  private static final HostAndPort PRIMARY = new HostAndPort("primary", 7000);
+  private static final HostAndPort REPLICA_1 = new HostAndPort("replica1", 7001);
+  private static final HostAndPort REPLICA_2 = new HostAndPort("replica2", 7002);
+  private static final List<HostAndPort> REPLICAS = Arrays.asList(REPLICA_1, REPLICA_2);
+
+  @Test
+  public void master() {
+    assertEquals(Collections.singletonList(PRIMARY), ReadFrom.MASTER.select(PRIMARY, REPLICAS, node -> 0));
+  }
+
+  @Test
+  public void replica() {
+    List<HostAndPort> nodes = ReadFrom.REPLICA.select(PRIMARY, REPLICAS, node -> 0);
+    assertEquals(new HashSet<>(REPLICAS), new HashSet<>(nodes));
+    assertTrue(ReadFrom.REPLICA.select(PRIMARY, Collections.emptyList(), node -> 0).isEmpty());
+  }
+
+  @Test
+  public void replicaPreferred() {
+    List<HostAndPort> nodes = ReadFrom.REPLICA_PREFERRED.select(PRIMARY, REPLICAS, node -> 0);
+    assertEquals(3, nodes.size());
+    assertEquals(PRIMARY, nodes.get(2));
+    assertEquals(Collections.singletonList(PRIMARY),
+        ReadFrom.REPLICA_PREFERRED.select(PRIMARY, Collections.emptyList(), node -> 0));
+  }
+
+  @Test
+  public void any() {
+    List<HostAndPort> nodes = ReadFrom.ANY.select(PRIMARY, REPLICAS, node -> 0);
+    assertEquals(new HashSet<>(Arrays.asList(PRIMARY, REPLICA_1, REPLICA_2)), new HashSet<>(nodes));
+  }
+
+  @Test
+  public void lowestLatency() {
+    List<HostAndPort> nodes = ReadFrom.LOWEST_LATENCY.select(PRIMARY, REPLICAS,
+        node -> node.equals(REPLICA_2) ? 100 : node.equals(PRIMARY) ? 200 : Long.MAX_VALUE);
+    assertEquals(Arrays.asList(REPLICA_2, PRIMARY, REPLICA_1), nodes);
+    assertTrue(ReadFrom.LOWEST_LATENCY.isLatencyAware());
+  }
+
+  @Test
+  public void lowestLatencyLooksUpEachNodeOnce() {
+    Map<HostAndPort, Integer> lookups = new HashMap<>();
+    ReadFrom.LOWEST_LATENCY.select(PRIMARY, REPLICAS, node -> {
+      lookups.merge(node, 1, Integer::sum);
+      return node.getPort();
+    });
+    assertEquals(3, lookups.size());
+    for (int count : lookups.values()) {
+      assertEquals(1, count);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package io.valkey.csc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.valkey.CommandArguments;
+import io.valkey.Protocol.Command;
+import io.valkey.util.SafeEncoder;
+
+public class ClientSideCacheTest {
+
+  private static ClientSideCache.CacheKey key(ClientSideCache cache, Command command, String... args) {
+    return cache.cacheKey(new CommandArguments(command).keys((Object[]) args));
+  }
+
+  private static void put(ClientSideCache cache, ClientSideCache.CacheKey cacheKey, Object reply,
+      Object source) {
+    cache.put(cacheKey, reply, source, cache.version(cacheKey));
+  }
+
+  @Test
+  public void onlyReadCommandsAreCacheable() {
+    ClientSideCache cache = new ClientSideCache();
+    assertNotNull(key(cache, Command.GET, "foo"));
+    assertNotNull(key(cache, Command.MGET, "foo", "bar"));
+    assertNull(key(cache, Command.SET, "foo", "bar"));
+    assertNull(key(cache, Command.DEL, "foo"));
+  }
+
+  @Test
+  public void putGetAndStats() {
+    ClientSideCache cache = new ClientSideCache();
+    byte[] value = SafeEncoder.encode("bar");
+
+    assertNull(cache.get(key(cache, Command.GET, "foo")));
+    put(cache, key(cache, Command.GET, "foo"), value, this);
+    assertArrayEquals(value, (byte[]) cache.get(key(cache, Command.GET, "foo")));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHits());
+    assertEquals(1, stats.getMisses());
+    assertEquals(1, stats.getSize());
+  }
+
+  @Test
+  public void invalidateRemovesAllRepliesOfKey() {
+    ClientSideCache cache = new ClientSideCache();
+    put(cache, key(cache, Command.GET, "foo"), SafeEncoder.encode("1"), this);
+    put(cache, key(cache, Command.MGET, "foo", "bar"), Collections.emptyList(), this);
+    put(cache, key(cache, Command.GET, "bar"), SafeEncoder.encode("2"), this);
+
+    cache.invalidate(Collections.singletonList(SafeEncoder.encode("foo")));
+
+    assertNull(cache.get(key(cache, Command.GET, "foo")));
+    assertNull(cache.get(key(cache, Command.MGET, "foo", "bar")));
+    assertNotNull(cache.get(key(cache, Command.GET, "bar")));
+    assertEquals(2, cache.getStats().getInvalidations());
+
+    cache.invalidate(null);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void leastRecentlyUsedIsEvicted() {
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().maxSize(2).build());
+    put(cache, key(cache, Command.GET, "a"), SafeEncoder.encode("a"), this);
+    put(cache, key(cache, Command.GET, "b"), SafeEncoder.encode("b"), this);
+    cache.get(key(cache, Command.GET, "a"));
+    put(cache, key(cache, Command.GET, "c"), SafeEncoder.encode("c"), this);
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get(key(cache, Command.GET, "b")));
+    assertNotNull(cache.get(key(cache, Command.GET, "a")));
+    assertEquals(1, cache.getStats().getEvictions());
+
+    // evicted reply is not indexed anymore
+    cache.invalidate(Arrays.asList(SafeEncoder.encode("b")));
+    assertEquals(0, cache.getStats().getInvalidations());
+  }
+
+  @Test
+  public void repliesOfDisconnectedSourceAreRemoved() {
+    ClientSideCache cache = new ClientSideCache();
+    Object first = new Object();
+    Object second = new Object();
+    put(cache, key(cache, Command.GET, "a"), SafeEncoder.encode("a"), first);
+    put(cache, key(cache, Command.GET, "b"), SafeEncoder.encode("b"), second);
+
+    cache.invalidateSource(first);
+
+    assertNull(cache.get(key(cache, Command.GET, "a")));
+    assertNotNull(cache.get(key(cache, Command.GET, "b")));
+  }
+
+  @Test
+  public void replyReadBeforeInvalidationIsNotPut() {
+    ClientSideCache cache = new ClientSideCache();
+    ClientSideCache.CacheKey foo = key(cache, Command.GET, "foo");
+    long version = cache.version(foo);
+
+    // invalidated while the reply was read
+    cache.invalidate(Collections.singletonList(SafeEncoder.encode("foo")));
+    cache.put(foo, SafeEncoder.encode("stale"), this, version);
+    assertNull(cache.get(foo));
+
+    version = cache.version(foo);
+    cache.invalidate(Collections.singletonList(SafeEncoder.encode("bar")));
+    cache.put(foo, SafeEncoder.encode("fresh"), this, version);
+    assertNotNull(cache.get(foo));
+  }
+
+  @Test
+  public void replyReadBeforeFlushIsNotPut() {
+    ClientSideCache cache = new ClientSideCache();
+    ClientSideCache.CacheKey foo = key(cache, Command.GET, "foo");
+    long version = cache.version(foo);
+
+    // the listener failed while the reply was read
+    cache.flush();
+    cache.put(foo, SafeEncoder.encode("stale"), this, version);
+    assertNull(cache.get(foo));
+  }
+
+  @Test
+  public void segmentedCacheIsBounded() {
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().maxSize(1024).build());
+    for (int i = 0; i < 4096; i++) {
+      put(cache, key(cache, Command.GET, "key:" + i), SafeEncoder.encode("value:" + i), this);
+    }
+    assertTrue("size: " + cache.size(), cache.size() <= 1024 && cache.size() > 960);
+    assertEquals(4096 - cache.size(), cache.getStats().getEvictions());
+    assertNotNull(cache.get(key(cache, Command.GET, "key:4095")));
+
+    cache.invalidate(Collections.singletonList(SafeEncoder.encode("key:4095")));
+    assertNull(cache.get(key(cache, Command.GET, "key:4095")));
+    cache.flush();
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,131 @@
+package io.valkey.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+import io.valkey.ClientCapaConfig;
+import io.valkey.ClientSetInfoConfig;
+import io.valkey.CommandObjects;
+import io.valkey.Connection;
+import io.valkey.ConnectionPool;
+import io.valkey.DefaultJedisClientConfig;
+import io.valkey.JedisClusterInfoCache;
+import io.valkey.util.SafeEncoder;
+
+public class FlightRecorderEventsTest {
+
+  private static List<RecordedEvent> record(String eventName, Runnable action) throws Exception {
+    Path file = Files.createTempFile("valkey", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName).withoutThreshold();
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(e -> e.getEventType().getName().equals(eventName)).collect(Collectors.toList());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void commandEvent() throws Exception {
+    Socket socket = new Socket() {
+      private final InputStream in = new ByteArrayInputStream(SafeEncoder.encode("$3\r\nbar\r\n"));
+      private final OutputStream out = new ByteArrayOutputStream();
+
+      @Override
+      public InputStream getInputStream() {
+        return in;
+      }
+
+      @Override
+      public OutputStream getOutputStream() {
+        return out;
+      }
+
+      @Override
+      public boolean isBound() {
+        return true;
+      }
+
+      @Override
+      public boolean isConnected() {
+        return true;
+      }
+    };
+    Connection connection = new Connection(() -> socket, DefaultJedisClientConfig.builder()
+        .clientSetInfoConfig(ClientSetInfoConfig.DISABLED)
+        .clientCapaConfig(ClientCapaConfig.DISABLED).build());
+
+    List<RecordedEvent> events = record("io.valkey.Command",
+        () -> connection.executeCommand(new CommandObjects().get("foo")));
+
+    assertEquals(1, events.size());
+    assertEquals("GET", events.get(0).getString("command"));
+    assertEquals(9, events.get(0).getLong("replySize"));
+  }
+
+  @Test
+  public void poolBorrowEvent() throws Exception {
+    ConnectionPool pool = new ConnectionPool(new BasePooledObjectFactory<Connection>() {
+      @Override
+      public Connection create() {
+        return mock(Connection.class);
+      }
+
+      @Override
+      public PooledObject<Connection> wrap(Connection connection) {
+        return new DefaultPooledObject<>(connection);
+      }
+    });
+
+    List<RecordedEvent> events = record("io.valkey.PoolBorrow", pool::getResource);
+    pool.close();
+
+    assertEquals(1, events.size());
+    assertEquals(1, events.get(0).getInt("active"));
+  }
+
+  @Test
+  public void clusterRefreshEvent() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(connection.getObjectMultiBulkReply()).thenReturn(Collections.singletonList(
+        Arrays.asList(0L, 16383L, Arrays.asList(SafeEncoder.encode("localhost"), 7379L))));
+    JedisClusterInfoCache cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(),
+        Collections.emptySet());
+
+    List<RecordedEvent> events = record("io.valkey.ClusterRefresh",
+        () -> cache.renewClusterSlots(connection));
+    cache.close();
+
+    assertEquals(1, events.size());
+    assertTrue(events.get(0).getBoolean("renewed"));
+    assertEquals(16384, events.get(0).getInt("changedSlots"));
+    assertEquals(1, events.get(0).getInt("nodes"));
+  }
+}
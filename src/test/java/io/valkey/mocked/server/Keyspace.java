@@ -0,0 +1,239 @@
+package io.valkey.mocked.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys of one database of a {@link StandInServer}. Expired keys are removed when they are
+ * accessed. Not thread-safe; the server executes one command at a time.
+ */
+class Keyspace {
+
+  private final Map<Key, Object> values = new HashMap<>();
+  private final Map<Key, Long> expires = new HashMap<>();
+
+  /**
+   * @return the value, or {@code null} if the key doesn't exist or has expired
+   */
+  Object get(byte[] key) {
+    return get(new Key(key));
+  }
+
+  private Object get(Key key) {
+    Long expiry = expires.get(key);
+    if (expiry != null && expiry <= System.currentTimeMillis()) {
+      values.remove(key);
+      expires.remove(key);
+      return null;
+    }
+    return values.get(key);
+  }
+
+  /**
+   * Sets the value and removes the time to live of the key.
+   */
+  void set(byte[] key, Object value) {
+    Key k = new Key(key);
+    values.put(k, value);
+    expires.remove(k);
+  }
+
+  /**
+   * Replaces the value and keeps the time to live of the key.
+   */
+  void replace(byte[] key, Object value) {
+    values.put(new Key(key), value);
+  }
+
+  boolean remove(byte[] key) {
+    Key k = new Key(key);
+    boolean existed = get(k) != null;
+    values.remove(k);
+    expires.remove(k);
+    return existed;
+  }
+
+  boolean exists(byte[] key) {
+    return get(new Key(key)) != null;
+  }
+
+  /**
+   * @return {@code false} if the key doesn't exist
+   */
+  boolean expireAt(byte[] key, long unixTimeMillis) {
+    Key k = new Key(key);
+    if (get(k) == null) {
+      return false;
+    }
+    expires.put(k, unixTimeMillis);
+    return true;
+  }
+
+  boolean persist(byte[] key) {
+    Key k = new Key(key);
+    return get(k) != null && expires.remove(k) != null;
+  }
+
+  /**
+   * @return the time to live in milliseconds, -1 if the key has none, or -2 if it doesn't exist
+   */
+  long ttl(byte[] key) {
+    Key k = new Key(key);
+    if (get(k) == null) {
+      return -2;
+    }
+    Long expiry = expires.get(k);
+    return expiry == null ? -1 : Math.max(expiry - System.currentTimeMillis(), 0);
+  }
+
+  List<byte[]> keys(byte[] pattern) {
+    List<byte[]> keys = new ArrayList<>();
+    for (Iterator<Key> it = values.keySet().iterator(); it.hasNext();) {
+      Key key = it.next();
+      Long expiry = expires.get(key);
+      if (expiry != null && expiry <= System.currentTimeMillis()) {
+        it.remove();
+        expires.remove(key);
+      } else if (matches(pattern, key.bytes)) {
+        keys.add(key.bytes);
+      }
+    }
+    return keys;
+  }
+
+  int size() {
+    return values.size();
+  }
+
+  void clear() {
+    values.clear();
+    expires.clear();
+  }
+
+  static boolean startsWith(byte[] bytes, byte[] prefix) {
+    for (int i = 0; i < prefix.length; i++) {
+      if (bytes[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Glob-style matching as by KEYS and PSUBSCRIBE: {@code *}, {@code ?}, {@code [...]} with ranges
+   * and negation, and {@code \} to escape.
+   */
+  static boolean matches(byte[] pattern, byte[] string) {
+    return matches(pattern, 0, string, 0);
+  }
+
+  private static boolean matches(byte[] p, int pi, byte[] s, int si) {
+    while (pi < p.length) {
+      switch (p[pi]) {
+        case '*':
+          while (pi + 1 < p.length && p[pi + 1] == '*') {
+            pi++;
+          }
+          if (pi + 1 == p.length) {
+            return true;
+          }
+          for (int i = si; i <= s.length; i++) {
+            if (matches(p, pi + 1, s, i)) {
+              return true;
+            }
+          }
+          return false;
+        case '?':
+          if (si == s.length) {
+            return false;
+          }
+          si++;
+          pi++;
+          break;
+        case '[': {
+          if (si == s.length) {
+            return false;
+          }
+          pi++;
+          boolean not = pi < p.length && p[pi] == '^';
+          if (not) {
+            pi++;
+          }
+          boolean match = false;
+          while (pi < p.length && p[pi] != ']') {
+            if (p[pi] == '\\' && pi + 1 < p.length) {
+              pi++;
+              match |= p[pi] == s[si];
+            } else if (pi + 2 < p.length && p[pi + 1] == '-') {
+              int from = Math.min(p[pi], p[pi + 2]);
+              int to = Math.max(p[pi], p[pi + 2]);
+              match |= s[si] >= from && s[si] <= to;
+              pi += 2;
+            } else {
+              match |= p[pi] == s[si];
+            }
+            pi++;
+          }
+          pi++; // ']'
+          if (match == not) {
+            return false;
+          }
+          si++;
+          break;
+        }
+        case '\\':
+          if (pi + 1 < p.length) {
+            pi++;
+          }
+          // fall through
+        default:
+          if (si == s.length || p[pi] != s[si]) {
+            return false;
+          }
+          si++;
+          pi++;
+      }
+    }
+    return si == s.length;
+  }
+
+  /**
+   * A key, channel or member which is compared by its bytes.
+   */
+  static final class Key implements Comparable<Key> {
+
+    final byte[] bytes;
+    private final int hash;
+
+    Key(byte[] bytes) {
+      this.bytes = bytes;
+      this.hash = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && Arrays.equals(bytes, ((Key) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      int length = Math.min(bytes.length, other.bytes.length);
+      for (int i = 0; i < length; i++) {
+        int c = (bytes[i] & 0xff) - (other.bytes[i] & 0xff);
+        if (c != 0) {
+          return c;
+        }
+      }
+      return bytes.length - other.bytes.length;
+    }
+  }
+}
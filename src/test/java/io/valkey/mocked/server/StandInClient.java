@@ -0,0 +1,368 @@
+package io.valkey.mocked.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.valkey.util.SafeEncoder;
+
+/**
+ * A connection to a {@link StandInServer}, which reads its commands and writes their replies and
+ * the push messages for it.
+ */
+class StandInClient {
+
+  private static final byte[] CRLF = {'\r', '\n'};
+
+  private final StandInServer server;
+  private final long id;
+  private final Socket socket;
+  private final InputStream in;
+  private final OutputStream out;
+
+  private volatile int protocol = 2;
+  private volatile String name;
+  private volatile int database = 0;
+
+  private final Set<Keyspace.Key> channels = ConcurrentHashMap.newKeySet();
+  private final Set<Keyspace.Key> patterns = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean tracking = false;
+  private volatile boolean broadcasting = false;
+  private volatile boolean noLoop = false;
+  private volatile long redirect = 0;
+  private volatile List<byte[]> prefixes = new ArrayList<>();
+
+  private volatile boolean asking = false;
+  private volatile boolean closing = false;
+
+  StandInClient(StandInServer server, long id, Socket socket) throws IOException {
+    this.server = server;
+    this.id = id;
+    this.socket = socket;
+    this.in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+    this.out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16);
+  }
+
+  void start() {
+    Thread thread = new Thread(this::serve, "standin-" + socket.getLocalPort() + "-client-" + id);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  long getId() {
+    return id;
+  }
+
+  int getProtocol() {
+    return protocol;
+  }
+
+  void setProtocol(int protocol) {
+    this.protocol = protocol;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  void setName(String name) {
+    this.name = name;
+  }
+
+  Keyspace keyspace() {
+    return server.database(database);
+  }
+
+  void select(int database) {
+    this.database = database;
+  }
+
+  Set<Keyspace.Key> channels() {
+    return channels;
+  }
+
+  Set<Keyspace.Key> patterns() {
+    return patterns;
+  }
+
+  /**
+   * RESP2 connections with subscriptions are limited to the pub/sub commands.
+   */
+  boolean isSubscribed() {
+    return !channels.isEmpty() || !patterns.isEmpty();
+  }
+
+  boolean isTracking() {
+    return tracking;
+  }
+
+  boolean isBroadcasting() {
+    return broadcasting;
+  }
+
+  boolean isNoLoop() {
+    return noLoop;
+  }
+
+  long getRedirect() {
+    return redirect;
+  }
+
+  boolean isTrackingPrefixOf(byte[] key) {
+    if (prefixes.isEmpty()) {
+      return true;
+    }
+    for (byte[] prefix : prefixes) {
+      if (prefix.length <= key.length && Keyspace.startsWith(key, prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void track(boolean on, boolean broadcasting, boolean noLoop, long redirect, List<byte[]> prefixes) {
+    this.tracking = on;
+    this.broadcasting = on && broadcasting;
+    this.noLoop = on && noLoop;
+    this.redirect = on ? redirect : 0;
+    this.prefixes = on ? prefixes : new ArrayList<>();
+  }
+
+  /**
+   * Set by ASKING, for the next command only.
+   */
+  boolean isAsking() {
+    return asking;
+  }
+
+  void setAsking(boolean asking) {
+    this.asking = asking;
+  }
+
+  StandInServer server() {
+    return server;
+  }
+
+  void close() {
+    closing = true;
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // closing anyway
+    }
+  }
+
+  void closeAfterReply() {
+    closing = true;
+  }
+
+  private void serve() {
+    try {
+      while (!closing) {
+        byte[][] args = readCommand();
+        if (args == null) {
+          break;
+        }
+        if (args.length == 0) {
+          continue;
+        }
+        String name = new String(args[0], StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        StandInCommands.Spec spec = server.lookup(name);
+        Object reply;
+        if (spec == null) {
+          reply = StandInCommands.unknownCommand(args);
+        } else if (!spec.accepts(args.length)) {
+          reply = new StandInCommands.ErrorReply("ERR wrong number of arguments for '"
+              + name.toLowerCase(Locale.ROOT) + "' command");
+        } else if (protocol == 2 && isSubscribed() && !spec.pubsub) {
+          reply = new StandInCommands.ErrorReply("ERR Can't execute '" + name.toLowerCase(Locale.ROOT)
+              + "': only (P|S)SUBSCRIBE / (P|S)UNSUBSCRIBE / PING / QUIT / RESET are allowed in this context");
+        } else {
+          server.delay(name);
+          reply = server.execute(this, spec, args);
+        }
+        synchronized (out) {
+          if (reply != StandInCommands.NO_REPLY) {
+            write(reply);
+          }
+          // replies of pipelined commands are sent together
+          if (closing || in.available() == 0) {
+            out.flush();
+          }
+        }
+      }
+    } catch (IOException e) {
+      // disconnected
+    } finally {
+      close();
+      server.disconnected(this);
+    }
+  }
+
+  /**
+   * Writes a push message, e.g. a pub/sub message, RESP3 push or RESP2 array.
+   */
+  void push(List<?> message) {
+    synchronized (out) {
+      try {
+        out.write(protocol == 3 ? '>' : '*');
+        writeLength(message.size());
+        for (Object element : message) {
+          write(element);
+        }
+        out.flush();
+      } catch (IOException e) {
+        close();
+      }
+    }
+  }
+
+  // reading
+
+  /**
+   * @return the arguments of the next command, or {@code null} at the end of the stream
+   */
+  private byte[][] readCommand() throws IOException {
+    int type = in.read();
+    if (type == -1) {
+      return null;
+    }
+    if (type != '*') {
+      throw new IOException("Inline commands are not supported.");
+    }
+    int count = (int) readLong();
+    byte[][] args = new byte[Math.max(count, 0)][];
+    for (int i = 0; i < args.length; i++) {
+      if (in.read() != '$') {
+        throw new IOException("Expected a bulk string.");
+      }
+      int length = (int) readLong();
+      byte[] arg = new byte[length];
+      readFully(arg);
+      if (in.read() != '\r' || in.read() != '\n') {
+        throw new IOException("Expected CRLF.");
+      }
+      args[i] = arg;
+    }
+    return args;
+  }
+
+  private long readLong() throws IOException {
+    long value = 0;
+    boolean negative = false;
+    while (true) {
+      int b = in.read();
+      if (b == -1) {
+        throw new EOFException();
+      } else if (b == '-') {
+        negative = true;
+      } else if (b == '\r') {
+        in.read();
+        return negative ? -value : value;
+      } else {
+        value = value * 10 + (b - '0');
+      }
+    }
+  }
+
+  private void readFully(byte[] b) throws IOException {
+    int offset = 0;
+    while (offset < b.length) {
+      int read = in.read(b, offset, b.length - offset);
+      if (read == -1) {
+        throw new EOFException();
+      }
+      offset += read;
+    }
+  }
+
+  // writing
+
+  private void write(Object reply) throws IOException {
+    if (reply == null) {
+      if (protocol == 3) {
+        out.write('_');
+        out.write(CRLF);
+      } else {
+        out.write('$');
+        writeLength(-1);
+      }
+    } else if (reply instanceof byte[]) {
+      byte[] bulk = (byte[]) reply;
+      out.write('$');
+      writeLength(bulk.length);
+      out.write(bulk);
+      out.write(CRLF);
+    } else if (reply instanceof String) {
+      out.write('+');
+      out.write(SafeEncoder.encode((String) reply));
+      out.write(CRLF);
+    } else if (reply instanceof Long || reply instanceof Integer) {
+      out.write(':');
+      writeLength(((Number) reply).longValue());
+    } else if (reply instanceof Double) {
+      String value = StandInCommands.formatDouble((Double) reply);
+      if (protocol == 3) {
+        out.write(',');
+        out.write(SafeEncoder.encode(value));
+        out.write(CRLF);
+      } else {
+        write(SafeEncoder.encode(value));
+      }
+    } else if (reply instanceof Boolean) {
+      if (protocol == 3) {
+        out.write('#');
+        out.write((Boolean) reply ? 't' : 'f');
+        out.write(CRLF);
+      } else {
+        write((Boolean) reply ? 1L : 0L);
+      }
+    } else if (reply instanceof StandInCommands.ErrorReply) {
+      out.write('-');
+      out.write(SafeEncoder.encode(((StandInCommands.ErrorReply) reply).getMessage()));
+      out.write(CRLF);
+    } else if (reply instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) reply;
+      if (protocol == 3) {
+        out.write('%');
+        writeLength(map.size());
+      } else {
+        out.write('*');
+        writeLength(map.size() * 2L);
+      }
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        write(entry.getKey());
+        write(entry.getValue());
+      }
+    } else if (reply instanceof Collection) {
+      Collection<?> elements = (Collection<?>) reply;
+      out.write(protocol == 3 && reply instanceof Set ? '~' : '*');
+      writeLength(elements.size());
+      for (Object element : elements) {
+        write(element);
+      }
+    } else if (reply instanceof Keyspace.Key) {
+      write(((Keyspace.Key) reply).bytes);
+    } else {
+      throw new IllegalArgumentException("Unexpected reply: " + reply.getClass());
+    }
+  }
+
+  private void writeLength(long value) throws IOException {
+    out.write(SafeEncoder.encode(Long.toString(value)));
+    out.write(CRLF);
+  }
+}
@@ -0,0 +1,493 @@
+package io.valkey.mocked.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import io.valkey.HostAndPort;
+import io.valkey.Protocol;
+import io.valkey.util.JedisClusterCRC16;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * A simulated cluster of {@link StandInServer} nodes in the JVM. The nodes share their keys, while
+ * each node only executes the commands of the slots it owns, and replies with MOVED, ASK, TRYAGAIN
+ * or CLUSTERDOWN otherwise, as the nodes of a real cluster do. The slots can be migrated between the
+ * nodes step by step, or by a scripted {@link Timeline}, while clients are running:
+ * <pre>
+ * try (StandInCluster cluster = new StandInCluster(3).start()) {
+ *   CompletableFuture&lt;Void&gt; reshard = cluster.reshard(0, 999, 1, 500, TimeUnit.MILLISECONDS);
+ *   // run clients against cluster.getNodes(), then check cluster.getMovedCount() etc.
+ * }
+ * </pre>
+ * All nodes execute their commands under one lock, so the cluster is not faster than a single
+ * stand-in server. Pub/sub messages are only delivered to the subscribers of the same node.
+ */
+public class StandInCluster implements Closeable {
+
+  private static final int SLOTS = Protocol.CLUSTER_HASHSLOTS;
+
+  private final List<StandInServer> nodes = new ArrayList<>();
+  private final ScheduledExecutorService scheduler;
+
+  // guarded by the lock of the nodes
+  private final int[] owners = new int[SLOTS];
+  private final int[] importers = new int[SLOTS];
+  private final Map<Integer, Set<Keyspace.Key>> migratedKeys = new HashMap<>();
+
+  private volatile boolean down = false;
+
+  private final AtomicLong moved = new AtomicLong();
+  private final AtomicLong asks = new AtomicLong();
+  private final AtomicLong tryAgains = new AtomicLong();
+  private final AtomicLong clusterDowns = new AtomicLong();
+  private final AtomicLong topologyRequests = new AtomicLong();
+
+  /**
+   * Creates the nodes, which own equal ranges of the slots.
+   */
+  public StandInCluster(int nodeCount) throws IOException {
+    if (nodeCount < 1) {
+      throw new IllegalArgumentException("A cluster needs at least one node.");
+    }
+    StandInServer first = new StandInServer();
+    nodes.add(first);
+    for (int i = 1; i < nodeCount; i++) {
+      nodes.add(new StandInServer(first));
+    }
+
+    Router router = new Router();
+    for (StandInServer node : nodes) {
+      node.setRouter(router);
+      node.register(new StandInCommands.Spec("CLUSTER", -2, this::cluster));
+      node.register(new StandInCommands.Spec("ASKING", 1, (c, a) -> {
+        c.setAsking(true);
+        return "OK";
+      }));
+      node.register(new StandInCommands.Spec("READONLY", 1, (c, a) -> "OK"));
+      node.register(new StandInCommands.Spec("READWRITE", 1, (c, a) -> "OK"));
+    }
+
+    Arrays.fill(importers, -1);
+    for (int slot = 0; slot < SLOTS; slot++) {
+      owners[slot] = (int) ((long) slot * nodeCount / SLOTS);
+    }
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "standin-cluster-timeline");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public StandInCluster start() {
+    nodes.forEach(StandInServer::start);
+    return this;
+  }
+
+  public List<HostAndPort> getNodes() {
+    List<HostAndPort> addresses = new ArrayList<>(nodes.size());
+    for (StandInServer node : nodes) {
+      addresses.add(node.getHostAndPort());
+    }
+    return addresses;
+  }
+
+  public StandInServer getNode(int index) {
+    return nodes.get(index);
+  }
+
+  /**
+   * @return the index of the node which owns the slot
+   */
+  public int getOwner(int slot) {
+    synchronized (lock()) {
+      return owners[slot];
+    }
+  }
+
+  // scripting
+
+  /**
+   * Starts to migrate the slots to the target node. Until their keys are migrated, the current owner
+   * replies with ASK for the keys it doesn't have, and with TRYAGAIN for commands whose keys are only
+   * partly migrated.
+   */
+  public void beginMigration(int fromSlot, int toSlot, int target) {
+    synchronized (lock()) {
+      for (int slot = fromSlot; slot <= toSlot; slot++) {
+        if (owners[slot] != target) {
+          importers[slot] = target;
+        }
+      }
+    }
+  }
+
+  /**
+   * Migrates a fraction of the keys, which are not migrated yet, of each migrating slot in the range.
+   * @return the number of keys which have been migrated
+   */
+  public int migrateKeys(int fromSlot, int toSlot, double fraction) {
+    synchronized (lock()) {
+      Map<Integer, List<Keyspace.Key>> pending = new HashMap<>();
+      for (byte[] key : nodes.get(0).database(0).keys(SafeEncoder.encode("*"))) {
+        int slot = JedisClusterCRC16.getSlot(key);
+        if (slot >= fromSlot && slot <= toSlot && importers[slot] >= 0) {
+          Keyspace.Key k = new Keyspace.Key(key);
+          if (!migrated(slot).contains(k)) {
+            pending.computeIfAbsent(slot, s -> new ArrayList<>()).add(k);
+          }
+        }
+      }
+      int count = 0;
+      for (Map.Entry<Integer, List<Keyspace.Key>> entry : pending.entrySet()) {
+        List<Keyspace.Key> keys = entry.getValue();
+        int n = (int) Math.ceil(keys.size() * Math.min(fraction, 1.0));
+        migrated(entry.getKey()).addAll(keys.subList(0, n));
+        count += n;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Makes the target nodes the owners of the migrating slots, so that the former owners reply with
+   * MOVED.
+   */
+  public void finishMigration(int fromSlot, int toSlot) {
+    synchronized (lock()) {
+      for (int slot = fromSlot; slot <= toSlot; slot++) {
+        if (importers[slot] >= 0) {
+          owners[slot] = importers[slot];
+          importers[slot] = -1;
+          migratedKeys.remove(slot);
+        }
+      }
+    }
+  }
+
+  /**
+   * Assigns the slots at once, e.g. as after a failover.
+   */
+  public void assign(int fromSlot, int toSlot, int node) {
+    synchronized (lock()) {
+      for (int slot = fromSlot; slot <= toSlot; slot++) {
+        owners[slot] = node;
+        importers[slot] = -1;
+        migratedKeys.remove(slot);
+      }
+    }
+  }
+
+  /**
+   * While the cluster is down, all commands with keys are replied with CLUSTERDOWN.
+   */
+  public void setDown(boolean down) {
+    this.down = down;
+  }
+
+  public Timeline timeline() {
+    return new Timeline();
+  }
+
+  /**
+   * Migrates the slots to the target node within the duration: the migration begins at once, the keys
+   * are migrated in ten steps, and the migration is finished at the end.
+   */
+  public CompletableFuture<Void> reshard(int fromSlot, int toSlot, int target, long duration,
+      TimeUnit unit) {
+    final int steps = 10;
+    long step = unit.toNanos(duration) / (steps + 1);
+    Timeline timeline = timeline().then(0, TimeUnit.NANOSECONDS,
+        c -> c.beginMigration(fromSlot, toSlot, target));
+    for (int i = 0; i < steps; i++) {
+      final double fraction = 1.0 / (steps - i);
+      timeline.then(step, TimeUnit.NANOSECONDS, c -> c.migrateKeys(fromSlot, toSlot, fraction));
+    }
+    return timeline.then(step, TimeUnit.NANOSECONDS, c -> c.finishMigration(fromSlot, toSlot)).run();
+  }
+
+  /**
+   * Steps which are run one after another, each after its delay.
+   */
+  public final class Timeline {
+
+    private final List<Long> delays = new ArrayList<>();
+    private final List<Consumer<StandInCluster>> steps = new ArrayList<>();
+
+    private Timeline() {
+    }
+
+    /**
+     * Adds a step, which runs the delay after the previous one.
+     */
+    public Timeline then(long delay, TimeUnit unit, Consumer<StandInCluster> step) {
+      delays.add(unit.toNanos(delay));
+      steps.add(step);
+      return this;
+    }
+
+    /**
+     * @return completed after the last step
+     */
+    public CompletableFuture<Void> run() {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      schedule(0, done);
+      return done;
+    }
+
+    private void schedule(int index, CompletableFuture<Void> done) {
+      if (index == steps.size()) {
+        done.complete(null);
+        return;
+      }
+      scheduler.schedule(() -> {
+        try {
+          steps.get(index).accept(StandInCluster.this);
+        } catch (RuntimeException e) {
+          done.completeExceptionally(e);
+          return;
+        }
+        schedule(index + 1, done);
+      }, delays.get(index), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // statistics
+
+  public long getMovedCount() {
+    return moved.get();
+  }
+
+  public long getAskCount() {
+    return asks.get();
+  }
+
+  public long getTryAgainCount() {
+    return tryAgains.get();
+  }
+
+  public long getClusterDownCount() {
+    return clusterDowns.get();
+  }
+
+  /**
+   * @return the number of CLUSTER SLOTS, SHARDS and NODES commands, i.e. of topology refreshes
+   */
+  public long getTopologyRequestCount() {
+    return topologyRequests.get();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    nodes.forEach(StandInServer::close);
+  }
+
+  private Object lock() {
+    return nodes.get(0).lock();
+  }
+
+  private Set<Keyspace.Key> migrated(int slot) {
+    return migratedKeys.computeIfAbsent(slot, s -> new HashSet<>());
+  }
+
+  private static String nodeId(int index) {
+    return String.format("%040x", index + 1);
+  }
+
+  private class Router implements StandInServer.Router {
+
+    @Override
+    public StandInCommands.ErrorReply route(StandInServer node, StandInClient client,
+        StandInCommands.Spec spec, byte[][] args) {
+      List<byte[]> keys = spec.keys(args);
+      if (keys.isEmpty()) {
+        return null;
+      }
+      if (down) {
+        clusterDowns.incrementAndGet();
+        return new StandInCommands.ErrorReply("CLUSTERDOWN The cluster is down");
+      }
+
+      int slot = JedisClusterCRC16.getSlot(keys.get(0));
+      for (int i = 1; i < keys.size(); i++) {
+        if (JedisClusterCRC16.getSlot(keys.get(i)) != slot) {
+          return new StandInCommands.ErrorReply(
+              "CROSSSLOT Keys in request don't hash to the same slot");
+        }
+      }
+
+      int self = nodes.indexOf(node);
+      int owner = owners[slot];
+      int importer = importers[slot];
+      if (self == owner) {
+        if (importer < 0) {
+          return null;
+        }
+        int present = 0;
+        Set<Keyspace.Key> migrated = migrated(slot);
+        for (byte[] key : keys) {
+          if (client.keyspace().exists(key) && !migrated.contains(new Keyspace.Key(key))) {
+            present++;
+          }
+        }
+        if (present == keys.size()) {
+          return null;
+        }
+        if (present == 0) {
+          asks.incrementAndGet();
+          return new StandInCommands.ErrorReply("ASK " + slot + " " + nodes.get(importer).getHostAndPort());
+        }
+        tryAgains.incrementAndGet();
+        return new StandInCommands.ErrorReply(
+            "TRYAGAIN Multiple keys request during rehashing of slot");
+      }
+      if (self == importer && client.isAsking()) {
+        return null;
+      }
+      moved.incrementAndGet();
+      return new StandInCommands.ErrorReply("MOVED " + slot + " " + nodes.get(owner).getHostAndPort());
+    }
+
+    @Override
+    public void executed(StandInServer node, StandInClient client, StandInCommands.Spec spec,
+        byte[][] args) {
+      if (!spec.write) {
+        return;
+      }
+      // keys written on the importing node live there from now on
+      for (byte[] key : spec.keys(args)) {
+        int slot = JedisClusterCRC16.getSlot(key);
+        if (importers[slot] == nodes.indexOf(node)) {
+          migrated(slot).add(new Keyspace.Key(key));
+        }
+      }
+    }
+  }
+
+  // CLUSTER command
+
+  private Object cluster(StandInClient client, byte[][] args) {
+    String subcommand = new String(args[1]).toUpperCase(Locale.ROOT);
+    int self = nodes.indexOf(client.server());
+    switch (subcommand) {
+      case "SLOTS":
+        topologyRequests.incrementAndGet();
+        return slots();
+      case "SHARDS":
+        topologyRequests.incrementAndGet();
+        return shards();
+      case "NODES":
+        topologyRequests.incrementAndGet();
+        return SafeEncoder.encode(clusterNodes(self));
+      case "MYID":
+        return SafeEncoder.encode(nodeId(self));
+      case "KEYSLOT":
+        return (long) JedisClusterCRC16.getSlot(args[2]);
+      case "INFO":
+        return SafeEncoder.encode("cluster_enabled:1\r\ncluster_state:" + (down ? "fail" : "ok")
+            + "\r\ncluster_slots_assigned:" + SLOTS + "\r\ncluster_known_nodes:" + nodes.size()
+            + "\r\ncluster_size:" + nodes.size() + "\r\n");
+      default:
+        throw new StandInCommands.ErrorReply("ERR unknown subcommand '" + subcommand.toLowerCase(Locale.ROOT)
+            + "'. Try CLUSTER HELP.");
+    }
+  }
+
+  /**
+   * @return the ranges of slots, each as {@code [first, last, owner]}
+   */
+  private List<int[]> ranges() {
+    List<int[]> ranges = new ArrayList<>();
+    int start = 0;
+    for (int slot = 1; slot <= SLOTS; slot++) {
+      if (slot == SLOTS || owners[slot] != owners[start]) {
+        ranges.add(new int[] { start, slot - 1, owners[start] });
+        start = slot;
+      }
+    }
+    return ranges;
+  }
+
+  private List<Object> slots() {
+    List<Object> slots = new ArrayList<>();
+    for (int[] range : ranges()) {
+      HostAndPort owner = nodes.get(range[2]).getHostAndPort();
+      slots.add(Arrays.asList((long) range[0], (long) range[1], Arrays.asList(
+          SafeEncoder.encode(owner.getHost()), (long) owner.getPort(), SafeEncoder.encode(nodeId(range[2])))));
+    }
+    return slots;
+  }
+
+  private List<Object> shards() {
+    Map<Integer, List<Long>> slotsOfNodes = new LinkedHashMap<>();
+    for (int i = 0; i < nodes.size(); i++) {
+      slotsOfNodes.put(i, new ArrayList<>());
+    }
+    for (int[] range : ranges()) {
+      slotsOfNodes.get(range[2]).addAll(Arrays.asList((long) range[0], (long) range[1]));
+    }
+    List<Object> shards = new ArrayList<>();
+    for (Map.Entry<Integer, List<Long>> entry : slotsOfNodes.entrySet()) {
+      HostAndPort address = nodes.get(entry.getKey()).getHostAndPort();
+      Map<Object, Object> node = new LinkedHashMap<>();
+      node.put(SafeEncoder.encode("id"), SafeEncoder.encode(nodeId(entry.getKey())));
+      node.put(SafeEncoder.encode("port"), (long) address.getPort());
+      node.put(SafeEncoder.encode("ip"), SafeEncoder.encode(address.getHost()));
+      node.put(SafeEncoder.encode("endpoint"), SafeEncoder.encode(address.getHost()));
+      node.put(SafeEncoder.encode("role"), SafeEncoder.encode("master"));
+      node.put(SafeEncoder.encode("replication-offset"), 0L);
+      node.put(SafeEncoder.encode("health"), SafeEncoder.encode("online"));
+
+      Map<Object, Object> shard = new LinkedHashMap<>();
+      shard.put(SafeEncoder.encode("slots"), entry.getValue());
+      shard.put(SafeEncoder.encode("nodes"), Collections.singletonList(node));
+      shards.add(shard);
+    }
+    return shards;
+  }
+
+  private String clusterNodes(int self) {
+    StringBuilder lines = new StringBuilder();
+    List<int[]> ranges = ranges();
+    for (int i = 0; i < nodes.size(); i++) {
+      HostAndPort address = nodes.get(i).getHostAndPort();
+      lines.append(nodeId(i)).append(' ').append(address).append('@').append(address.getPort() + 10000)
+          .append(i == self ? " myself,master" : " master").append(" - 0 0 ").append(i + 1)
+          .append(" connected");
+      for (int[] range : ranges) {
+        if (range[2] == i) {
+          lines.append(' ').append(range[0]);
+          if (range[1] != range[0]) {
+            lines.append('-').append(range[1]);
+          }
+        }
+      }
+      for (int slot = 0; slot < SLOTS; slot++) {
+        if (importers[slot] >= 0 && (owners[slot] == i || importers[slot] == i)) {
+          boolean migrating = owners[slot] == i;
+          lines.append(" [").append(slot).append(migrating ? "->-" : "-<-")
+              .append(nodeId(migrating ? importers[slot] : owners[slot])).append(']');
+        }
+      }
+      lines.append('\n');
+    }
+    return lines.toString();
+  }
+}
@@ -0,0 +1,260 @@
+package io.valkey.mocked.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.valkey.ClusterPipeline;
+import io.valkey.CommandObjects;
+import io.valkey.Connection;
+import io.valkey.HostAndPort;
+import io.valkey.Jedis;
+import io.valkey.JedisCluster;
+import io.valkey.Response;
+import io.valkey.exceptions.JedisAskDataException;
+import io.valkey.exceptions.JedisClusterException;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.exceptions.JedisMovedDataException;
+import io.valkey.util.JedisClusterCRC16;
+
+public class StandInClusterTest {
+
+  private StandInCluster cluster;
+
+  @Before
+  public void setUp() throws Exception {
+    cluster = new StandInCluster(3).start();
+  }
+
+  @After
+  public void tearDown() {
+    cluster.close();
+  }
+
+  private JedisCluster client() {
+    return new JedisCluster(new HashSet<>(cluster.getNodes()));
+  }
+
+  @Test
+  public void clientRoutesBySlots() {
+    try (JedisCluster jedis = client()) {
+      assertEquals(3, jedis.getClusterNodes().size());
+      for (int i = 0; i < 300; i++) {
+        jedis.set("key:" + i, "value:" + i);
+      }
+      for (int i = 0; i < 300; i++) {
+        assertEquals("value:" + i, jedis.get("key:" + i));
+      }
+    }
+    assertEquals(0, cluster.getMovedCount());
+    assertEquals(0, cluster.getAskCount());
+  }
+
+  @Test
+  public void wrongNodeRepliesWithMoved() {
+    int slot = JedisClusterCRC16.getSlot("foo");
+    int owner = cluster.getOwner(slot);
+    HostAndPort other = cluster.getNodes().get((owner + 1) % 3);
+    try (Jedis jedis = new Jedis(other)) {
+      jedis.get("foo");
+      fail();
+    } catch (JedisMovedDataException e) {
+      assertEquals(slot, e.getSlot());
+      assertEquals(cluster.getNodes().get(owner), e.getTargetNode());
+    }
+  }
+
+  @Test
+  public void migratingSlotRepliesWithAskForMigratedKeys() {
+    int slot = JedisClusterCRC16.getSlot("foo");
+    int owner = cluster.getOwner(slot);
+    int target = (owner + 1) % 3;
+    try (Jedis jedis = new Jedis(cluster.getNodes().get(owner))) {
+      jedis.set("foo", "bar");
+      cluster.beginMigration(slot, slot, target);
+      assertEquals("bar", jedis.get("foo"));
+
+      assertEquals(1, cluster.migrateKeys(slot, slot, 1.0));
+      try {
+        jedis.get("foo");
+        fail();
+      } catch (JedisAskDataException e) {
+        assertEquals(cluster.getNodes().get(target), e.getTargetNode());
+      }
+    }
+    try (Jedis jedis = new Jedis(cluster.getNodes().get(target))) {
+      try {
+        jedis.get("foo");
+        fail();
+      } catch (JedisMovedDataException e) {
+        assertEquals(cluster.getNodes().get(owner), e.getTargetNode());
+      }
+      jedis.asking();
+      assertEquals("bar", jedis.get("foo"));
+    }
+  }
+
+  @Test
+  public void askingIsSentWithTheCommand() throws IOException {
+    CommandObjects commandObjects = new CommandObjects();
+    int slot = JedisClusterCRC16.getSlot("foo");
+    int target = (cluster.getOwner(slot) + 1) % 3;
+    try (Connection connection = new Connection(cluster.getNodes().get(target))) {
+      connection.executeCommand(commandObjects.set("foo", "bar"));
+      fail();
+    } catch (JedisMovedDataException e) {
+      // not importing yet
+    }
+
+    cluster.beginMigration(slot, slot, target);
+    try (Connection connection = new Connection(cluster.getNodes().get(target))) {
+      assertEquals("OK", connection.executeAskingCommand(commandObjects.set("foo", "bar")));
+      assertEquals("bar", connection.executeAskingCommand(commandObjects.get("foo")));
+    }
+
+    // a failing ASKING leaves the connection usable
+    try (StandInServer server = new StandInServer().start();
+        Connection connection = new Connection(server.getHostAndPort())) {
+      try {
+        connection.executeAskingCommand(commandObjects.get("foo"));
+        fail();
+      } catch (JedisDataException e) {
+        assertTrue(e.getMessage().startsWith("ERR unknown command"));
+      }
+      assertEquals("OK", connection.executeCommand(commandObjects.set("foo", "baz")));
+    }
+  }
+
+  @Test
+  public void clientFollowsAskAndMoved() throws InterruptedException {
+    int slot = JedisClusterCRC16.getSlot("foo");
+    int owner = cluster.getOwner(slot);
+    int target = (owner + 1) % 3;
+    try (JedisCluster jedis = client()) {
+      jedis.set("foo", "bar");
+      jedis.set("{foo}2", "bar2");
+      long refreshes = cluster.getTopologyRequestCount();
+
+      cluster.beginMigration(slot, slot, target);
+      cluster.migrateKeys(slot, slot, 1.0);
+      assertEquals("bar", jedis.get("foo"));
+      assertEquals(1, cluster.getAskCount());
+      // the target of the migrated key is remembered
+      assertEquals("bar", jedis.get("foo"));
+      assertEquals(1, cluster.getAskCount());
+
+      cluster.finishMigration(slot, slot);
+      assertEquals("bar2", jedis.get("{foo}2"));
+      assertEquals(1, cluster.getMovedCount());
+      // the slots are renewed in the background
+      long deadline = System.currentTimeMillis() + 5000;
+      while (cluster.getTopologyRequestCount() == refreshes && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertTrue(cluster.getTopologyRequestCount() > refreshes);
+
+      assertEquals("bar", jedis.get("foo"));
+      assertEquals(1, cluster.getMovedCount());
+    }
+  }
+
+  @Test
+  public void scriptedReshardWhileClientRuns() throws Exception {
+    try (JedisCluster jedis = client()) {
+      for (int i = 0; i < 1000; i++) {
+        jedis.set("key:" + i, "value:" + i);
+      }
+
+      CompletableFuture<Void> reshard = cluster.reshard(0, 5460, 1, 300, TimeUnit.MILLISECONDS);
+      int round = 0;
+      while (!reshard.isDone()) {
+        int i = round++ % 1000;
+        assertEquals("value:" + i, jedis.get("key:" + i));
+        jedis.set("key:" + i, "value:" + i);
+      }
+      reshard.get();
+
+      assertEquals(1, cluster.getOwner(0));
+      assertEquals(1, cluster.getOwner(5460));
+      for (int i = 0; i < 1000; i++) {
+        assertEquals("value:" + i, jedis.get("key:" + i));
+      }
+    }
+    assertTrue(cluster.getAskCount() > 0);
+  }
+
+  @Test
+  public void pipelineAfterReshard() {
+    try (JedisCluster jedis = client()) {
+      for (int i = 0; i < 100; i++) {
+        jedis.set("key:" + i, "value:" + i);
+      }
+      cluster.assign(0, 16383, 2);
+      // the client learns the new slots from the first MOVED
+      assertEquals("value:0", jedis.get("key:0"));
+
+      try (ClusterPipeline pipeline = jedis.pipelined()) {
+        Response<String> response = pipeline.get("key:1");
+        pipeline.sync();
+        assertEquals("value:1", response.get());
+      }
+    }
+  }
+
+  @Test
+  public void broadcastRunsOnAllNodes() {
+    try (JedisCluster jedis = client()) {
+      jedis.set("foo", "bar");
+      long[] before = new long[3];
+      for (int i = 0; i < 3; i++) {
+        before[i] = cluster.getNode(i).getCommandCount();
+      }
+
+      assertEquals("OK", jedis.flushAll());
+      for (int i = 0; i < 3; i++) {
+        assertTrue(cluster.getNode(i).getCommandCount() > before[i]);
+      }
+      assertNull(jedis.get("foo"));
+    }
+  }
+
+  @Test
+  public void clusterDownAndTryAgain() {
+    try (JedisCluster jedis = client()) {
+      jedis.set("{tag}a", "1");
+      jedis.set("{tag}b", "2");
+
+      int slot = JedisClusterCRC16.getSlot("{tag}a");
+      cluster.beginMigration(slot, slot, (cluster.getOwner(slot) + 1) % 3);
+      try (Jedis node = new Jedis(cluster.getNodes().get(cluster.getOwner(slot)))) {
+        // migrate one of the two keys only
+        cluster.migrateKeys(slot, slot, 0.5);
+        node.mget("{tag}a", "{tag}b");
+        fail();
+      } catch (JedisDataException e) {
+        assertTrue(e.getMessage().startsWith("TRYAGAIN"));
+      }
+      assertEquals(1, cluster.getTryAgainCount());
+
+      cluster.setDown(true);
+      try {
+        jedis.get("foo");
+        fail();
+      } catch (JedisClusterException e) {
+        assertTrue(e.getMessage().startsWith("CLUSTERDOWN"));
+      }
+      cluster.setDown(false);
+      assertNull(jedis.get("foo"));
+    }
+  }
+}
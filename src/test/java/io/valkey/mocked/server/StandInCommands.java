@@ -0,0 +1,927 @@
+package io.valkey.mocked.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import io.valkey.util.SafeEncoder;
+
+/**
+ * The commands of a {@link StandInServer}. Each command has a {@link Spec} with its arity and key
+ * positions, as listed by the COMMAND command of a real server, so that the keys of a command can be
+ * tracked, invalidated or mapped to a slot.
+ */
+final class StandInCommands {
+
+  /**
+   * Returned by commands which have written their replies as push messages.
+   */
+  static final Object NO_REPLY = new Object();
+
+  private static final String OK = "OK";
+  private static final ErrorReply WRONG_TYPE = new ErrorReply(
+      "WRONGTYPE Operation against a key holding the wrong kind of value");
+  private static final ErrorReply NOT_AN_INTEGER = new ErrorReply(
+      "ERR value is not an integer or out of range");
+  private static final ErrorReply NOT_A_FLOAT = new ErrorReply("ERR value is not a valid float");
+  private static final ErrorReply SYNTAX_ERROR = new ErrorReply("ERR syntax error");
+
+  private static final byte[] SUBSCRIBE = bulk("subscribe");
+  private static final byte[] UNSUBSCRIBE = bulk("unsubscribe");
+  private static final byte[] PSUBSCRIBE = bulk("psubscribe");
+  private static final byte[] PUNSUBSCRIBE = bulk("punsubscribe");
+  private static final byte[] PONG = bulk("pong");
+
+  interface Handler {
+    Object execute(StandInClient client, byte[][] args);
+  }
+
+  /**
+   * An error reply. It can be returned or thrown by the commands.
+   */
+  static final class ErrorReply extends RuntimeException {
+
+    ErrorReply(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+  static final class Spec {
+
+    final String name;
+    final Handler handler;
+    private final int arity;
+    private int firstKey = 0;
+    private int lastKey = 0;
+    private int step = 0;
+    boolean write = false;
+    boolean pubsub = false;
+
+    /**
+     * @param arity the number of arguments including the name, or its negative for a minimum
+     */
+    Spec(String name, int arity, Handler handler) {
+      this.name = name;
+      this.arity = arity;
+      this.handler = handler;
+    }
+
+    /**
+     * @param lastKey the last key position, or a negative offset from the end of the arguments
+     */
+    Spec keys(int firstKey, int lastKey, int step) {
+      this.firstKey = firstKey;
+      this.lastKey = lastKey;
+      this.step = step;
+      return this;
+    }
+
+    Spec write() {
+      this.write = true;
+      return this;
+    }
+
+    Spec pubsub() {
+      this.pubsub = true;
+      return this;
+    }
+
+    boolean accepts(int argc) {
+      return arity >= 0 ? argc == arity : argc >= -arity;
+    }
+
+    List<byte[]> keys(byte[][] args) {
+      if (step == 0) {
+        return Collections.emptyList();
+      }
+      int last = lastKey < 0 ? args.length + lastKey : Math.min(lastKey, args.length - 1);
+      List<byte[]> keys = new ArrayList<>();
+      for (int i = firstKey; i <= last; i += step) {
+        keys.add(args[i]);
+      }
+      return keys;
+    }
+  }
+
+  private StandInCommands() {
+  }
+
+  static ErrorReply unknownCommand(byte[][] args) {
+    StringBuilder message = new StringBuilder("ERR unknown command '")
+        .append(SafeEncoder.encode(args[0])).append("', with args beginning with: ");
+    for (int i = 1; i < args.length; i++) {
+      message.append('\'').append(SafeEncoder.encode(args[i])).append("' ");
+    }
+    return new ErrorReply(message.toString());
+  }
+
+  static String formatDouble(double value) {
+    if (Double.isInfinite(value)) {
+      return value > 0 ? "inf" : "-inf";
+    }
+    if (value == Math.rint(value) && Math.abs(value) < 1e17) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  static void register(StandInServer server) {
+    // connection
+    server.register(new Spec("PING", -1, StandInCommands::ping).pubsub());
+    server.register(new Spec("ECHO", 2, (c, a) -> a[1]));
+    server.register(new Spec("QUIT", 1, (c, a) -> {
+      c.closeAfterReply();
+      return OK;
+    }).pubsub());
+    server.register(new Spec("AUTH", -2, (c, a) -> OK));
+    server.register(new Spec("HELLO", -1, StandInCommands::hello));
+    server.register(new Spec("SELECT", 2, StandInCommands::select));
+    server.register(new Spec("CLIENT", -2, StandInCommands::client));
+
+    // keys
+    server.register(new Spec("DEL", -2, StandInCommands::del).keys(1, -1, 1).write());
+    server.register(new Spec("UNLINK", -2, StandInCommands::del).keys(1, -1, 1).write());
+    server.register(new Spec("EXISTS", -2, StandInCommands::exists).keys(1, -1, 1));
+    server.register(new Spec("TYPE", 2, StandInCommands::type).keys(1, 1, 1));
+    server.register(new Spec("EXPIRE", 3, (c, a) -> expire(c, a, TimeUnit.SECONDS)).keys(1, 1, 1).write());
+    server.register(new Spec("PEXPIRE", 3, (c, a) -> expire(c, a, TimeUnit.MILLISECONDS)).keys(1, 1, 1).write());
+    server.register(new Spec("TTL", 2, (c, a) -> ttl(c, a, TimeUnit.SECONDS)).keys(1, 1, 1));
+    server.register(new Spec("PTTL", 2, (c, a) -> ttl(c, a, TimeUnit.MILLISECONDS)).keys(1, 1, 1));
+    server.register(new Spec("PERSIST", 2, (c, a) -> c.keyspace().persist(a[1]) ? 1L : 0L).keys(1, 1, 1).write());
+    server.register(new Spec("KEYS", 2, (c, a) -> c.keyspace().keys(a[1])));
+    server.register(new Spec("DBSIZE", 1, (c, a) -> (long) c.keyspace().size()));
+    server.register(new Spec("FLUSHDB", -1, StandInCommands::flushdb).write());
+    server.register(new Spec("FLUSHALL", -1, StandInCommands::flushall).write());
+
+    // strings
+    server.register(new Spec("GET", 2, (c, a) -> string(c, a[1])).keys(1, 1, 1));
+    server.register(new Spec("SET", -3, StandInCommands::set).keys(1, 1, 1).write());
+    server.register(new Spec("GETDEL", 2, StandInCommands::getdel).keys(1, 1, 1).write());
+    server.register(new Spec("MGET", -2, StandInCommands::mget).keys(1, -1, 1));
+    server.register(new Spec("MSET", -3, StandInCommands::mset).keys(1, -1, 2).write());
+    server.register(new Spec("INCR", 2, (c, a) -> incrBy(c, a[1], 1)).keys(1, 1, 1).write());
+    server.register(new Spec("DECR", 2, (c, a) -> incrBy(c, a[1], -1)).keys(1, 1, 1).write());
+    server.register(new Spec("INCRBY", 3, (c, a) -> incrBy(c, a[1], parseLong(a[2]))).keys(1, 1, 1).write());
+    server.register(new Spec("DECRBY", 3, (c, a) -> incrBy(c, a[1], -parseLong(a[2]))).keys(1, 1, 1).write());
+    server.register(new Spec("APPEND", 3, StandInCommands::append).keys(1, 1, 1).write());
+    server.register(new Spec("STRLEN", 2, (c, a) -> {
+      byte[] value = string(c, a[1]);
+      return value == null ? 0L : (long) value.length;
+    }).keys(1, 1, 1));
+
+    // hashes
+    server.register(new Spec("HSET", -4, StandInCommands::hset).keys(1, 1, 1).write());
+    server.register(new Spec("HMSET", -4, (c, a) -> {
+      hset(c, a);
+      return OK;
+    }).keys(1, 1, 1).write());
+    server.register(new Spec("HGET", 3, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash == null ? null : hash.get(new Keyspace.Key(a[2]));
+    }).keys(1, 1, 1));
+    server.register(new Spec("HMGET", -3, StandInCommands::hmget).keys(1, 1, 1));
+    server.register(new Spec("HGETALL", 2, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash == null ? Collections.emptyMap() : hash;
+    }).keys(1, 1, 1));
+    server.register(new Spec("HKEYS", 2, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash == null ? Collections.emptyList() : new ArrayList<>(hash.keySet());
+    }).keys(1, 1, 1));
+    server.register(new Spec("HVALS", 2, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash == null ? Collections.emptyList() : new ArrayList<>(hash.values());
+    }).keys(1, 1, 1));
+    server.register(new Spec("HLEN", 2, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash == null ? 0L : (long) hash.size();
+    }).keys(1, 1, 1));
+    server.register(new Spec("HEXISTS", 3, (c, a) -> {
+      Map<Keyspace.Key, byte[]> hash = hash(c, a[1], false);
+      return hash != null && hash.containsKey(new Keyspace.Key(a[2])) ? 1L : 0L;
+    }).keys(1, 1, 1));
+    server.register(new Spec("HDEL", -3, StandInCommands::hdel).keys(1, 1, 1).write());
+    server.register(new Spec("HINCRBY", 4, StandInCommands::hincrBy).keys(1, 1, 1).write());
+
+    // lists
+    server.register(new Spec("LPUSH", -3, (c, a) -> push(c, a, true)).keys(1, 1, 1).write());
+    server.register(new Spec("RPUSH", -3, (c, a) -> push(c, a, false)).keys(1, 1, 1).write());
+    server.register(new Spec("LPOP", -2, (c, a) -> pop(c, a, true)).keys(1, 1, 1).write());
+    server.register(new Spec("RPOP", -2, (c, a) -> pop(c, a, false)).keys(1, 1, 1).write());
+    server.register(new Spec("LLEN", 2, (c, a) -> {
+      Deque<byte[]> list = list(c, a[1], false);
+      return list == null ? 0L : (long) list.size();
+    }).keys(1, 1, 1));
+    server.register(new Spec("LRANGE", 4, StandInCommands::lrange).keys(1, 1, 1));
+    server.register(new Spec("LINDEX", 3, StandInCommands::lindex).keys(1, 1, 1));
+
+    // sorted sets
+    server.register(new Spec("ZADD", -4, StandInCommands::zadd).keys(1, 1, 1).write());
+    server.register(new Spec("ZINCRBY", 4, StandInCommands::zincrBy).keys(1, 1, 1).write());
+    server.register(new Spec("ZREM", -3, StandInCommands::zrem).keys(1, 1, 1).write());
+    server.register(new Spec("ZSCORE", 3, (c, a) -> {
+      SortedSet zset = zset(c, a[1], false);
+      return zset == null ? null : zset.scores.get(new Keyspace.Key(a[2]));
+    }).keys(1, 1, 1));
+    server.register(new Spec("ZCARD", 2, (c, a) -> {
+      SortedSet zset = zset(c, a[1], false);
+      return zset == null ? 0L : (long) zset.scores.size();
+    }).keys(1, 1, 1));
+    server.register(new Spec("ZRANK", 3, StandInCommands::zrank).keys(1, 1, 1));
+    server.register(new Spec("ZRANGE", -4, StandInCommands::zrange).keys(1, 1, 1));
+
+    // pub/sub
+    server.register(new Spec("SUBSCRIBE", -2, (c, a) -> subscribe(c, a, false)).pubsub());
+    server.register(new Spec("PSUBSCRIBE", -2, (c, a) -> subscribe(c, a, true)).pubsub());
+    server.register(new Spec("UNSUBSCRIBE", -1, (c, a) -> unsubscribe(c, a, false)).pubsub());
+    server.register(new Spec("PUNSUBSCRIBE", -1, (c, a) -> unsubscribe(c, a, true)).pubsub());
+    server.register(new Spec("PUBLISH", 3, (c, a) -> c.server().publish(a[1], a[2])));
+  }
+
+  // connection
+
+  private static Object ping(StandInClient client, byte[][] args) {
+    if (args.length > 2) {
+      throw new ErrorReply("ERR wrong number of arguments for 'ping' command");
+    }
+    if (client.getProtocol() == 2 && client.isSubscribed()) {
+      client.push(Arrays.asList(PONG, args.length > 1 ? args[1] : new byte[0]));
+      return NO_REPLY;
+    }
+    return args.length > 1 ? args[1] : "PONG";
+  }
+
+  private static Object hello(StandInClient client, byte[][] args) {
+    int index = 1;
+    if (args.length > 1) {
+      long protocol = parseLong(args[index++]);
+      if (protocol != 2 && protocol != 3) {
+        throw new ErrorReply("NOPROTO unsupported protocol version");
+      }
+      while (index < args.length) {
+        String option = upper(args[index++]);
+        if (option.equals("AUTH") && index + 1 < args.length) {
+          index += 2;
+        } else if (option.equals("SETNAME") && index < args.length) {
+          client.setName(SafeEncoder.encode(args[index++]));
+        } else {
+          throw new ErrorReply("ERR Syntax error in HELLO option '" + option.toLowerCase(Locale.ROOT) + "'");
+        }
+      }
+      client.setProtocol((int) protocol);
+    }
+    Map<Object, Object> info = new LinkedHashMap<>();
+    info.put(bulk("server"), bulk("valkey"));
+    info.put(bulk("version"), bulk("7.2.5"));
+    info.put(bulk("proto"), (long) client.getProtocol());
+    info.put(bulk("id"), client.getId());
+    info.put(bulk("mode"), bulk("standalone"));
+    info.put(bulk("role"), bulk("master"));
+    info.put(bulk("modules"), Collections.emptyList());
+    return info;
+  }
+
+  private static Object select(StandInClient client, byte[][] args) {
+    long index = parseLong(args[1]);
+    if (index < 0 || index >= client.server().databaseCount()) {
+      throw new ErrorReply("ERR DB index is out of range");
+    }
+    client.select((int) index);
+    return OK;
+  }
+
+  private static Object client(StandInClient client, byte[][] args) {
+    String subcommand = upper(args[1]);
+    switch (subcommand) {
+      case "ID":
+        return client.getId();
+      case "GETNAME":
+        return client.getName() == null ? null : bulk(client.getName());
+      case "SETNAME":
+        if (args.length != 3) {
+          throw SYNTAX_ERROR;
+        }
+        client.setName(SafeEncoder.encode(args[2]));
+        return OK;
+      case "SETINFO":
+      case "CAPA":
+        return OK;
+      case "TRACKING":
+        return tracking(client, args);
+      default:
+        throw new ErrorReply("ERR unknown subcommand '" + SafeEncoder.encode(args[1])
+            + "'. Try CLIENT HELP.");
+    }
+  }
+
+  private static Object tracking(StandInClient client, byte[][] args) {
+    if (args.length < 3) {
+      throw SYNTAX_ERROR;
+    }
+    String mode = upper(args[2]);
+    if (!mode.equals("ON") && !mode.equals("OFF")) {
+      throw SYNTAX_ERROR;
+    }
+    boolean broadcasting = false;
+    boolean noLoop = false;
+    long redirect = 0;
+    List<byte[]> prefixes = new ArrayList<>();
+    for (int i = 3; i < args.length; i++) {
+      String option = upper(args[i]);
+      if (option.equals("BCAST")) {
+        broadcasting = true;
+      } else if (option.equals("NOLOOP")) {
+        noLoop = true;
+      } else if (option.equals("PREFIX") && i + 1 < args.length) {
+        prefixes.add(args[++i]);
+      } else if (option.equals("REDIRECT") && i + 1 < args.length) {
+        redirect = parseLong(args[++i]);
+        if (redirect != client.getId() && client.server().client(redirect) == null) {
+          throw new ErrorReply("ERR The client ID you want redirect to does not exist");
+        }
+      } else if (option.equals("OPTIN") || option.equals("OPTOUT")) {
+        throw new ErrorReply("ERR OPTIN and OPTOUT are not supported by the stand-in server");
+      } else {
+        throw SYNTAX_ERROR;
+      }
+    }
+    if (!prefixes.isEmpty() && !broadcasting) {
+      throw new ErrorReply("ERR PREFIX option requires BCAST mode to be enabled");
+    }
+    client.track(mode.equals("ON"), broadcasting, noLoop, redirect, prefixes);
+    return OK;
+  }
+
+  // keys
+
+  private static Object del(StandInClient client, byte[][] args) {
+    long removed = 0;
+    for (int i = 1; i < args.length; i++) {
+      if (client.keyspace().remove(args[i])) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  private static Object exists(StandInClient client, byte[][] args) {
+    long existing = 0;
+    for (int i = 1; i < args.length; i++) {
+      if (client.keyspace().exists(args[i])) {
+        existing++;
+      }
+    }
+    return existing;
+  }
+
+  private static Object type(StandInClient client, byte[][] args) {
+    Object value = client.keyspace().get(args[1]);
+    if (value == null) {
+      return "none";
+    } else if (value instanceof byte[]) {
+      return "string";
+    } else if (value instanceof Map) {
+      return "hash";
+    } else if (value instanceof Deque) {
+      return "list";
+    } else {
+      return "zset";
+    }
+  }
+
+  private static Object expire(StandInClient client, byte[][] args, TimeUnit unit) {
+    long at = System.currentTimeMillis() + unit.toMillis(parseLong(args[2]));
+    return client.keyspace().expireAt(args[1], at) ? 1L : 0L;
+  }
+
+  private static Object ttl(StandInClient client, byte[][] args, TimeUnit unit) {
+    long ttl = client.keyspace().ttl(args[1]);
+    if (ttl < 0 || unit == TimeUnit.MILLISECONDS) {
+      return ttl;
+    }
+    return (ttl + 500) / 1000;
+  }
+
+  private static Object flushdb(StandInClient client, byte[][] args) {
+    client.keyspace().clear();
+    client.server().invalidate(null, client);
+    return OK;
+  }
+
+  private static Object flushall(StandInClient client, byte[][] args) {
+    for (int i = 0; i < client.server().databaseCount(); i++) {
+      client.server().database(i).clear();
+    }
+    client.server().invalidate(null, client);
+    return OK;
+  }
+
+  // strings
+
+  private static byte[] string(StandInClient client, byte[] key) {
+    Object value = client.keyspace().get(key);
+    if (value != null && !(value instanceof byte[])) {
+      throw WRONG_TYPE;
+    }
+    return (byte[]) value;
+  }
+
+  private static Object set(StandInClient client, byte[][] args) {
+    boolean nx = false;
+    boolean xx = false;
+    boolean get = false;
+    boolean keepTtl = false;
+    long expireAt = 0;
+    for (int i = 3; i < args.length; i++) {
+      String option = upper(args[i]);
+      if (option.equals("NX")) {
+        nx = true;
+      } else if (option.equals("XX")) {
+        xx = true;
+      } else if (option.equals("GET")) {
+        get = true;
+      } else if (option.equals("KEEPTTL")) {
+        keepTtl = true;
+      } else if (option.equals("EX") && i + 1 < args.length) {
+        expireAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(parseLong(args[++i]));
+      } else if (option.equals("PX") && i + 1 < args.length) {
+        expireAt = System.currentTimeMillis() + parseLong(args[++i]);
+      } else {
+        throw SYNTAX_ERROR;
+      }
+    }
+    if (nx && xx) {
+      throw SYNTAX_ERROR;
+    }
+
+    Keyspace keyspace = client.keyspace();
+    Object old = keyspace.get(args[1]);
+    if (get && old != null && !(old instanceof byte[])) {
+      throw WRONG_TYPE;
+    }
+    if ((nx && old != null) || (xx && old == null)) {
+      return get ? old : null;
+    }
+    if (keepTtl && old != null) {
+      keyspace.replace(args[1], args[2]);
+    } else {
+      keyspace.set(args[1], args[2]);
+    }
+    if (expireAt != 0) {
+      keyspace.expireAt(args[1], expireAt);
+    }
+    return get ? old : OK;
+  }
+
+  private static Object getdel(StandInClient client, byte[][] args) {
+    byte[] value = string(client, args[1]);
+    if (value != null) {
+      client.keyspace().remove(args[1]);
+    }
+    return value;
+  }
+
+  private static Object mget(StandInClient client, byte[][] args) {
+    List<Object> values = new ArrayList<>(args.length - 1);
+    for (int i = 1; i < args.length; i++) {
+      Object value = client.keyspace().get(args[i]);
+      values.add(value instanceof byte[] ? value : null);
+    }
+    return values;
+  }
+
+  private static Object mset(StandInClient client, byte[][] args) {
+    if (args.length % 2 == 0) {
+      throw new ErrorReply("ERR wrong number of arguments for 'mset' command");
+    }
+    for (int i = 1; i < args.length; i += 2) {
+      client.keyspace().set(args[i], args[i + 1]);
+    }
+    return OK;
+  }
+
+  private static Object incrBy(StandInClient client, byte[] key, long increment) {
+    byte[] value = string(client, key);
+    long result = (value == null ? 0 : parseLong(value)) + increment;
+    client.keyspace().replace(key, bulk(Long.toString(result)));
+    return result;
+  }
+
+  private static Object append(StandInClient client, byte[][] args) {
+    byte[] value = string(client, args[1]);
+    byte[] appended = value == null ? args[2] : concat(value, args[2]);
+    client.keyspace().replace(args[1], appended);
+    return (long) appended.length;
+  }
+
+  // hashes
+
+  @SuppressWarnings("unchecked")
+  private static Map<Keyspace.Key, byte[]> hash(StandInClient client, byte[] key, boolean create) {
+    Object value = client.keyspace().get(key);
+    if (value == null) {
+      if (!create) {
+        return null;
+      }
+      value = new LinkedHashMap<Keyspace.Key, byte[]>();
+      client.keyspace().set(key, value);
+    } else if (!(value instanceof Map)) {
+      throw WRONG_TYPE;
+    }
+    return (Map<Keyspace.Key, byte[]>) value;
+  }
+
+  private static Object hset(StandInClient client, byte[][] args) {
+    if (args.length % 2 != 0) {
+      throw new ErrorReply("ERR wrong number of arguments for '" + lower(args[0]) + "' command");
+    }
+    Map<Keyspace.Key, byte[]> hash = hash(client, args[1], true);
+    long added = 0;
+    for (int i = 2; i < args.length; i += 2) {
+      if (hash.put(new Keyspace.Key(args[i]), args[i + 1]) == null) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  private static Object hmget(StandInClient client, byte[][] args) {
+    Map<Keyspace.Key, byte[]> hash = hash(client, args[1], false);
+    List<Object> values = new ArrayList<>(args.length - 2);
+    for (int i = 2; i < args.length; i++) {
+      values.add(hash == null ? null : hash.get(new Keyspace.Key(args[i])));
+    }
+    return values;
+  }
+
+  private static Object hdel(StandInClient client, byte[][] args) {
+    Map<Keyspace.Key, byte[]> hash = hash(client, args[1], false);
+    if (hash == null) {
+      return 0L;
+    }
+    long removed = 0;
+    for (int i = 2; i < args.length; i++) {
+      if (hash.remove(new Keyspace.Key(args[i])) != null) {
+        removed++;
+      }
+    }
+    if (hash.isEmpty()) {
+      client.keyspace().remove(args[1]);
+    }
+    return removed;
+  }
+
+  private static Object hincrBy(StandInClient client, byte[][] args) {
+    long increment = parseLong(args[3]);
+    Map<Keyspace.Key, byte[]> hash = hash(client, args[1], true);
+    Keyspace.Key field = new Keyspace.Key(args[2]);
+    byte[] value = hash.get(field);
+    long result = (value == null ? 0 : parseLong(value)) + increment;
+    hash.put(field, bulk(Long.toString(result)));
+    return result;
+  }
+
+  // lists
+
+  @SuppressWarnings("unchecked")
+  private static Deque<byte[]> list(StandInClient client, byte[] key, boolean create) {
+    Object value = client.keyspace().get(key);
+    if (value == null) {
+      if (!create) {
+        return null;
+      }
+      value = new ArrayDeque<byte[]>();
+      client.keyspace().set(key, value);
+    } else if (!(value instanceof Deque)) {
+      throw WRONG_TYPE;
+    }
+    return (Deque<byte[]>) value;
+  }
+
+  private static Object push(StandInClient client, byte[][] args, boolean head) {
+    Deque<byte[]> list = list(client, args[1], true);
+    for (int i = 2; i < args.length; i++) {
+      if (head) {
+        list.addFirst(args[i]);
+      } else {
+        list.addLast(args[i]);
+      }
+    }
+    return (long) list.size();
+  }
+
+  private static Object pop(StandInClient client, byte[][] args, boolean head) {
+    if (args.length > 3) {
+      throw SYNTAX_ERROR;
+    }
+    Deque<byte[]> list = list(client, args[1], false);
+    if (list == null) {
+      return null;
+    }
+    Object popped;
+    if (args.length == 3) {
+      long count = parseLong(args[2]);
+      List<byte[]> elements = new ArrayList<>();
+      while (elements.size() < count && !list.isEmpty()) {
+        elements.add(head ? list.pollFirst() : list.pollLast());
+      }
+      popped = elements;
+    } else {
+      popped = head ? list.pollFirst() : list.pollLast();
+    }
+    if (list.isEmpty()) {
+      client.keyspace().remove(args[1]);
+    }
+    return popped;
+  }
+
+  private static Object lrange(StandInClient client, byte[][] args) {
+    Deque<byte[]> list = list(client, args[1], false);
+    if (list == null) {
+      return Collections.emptyList();
+    }
+    int[] range = range(parseLong(args[2]), parseLong(args[3]), list.size());
+    List<byte[]> elements = new ArrayList<>();
+    Iterator<byte[]> it = list.iterator();
+    for (int i = 0; i <= range[1]; i++) {
+      byte[] element = it.next();
+      if (i >= range[0]) {
+        elements.add(element);
+      }
+    }
+    return elements;
+  }
+
+  private static Object lindex(StandInClient client, byte[][] args) {
+    Deque<byte[]> list = list(client, args[1], false);
+    if (list == null) {
+      return null;
+    }
+    long index = parseLong(args[2]);
+    if (index < 0) {
+      index += list.size();
+    }
+    if (index < 0 || index >= list.size()) {
+      return null;
+    }
+    Iterator<byte[]> it = list.iterator();
+    for (int i = 0; i < index; i++) {
+      it.next();
+    }
+    return it.next();
+  }
+
+  // sorted sets
+
+  private static final class SortedSet {
+
+    final Map<Keyspace.Key, Double> scores = new HashMap<>();
+    final TreeSet<Member> ordered = new TreeSet<>();
+
+    /**
+     * @return {@code true} if the member was added
+     */
+    boolean put(Keyspace.Key member, double score) {
+      Double old = scores.put(member, score);
+      if (old != null) {
+        ordered.remove(new Member(member, old));
+      }
+      ordered.add(new Member(member, score));
+      return old == null;
+    }
+
+    boolean remove(Keyspace.Key member) {
+      Double old = scores.remove(member);
+      if (old == null) {
+        return false;
+      }
+      ordered.remove(new Member(member, old));
+      return true;
+    }
+  }
+
+  private static final class Member implements Comparable<Member> {
+
+    final Keyspace.Key member;
+    final double score;
+
+    Member(Keyspace.Key member, double score) {
+      this.member = member;
+      this.score = score;
+    }
+
+    @Override
+    public int compareTo(Member other) {
+      int c = Double.compare(score, other.score);
+      return c != 0 ? c : member.compareTo(other.member);
+    }
+  }
+
+  private static SortedSet zset(StandInClient client, byte[] key, boolean create) {
+    Object value = client.keyspace().get(key);
+    if (value == null) {
+      if (!create) {
+        return null;
+      }
+      value = new SortedSet();
+      client.keyspace().set(key, value);
+    } else if (!(value instanceof SortedSet)) {
+      throw WRONG_TYPE;
+    }
+    return (SortedSet) value;
+  }
+
+  private static Object zadd(StandInClient client, byte[][] args) {
+    if (args.length % 2 != 0) {
+      throw SYNTAX_ERROR;
+    }
+    double[] scores = new double[(args.length - 2) / 2];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = parseDouble(args[2 + 2 * i]);
+    }
+    SortedSet zset = zset(client, args[1], true);
+    long added = 0;
+    for (int i = 0; i < scores.length; i++) {
+      if (zset.put(new Keyspace.Key(args[3 + 2 * i]), scores[i])) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  private static Object zincrBy(StandInClient client, byte[][] args) {
+    double increment = parseDouble(args[2]);
+    SortedSet zset = zset(client, args[1], true);
+    Keyspace.Key member = new Keyspace.Key(args[3]);
+    Double old = zset.scores.get(member);
+    double score = (old == null ? 0 : old) + increment;
+    zset.put(member, score);
+    return score;
+  }
+
+  private static Object zrem(StandInClient client, byte[][] args) {
+    SortedSet zset = zset(client, args[1], false);
+    if (zset == null) {
+      return 0L;
+    }
+    long removed = 0;
+    for (int i = 2; i < args.length; i++) {
+      if (zset.remove(new Keyspace.Key(args[i]))) {
+        removed++;
+      }
+    }
+    if (zset.scores.isEmpty()) {
+      client.keyspace().remove(args[1]);
+    }
+    return removed;
+  }
+
+  private static Object zrank(StandInClient client, byte[][] args) {
+    SortedSet zset = zset(client, args[1], false);
+    Keyspace.Key member = new Keyspace.Key(args[2]);
+    Double score = zset == null ? null : zset.scores.get(member);
+    if (score == null) {
+      return null;
+    }
+    return (long) zset.ordered.headSet(new Member(member, score)).size();
+  }
+
+  private static Object zrange(StandInClient client, byte[][] args) {
+    boolean withScores = false;
+    for (int i = 4; i < args.length; i++) {
+      if (upper(args[i]).equals("WITHSCORES")) {
+        withScores = true;
+      } else {
+        throw new ErrorReply("ERR only index ranges are supported by the stand-in server");
+      }
+    }
+    SortedSet zset = zset(client, args[1], false);
+    if (zset == null) {
+      return Collections.emptyList();
+    }
+    int[] range = range(parseLong(args[2]), parseLong(args[3]), zset.ordered.size());
+    List<Object> elements = new ArrayList<>();
+    Iterator<Member> it = zset.ordered.iterator();
+    for (int i = 0; i <= range[1]; i++) {
+      Member member = it.next();
+      if (i < range[0]) {
+        continue;
+      }
+      if (!withScores) {
+        elements.add(member.member);
+      } else if (client.getProtocol() == 3) {
+        elements.add(Arrays.asList(member.member, member.score));
+      } else {
+        elements.add(member.member);
+        elements.add(member.score);
+      }
+    }
+    return elements;
+  }
+
+  // pub/sub
+
+  private static Object subscribe(StandInClient client, byte[][] args, boolean pattern) {
+    for (int i = 1; i < args.length; i++) {
+      (pattern ? client.patterns() : client.channels()).add(new Keyspace.Key(args[i]));
+      client.server().subscribe(client, args[i], pattern);
+      client.push(Arrays.asList(pattern ? PSUBSCRIBE : SUBSCRIBE, args[i], subscriptions(client)));
+    }
+    return NO_REPLY;
+  }
+
+  private static Object unsubscribe(StandInClient client, byte[][] args, boolean pattern) {
+    List<byte[]> channels = new ArrayList<>();
+    if (args.length > 1) {
+      channels.addAll(Arrays.asList(args).subList(1, args.length));
+    } else {
+      for (Keyspace.Key channel : pattern ? client.patterns() : client.channels()) {
+        channels.add(channel.bytes);
+      }
+    }
+    byte[] kind = pattern ? PUNSUBSCRIBE : UNSUBSCRIBE;
+    if (channels.isEmpty()) {
+      client.push(Arrays.asList(kind, null, subscriptions(client)));
+    }
+    for (byte[] channel : channels) {
+      (pattern ? client.patterns() : client.channels()).remove(new Keyspace.Key(channel));
+      client.server().unsubscribe(client, channel, pattern);
+      client.push(Arrays.asList(kind, channel, subscriptions(client)));
+    }
+    return NO_REPLY;
+  }
+
+  private static long subscriptions(StandInClient client) {
+    return client.channels().size() + client.patterns().size();
+  }
+
+  // arguments
+
+  private static int[] range(long start, long stop, int size) {
+    if (start < 0) {
+      start = Math.max(start + size, 0);
+    }
+    if (stop < 0) {
+      stop += size;
+    }
+    stop = Math.min(stop, size - 1);
+    if (start > stop) {
+      return new int[] { 0, -1 };
+    }
+    return new int[] { (int) start, (int) stop };
+  }
+
+  private static long parseLong(byte[] arg) {
+    try {
+      return Long.parseLong(new String(arg, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      throw NOT_AN_INTEGER;
+    }
+  }
+
+  private static double parseDouble(byte[] arg) {
+    String value = new String(arg, StandardCharsets.US_ASCII).toLowerCase(Locale.ROOT);
+    switch (value) {
+      case "inf":
+      case "+inf":
+        return Double.POSITIVE_INFINITY;
+      case "-inf":
+        return Double.NEGATIVE_INFINITY;
+      default:
+        try {
+          return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+          throw NOT_A_FLOAT;
+        }
+    }
+  }
+
+  private static byte[] concat(byte[] a, byte[] b) {
+    byte[] c = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, c, a.length, b.length);
+    return c;
+  }
+
+  private static String upper(byte[] arg) {
+    return new String(arg, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+  }
+
+  private static String lower(byte[] arg) {
+    return new String(arg, StandardCharsets.US_ASCII).toLowerCase(Locale.ROOT);
+  }
+
+  private static byte[] bulk(String string) {
+    return SafeEncoder.encode(string);
+  }
+}
@@ -0,0 +1,407 @@
+package io.valkey.mocked.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.valkey.HostAndPort;
+import io.valkey.util.SafeEncoder;
+
+/**
+ * An in-process stand-in for a server, which speaks enough RESP2 and RESP3 to run clients, pipelines
+ * and benchmarks without a real server: strings, hashes, lists, sorted sets, expiry, pub/sub,
+ * HELLO and CLIENT TRACKING invalidations.
+ * <p>
+ * Commands are executed one at a time, as by a real server, while each connection is served by its
+ * own thread. A latency can be configured for all or for single commands; it is spent before a
+ * command is executed and does not block the other connections.
+ * <pre>
+ * try (StandInServer server = new StandInServer().start()) {
+ *   server.setLatency("GET", 100, TimeUnit.MICROSECONDS);
+ *   try (Jedis jedis = new Jedis(server.getHostAndPort())) {
+ *     jedis.set("foo", "bar");
+ *   }
+ * }
+ * </pre>
+ */
+public class StandInServer implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(StandInServer.class);
+
+  static final byte[] INVALIDATE = SafeEncoder.encode("invalidate");
+  static final byte[] INVALIDATE_CHANNEL = SafeEncoder.encode("__redis__:invalidate");
+  static final byte[] MESSAGE = SafeEncoder.encode("message");
+  static final byte[] PMESSAGE = SafeEncoder.encode("pmessage");
+
+  private static final int DATABASES = 16;
+
+  private final ServerSocket serverSocket;
+  private final Object lock;
+  private final Keyspace[] databases;
+  private final Map<String, StandInCommands.Spec> commands = new HashMap<>();
+  private final Set<StandInClient> clients = ConcurrentHashMap.newKeySet();
+  private final AtomicLong nextClientId = new AtomicLong();
+  private final AtomicLong commandCount = new AtomicLong();
+
+  private final Map<String, Long> latencies = new ConcurrentHashMap<>();
+  private volatile long latencyNanos = 0;
+
+  // guarded by lock
+  private final Map<Keyspace.Key, Set<StandInClient>> channels = new HashMap<>();
+  private final Map<Keyspace.Key, Set<StandInClient>> patterns = new HashMap<>();
+  private final Map<Keyspace.Key, Set<StandInClient>> trackedKeys = new HashMap<>();
+
+  private volatile Router router;
+  private Thread acceptor;
+  private volatile boolean closed = false;
+
+  /**
+   * Decides whether a node of a cluster executes a command, e.g. a command for a slot it doesn't
+   * own. Called while holding the lock.
+   */
+  interface Router {
+
+    /**
+     * @return {@code null} to execute the command, or the error to reply with, e.g. MOVED
+     */
+    StandInCommands.ErrorReply route(StandInServer node, StandInClient client,
+        StandInCommands.Spec spec, byte[][] args);
+
+    void executed(StandInServer node, StandInClient client, StandInCommands.Spec spec, byte[][] args);
+  }
+
+  /**
+   * Binds to an ephemeral port of the loopback address.
+   */
+  public StandInServer() throws IOException {
+    this(0);
+  }
+
+  public StandInServer(int port) throws IOException {
+    this(port, new Object(), new Keyspace[DATABASES]);
+    for (int i = 0; i < DATABASES; i++) {
+      databases[i] = new Keyspace();
+    }
+  }
+
+  /**
+   * A server which shares the keys and the lock of another one, as the nodes of a simulated cluster
+   * do.
+   */
+  StandInServer(StandInServer peer) throws IOException {
+    this(0, peer.lock, peer.databases);
+  }
+
+  private StandInServer(int port, Object lock, Keyspace[] databases) throws IOException {
+    this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    this.lock = lock;
+    this.databases = databases;
+    StandInCommands.register(this);
+  }
+
+  public StandInServer start() {
+    acceptor = new Thread(this::accept, "standin-" + serverSocket.getLocalPort() + "-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return this;
+  }
+
+  public HostAndPort getHostAndPort() {
+    return new HostAndPort(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+  }
+
+  /**
+   * Sets the latency of every command, unless it has a latency of its own.
+   */
+  public StandInServer setLatency(long latency, TimeUnit unit) {
+    latencyNanos = unit.toNanos(latency);
+    return this;
+  }
+
+  /**
+   * Sets the latency of a single command, e.g. {@code GET}.
+   */
+  public StandInServer setLatency(String command, long latency, TimeUnit unit) {
+    latencies.put(command.toUpperCase(), unit.toNanos(latency));
+    return this;
+  }
+
+  /**
+   * @return the number of commands which have been executed
+   */
+  public long getCommandCount() {
+    return commandCount.get();
+  }
+
+  public int getClientCount() {
+    return clients.size();
+  }
+
+  /**
+   * Closes the connections of all clients, while the server keeps accepting new ones.
+   */
+  public void killClients() {
+    for (StandInClient client : clients) {
+      client.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // closing anyway
+    }
+    killClients();
+    if (acceptor != null) {
+      try {
+        acceptor.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void accept() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        StandInClient client = new StandInClient(this, nextClientId.incrementAndGet(), socket);
+        clients.add(client);
+        client.start();
+      } catch (SocketException e) {
+        // closed
+      } catch (IOException e) {
+        if (!closed) {
+          logger.warn("Failed to accept a client.", e);
+        }
+      }
+    }
+  }
+
+  void setRouter(Router router) {
+    this.router = router;
+  }
+
+  /**
+   * The lock under which the commands are executed; shared by the nodes of a cluster.
+   */
+  Object lock() {
+    return lock;
+  }
+
+  void register(StandInCommands.Spec spec) {
+    commands.put(spec.name, spec);
+  }
+
+  StandInCommands.Spec lookup(String name) {
+    return commands.get(name);
+  }
+
+  Keyspace database(int index) {
+    return databases[index];
+  }
+
+  int databaseCount() {
+    return DATABASES;
+  }
+
+  StandInClient client(long id) {
+    for (StandInClient client : clients) {
+      if (client.getId() == id) {
+        return client;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Spends the latency of the command. Called by the thread of the client, outside the lock.
+   */
+  void delay(String command) {
+    Long latency = latencies.get(command);
+    long nanos = latency != null ? latency : latencyNanos;
+    if (nanos > 0) {
+      long deadline = System.nanoTime() + nanos;
+      for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+        LockSupport.parkNanos(left);
+      }
+    }
+  }
+
+  /**
+   * Executes a command as the only one at a time, and tracks or invalidates its keys.
+   */
+  Object execute(StandInClient client, StandInCommands.Spec spec, byte[][] args) {
+    synchronized (lock) {
+      return executeLocked(client, spec, args);
+    }
+  }
+
+  private Object executeLocked(StandInClient client, StandInCommands.Spec spec, byte[][] args) {
+    commandCount.incrementAndGet();
+    Router router = this.router;
+    Object reply;
+    try {
+      if (router != null) {
+        StandInCommands.ErrorReply redirection = router.route(this, client, spec, args);
+        if (redirection != null) {
+          return redirection;
+        }
+      }
+      reply = spec.handler.execute(client, args);
+    } catch (StandInCommands.ErrorReply error) {
+      return error;
+    } finally {
+      if (!spec.name.equals("ASKING")) {
+        client.setAsking(false);
+      }
+    }
+    if (reply instanceof StandInCommands.ErrorReply) {
+      return reply;
+    }
+    if (router != null) {
+      router.executed(this, client, spec, args);
+    }
+    if (spec.write) {
+      List<byte[]> keys = spec.keys(args);
+      if (!keys.isEmpty()) {
+        invalidate(keys, client);
+      }
+    } else if (client.isTracking() && !client.isBroadcasting()) {
+      for (byte[] key : spec.keys(args)) {
+        trackedKeys.computeIfAbsent(new Keyspace.Key(key), k -> new HashSet<>()).add(client);
+      }
+    }
+    return reply;
+  }
+
+  void disconnected(StandInClient client) {
+    clients.remove(client);
+    synchronized (lock) {
+      unsubscribeAll(channels, client);
+      unsubscribeAll(patterns, client);
+      unsubscribeAll(trackedKeys, client);
+    }
+  }
+
+  private static void unsubscribeAll(Map<Keyspace.Key, Set<StandInClient>> subscriptions,
+      StandInClient client) {
+    subscriptions.values().removeIf(subscribers -> subscribers.remove(client) && subscribers.isEmpty());
+  }
+
+  // pub/sub, called by the commands while holding the lock
+
+  void subscribe(StandInClient client, byte[] channel, boolean pattern) {
+    (pattern ? patterns : channels).computeIfAbsent(new Keyspace.Key(channel), k -> new HashSet<>())
+        .add(client);
+  }
+
+  void unsubscribe(StandInClient client, byte[] channel, boolean pattern) {
+    Map<Keyspace.Key, Set<StandInClient>> subscriptions = pattern ? patterns : channels;
+    Keyspace.Key key = new Keyspace.Key(channel);
+    Set<StandInClient> subscribers = subscriptions.get(key);
+    if (subscribers != null && subscribers.remove(client) && subscribers.isEmpty()) {
+      subscriptions.remove(key);
+    }
+  }
+
+  long publish(byte[] channel, byte[] message) {
+    long receivers = 0;
+    Set<StandInClient> subscribers = channels.get(new Keyspace.Key(channel));
+    if (subscribers != null) {
+      for (StandInClient subscriber : subscribers) {
+        subscriber.push(Arrays.asList(MESSAGE, channel, message));
+        receivers++;
+      }
+    }
+    for (Map.Entry<Keyspace.Key, Set<StandInClient>> entry : patterns.entrySet()) {
+      byte[] pattern = entry.getKey().bytes;
+      if (Keyspace.matches(pattern, channel)) {
+        for (StandInClient subscriber : entry.getValue()) {
+          subscriber.push(Arrays.asList(PMESSAGE, pattern, channel, message));
+          receivers++;
+        }
+      }
+    }
+    return receivers;
+  }
+
+  // tracking
+
+  /**
+   * Sends invalidation messages for the keys, or for all keys if {@code keys} is {@code null}.
+   */
+  void invalidate(List<byte[]> keys, StandInClient writer) {
+    Map<StandInClient, List<byte[]>> invalidated = new HashMap<>();
+    if (keys == null) {
+      trackedKeys.clear();
+    } else {
+      for (byte[] key : keys) {
+        Set<StandInClient> readers = trackedKeys.remove(new Keyspace.Key(key));
+        if (readers != null) {
+          for (StandInClient reader : readers) {
+            invalidated.computeIfAbsent(reader, c -> new ArrayList<>()).add(key);
+          }
+        }
+      }
+    }
+    for (StandInClient client : clients) {
+      if (!client.isTracking() || (client.isNoLoop() && client == writer)) {
+        continue;
+      }
+      if (keys == null) {
+        sendInvalidation(client, null);
+      } else if (client.isBroadcasting()) {
+        List<byte[]> matching = new ArrayList<>();
+        for (byte[] key : keys) {
+          if (client.isTrackingPrefixOf(key)) {
+            matching.add(key);
+          }
+        }
+        if (!matching.isEmpty()) {
+          sendInvalidation(client, matching);
+        }
+      } else if (invalidated.containsKey(client)) {
+        sendInvalidation(client, invalidated.get(client));
+      }
+    }
+  }
+
+  private void sendInvalidation(StandInClient client, List<byte[]> keys) {
+    StandInClient receiver = client;
+    if (client.getRedirect() != 0) {
+      receiver = client(client.getRedirect());
+      if (receiver == null) {
+        return;
+      }
+    }
+    if (receiver.getProtocol() == 3) {
+      receiver.push(Arrays.asList(INVALIDATE, keys));
+    } else if (receiver.channels().contains(new Keyspace.Key(INVALIDATE_CHANNEL))) {
+      receiver.push(Arrays.asList(MESSAGE, INVALIDATE_CHANNEL,
+          keys == null ? null : Collections.unmodifiableList(keys)));
+    }
+  }
+}
@@ -0,0 +1,350 @@
+package io.valkey.mocked.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.valkey.CommandObjects;
+import io.valkey.DefaultJedisClientConfig;
+import io.valkey.DefaultJedisSocketFactory;
+import io.valkey.Jedis;
+import io.valkey.JedisClientConfig;
+import io.valkey.JedisPubSub;
+import io.valkey.Pipeline;
+import io.valkey.Protocol;
+import io.valkey.RedisProtocol;
+import io.valkey.csc.CacheConfig;
+import io.valkey.csc.CacheConnection;
+import io.valkey.csc.ClientSideCache;
+import io.valkey.exceptions.JedisDataException;
+import io.valkey.params.SetParams;
+import io.valkey.resps.Tuple;
+import io.valkey.util.ByteSlice;
+
+public class StandInServerTest {
+
+  private static final JedisClientConfig RESP3 = DefaultJedisClientConfig.builder()
+      .protocol(RedisProtocol.RESP3).build();
+
+  private StandInServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new StandInServer().start();
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void stringsHashesListsAndSortedSets() {
+    try (Jedis jedis = new Jedis(server.getHostAndPort())) {
+      assertEquals("PONG", jedis.ping());
+      assertEquals("OK", jedis.set("foo", "bar"));
+      assertEquals("bar", jedis.get("foo"));
+      assertNull(jedis.set("foo", "baz", SetParams.setParams().nx()));
+      assertEquals(Arrays.asList("bar", null), jedis.mget("foo", "missing"));
+      assertEquals(3, jedis.incrBy("counter", 3));
+      assertEquals(1, jedis.del("foo"));
+
+      assertEquals(2, jedis.hset("hash", map("a", "1", "b", "2")));
+      assertEquals("1", jedis.hget("hash", "a"));
+      assertEquals(map("a", "1", "b", "2"), jedis.hgetAll("hash"));
+
+      assertEquals(3, jedis.rpush("list", "a", "b", "c"));
+      assertEquals(Arrays.asList("b", "c"), jedis.lrange("list", 1, -1));
+      assertEquals("a", jedis.lpop("list"));
+
+      assertEquals(2, jedis.zadd("zset", map("x", 2.0, "y", 1.0)));
+      assertEquals(Arrays.asList("y", "x"), jedis.zrange("zset", 0, -1));
+      assertEquals(Double.valueOf(2.0), jedis.zscore("zset", "x"));
+      assertEquals(Arrays.asList(new Tuple("y", 1.0), new Tuple("x", 2.0)),
+          jedis.zrangeWithScores("zset", 0, -1));
+
+      try {
+        jedis.hget("list", "a");
+        fail();
+      } catch (JedisDataException e) {
+        assertTrue(e.getMessage().startsWith("WRONGTYPE"));
+      }
+    }
+  }
+
+  @Test
+  public void resp3() {
+    try (Jedis jedis = new Jedis(server.getHostAndPort(), RESP3)) {
+      jedis.hset("hash", map("a", "1", "b", "2"));
+      assertEquals(map("a", "1", "b", "2"), jedis.hgetAll("hash"));
+
+      jedis.zadd("zset", map("x", 2.5, "y", 1.0));
+      assertEquals(Double.valueOf(2.5), jedis.zscore("zset", "x"));
+      assertEquals(Arrays.asList(new Tuple("y", 1.0), new Tuple("x", 2.5)),
+          jedis.zrangeWithScores("zset", 0, -1));
+      assertNull(jedis.get("missing"));
+    }
+  }
+
+  @Test
+  public void expiry() throws InterruptedException {
+    try (Jedis jedis = new Jedis(server.getHostAndPort())) {
+      jedis.set("foo", "bar", SetParams.setParams().px(50));
+      assertTrue(jedis.pttl("foo") > 0);
+      Thread.sleep(100);
+      assertNull(jedis.get("foo"));
+      assertEquals(-2, jedis.ttl("foo"));
+    }
+  }
+
+  @Test
+  public void pipelining() {
+    try (Jedis jedis = new Jedis(server.getHostAndPort())) {
+      Pipeline pipeline = jedis.pipelined();
+      for (int i = 0; i < 1000; i++) {
+        pipeline.set("key:" + i, "value:" + i);
+        pipeline.get("key:" + i);
+      }
+      List<Object> replies = pipeline.syncAndReturnAll();
+      assertEquals(2000, replies.size());
+      assertEquals("value:999", replies.get(1999));
+      assertEquals(1000, jedis.dbSize());
+    }
+  }
+
+  @Test
+  public void databasesAreSeparate() {
+    try (Jedis jedis = new Jedis(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().database(2).build())) {
+      jedis.set("foo", "bar");
+      jedis.select(0);
+      assertFalse(jedis.exists("foo"));
+    }
+  }
+
+  @Test
+  public void pubSub() throws InterruptedException {
+    pubSub(DefaultJedisClientConfig.builder().build());
+    pubSub(RESP3);
+  }
+
+  private void pubSub(JedisClientConfig config) throws InterruptedException {
+    CountDownLatch subscribed = new CountDownLatch(1);
+    CountDownLatch psubscribed = new CountDownLatch(1);
+    CountDownLatch received = new CountDownLatch(2);
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onSubscribe(String channel, int subscribedChannels) {
+        subscribed.countDown();
+      }
+
+      @Override
+      public void onPSubscribe(String pattern, int subscribedChannels) {
+        psubscribed.countDown();
+      }
+
+      @Override
+      public void onMessage(String channel, String message) {
+        received.countDown();
+      }
+
+      @Override
+      public void onPMessage(String pattern, String channel, String message) {
+        received.countDown();
+      }
+    };
+
+    Thread subscriber = new Thread(() -> {
+      try (Jedis jedis = new Jedis(server.getHostAndPort(), config)) {
+        jedis.subscribe(pubSub, "news");
+      }
+    });
+    subscriber.start();
+    assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+    pubSub.psubscribe("n?w*");
+    assertTrue(psubscribed.await(5, TimeUnit.SECONDS));
+
+    try (Jedis jedis = new Jedis(server.getHostAndPort(), config)) {
+      assertEquals(2, jedis.publish("news", "hello"));
+    }
+    assertTrue(received.await(5, TimeUnit.SECONDS));
+
+    pubSub.unsubscribe();
+    pubSub.punsubscribe();
+    subscriber.join(5000);
+    assertFalse(subscriber.isAlive());
+  }
+
+  @Test
+  public void trackingInvalidatesCachedReplies() {
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().build());
+    CommandObjects commandObjects = new CommandObjects();
+    try (CacheConnection connection = new CacheConnection(
+        new DefaultJedisSocketFactory(server.getHostAndPort()), RESP3, cache);
+        Jedis writer = new Jedis(server.getHostAndPort())) {
+      writer.set("foo", "1");
+
+      assertEquals("1", connection.executeCommand(commandObjects.get("foo")));
+      assertEquals("1", connection.executeCommand(commandObjects.get("foo")));
+      assertEquals(1, cache.getStats().getHits());
+
+      writer.set("foo", "2");
+      long deadline = System.currentTimeMillis() + 5000;
+      String value = connection.executeCommand(commandObjects.get("foo"));
+      while (!"2".equals(value) && System.currentTimeMillis() < deadline) {
+        value = connection.executeCommand(commandObjects.get("foo"));
+      }
+      assertEquals("2", value);
+      assertTrue(cache.getStats().getInvalidations() >= 1);
+    }
+  }
+
+  @Test
+  public void replyOfIdleConnectionIsInvalidated() throws InterruptedException {
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().build());
+    CommandObjects commandObjects = new CommandObjects();
+    try (CacheConnection owner = new CacheConnection(
+        new DefaultJedisSocketFactory(server.getHostAndPort()), RESP3, cache);
+        CacheConnection other = new CacheConnection(
+            new DefaultJedisSocketFactory(server.getHostAndPort()), RESP3, cache);
+        Jedis writer = new Jedis(server.getHostAndPort())) {
+      writer.set("foo", "1");
+      assertEquals("1", owner.executeCommand(commandObjects.get("foo")));
+
+      // the owner stays idle, the other connection must not be served the old reply
+      writer.set("foo", "2");
+      long deadline = System.currentTimeMillis() + 5000;
+      while (cache.size() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(0, cache.size());
+      assertEquals("2", other.executeCommand(commandObjects.get("foo")));
+    }
+  }
+
+  @Test
+  public void cachedCommandsAreReportedToListener() {
+    List<Long> getBytesRead = new CopyOnWriteArrayList<>();
+    JedisClientConfig config = DefaultJedisClientConfig.builder().protocol(RedisProtocol.RESP3)
+        .commandListener((command, node, bytesWritten, bytesRead, durationNanos, failure) -> {
+          if (command == Protocol.Command.GET) {
+            getBytesRead.add(bytesRead);
+          }
+        }).build();
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().build());
+    CommandObjects commandObjects = new CommandObjects();
+    try (CacheConnection connection = new CacheConnection(
+        new DefaultJedisSocketFactory(server.getHostAndPort()), config, cache);
+        Jedis writer = new Jedis(server.getHostAndPort())) {
+      writer.set("foo", "1");
+
+      assertEquals("1", connection.executeCommand(commandObjects.get("foo")));
+      assertEquals("1", connection.executeCommand(commandObjects.get("foo")));
+      assertEquals(1, cache.getStats().getHits());
+
+      // the miss is read from the server, the hit from the cache
+      assertEquals(2, getBytesRead.size());
+      assertTrue(getBytesRead.get(0) > 0);
+      assertEquals(Long.valueOf(0), getBytesRead.get(1));
+    }
+  }
+
+  @Test
+  public void streamedRepliesAreNotCached() {
+    ClientSideCache cache = new ClientSideCache(CacheConfig.builder().build());
+    CommandObjects commandObjects = new CommandObjects();
+    byte[] value = new byte[100_000];
+    Arrays.fill(value, (byte) 'x');
+    try (CacheConnection connection = new CacheConnection(
+        new DefaultJedisSocketFactory(server.getHostAndPort()), RESP3, cache);
+        Jedis writer = new Jedis(server.getHostAndPort())) {
+      writer.set(bytes("big"), value);
+
+      ByteArrayOutputStream target = new ByteArrayOutputStream();
+      assertEquals(Long.valueOf(value.length), connection.executeCommand(
+          commandObjects.get(bytes("big"), Channels.newChannel(target))));
+      assertArrayEquals(value, target.toByteArray());
+
+      ByteBuffer dst = ByteBuffer.allocate(value.length);
+      assertEquals(Long.valueOf(value.length), connection.executeCommand(commandObjects.getInto(bytes("big"), dst)));
+      ByteSlice slice = connection.executeCommand(commandObjects.getSlice(bytes("big")));
+      assertEquals(value.length, slice.length());
+      slice.release();
+
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.getStats().getMisses());
+
+      // the connection still caches other replies
+      assertArrayEquals(value, connection.executeCommand(commandObjects.get(bytes("big"))));
+      assertEquals(1, cache.size());
+    }
+  }
+
+  @Test
+  public void latencyOfCommands() {
+    server.setLatency("GET", 50, TimeUnit.MILLISECONDS);
+    try (Jedis jedis = new Jedis(server.getHostAndPort())) {
+      long start = System.nanoTime();
+      jedis.set("foo", "bar");
+      long set = System.nanoTime() - start;
+      jedis.get("foo");
+      long get = System.nanoTime() - start - set;
+
+      assertTrue(set < TimeUnit.MILLISECONDS.toNanos(50));
+      assertTrue(get >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+  }
+
+  @Test
+  public void globPatterns() {
+    assertTrue(Keyspace.matches(bytes("*"), bytes("")));
+    assertTrue(Keyspace.matches(bytes("h?llo"), bytes("hello")));
+    assertTrue(Keyspace.matches(bytes("h[a-e]llo"), bytes("hello")));
+    assertFalse(Keyspace.matches(bytes("h[^e]llo"), bytes("hello")));
+    assertTrue(Keyspace.matches(bytes("user:*:name"), bytes("user:1000:name")));
+    assertTrue(Keyspace.matches(bytes("a\\*b"), bytes("a*b")));
+    assertFalse(Keyspace.matches(bytes("a\\*b"), bytes("axb")));
+  }
+
+  @Test
+  public void keysOfCommands() {
+    byte[][] mset = { bytes("MSET"), bytes("a"), bytes("1"), bytes("b"), bytes("2") };
+    List<byte[]> keys = server.lookup("MSET").keys(mset);
+    assertEquals(2, keys.size());
+    assertArrayEquals(bytes("a"), keys.get(0));
+    assertArrayEquals(bytes("b"), keys.get(1));
+    assertEquals(Collections.emptyList(), server.lookup("PING").keys(new byte[][] { bytes("PING") }));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> Map<String, V> map(Object... keysAndValues) {
+    Map<String, V> map = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      map.put((String) keysAndValues[i], (V) keysAndValues[i + 1]);
+    }
+    return map;
+  }
+
+  private static byte[] bytes(String string) {
+    return string.getBytes();
+  }
+}
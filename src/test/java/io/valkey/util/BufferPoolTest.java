@@ -0,0 +1,141 @@
+package io.valkey.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class BufferPoolTest {
+
+  private final BufferPool pool = new BufferPool(64, 1024, 2);
+
+  private static RedisInputStream stream(String content) {
+    return new RedisInputStream(new ByteArrayInputStream(content.getBytes()));
+  }
+
+  @Test
+  public void smallSlicesShareChunk() {
+    RedisInputStream is = stream("abcdef");
+    ByteSlice first = pool.read(is, 3);
+    ByteSlice second = pool.read(is, 3);
+
+    assertSame(first.array(), second.array());
+    assertEquals("abc", first.toString(SafeEncoder.DEFAULT_CHARSET));
+    assertEquals("def", second.toString(SafeEncoder.DEFAULT_CHARSET));
+    ByteBuffer buffer = second.asByteBuffer();
+    assertTrue(buffer.isReadOnly());
+    assertEquals('d', buffer.get(0));
+  }
+
+  @Test
+  public void chunkIsReusedAfterAllSlicesAreReleased() {
+    // slices of up to 4 bytes are carved out of chunks of 64 bytes
+    ByteSlice[] slices = new ByteSlice[16];
+    for (int i = 0; i < slices.length; i++) {
+      slices[i] = pool.read(stream("abcd"), 4);
+    }
+    byte[] chunk = slices[0].array();
+    assertSame(chunk, slices[15].array());
+
+    ByteSlice next = pool.read(stream("wxyz"), 4); // the chunk is full, a new one is taken
+    assertNotSame(chunk, next.array());
+
+    for (ByteSlice slice : slices) {
+      slice.release();
+    }
+    for (int i = 0; i < 15; i++) {
+      pool.read(stream("abcd"), 4).release();
+    }
+
+    assertSame(chunk, pool.read(stream("abcd"), 4).array());
+  }
+
+  @Test
+  public void largeSlicesArePooledBySizeClass() {
+    ByteSlice large = pool.read(stream(new String(new char[100]).replace('\0', 'x')), 100);
+    byte[] buffer = large.array();
+    assertEquals(128, buffer.length);
+    large.close();
+
+    ByteSlice again = pool.read(stream(new String(new char[120]).replace('\0', 'y')), 120);
+    assertSame(buffer, again.array());
+    assertEquals(120, again.length());
+    assertEquals('y', again.byteAt(119));
+  }
+
+  @Test
+  public void retainAndRelease() {
+    ByteSlice slice = pool.read(stream("42"), 2);
+    slice.retain();
+    slice.release();
+    assertEquals(42, slice.parseLong());
+    slice.release();
+
+    try {
+      slice.toByteArray();
+      fail("Released slice should not be accessible.");
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      slice.release();
+      fail("Slice should not be released twice.");
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void parseAndCompare() {
+    assertEquals(-123, ByteSlice.wrap("-123".getBytes()).parseLong());
+    assertEquals(Long.MAX_VALUE, ByteSlice.wrap(String.valueOf(Long.MAX_VALUE).getBytes()).parseLong());
+    assertEquals(Long.MIN_VALUE, ByteSlice.wrap(String.valueOf(Long.MIN_VALUE).getBytes()).parseLong());
+    assertEquals(1.5, ByteSlice.wrap("1.5".getBytes()).parseDouble(), 0);
+    try {
+      ByteSlice.wrap("12a".getBytes()).parseLong();
+      fail("Invalid number should not be parsed.");
+    } catch (NumberFormatException expected) {
+    }
+
+    ByteSlice slice = ByteSlice.wrap("value".getBytes());
+    assertTrue(slice.contentEquals("value".getBytes()));
+    assertFalse(slice.contentEquals("other".getBytes()));
+    assertEquals(ByteSlice.wrap("value".getBytes()), slice);
+    assertEquals(ByteSlice.wrap("value".getBytes()).hashCode(), slice.hashCode());
+    assertArrayEquals("value".getBytes(), slice.toByteArray());
+  }
+
+  @Test
+  public void takenArraysAreReused() {
+    byte[] buffer = pool.take(100);
+    assertEquals(128, buffer.length);
+    pool.give(buffer);
+    assertSame(buffer, pool.take(65));
+
+    byte[] large = pool.take(2048);
+    assertEquals(2048, large.length);
+    pool.give(large);
+    assertNotSame(large, pool.take(2048));
+  }
+
+  @Test
+  public void pooledBytesAreBounded() {
+    BufferPool bounded = new BufferPool(64, 1024, 2, 512);
+    byte[] first = bounded.take(256);
+    byte[] second = bounded.take(256);
+    byte[] third = bounded.take(256);
+    bounded.give(first);
+    bounded.give(second);
+    bounded.give(third); // over the bound, dropped
+    assertEquals(512, bounded.getPooledBytes());
+
+    bounded.take(256);
+    assertEquals(256, bounded.getPooledBytes());
+  }
+}
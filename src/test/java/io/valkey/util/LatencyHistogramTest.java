@@ -0,0 +1,43 @@
+package io.valkey.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void bucketsCoverAllValues() {
+    long previous = -1;
+    for (int index = 0; index < 60 * 16; index++) {
+      long highest = LatencyHistogram.highestValue(index);
+      assertEquals(index, LatencyHistogram.index(highest));
+      assertEquals(index, LatencyHistogram.index(previous + 1));
+      previous = highest;
+    }
+    assertEquals(Long.MAX_VALUE, previous);
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getP99());
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_500, histogram.getMean(), 0.1);
+    assertWithin(500_000, histogram.getP50());
+    assertWithin(990_000, histogram.getP99());
+    assertWithin(999_000, histogram.getP999());
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(actual + " is not close to " + expected,
+        actual >= expected && actual <= expected + expected / 16);
+  }
+}
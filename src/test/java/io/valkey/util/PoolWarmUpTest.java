@@ -0,0 +1,109 @@
+package io.valkey.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Test;
+
+import io.valkey.Connection;
+import io.valkey.ConnectionPool;
+import io.valkey.ConnectionPoolConfig;
+
+public class PoolWarmUpTest {
+
+  private static class SlowFactory<T> extends BasePooledObjectFactory<T> {
+
+    private final AtomicInteger creating = new AtomicInteger();
+    private final AtomicInteger maxCreating = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final Class<T> type;
+    private volatile boolean failing = false;
+
+    SlowFactory(Class<T> type) {
+      this.type = type;
+    }
+
+    @Override
+    public T create() throws Exception {
+      if (failing) {
+        throw new IllegalStateException("unreachable");
+      }
+      maxCreating.accumulateAndGet(creating.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(20);
+        created.incrementAndGet();
+        return mock(type);
+      } finally {
+        creating.decrementAndGet();
+      }
+    }
+
+    @Override
+    public PooledObject<T> wrap(T obj) {
+      return new DefaultPooledObject<>(obj);
+    }
+  }
+
+  @Test
+  public void warmUpIsParallelAndCapped() {
+    SlowFactory<Object> factory = new SlowFactory<>(Object.class);
+    try (Pool<Object> pool = new Pool<>(factory)) {
+      assertEquals(6, (int) pool.warmUp(6, 2).join());
+      assertEquals(6, pool.getNumIdle());
+      assertEquals(2, factory.maxCreating.get());
+    }
+  }
+
+  @Test
+  public void warmUpStopsAtMaxTotal() {
+    GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(3);
+    try (Pool<Object> pool = new Pool<>(new SlowFactory<>(Object.class), config)) {
+      assertEquals(3, (int) pool.warmUp(10, 4).join());
+      assertEquals(3, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void warmUpStopsAtFailure() {
+    SlowFactory<Object> factory = new SlowFactory<>(Object.class);
+    factory.failing = true;
+    try (Pool<Object> pool = new Pool<>(factory)) {
+      assertEquals(0, (int) pool.warmUp(5, 2).join());
+      assertEquals(0, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void connectionPoolWarmsUpToMinIdle() {
+    ConnectionPoolConfig config = new ConnectionPoolConfig();
+    config.setMinIdle(3);
+    config.setWarmUpParallelism(3);
+    SlowFactory<Connection> factory = new SlowFactory<>(Connection.class);
+    try (ConnectionPool pool = new ConnectionPool(factory, config)) {
+      assertEquals(3, (int) pool.warmUp().join());
+      assertEquals(0, (int) pool.warmUp().join());
+      assertTrue(factory.maxCreating.get() <= 3);
+    }
+  }
+
+  @Test
+  public void warmUpOnCreateCanBeDisabled() throws InterruptedException {
+    ConnectionPoolConfig config = new ConnectionPoolConfig();
+    config.setMinIdle(2);
+    config.setWarmUpOnCreate(false);
+    SlowFactory<Connection> factory = new SlowFactory<>(Connection.class);
+    try (ConnectionPool pool = new ConnectionPool(factory, config)) {
+      pool.warmUpOnCreate();
+      Thread.sleep(100);
+      assertEquals(0, factory.created.get());
+    }
+  }
+}
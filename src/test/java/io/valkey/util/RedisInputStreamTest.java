@@ -0,0 +1,85 @@
+package io.valkey.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class RedisInputStreamTest {
+
+  @Test
+  public void bufferIsTakenOnFirstRead() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(":1\r\n".getBytes()), 16);
+    assertEquals(0, is.buf.length);
+
+    assertEquals(':', is.readByte());
+    assertEquals(1, is.readLongCrLf());
+    assertEquals(16, is.buf.length);
+  }
+
+  @Test
+  public void bufferGrowsForLargeRepliesAndShrinksBack() {
+    byte[] large = new byte[64];
+    Arrays.fill(large, (byte) 'x');
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      content.append("ab");
+    }
+    byte[] small = content.toString().getBytes();
+    byte[] stream = new byte[large.length + small.length];
+    System.arraycopy(large, 0, stream, 0, large.length);
+    System.arraycopy(small, 0, stream, large.length, small.length);
+
+    // the large reply arrives at once, the small ones one by one
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(stream) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, pos < large.length ? len : Math.min(len, 2));
+      }
+    }, 16);
+    is.skipBytes(large.length);
+    is.adaptBuffer();
+    assertEquals(32, is.buf.length);
+
+    // a window of replies which use little of the buffer
+    for (int i = 0; i < 200; i++) {
+      is.skipBytes(2);
+      is.adaptBuffer();
+    }
+    assertEquals(16, is.buf.length);
+  }
+
+  @Test
+  public void bufferIsOnlyReleasedWhenEmpty() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream("abcd".getBytes()), 16);
+    is.skipBytes(2);
+    assertFalse(is.releaseBuffer());
+    assertEquals(16, is.buf.length);
+
+    is.skipBytes(2);
+    assertTrue(is.releaseBuffer());
+    assertEquals(0, is.buf.length);
+  }
+
+  @Test
+  public void outputBufferIsReleasedAndTakenAgain() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RedisOutputStream os = new RedisOutputStream(out, 16);
+    os.write("abc".getBytes());
+    assertFalse(os.releaseBuffer());
+    os.flush();
+    assertTrue(os.releaseBuffer());
+    assertEquals(0, os.buf.length);
+
+    os.write((byte) 'd');
+    os.writeCrLf();
+    os.flush();
+    assertEquals("abcd\r\n", out.toString());
+  }
+}